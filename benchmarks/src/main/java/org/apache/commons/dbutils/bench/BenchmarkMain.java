@@ -0,0 +1,82 @@
+package org.apache.commons.dbutils.bench;
+
+import java.util.Collection;
+import java.util.Map;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.ProfilerConfig;
+
+/**
+ * Entry point of the benchmark jar. Takes the usual JMH command line, always enables the GC
+ * profiler, and after the run prints the bytes allocated per row: the normalized allocation rate
+ * of each benchmark divided by its <code>rows</code> parameter, since every benchmark operation
+ * processes that many rows.
+ *
+ * <pre>
+ * java -jar target/benchmarks.jar                       # everything
+ * java -jar target/benchmarks.jar HandlerBenchmark -p rows=1000
+ * </pre>
+ */
+public class BenchmarkMain {
+
+    /**
+     * The normalized allocation rate reported by the GC profiler. JMH versions before 1.36 prefix
+     * secondary results with a middle dot.
+     */
+    private static final String[] ALLOC_RATE_NORM = { "gc.alloc.rate.norm", "·gc.alloc.rate.norm" };
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cmd = new CommandLineOptions(args);
+        OptionsBuilder options = new OptionsBuilder();
+        options.parent(cmd);
+        if (!hasGcProfiler(cmd)) {
+            options.addProfiler(GCProfiler.class);
+        }
+        Collection<RunResult> results = new Runner(options.build()).run();
+        printBytesPerRow(results);
+    }
+
+    private static boolean hasGcProfiler(CommandLineOptions cmd) {
+        for (ProfilerConfig profiler : cmd.getProfilers()) {
+            if (profiler.getKlass().equals(GCProfiler.class.getName()) || profiler.getKlass().equals("gc")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void printBytesPerRow(Collection<RunResult> results) {
+        System.out.println();
+        System.out.println("Bytes allocated per row:");
+        for (RunResult result : results) {
+            BenchmarkParams params = result.getParams();
+            String rows = params.getParam("rows");
+            Result<?> alloc = allocRateNorm(result.getSecondaryResults());
+            if (rows == null || alloc == null) {
+                continue;
+            }
+            StringBuilder name = new StringBuilder(params.getBenchmark());
+            for (String key : params.getParamsKeys()) {
+                name.append(' ').append(key).append('=').append(params.getParam(key));
+            }
+            System.out.println(String.format("  %-110s %12.1f", name, alloc.getScore() / Integer.parseInt(rows)));
+        }
+    }
+
+    private static Result<?> allocRateNorm(Map<String, Result> secondary) {
+        for (String key : ALLOC_RATE_NORM) {
+            Result<?> result = secondary.get(key);
+            if (result != null) {
+                return result;
+            }
+        }
+        return null;
+    }
+
+}
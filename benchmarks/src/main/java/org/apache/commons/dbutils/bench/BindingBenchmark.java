@@ -0,0 +1,87 @@
+package org.apache.commons.dbutils.bench;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.dbutils.QueryRunner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of parameter binding through <code>AbstractQueryRunner.fillStatement</code>, which
+ * reads <code>ParameterMetaData</code> and resolves a <code>ParameterBinder</code> per parameter on
+ * every call, and <code>bindParameters</code>, which does both once per SQL. Every operation binds one row of parameters <code>rows</code> times, as a batch
+ * insert would, with and without consulting <code>ParameterMetaData</code>.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BindingBenchmark {
+
+    @Param({ Shapes.NARROW, Shapes.WIDE })
+    public String shape;
+
+    @Param({ "1", "1000", "100000" })
+    public int rows;
+
+    @Param({ "false", "true" })
+    public boolean pmdKnownBroken;
+
+    private static final String SQL = "INSERT INTO t VALUES (?)";
+
+    private BindingRunner runner;
+
+    private RecordingPreparedStatement stmt;
+
+    private Object[] params;
+
+    @Setup
+    public void setUp() {
+        runner = new BindingRunner(pmdKnownBroken);
+        params = Shapes.parameters(shape);
+        stmt = new RecordingPreparedStatement(params.length);
+    }
+
+    @Benchmark
+    public Object fillStatement() throws SQLException {
+        for (int i = 0; i < rows; i++) {
+            runner.fillStatement(stmt, params);
+        }
+        return stmt.getParameter(1);
+    }
+
+    @Benchmark
+    public Object bindParameters() throws SQLException {
+        for (int i = 0; i < rows; i++) {
+            runner.bind(stmt, params);
+        }
+        return stmt.getParameter(1);
+    }
+
+    /**
+     * Exposes the binding <code>QueryRunner</code> methods use
+     */
+    private static final class BindingRunner extends QueryRunner {
+
+        BindingRunner(boolean pmdKnownBroken) {
+            super(pmdKnownBroken);
+        }
+
+        void bind(RecordingPreparedStatement stmt, Object[] params) throws SQLException {
+            this.bindParameters(stmt, SQL, params);
+        }
+    }
+
+}
@@ -0,0 +1,136 @@
+package org.apache.commons.dbutils.bench;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.dbutils.RowCallback;
+import org.apache.commons.dbutils.RowView;
+import org.apache.commons.dbutils.handlers.ArrayList;
+import org.apache.commons.dbutils.handlers.BeanListHandler;
+import org.apache.commons.dbutils.handlers.BeanMapHandler;
+import org.apache.commons.dbutils.handlers.BeanRowHandler;
+import org.apache.commons.dbutils.handlers.ColumnListHandler;
+import org.apache.commons.dbutils.handlers.KeyedHandler;
+import org.apache.commons.dbutils.handlers.MapListHandler;
+import org.apache.commons.dbutils.handlers.RowCallbackHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks of the list and keyed <code>ResultSetHandler</code>s, plus the row-at-a-time
+ * handlers used by <code>QueryRunner.iterate</code> and <code>QueryRunner.scan</code>. Every
+ * operation handles all <code>rows</code> rows of the result set.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HandlerBenchmark {
+
+    @Param({ Shapes.NARROW, Shapes.WIDE })
+    public String shape;
+
+    @Param({ "1", "1000", "100000" })
+    public int rows;
+
+    private InMemoryResultSet rs;
+
+    private BeanListHandler<Object> beanListHandler;
+
+    private BeanMapHandler<Object, Object> beanMapHandler;
+
+    private BeanRowHandler<Object> beanRowHandler;
+
+    private final MapListHandler mapListHandler = new MapListHandler();
+
+    private final ArrayList arrayListHandler = new ArrayList();
+
+    private final ColumnListHandler<Object> columnListHandler = new ColumnListHandler<Object>("name");
+
+    private final KeyedHandler<Object> keyedHandler = new KeyedHandler<Object>("id");
+
+    private final SumCallback sum = new SumCallback();
+
+    private final RowCallbackHandler rowCallbackHandler = new RowCallbackHandler(sum);
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        rs = Shapes.resultSet(shape, rows);
+        Class<Object> type = (Class<Object>) Shapes.beanType(shape);
+        beanListHandler = new BeanListHandler<Object>(type);
+        beanMapHandler = new BeanMapHandler<Object, Object>(type);
+        beanRowHandler = new BeanRowHandler<Object>(type);
+    }
+
+    @Benchmark
+    public Object beanListHandler() throws SQLException {
+        return beanListHandler.handle(rs.reset());
+    }
+
+    @Benchmark
+    public Object beanMapHandler() throws SQLException {
+        return beanMapHandler.handle(rs.reset());
+    }
+
+    @Benchmark
+    public Object mapListHandler() throws SQLException {
+        return mapListHandler.handle(rs.reset());
+    }
+
+    @Benchmark
+    public Object arrayListHandler() throws SQLException {
+        return arrayListHandler.handle(rs.reset());
+    }
+
+    @Benchmark
+    public Object columnListHandler() throws SQLException {
+        return columnListHandler.handle(rs.reset());
+    }
+
+    @Benchmark
+    public Object keyedHandler() throws SQLException {
+        return keyedHandler.handle(rs.reset());
+    }
+
+    @Benchmark
+    public void beanRowHandler(Blackhole bh) throws SQLException {
+        rs.reset();
+        while (rs.next()) {
+            bh.consume(beanRowHandler.handle(rs));
+        }
+    }
+
+    @Benchmark
+    public long rowCallbackHandler() throws SQLException {
+        sum.total = 0;
+        rowCallbackHandler.handle(rs.reset());
+        return sum.total;
+    }
+
+    /**
+     * Folds the <code>id</code> column into a counter, the aggregation <code>scan</code> is made
+     * for
+     */
+    private static final class SumCallback implements RowCallback {
+
+        long total;
+
+        public void handle(RowView row) throws SQLException {
+            total += row.getLong(1);
+        }
+    }
+
+}
@@ -0,0 +1,999 @@
+package org.apache.commons.dbutils.bench;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Date;
+import java.sql.NClob;
+import java.sql.Ref;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.RowId;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLWarning;
+import java.sql.SQLXML;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Calendar;
+import java.util.Map;
+
+/**
+ * A forward-only <code>ResultSet</code> over rows held in memory, so the benchmarks measure the
+ * mapping code and not a driver. The getters convert like a lenient driver does: numbers are
+ * narrowed or widened, SQL NULL reads as 0, false or <code>null</code>. {@link #reset()} rewinds
+ * the cursor without allocating, so one instance serves every benchmark invocation. Features the
+ * mapping code doesn't use throw <code>SQLFeatureNotSupportedException</code>.
+ */
+public class InMemoryResultSet implements ResultSet {
+
+    private final String[] labels;
+
+    private final int[] types;
+
+    private final Object[][] rows;
+
+    private final ResultSetMetaData metaData;
+
+    /**
+     * The 0-based index of the current row, -1 before the first row
+     */
+    private int row = -1;
+
+    private boolean wasNull;
+
+    private boolean closed;
+
+    /**
+     * Constructor for InMemoryResultSet
+     *
+     * @param labels The column labels
+     * @param types The <code>java.sql.Types</code> of the columns
+     * @param rows The rows, each holding one value per column
+     */
+    public InMemoryResultSet(String[] labels, int[] types, Object[][] rows) {
+        this.labels = labels;
+        this.types = types;
+        this.rows = rows;
+        this.metaData = new MetaData();
+    }
+
+    /**
+     * Move the cursor before the first row and reopen the result set
+     *
+     * @return This result set
+     */
+    public InMemoryResultSet reset() {
+        row = -1;
+        wasNull = false;
+        closed = false;
+        return this;
+    }
+
+    /**
+     * Get the number of rows
+     *
+     * @return The row count
+     */
+    public int size() {
+        return rows.length;
+    }
+
+    private Object value(int columnIndex) throws SQLException {
+        if (row < 0 || row >= rows.length) {
+            throw new SQLException("Not on a row");
+        }
+        Object value = rows[row][columnIndex - 1];
+        wasNull = value == null;
+        return value;
+    }
+
+    private Number number(int columnIndex) throws SQLException {
+        Object value = value(columnIndex);
+        if (value instanceof Boolean) {
+            return ((Boolean) value).booleanValue() ? 1 : 0;
+        }
+        return (Number) value;
+    }
+
+    private static SQLException unsupported(String name) {
+        return new SQLFeatureNotSupportedException(name);
+    }
+
+    public boolean next() throws SQLException {
+        if (row < rows.length) {
+            row++;
+        }
+        return row < rows.length;
+    }
+
+    public void close() throws SQLException {
+        closed = true;
+    }
+
+    public boolean isClosed() throws SQLException {
+        return closed;
+    }
+
+    public boolean wasNull() throws SQLException {
+        return wasNull;
+    }
+
+    public ResultSetMetaData getMetaData() throws SQLException {
+        return metaData;
+    }
+
+    public int findColumn(String columnLabel) throws SQLException {
+        for (int i = 0; i < labels.length; i++) {
+            if (labels[i].equalsIgnoreCase(columnLabel)) {
+                return i + 1;
+            }
+        }
+        throw new SQLException("No such column: " + columnLabel);
+    }
+
+    public Object getObject(int columnIndex) throws SQLException {
+        return value(columnIndex);
+    }
+
+    public Object getObject(String columnLabel) throws SQLException {
+        return getObject(findColumn(columnLabel));
+    }
+
+    public String getString(int columnIndex) throws SQLException {
+        Object value = value(columnIndex);
+        return value == null ? null : value.toString();
+    }
+
+    public String getString(String columnLabel) throws SQLException {
+        return getString(findColumn(columnLabel));
+    }
+
+    public boolean getBoolean(int columnIndex) throws SQLException {
+        Object value = value(columnIndex);
+        if (value instanceof Number) {
+            return ((Number) value).intValue() != 0;
+        }
+        return value != null && ((Boolean) value).booleanValue();
+    }
+
+    public boolean getBoolean(String columnLabel) throws SQLException {
+        return getBoolean(findColumn(columnLabel));
+    }
+
+    public byte getByte(int columnIndex) throws SQLException {
+        Number value = number(columnIndex);
+        return value == null ? 0 : value.byteValue();
+    }
+
+    public byte getByte(String columnLabel) throws SQLException {
+        return getByte(findColumn(columnLabel));
+    }
+
+    public short getShort(int columnIndex) throws SQLException {
+        Number value = number(columnIndex);
+        return value == null ? 0 : value.shortValue();
+    }
+
+    public short getShort(String columnLabel) throws SQLException {
+        return getShort(findColumn(columnLabel));
+    }
+
+    public int getInt(int columnIndex) throws SQLException {
+        Number value = number(columnIndex);
+        return value == null ? 0 : value.intValue();
+    }
+
+    public int getInt(String columnLabel) throws SQLException {
+        return getInt(findColumn(columnLabel));
+    }
+
+    public long getLong(int columnIndex) throws SQLException {
+        Number value = number(columnIndex);
+        return value == null ? 0 : value.longValue();
+    }
+
+    public long getLong(String columnLabel) throws SQLException {
+        return getLong(findColumn(columnLabel));
+    }
+
+    public float getFloat(int columnIndex) throws SQLException {
+        Number value = number(columnIndex);
+        return value == null ? 0 : value.floatValue();
+    }
+
+    public float getFloat(String columnLabel) throws SQLException {
+        return getFloat(findColumn(columnLabel));
+    }
+
+    public double getDouble(int columnIndex) throws SQLException {
+        Number value = number(columnIndex);
+        return value == null ? 0 : value.doubleValue();
+    }
+
+    public double getDouble(String columnLabel) throws SQLException {
+        return getDouble(findColumn(columnLabel));
+    }
+
+    public BigDecimal getBigDecimal(int columnIndex) throws SQLException {
+        Object value = value(columnIndex);
+        if (value == null || value instanceof BigDecimal) {
+            return (BigDecimal) value;
+        }
+        return new BigDecimal(value.toString());
+    }
+
+    public BigDecimal getBigDecimal(String columnLabel) throws SQLException {
+        return getBigDecimal(findColumn(columnLabel));
+    }
+
+    public Timestamp getTimestamp(int columnIndex) throws SQLException {
+        return (Timestamp) value(columnIndex);
+    }
+
+    public Timestamp getTimestamp(String columnLabel) throws SQLException {
+        return getTimestamp(findColumn(columnLabel));
+    }
+
+    public int getRow() throws SQLException {
+        return row < rows.length ? row + 1 : 0;
+    }
+
+    public boolean isBeforeFirst() throws SQLException {
+        return row < 0 && rows.length > 0;
+    }
+
+    public boolean isAfterLast() throws SQLException {
+        return row >= rows.length && rows.length > 0;
+    }
+
+    public boolean isFirst() throws SQLException {
+        return row == 0 && rows.length > 0;
+    }
+
+    public boolean isLast() throws SQLException {
+        return row == rows.length - 1 && rows.length > 0;
+    }
+
+    public int getType() throws SQLException {
+        return TYPE_FORWARD_ONLY;
+    }
+
+    public int getConcurrency() throws SQLException {
+        return CONCUR_READ_ONLY;
+    }
+
+    public int getHoldability() throws SQLException {
+        return CLOSE_CURSORS_AT_COMMIT;
+    }
+
+    public int getFetchDirection() throws SQLException {
+        return FETCH_FORWARD;
+    }
+
+    public void setFetchDirection(int direction) throws SQLException {
+        if (direction != FETCH_FORWARD) {
+            throw unsupported("setFetchDirection");
+        }
+    }
+
+    public int getFetchSize() throws SQLException {
+        return 0;
+    }
+
+    public void setFetchSize(int rows) throws SQLException {
+        // everything is in memory already
+    }
+
+    public Statement getStatement() throws SQLException {
+        return null;
+    }
+
+    public SQLWarning getWarnings() throws SQLException {
+        return null;
+    }
+
+    public void clearWarnings() throws SQLException {
+        // no warnings
+    }
+
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("Not a wrapper for " + iface.getName());
+    }
+
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this);
+    }
+
+    /**
+     * The metadata of the columns
+     */
+    private final class MetaData implements ResultSetMetaData {
+
+        public int getColumnCount() throws SQLException {
+            return labels.length;
+        }
+
+        public String getColumnLabel(int column) throws SQLException {
+            return labels[column - 1];
+        }
+
+        public String getColumnName(int column) throws SQLException {
+            return labels[column - 1];
+        }
+
+        public int getColumnType(int column) throws SQLException {
+            return types[column - 1];
+        }
+
+        public String getColumnTypeName(int column) throws SQLException {
+            return Integer.toString(types[column - 1]);
+        }
+
+        public String getColumnClassName(int column) throws SQLException {
+            return Object.class.getName();
+        }
+
+        public boolean isAutoIncrement(int column) throws SQLException {
+            return false;
+        }
+
+        public boolean isCaseSensitive(int column) throws SQLException {
+            return false;
+        }
+
+        public boolean isSearchable(int column) throws SQLException {
+            return true;
+        }
+
+        public boolean isCurrency(int column) throws SQLException {
+            return false;
+        }
+
+        public int isNullable(int column) throws SQLException {
+            return columnNullableUnknown;
+        }
+
+        public boolean isSigned(int column) throws SQLException {
+            return true;
+        }
+
+        public int getColumnDisplaySize(int column) throws SQLException {
+            return 0;
+        }
+
+        public String getSchemaName(int column) throws SQLException {
+            return "";
+        }
+
+        public int getPrecision(int column) throws SQLException {
+            return 0;
+        }
+
+        public int getScale(int column) throws SQLException {
+            return 0;
+        }
+
+        public String getTableName(int column) throws SQLException {
+            return "";
+        }
+
+        public String getCatalogName(int column) throws SQLException {
+            return "";
+        }
+
+        public boolean isReadOnly(int column) throws SQLException {
+            return true;
+        }
+
+        public boolean isWritable(int column) throws SQLException {
+            return false;
+        }
+
+        public boolean isDefinitelyWritable(int column) throws SQLException {
+            return false;
+        }
+
+        public <T> T unwrap(Class<T> iface) throws SQLException {
+            throw new SQLException("Not a wrapper for " + iface.getName());
+        }
+
+        public boolean isWrapperFor(Class<?> iface) throws SQLException {
+            return false;
+        }
+    }
+
+    // Everything below isn't used by the mapping code
+
+    public boolean absolute(int arg0) throws SQLException {
+        throw unsupported("absolute");
+    }
+
+    public void afterLast() throws SQLException {
+        throw unsupported("afterLast");
+    }
+
+    public void beforeFirst() throws SQLException {
+        throw unsupported("beforeFirst");
+    }
+
+    public void cancelRowUpdates() throws SQLException {
+        throw unsupported("cancelRowUpdates");
+    }
+
+    public void deleteRow() throws SQLException {
+        throw unsupported("deleteRow");
+    }
+
+    public boolean first() throws SQLException {
+        throw unsupported("first");
+    }
+
+    public Array getArray(String arg0) throws SQLException {
+        throw unsupported("getArray");
+    }
+
+    public Array getArray(int arg0) throws SQLException {
+        throw unsupported("getArray");
+    }
+
+    public InputStream getAsciiStream(String arg0) throws SQLException {
+        throw unsupported("getAsciiStream");
+    }
+
+    public InputStream getAsciiStream(int arg0) throws SQLException {
+        throw unsupported("getAsciiStream");
+    }
+
+    public BigDecimal getBigDecimal(String arg0, int arg1) throws SQLException {
+        throw unsupported("getBigDecimal");
+    }
+
+    public BigDecimal getBigDecimal(int arg0, int arg1) throws SQLException {
+        throw unsupported("getBigDecimal");
+    }
+
+    public InputStream getBinaryStream(String arg0) throws SQLException {
+        throw unsupported("getBinaryStream");
+    }
+
+    public InputStream getBinaryStream(int arg0) throws SQLException {
+        throw unsupported("getBinaryStream");
+    }
+
+    public Blob getBlob(String arg0) throws SQLException {
+        throw unsupported("getBlob");
+    }
+
+    public Blob getBlob(int arg0) throws SQLException {
+        throw unsupported("getBlob");
+    }
+
+    public byte[] getBytes(String arg0) throws SQLException {
+        throw unsupported("getBytes");
+    }
+
+    public byte[] getBytes(int arg0) throws SQLException {
+        throw unsupported("getBytes");
+    }
+
+    public Reader getCharacterStream(String arg0) throws SQLException {
+        throw unsupported("getCharacterStream");
+    }
+
+    public Reader getCharacterStream(int arg0) throws SQLException {
+        throw unsupported("getCharacterStream");
+    }
+
+    public Clob getClob(String arg0) throws SQLException {
+        throw unsupported("getClob");
+    }
+
+    public Clob getClob(int arg0) throws SQLException {
+        throw unsupported("getClob");
+    }
+
+    public String getCursorName() throws SQLException {
+        throw unsupported("getCursorName");
+    }
+
+    public Date getDate(String arg0, Calendar arg1) throws SQLException {
+        throw unsupported("getDate");
+    }
+
+    public Date getDate(String arg0) throws SQLException {
+        throw unsupported("getDate");
+    }
+
+    public Date getDate(int arg0, Calendar arg1) throws SQLException {
+        throw unsupported("getDate");
+    }
+
+    public Date getDate(int arg0) throws SQLException {
+        throw unsupported("getDate");
+    }
+
+    public Reader getNCharacterStream(String arg0) throws SQLException {
+        throw unsupported("getNCharacterStream");
+    }
+
+    public Reader getNCharacterStream(int arg0) throws SQLException {
+        throw unsupported("getNCharacterStream");
+    }
+
+    public NClob getNClob(String arg0) throws SQLException {
+        throw unsupported("getNClob");
+    }
+
+    public NClob getNClob(int arg0) throws SQLException {
+        throw unsupported("getNClob");
+    }
+
+    public String getNString(String arg0) throws SQLException {
+        throw unsupported("getNString");
+    }
+
+    public String getNString(int arg0) throws SQLException {
+        throw unsupported("getNString");
+    }
+
+    public <T> T getObject(String arg0, Class<T> arg1) throws SQLException {
+        throw unsupported("getObject");
+    }
+
+    public Object getObject(String arg0, Map<String, Class<?>> arg1) throws SQLException {
+        throw unsupported("getObject");
+    }
+
+    public <T> T getObject(int arg0, Class<T> arg1) throws SQLException {
+        throw unsupported("getObject");
+    }
+
+    public Object getObject(int arg0, Map<String, Class<?>> arg1) throws SQLException {
+        throw unsupported("getObject");
+    }
+
+    public Ref getRef(String arg0) throws SQLException {
+        throw unsupported("getRef");
+    }
+
+    public Ref getRef(int arg0) throws SQLException {
+        throw unsupported("getRef");
+    }
+
+    public RowId getRowId(String arg0) throws SQLException {
+        throw unsupported("getRowId");
+    }
+
+    public RowId getRowId(int arg0) throws SQLException {
+        throw unsupported("getRowId");
+    }
+
+    public SQLXML getSQLXML(String arg0) throws SQLException {
+        throw unsupported("getSQLXML");
+    }
+
+    public SQLXML getSQLXML(int arg0) throws SQLException {
+        throw unsupported("getSQLXML");
+    }
+
+    public Time getTime(String arg0, Calendar arg1) throws SQLException {
+        throw unsupported("getTime");
+    }
+
+    public Time getTime(String arg0) throws SQLException {
+        throw unsupported("getTime");
+    }
+
+    public Time getTime(int arg0, Calendar arg1) throws SQLException {
+        throw unsupported("getTime");
+    }
+
+    public Time getTime(int arg0) throws SQLException {
+        throw unsupported("getTime");
+    }
+
+    public Timestamp getTimestamp(String arg0, Calendar arg1) throws SQLException {
+        throw unsupported("getTimestamp");
+    }
+
+    public Timestamp getTimestamp(int arg0, Calendar arg1) throws SQLException {
+        throw unsupported("getTimestamp");
+    }
+
+    public URL getURL(String arg0) throws SQLException {
+        throw unsupported("getURL");
+    }
+
+    public URL getURL(int arg0) throws SQLException {
+        throw unsupported("getURL");
+    }
+
+    public InputStream getUnicodeStream(String arg0) throws SQLException {
+        throw unsupported("getUnicodeStream");
+    }
+
+    public InputStream getUnicodeStream(int arg0) throws SQLException {
+        throw unsupported("getUnicodeStream");
+    }
+
+    public void insertRow() throws SQLException {
+        throw unsupported("insertRow");
+    }
+
+    public boolean last() throws SQLException {
+        throw unsupported("last");
+    }
+
+    public void moveToCurrentRow() throws SQLException {
+        throw unsupported("moveToCurrentRow");
+    }
+
+    public void moveToInsertRow() throws SQLException {
+        throw unsupported("moveToInsertRow");
+    }
+
+    public boolean previous() throws SQLException {
+        throw unsupported("previous");
+    }
+
+    public void refreshRow() throws SQLException {
+        throw unsupported("refreshRow");
+    }
+
+    public boolean relative(int arg0) throws SQLException {
+        throw unsupported("relative");
+    }
+
+    public boolean rowDeleted() throws SQLException {
+        throw unsupported("rowDeleted");
+    }
+
+    public boolean rowInserted() throws SQLException {
+        throw unsupported("rowInserted");
+    }
+
+    public boolean rowUpdated() throws SQLException {
+        throw unsupported("rowUpdated");
+    }
+
+    public void updateArray(String arg0, Array arg1) throws SQLException {
+        throw unsupported("updateArray");
+    }
+
+    public void updateArray(int arg0, Array arg1) throws SQLException {
+        throw unsupported("updateArray");
+    }
+
+    public void updateAsciiStream(String arg0, InputStream arg1, int arg2) throws SQLException {
+        throw unsupported("updateAsciiStream");
+    }
+
+    public void updateAsciiStream(String arg0, InputStream arg1, long arg2) throws SQLException {
+        throw unsupported("updateAsciiStream");
+    }
+
+    public void updateAsciiStream(String arg0, InputStream arg1) throws SQLException {
+        throw unsupported("updateAsciiStream");
+    }
+
+    public void updateAsciiStream(int arg0, InputStream arg1, int arg2) throws SQLException {
+        throw unsupported("updateAsciiStream");
+    }
+
+    public void updateAsciiStream(int arg0, InputStream arg1, long arg2) throws SQLException {
+        throw unsupported("updateAsciiStream");
+    }
+
+    public void updateAsciiStream(int arg0, InputStream arg1) throws SQLException {
+        throw unsupported("updateAsciiStream");
+    }
+
+    public void updateBigDecimal(String arg0, BigDecimal arg1) throws SQLException {
+        throw unsupported("updateBigDecimal");
+    }
+
+    public void updateBigDecimal(int arg0, BigDecimal arg1) throws SQLException {
+        throw unsupported("updateBigDecimal");
+    }
+
+    public void updateBinaryStream(String arg0, InputStream arg1, int arg2) throws SQLException {
+        throw unsupported("updateBinaryStream");
+    }
+
+    public void updateBinaryStream(String arg0, InputStream arg1, long arg2) throws SQLException {
+        throw unsupported("updateBinaryStream");
+    }
+
+    public void updateBinaryStream(String arg0, InputStream arg1) throws SQLException {
+        throw unsupported("updateBinaryStream");
+    }
+
+    public void updateBinaryStream(int arg0, InputStream arg1, int arg2) throws SQLException {
+        throw unsupported("updateBinaryStream");
+    }
+
+    public void updateBinaryStream(int arg0, InputStream arg1, long arg2) throws SQLException {
+        throw unsupported("updateBinaryStream");
+    }
+
+    public void updateBinaryStream(int arg0, InputStream arg1) throws SQLException {
+        throw unsupported("updateBinaryStream");
+    }
+
+    public void updateBlob(String arg0, InputStream arg1, long arg2) throws SQLException {
+        throw unsupported("updateBlob");
+    }
+
+    public void updateBlob(String arg0, InputStream arg1) throws SQLException {
+        throw unsupported("updateBlob");
+    }
+
+    public void updateBlob(String arg0, Blob arg1) throws SQLException {
+        throw unsupported("updateBlob");
+    }
+
+    public void updateBlob(int arg0, InputStream arg1, long arg2) throws SQLException {
+        throw unsupported("updateBlob");
+    }
+
+    public void updateBlob(int arg0, InputStream arg1) throws SQLException {
+        throw unsupported("updateBlob");
+    }
+
+    public void updateBlob(int arg0, Blob arg1) throws SQLException {
+        throw unsupported("updateBlob");
+    }
+
+    public void updateBoolean(String arg0, boolean arg1) throws SQLException {
+        throw unsupported("updateBoolean");
+    }
+
+    public void updateBoolean(int arg0, boolean arg1) throws SQLException {
+        throw unsupported("updateBoolean");
+    }
+
+    public void updateByte(String arg0, byte arg1) throws SQLException {
+        throw unsupported("updateByte");
+    }
+
+    public void updateByte(int arg0, byte arg1) throws SQLException {
+        throw unsupported("updateByte");
+    }
+
+    public void updateBytes(String arg0, byte[] arg1) throws SQLException {
+        throw unsupported("updateBytes");
+    }
+
+    public void updateBytes(int arg0, byte[] arg1) throws SQLException {
+        throw unsupported("updateBytes");
+    }
+
+    public void updateCharacterStream(String arg0, Reader arg1, int arg2) throws SQLException {
+        throw unsupported("updateCharacterStream");
+    }
+
+    public void updateCharacterStream(String arg0, Reader arg1, long arg2) throws SQLException {
+        throw unsupported("updateCharacterStream");
+    }
+
+    public void updateCharacterStream(String arg0, Reader arg1) throws SQLException {
+        throw unsupported("updateCharacterStream");
+    }
+
+    public void updateCharacterStream(int arg0, Reader arg1, int arg2) throws SQLException {
+        throw unsupported("updateCharacterStream");
+    }
+
+    public void updateCharacterStream(int arg0, Reader arg1, long arg2) throws SQLException {
+        throw unsupported("updateCharacterStream");
+    }
+
+    public void updateCharacterStream(int arg0, Reader arg1) throws SQLException {
+        throw unsupported("updateCharacterStream");
+    }
+
+    public void updateClob(String arg0, Reader arg1, long arg2) throws SQLException {
+        throw unsupported("updateClob");
+    }
+
+    public void updateClob(String arg0, Reader arg1) throws SQLException {
+        throw unsupported("updateClob");
+    }
+
+    public void updateClob(String arg0, Clob arg1) throws SQLException {
+        throw unsupported("updateClob");
+    }
+
+    public void updateClob(int arg0, Reader arg1, long arg2) throws SQLException {
+        throw unsupported("updateClob");
+    }
+
+    public void updateClob(int arg0, Reader arg1) throws SQLException {
+        throw unsupported("updateClob");
+    }
+
+    public void updateClob(int arg0, Clob arg1) throws SQLException {
+        throw unsupported("updateClob");
+    }
+
+    public void updateDate(String arg0, Date arg1) throws SQLException {
+        throw unsupported("updateDate");
+    }
+
+    public void updateDate(int arg0, Date arg1) throws SQLException {
+        throw unsupported("updateDate");
+    }
+
+    public void updateDouble(String arg0, double arg1) throws SQLException {
+        throw unsupported("updateDouble");
+    }
+
+    public void updateDouble(int arg0, double arg1) throws SQLException {
+        throw unsupported("updateDouble");
+    }
+
+    public void updateFloat(String arg0, float arg1) throws SQLException {
+        throw unsupported("updateFloat");
+    }
+
+    public void updateFloat(int arg0, float arg1) throws SQLException {
+        throw unsupported("updateFloat");
+    }
+
+    public void updateInt(String arg0, int arg1) throws SQLException {
+        throw unsupported("updateInt");
+    }
+
+    public void updateInt(int arg0, int arg1) throws SQLException {
+        throw unsupported("updateInt");
+    }
+
+    public void updateLong(String arg0, long arg1) throws SQLException {
+        throw unsupported("updateLong");
+    }
+
+    public void updateLong(int arg0, long arg1) throws SQLException {
+        throw unsupported("updateLong");
+    }
+
+    public void updateNCharacterStream(String arg0, Reader arg1, long arg2) throws SQLException {
+        throw unsupported("updateNCharacterStream");
+    }
+
+    public void updateNCharacterStream(String arg0, Reader arg1) throws SQLException {
+        throw unsupported("updateNCharacterStream");
+    }
+
+    public void updateNCharacterStream(int arg0, Reader arg1, long arg2) throws SQLException {
+        throw unsupported("updateNCharacterStream");
+    }
+
+    public void updateNCharacterStream(int arg0, Reader arg1) throws SQLException {
+        throw unsupported("updateNCharacterStream");
+    }
+
+    public void updateNClob(String arg0, Reader arg1, long arg2) throws SQLException {
+        throw unsupported("updateNClob");
+    }
+
+    public void updateNClob(String arg0, Reader arg1) throws SQLException {
+        throw unsupported("updateNClob");
+    }
+
+    public void updateNClob(String arg0, NClob arg1) throws SQLException {
+        throw unsupported("updateNClob");
+    }
+
+    public void updateNClob(int arg0, Reader arg1, long arg2) throws SQLException {
+        throw unsupported("updateNClob");
+    }
+
+    public void updateNClob(int arg0, Reader arg1) throws SQLException {
+        throw unsupported("updateNClob");
+    }
+
+    public void updateNClob(int arg0, NClob arg1) throws SQLException {
+        throw unsupported("updateNClob");
+    }
+
+    public void updateNString(String arg0, String arg1) throws SQLException {
+        throw unsupported("updateNString");
+    }
+
+    public void updateNString(int arg0, String arg1) throws SQLException {
+        throw unsupported("updateNString");
+    }
+
+    public void updateNull(String arg0) throws SQLException {
+        throw unsupported("updateNull");
+    }
+
+    public void updateNull(int arg0) throws SQLException {
+        throw unsupported("updateNull");
+    }
+
+    public void updateObject(String arg0, Object arg1, int arg2) throws SQLException {
+        throw unsupported("updateObject");
+    }
+
+    public void updateObject(String arg0, Object arg1) throws SQLException {
+        throw unsupported("updateObject");
+    }
+
+    public void updateObject(int arg0, Object arg1, int arg2) throws SQLException {
+        throw unsupported("updateObject");
+    }
+
+    public void updateObject(int arg0, Object arg1) throws SQLException {
+        throw unsupported("updateObject");
+    }
+
+    public void updateRef(String arg0, Ref arg1) throws SQLException {
+        throw unsupported("updateRef");
+    }
+
+    public void updateRef(int arg0, Ref arg1) throws SQLException {
+        throw unsupported("updateRef");
+    }
+
+    public void updateRow() throws SQLException {
+        throw unsupported("updateRow");
+    }
+
+    public void updateRowId(String arg0, RowId arg1) throws SQLException {
+        throw unsupported("updateRowId");
+    }
+
+    public void updateRowId(int arg0, RowId arg1) throws SQLException {
+        throw unsupported("updateRowId");
+    }
+
+    public void updateSQLXML(String arg0, SQLXML arg1) throws SQLException {
+        throw unsupported("updateSQLXML");
+    }
+
+    public void updateSQLXML(int arg0, SQLXML arg1) throws SQLException {
+        throw unsupported("updateSQLXML");
+    }
+
+    public void updateShort(String arg0, short arg1) throws SQLException {
+        throw unsupported("updateShort");
+    }
+
+    public void updateShort(int arg0, short arg1) throws SQLException {
+        throw unsupported("updateShort");
+    }
+
+    public void updateString(String arg0, String arg1) throws SQLException {
+        throw unsupported("updateString");
+    }
+
+    public void updateString(int arg0, String arg1) throws SQLException {
+        throw unsupported("updateString");
+    }
+
+    public void updateTime(String arg0, Time arg1) throws SQLException {
+        throw unsupported("updateTime");
+    }
+
+    public void updateTime(int arg0, Time arg1) throws SQLException {
+        throw unsupported("updateTime");
+    }
+
+    public void updateTimestamp(String arg0, Timestamp arg1) throws SQLException {
+        throw unsupported("updateTimestamp");
+    }
+
+    public void updateTimestamp(int arg0, Timestamp arg1) throws SQLException {
+        throw unsupported("updateTimestamp");
+    }
+}
@@ -0,0 +1,50 @@
+package org.apache.commons.dbutils.bench;
+
+import java.sql.Timestamp;
+
+/**
+ * The bean of the narrow row shape, four columns of common types
+ */
+public class NarrowBean {
+
+    private long id;
+
+    private String name;
+
+    private double amount;
+
+    private Timestamp created;
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+
+    public void setAmount(double amount) {
+        this.amount = amount;
+    }
+
+    public Timestamp getCreated() {
+        return created;
+    }
+
+    public void setCreated(Timestamp created) {
+        this.created = created;
+    }
+
+}
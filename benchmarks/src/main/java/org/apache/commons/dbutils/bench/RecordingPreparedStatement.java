@@ -0,0 +1,563 @@
+package org.apache.commons.dbutils.bench;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.NClob;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.Ref;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.RowId;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLWarning;
+import java.sql.SQLXML;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Calendar;
+
+/**
+ * A <code>PreparedStatement</code> that only records the parameters bound to it, so the benchmarks
+ * measure the binding code and not a driver. Its <code>ParameterMetaData</code> reports a fixed
+ * parameter count and <code>VARCHAR</code> for every parameter. Features the binding code doesn't
+ * use throw <code>SQLFeatureNotSupportedException</code>.
+ */
+public class RecordingPreparedStatement implements PreparedStatement {
+
+    /**
+     * The bound values, <code>null</code> for SQL NULL, or the wrapper class of a primitive value
+     * kept in {@link #primitives}
+     */
+    private final Object[] parameters;
+
+    /**
+     * The bits of primitive values, stored unboxed like a driver writes them to its buffer
+     */
+    private final long[] primitives;
+
+    private final ParameterMetaData parameterMetaData;
+
+    private boolean closed;
+
+    /**
+     * Constructor for RecordingPreparedStatement
+     *
+     * @param parameterCount The number of parameter markers of the statement
+     */
+    public RecordingPreparedStatement(int parameterCount) {
+        this.parameters = new Object[parameterCount];
+        this.primitives = new long[parameterCount];
+        this.parameterMetaData = new ParameterMetaDataStub();
+    }
+
+    /**
+     * Get a bound value
+     *
+     * @param parameterIndex The 1-based parameter index
+     * @return The value, <code>null</code> for SQL NULL
+     */
+    public Object getParameter(int parameterIndex) {
+        Object value = parameters[parameterIndex - 1];
+        long bits = primitives[parameterIndex - 1];
+        if (value == Boolean.class) {
+            return Boolean.valueOf(bits != 0);
+        } else if (value == Byte.class) {
+            return Byte.valueOf((byte) bits);
+        } else if (value == Short.class) {
+            return Short.valueOf((short) bits);
+        } else if (value == Integer.class) {
+            return Integer.valueOf((int) bits);
+        } else if (value == Long.class) {
+            return Long.valueOf(bits);
+        } else if (value == Float.class) {
+            return Float.valueOf((float) Double.longBitsToDouble(bits));
+        } else if (value == Double.class) {
+            return Double.valueOf(Double.longBitsToDouble(bits));
+        }
+        return value;
+    }
+
+    private void bind(int parameterIndex, Object x) throws SQLException {
+        if (parameterIndex < 1 || parameterIndex > parameters.length) {
+            throw new SQLException("Parameter index out of range: " + parameterIndex);
+        }
+        parameters[parameterIndex - 1] = x;
+    }
+
+    private void bindPrimitive(int parameterIndex, Class<?> type, long bits) throws SQLException {
+        bind(parameterIndex, type);
+        primitives[parameterIndex - 1] = bits;
+    }
+
+    private static SQLException unsupported(String name) {
+        return new SQLFeatureNotSupportedException(name);
+    }
+
+    /**
+     * The statement isn't bound to a connection
+     *
+     * @return <code>null</code>
+     */
+    public Connection getConnection() throws SQLException {
+        return null;
+    }
+
+    public ParameterMetaData getParameterMetaData() throws SQLException {
+        return parameterMetaData;
+    }
+
+    public void clearParameters() throws SQLException {
+        for (int i = 0; i < parameters.length; i++) {
+            parameters[i] = null;
+        }
+    }
+
+    public void setNull(int parameterIndex, int sqlType) throws SQLException {
+        bind(parameterIndex, null);
+    }
+
+    public void setNull(int parameterIndex, int sqlType, String typeName) throws SQLException {
+        bind(parameterIndex, null);
+    }
+
+    public void setObject(int parameterIndex, Object x) throws SQLException {
+        bind(parameterIndex, x);
+    }
+
+    public void setObject(int parameterIndex, Object x, int targetSqlType) throws SQLException {
+        bind(parameterIndex, x);
+    }
+
+    public void setObject(int parameterIndex, Object x, int targetSqlType, int scaleOrLength)
+            throws SQLException {
+        bind(parameterIndex, x);
+    }
+
+    public void setBoolean(int parameterIndex, boolean x) throws SQLException {
+        bindPrimitive(parameterIndex, Boolean.class, x ? 1 : 0);
+    }
+
+    public void setByte(int parameterIndex, byte x) throws SQLException {
+        bindPrimitive(parameterIndex, Byte.class, x);
+    }
+
+    public void setShort(int parameterIndex, short x) throws SQLException {
+        bindPrimitive(parameterIndex, Short.class, x);
+    }
+
+    public void setInt(int parameterIndex, int x) throws SQLException {
+        bindPrimitive(parameterIndex, Integer.class, x);
+    }
+
+    public void setLong(int parameterIndex, long x) throws SQLException {
+        bindPrimitive(parameterIndex, Long.class, x);
+    }
+
+    public void setFloat(int parameterIndex, float x) throws SQLException {
+        bindPrimitive(parameterIndex, Float.class, Double.doubleToRawLongBits(x));
+    }
+
+    public void setDouble(int parameterIndex, double x) throws SQLException {
+        bindPrimitive(parameterIndex, Double.class, Double.doubleToRawLongBits(x));
+    }
+
+    public void setBigDecimal(int parameterIndex, BigDecimal x) throws SQLException {
+        bind(parameterIndex, x);
+    }
+
+    public void setString(int parameterIndex, String x) throws SQLException {
+        bind(parameterIndex, x);
+    }
+
+    public void setDate(int parameterIndex, Date x) throws SQLException {
+        bind(parameterIndex, x);
+    }
+
+    public void setTime(int parameterIndex, Time x) throws SQLException {
+        bind(parameterIndex, x);
+    }
+
+    public void setTimestamp(int parameterIndex, Timestamp x) throws SQLException {
+        bind(parameterIndex, x);
+    }
+
+    public void close() throws SQLException {
+        closed = true;
+    }
+
+    public boolean isClosed() throws SQLException {
+        return closed;
+    }
+
+    public SQLWarning getWarnings() throws SQLException {
+        return null;
+    }
+
+    public void clearWarnings() throws SQLException {
+        // no warnings
+    }
+
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("Not a wrapper for " + iface.getName());
+    }
+
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this);
+    }
+
+    /**
+     * Parameter metadata that reports every parameter as <code>VARCHAR</code>
+     */
+    private final class ParameterMetaDataStub implements ParameterMetaData {
+
+        public int getParameterCount() throws SQLException {
+            return parameters.length;
+        }
+
+        public int isNullable(int param) throws SQLException {
+            return parameterNullableUnknown;
+        }
+
+        public boolean isSigned(int param) throws SQLException {
+            return false;
+        }
+
+        public int getPrecision(int param) throws SQLException {
+            return 0;
+        }
+
+        public int getScale(int param) throws SQLException {
+            return 0;
+        }
+
+        public int getParameterType(int param) throws SQLException {
+            return Types.VARCHAR;
+        }
+
+        public String getParameterTypeName(int param) throws SQLException {
+            return "VARCHAR";
+        }
+
+        public String getParameterClassName(int param) throws SQLException {
+            return String.class.getName();
+        }
+
+        public int getParameterMode(int param) throws SQLException {
+            return parameterModeIn;
+        }
+
+        public <T> T unwrap(Class<T> iface) throws SQLException {
+            throw new SQLException("Not a wrapper for " + iface.getName());
+        }
+
+        public boolean isWrapperFor(Class<?> iface) throws SQLException {
+            return false;
+        }
+    }
+
+    // Everything below isn't used by the binding code
+
+    public void addBatch() throws SQLException {
+        throw unsupported("addBatch");
+    }
+
+    public void addBatch(String arg0) throws SQLException {
+        throw unsupported("addBatch");
+    }
+
+    public void cancel() throws SQLException {
+        throw unsupported("cancel");
+    }
+
+    public void clearBatch() throws SQLException {
+        throw unsupported("clearBatch");
+    }
+
+    public void closeOnCompletion() throws SQLException {
+        throw unsupported("closeOnCompletion");
+    }
+
+    public boolean execute() throws SQLException {
+        throw unsupported("execute");
+    }
+
+    public boolean execute(String arg0, int[] arg1) throws SQLException {
+        throw unsupported("execute");
+    }
+
+    public boolean execute(String arg0, String[] arg1) throws SQLException {
+        throw unsupported("execute");
+    }
+
+    public boolean execute(String arg0, int arg1) throws SQLException {
+        throw unsupported("execute");
+    }
+
+    public boolean execute(String arg0) throws SQLException {
+        throw unsupported("execute");
+    }
+
+    public int[] executeBatch() throws SQLException {
+        throw unsupported("executeBatch");
+    }
+
+    public ResultSet executeQuery() throws SQLException {
+        throw unsupported("executeQuery");
+    }
+
+    public ResultSet executeQuery(String arg0) throws SQLException {
+        throw unsupported("executeQuery");
+    }
+
+    public int executeUpdate() throws SQLException {
+        throw unsupported("executeUpdate");
+    }
+
+    public int executeUpdate(String arg0, int[] arg1) throws SQLException {
+        throw unsupported("executeUpdate");
+    }
+
+    public int executeUpdate(String arg0, String[] arg1) throws SQLException {
+        throw unsupported("executeUpdate");
+    }
+
+    public int executeUpdate(String arg0, int arg1) throws SQLException {
+        throw unsupported("executeUpdate");
+    }
+
+    public int executeUpdate(String arg0) throws SQLException {
+        throw unsupported("executeUpdate");
+    }
+
+    public int getFetchDirection() throws SQLException {
+        throw unsupported("getFetchDirection");
+    }
+
+    public int getFetchSize() throws SQLException {
+        throw unsupported("getFetchSize");
+    }
+
+    public ResultSet getGeneratedKeys() throws SQLException {
+        throw unsupported("getGeneratedKeys");
+    }
+
+    public int getMaxFieldSize() throws SQLException {
+        throw unsupported("getMaxFieldSize");
+    }
+
+    public int getMaxRows() throws SQLException {
+        throw unsupported("getMaxRows");
+    }
+
+    public ResultSetMetaData getMetaData() throws SQLException {
+        throw unsupported("getMetaData");
+    }
+
+    public boolean getMoreResults() throws SQLException {
+        throw unsupported("getMoreResults");
+    }
+
+    public boolean getMoreResults(int arg0) throws SQLException {
+        throw unsupported("getMoreResults");
+    }
+
+    public int getQueryTimeout() throws SQLException {
+        throw unsupported("getQueryTimeout");
+    }
+
+    public ResultSet getResultSet() throws SQLException {
+        throw unsupported("getResultSet");
+    }
+
+    public int getResultSetConcurrency() throws SQLException {
+        throw unsupported("getResultSetConcurrency");
+    }
+
+    public int getResultSetHoldability() throws SQLException {
+        throw unsupported("getResultSetHoldability");
+    }
+
+    public int getResultSetType() throws SQLException {
+        throw unsupported("getResultSetType");
+    }
+
+    public int getUpdateCount() throws SQLException {
+        throw unsupported("getUpdateCount");
+    }
+
+    public boolean isCloseOnCompletion() throws SQLException {
+        throw unsupported("isCloseOnCompletion");
+    }
+
+    public boolean isPoolable() throws SQLException {
+        throw unsupported("isPoolable");
+    }
+
+    public void setArray(int arg0, Array arg1) throws SQLException {
+        throw unsupported("setArray");
+    }
+
+    public void setAsciiStream(int arg0, InputStream arg1, int arg2) throws SQLException {
+        throw unsupported("setAsciiStream");
+    }
+
+    public void setAsciiStream(int arg0, InputStream arg1, long arg2) throws SQLException {
+        throw unsupported("setAsciiStream");
+    }
+
+    public void setAsciiStream(int arg0, InputStream arg1) throws SQLException {
+        throw unsupported("setAsciiStream");
+    }
+
+    public void setBinaryStream(int arg0, InputStream arg1, int arg2) throws SQLException {
+        throw unsupported("setBinaryStream");
+    }
+
+    public void setBinaryStream(int arg0, InputStream arg1, long arg2) throws SQLException {
+        throw unsupported("setBinaryStream");
+    }
+
+    public void setBinaryStream(int arg0, InputStream arg1) throws SQLException {
+        throw unsupported("setBinaryStream");
+    }
+
+    public void setBlob(int arg0, InputStream arg1, long arg2) throws SQLException {
+        throw unsupported("setBlob");
+    }
+
+    public void setBlob(int arg0, InputStream arg1) throws SQLException {
+        throw unsupported("setBlob");
+    }
+
+    public void setBlob(int arg0, Blob arg1) throws SQLException {
+        throw unsupported("setBlob");
+    }
+
+    public void setBytes(int arg0, byte[] arg1) throws SQLException {
+        throw unsupported("setBytes");
+    }
+
+    public void setCharacterStream(int arg0, Reader arg1, int arg2) throws SQLException {
+        throw unsupported("setCharacterStream");
+    }
+
+    public void setCharacterStream(int arg0, Reader arg1, long arg2) throws SQLException {
+        throw unsupported("setCharacterStream");
+    }
+
+    public void setCharacterStream(int arg0, Reader arg1) throws SQLException {
+        throw unsupported("setCharacterStream");
+    }
+
+    public void setClob(int arg0, Reader arg1, long arg2) throws SQLException {
+        throw unsupported("setClob");
+    }
+
+    public void setClob(int arg0, Reader arg1) throws SQLException {
+        throw unsupported("setClob");
+    }
+
+    public void setClob(int arg0, Clob arg1) throws SQLException {
+        throw unsupported("setClob");
+    }
+
+    public void setCursorName(String arg0) throws SQLException {
+        throw unsupported("setCursorName");
+    }
+
+    public void setDate(int arg0, Date arg1, Calendar arg2) throws SQLException {
+        throw unsupported("setDate");
+    }
+
+    public void setEscapeProcessing(boolean arg0) throws SQLException {
+        throw unsupported("setEscapeProcessing");
+    }
+
+    public void setFetchDirection(int arg0) throws SQLException {
+        throw unsupported("setFetchDirection");
+    }
+
+    public void setFetchSize(int arg0) throws SQLException {
+        throw unsupported("setFetchSize");
+    }
+
+    public void setMaxFieldSize(int arg0) throws SQLException {
+        throw unsupported("setMaxFieldSize");
+    }
+
+    public void setMaxRows(int arg0) throws SQLException {
+        throw unsupported("setMaxRows");
+    }
+
+    public void setNCharacterStream(int arg0, Reader arg1, long arg2) throws SQLException {
+        throw unsupported("setNCharacterStream");
+    }
+
+    public void setNCharacterStream(int arg0, Reader arg1) throws SQLException {
+        throw unsupported("setNCharacterStream");
+    }
+
+    public void setNClob(int arg0, Reader arg1, long arg2) throws SQLException {
+        throw unsupported("setNClob");
+    }
+
+    public void setNClob(int arg0, Reader arg1) throws SQLException {
+        throw unsupported("setNClob");
+    }
+
+    public void setNClob(int arg0, NClob arg1) throws SQLException {
+        throw unsupported("setNClob");
+    }
+
+    public void setNString(int arg0, String arg1) throws SQLException {
+        throw unsupported("setNString");
+    }
+
+    public void setPoolable(boolean arg0) throws SQLException {
+        throw unsupported("setPoolable");
+    }
+
+    public void setQueryTimeout(int arg0) throws SQLException {
+        throw unsupported("setQueryTimeout");
+    }
+
+    public void setRef(int arg0, Ref arg1) throws SQLException {
+        throw unsupported("setRef");
+    }
+
+    public void setRowId(int arg0, RowId arg1) throws SQLException {
+        throw unsupported("setRowId");
+    }
+
+    public void setSQLXML(int arg0, SQLXML arg1) throws SQLException {
+        throw unsupported("setSQLXML");
+    }
+
+    public void setTime(int arg0, Time arg1, Calendar arg2) throws SQLException {
+        throw unsupported("setTime");
+    }
+
+    public void setTimestamp(int arg0, Timestamp arg1, Calendar arg2) throws SQLException {
+        throw unsupported("setTimestamp");
+    }
+
+    public void setURL(int arg0, URL arg1) throws SQLException {
+        throw unsupported("setURL");
+    }
+
+    public void setUnicodeStream(int arg0, InputStream arg1, int arg2) throws SQLException {
+        throw unsupported("setUnicodeStream");
+    }
+}
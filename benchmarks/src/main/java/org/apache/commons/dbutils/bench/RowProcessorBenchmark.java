@@ -0,0 +1,80 @@
+package org.apache.commons.dbutils.bench;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.dbutils.BasicRowProcessor;
+import org.apache.commons.dbutils.RowProcessor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks of the <code>RowProcessor</code> conversions. Every operation converts all
+ * <code>rows</code> rows of the result set.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RowProcessorBenchmark {
+
+    @Param({ Shapes.NARROW, Shapes.WIDE })
+    public String shape;
+
+    @Param({ "1", "1000", "100000" })
+    public int rows;
+
+    private final RowProcessor processor = BasicRowProcessor.instance();
+
+    private InMemoryResultSet rs;
+
+    private Class<?> type;
+
+    @Setup
+    public void setUp() {
+        rs = Shapes.resultSet(shape, rows);
+        type = Shapes.beanType(shape);
+    }
+
+    @Benchmark
+    public void toBean(Blackhole bh) throws SQLException {
+        rs.reset();
+        while (rs.next()) {
+            bh.consume(processor.toBean(rs, type));
+        }
+    }
+
+    @Benchmark
+    public Object toBeanList() throws SQLException {
+        return processor.toBeanList(rs.reset(), type);
+    }
+
+    @Benchmark
+    public void toMap(Blackhole bh) throws SQLException {
+        rs.reset();
+        while (rs.next()) {
+            bh.consume(processor.toMap(rs));
+        }
+    }
+
+    @Benchmark
+    public void toArray(Blackhole bh) throws SQLException {
+        rs.reset();
+        while (rs.next()) {
+            bh.consume(processor.toArray(rs));
+        }
+    }
+
+}
@@ -0,0 +1,79 @@
+package org.apache.commons.dbutils.bench;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.dbutils.BasicRowProcessor;
+import org.apache.commons.dbutils.BeanProcessor;
+import org.apache.commons.dbutils.handlers.BeanListHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the compiled property setters of <code>BeanProcessor</code> with the reflective path,
+ * on a 10k row <code>BeanListHandler</code>. The reflective path is what a
+ * <code>BeanProcessor</code> subclass that overrides <code>getWriteMethod</code> runs.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SetterBenchmark {
+
+    public static final String GENERATED = "generated";
+
+    public static final String REFLECTIVE = "reflective";
+
+    @Param({ Shapes.NARROW, Shapes.WIDE })
+    public String shape;
+
+    @Param({ GENERATED, REFLECTIVE })
+    public String setter;
+
+    @Param({ "10000" })
+    public int rows;
+
+    private InMemoryResultSet rs;
+
+    private BeanListHandler<Object> handler;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        rs = Shapes.resultSet(shape, rows);
+        BeanProcessor processor = REFLECTIVE.equals(setter) ? new ReflectiveBeanProcessor() : new BeanProcessor();
+        handler = new BeanListHandler<Object>((Class<Object>) Shapes.beanType(shape), new BasicRowProcessor(
+                processor));
+    }
+
+    @Benchmark
+    public Object beanListHandler() throws SQLException {
+        return handler.handle(rs.reset());
+    }
+
+    /**
+     * Overrides <code>getWriteMethod</code> without changing it, which makes
+     * <code>BeanProcessor</code> look the write method up and invoke it reflectively per value
+     */
+    private static final class ReflectiveBeanProcessor extends BeanProcessor {
+
+        @Override
+        protected Method getWriteMethod(Object target, PropertyDescriptor prop, Object value) {
+            return super.getWriteMethod(target, prop, value);
+        }
+    }
+
+}
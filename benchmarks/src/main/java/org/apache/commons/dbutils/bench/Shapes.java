@@ -0,0 +1,110 @@
+package org.apache.commons.dbutils.bench;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.sql.Types;
+
+/**
+ * The row shapes the benchmarks run against: <code>narrow</code>, the four columns of
+ * {@link NarrowBean}, and <code>wide</code>, the twenty columns of {@link WideBean}. Values are
+ * deterministic so runs are comparable; the <code>notes</code> column of the wide shape is SQL NULL
+ * on every tenth row.
+ */
+public final class Shapes {
+
+    public static final String NARROW = "narrow";
+
+    public static final String WIDE = "wide";
+
+    private static final String[] NARROW_LABELS = { "id", "name", "amount", "created" };
+
+    private static final int[] NARROW_TYPES = { Types.BIGINT, Types.VARCHAR, Types.DOUBLE, Types.TIMESTAMP };
+
+    private static final String[] WIDE_LABELS = { "id", "code", "name", "description", "quantity", "price",
+            "discount", "total", "active", "created", "updated", "category", "region", "ownerId", "version",
+            "score", "rank", "email", "phone", "notes" };
+
+    private static final int[] WIDE_TYPES = { Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR,
+            Types.INTEGER, Types.DOUBLE, Types.DOUBLE, Types.DOUBLE, Types.BOOLEAN, Types.TIMESTAMP,
+            Types.TIMESTAMP, Types.VARCHAR, Types.VARCHAR, Types.BIGINT, Types.INTEGER, Types.DOUBLE,
+            Types.INTEGER, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR };
+
+    private Shapes() {
+    }
+
+    /**
+     * Create a result set of given shape
+     *
+     * @param shape {@link #NARROW} or {@link #WIDE}
+     * @param rows The number of rows
+     * @return The result set, positioned before the first row
+     */
+    public static InMemoryResultSet resultSet(String shape, int rows) {
+        if (NARROW.equals(shape)) {
+            Object[][] data = new Object[rows][];
+            for (int i = 0; i < rows; i++) {
+                data[i] = narrowRow(i);
+            }
+            return new InMemoryResultSet(NARROW_LABELS, NARROW_TYPES, data);
+        } else if (WIDE.equals(shape)) {
+            Object[][] data = new Object[rows][];
+            for (int i = 0; i < rows; i++) {
+                data[i] = wideRow(i);
+            }
+            return new InMemoryResultSet(WIDE_LABELS, WIDE_TYPES, data);
+        }
+        throw new IllegalArgumentException("Unknown shape " + shape);
+    }
+
+    /**
+     * Get the bean class of a shape
+     *
+     * @param shape {@link #NARROW} or {@link #WIDE}
+     * @return The bean class
+     */
+    public static Class<?> beanType(String shape) {
+        if (NARROW.equals(shape)) {
+            return NarrowBean.class;
+        } else if (WIDE.equals(shape)) {
+            return WideBean.class;
+        }
+        throw new IllegalArgumentException("Unknown shape " + shape);
+    }
+
+    /**
+     * Create the replacement parameters of an INSERT of one row of given shape
+     *
+     * @param shape {@link #NARROW} or {@link #WIDE}
+     * @return The parameters
+     */
+    public static Object[] parameters(String shape) {
+        if (NARROW.equals(shape)) {
+            return narrowRow(1);
+        } else if (WIDE.equals(shape)) {
+            Object[] row = wideRow(1);
+            // bind a decimal as well, drivers treat it differently from doubles
+            row[7] = new BigDecimal("12.50");
+            return row;
+        }
+        throw new IllegalArgumentException("Unknown shape " + shape);
+    }
+
+    private static Object[] narrowRow(int i) {
+        return new Object[] { Long.valueOf(i), text("name", i), Double.valueOf(i * 1.5),
+                new Timestamp(1487462400000L + i) };
+    }
+
+    private static Object[] wideRow(int i) {
+        return new Object[] { Long.valueOf(i), text("C", i), text("name", i), text("description of row", i),
+                Integer.valueOf(i % 100), Double.valueOf(i * 0.25), Double.valueOf(0.1), Double.valueOf(i * 0.225),
+                Boolean.valueOf(i % 2 == 0), new Timestamp(1487462400000L + i), new Timestamp(1487548800000L + i),
+                text("category", i % 16), text("region", i % 8), Long.valueOf(i % 1000), Integer.valueOf(1),
+                Double.valueOf(i % 5), Integer.valueOf(i % 50), text("user", i) + "@example.com",
+                text("555-", i), i % 10 == 0 ? null : text("notes", i) };
+    }
+
+    private static String text(String prefix, int i) {
+        return prefix + i;
+    }
+
+}
@@ -12,6 +12,7 @@ import java.util.Map;
 
 import org.apache.commons.annotation.AnnotationLoader;
 import org.apache.commons.dbutils.QueryRunner;
+import org.apache.commons.dbutils.TransactionContext;
 import org.apache.commons.dbutils.TxQueryRunner;
 import org.apache.commons.dbutils.handlers.BeanHandler;
 import org.apache.commons.dbutils.handlers.BeanListHandler;
@@ -29,7 +30,7 @@ public class BaseDao<T> implements Dao<T> {
     /**
      * The <code>QueryRunner</code> to insert, delete, update and query
      */
-    private QueryRunner qr = new TxQueryRunner();
+    private QueryRunner qr;
 
     private static final String COMMON_STRING = "=?";
 
@@ -43,8 +44,19 @@ public class BaseDao<T> implements Dao<T> {
     /**
      * The default constructor to BaseDao, getting class of <code>T</code>
      */
-    @SuppressWarnings({ "unchecked", "rawtypes" })
     public BaseDao() {
+        this(null);
+    }
+
+    /**
+     * The constructor to BaseDao whose statements always use the transaction and session of a
+     * given context, e.g. for work that hops between threads
+     * 
+     * @param context The context, <code>null</code> to use the one of the running code
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public BaseDao(TransactionContext context) {
+        qr = new TxQueryRunner(context);
         clazz = (Class) ((ParameterizedType) (this.getClass().getGenericSuperclass()))
                 .getActualTypeArguments()[0];
     }
@@ -115,6 +127,38 @@ public class BaseDao<T> implements Dao<T> {
         return qr.query(sql, new BeanListHandler<T>(clazz), params.toArray());
     }
 
+    /**
+     * Get the SQL of the statements whose text doesn't depend on the bean's values: insert, update
+     * of all columns and query by the full primary key. Register them with
+     * <code>JdbcUtils.registerStatements</code> to have them prepared when the pool warms up.
+     *
+     * @return The SQL statements
+     * @throws SQLException If <code>T</code> can't be instantiated or Annotation loader fail
+     */
+    public List<String> getStatementSql() throws SQLException {
+        T bean;
+        try {
+            bean = clazz.newInstance();
+        } catch (Exception e) {
+            throw new SQLException("Can't instantiate " + clazz.getName() + ": " + e.getMessage());
+        }
+        List<String> sql = new ArrayList<String>();
+        List<Object> params = new ArrayList<Object>();
+        sql.add(this.getInsertSql(bean, params));
+        Map<String, String> primaryKeys = AnnotationLoader.getPriamryKey(clazz);
+        if (!primaryKeys.isEmpty()) {
+            sql.add(this.getUpdateSQL(params, bean));
+            StringBuffer sqlWhere = new StringBuffer(" where").append(" ");
+            StringBuffer sqlFore = new StringBuffer("select").append(" ");
+            Map<String, String> columnToProps = AnnotationLoader.ColumnMapProperty(clazz);
+            columnToProps.putAll(primaryKeys);
+            getQueryForeSql(columnToProps, sqlFore);
+            this.getSql(this.getColumnSQLExpressions(primaryKeys, COMMON_STRING, bean), sqlWhere, " and ");
+            sql.add(sqlFore.append(" ").append(sqlWhere).toString());
+        }
+        return sql;
+    }
+
     /**
      * Get <code>PropertyDescriptor[]</code> by JavaBean
      * 
@@ -1,7 +1,5 @@
 package org.apache.commons.dbutils;
 
-import java.beans.IntrospectionException;
-import java.beans.Introspector;
 import java.beans.PropertyDescriptor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
@@ -13,11 +11,12 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.SQLFeatureNotSupportedException;
 import java.sql.Statement;
-import java.sql.Types;
 import java.util.Arrays;
 
 import javax.sql.DataSource;
 
+import org.apache.commons.dbutils.DatabaseCapabilities.ParameterTypes;
+
 /**
  * The base class for QueryRunner & AsyncQueryRunner. This class is thread safe
  * 
@@ -26,9 +25,40 @@ import javax.sql.DataSource;
 public abstract class AbstractQueryRunner {
 
     /**
-     * Is {@link ParameterMetaData#getParameterTypeName(int)}broken(have we tried it yet)?
+     * Is {@link ParameterMetaData#getParameterTypeName(int)} known broken, so we don't even try it?
+     * Drivers found broken at runtime are remembered by their <code>DatabaseCapabilities</code>.
+     */
+    private final boolean pmdKnownBroken;
+
+    /**
+     * The capabilities of the database behind {@link #ds}, resolved with the first connection
+     */
+    private volatile DatabaseCapabilities dsCapabilities;
+
+    /**
+     * The connection whose capabilities were resolved last, for runners without
+     * <code>DataSource</code>
+     */
+    private volatile BoundCapabilities lastCapabilities;
+
+    /**
+     * Stands in for the database of statements whose connection isn't known
+     */
+    private final DatabaseCapabilities unknownDatabase = new DatabaseCapabilities(null, null, null, false,
+            false, false);
+
+    /**
+     * Whether a subclass overrides {@link #fillStatement(PreparedStatement, Object...)}, which then
+     * binds all parameters
+     */
+    private final boolean fillStatementOverridden = this.isOverridden("fillStatement", PreparedStatement.class,
+            Object[].class);
+
+    /**
+     * How the parameters of each SQL are bound, by database and SQL
      */
-    private volatile boolean pmdKnownBroken = false;
+    private final BoundedCache<BindingKey, ParameterBinding> bindings = new BoundedCache<BindingKey, ParameterBinding>(
+            BoundedCache.DEFAULT_MAX_SIZE * 4);
 
     /**
      * The <code>DataSource</code> to retrieve connections from.
@@ -40,12 +70,20 @@ public abstract class AbstractQueryRunner {
      */
     private final StatementConfiguration stmtConfig;
 
+    /**
+     * The cache prepared statements are taken from and returned to, <code>null</code> if
+     * statements aren't cached
+     */
+    private final StatementCache statementCache;
+
     /**
      * Default constructor, sets pmkKnownBroken false, ds to null, and stmtConfig null.
      */
     public AbstractQueryRunner() {
+        this.pmdKnownBroken = false;
         this.ds = null;
         this.stmtConfig = null;
+        this.statementCache = null;
     }
 
     /**
@@ -60,6 +98,7 @@ public abstract class AbstractQueryRunner {
         this.pmdKnownBroken = pmdKnownBroken;
         this.ds = null;
         this.stmtConfig = null;
+        this.statementCache = null;
     }
 
     /**
@@ -69,8 +108,10 @@ public abstract class AbstractQueryRunner {
      * @param ds The <code>DataSource</code> to retrieve connections from
      */
     public AbstractQueryRunner(DataSource ds) {
+        this.pmdKnownBroken = false;
         this.ds = ds;
         this.stmtConfig = null;
+        this.statementCache = null;
     }
 
     /**
@@ -80,8 +121,10 @@ public abstract class AbstractQueryRunner {
      * @param stmtConfig The configuration to apply to statements when they are prepared
      */
     public AbstractQueryRunner(StatementConfiguration stmtConfig) {
+        this.pmdKnownBroken = false;
         this.ds = null;
         this.stmtConfig = stmtConfig;
+        this.statementCache = null;
     }
 
     /**
@@ -99,6 +142,7 @@ public abstract class AbstractQueryRunner {
         this.pmdKnownBroken = pmdKnownBroken;
         this.ds = ds;
         this.stmtConfig = null;
+        this.statementCache = null;
     }
 
     /**
@@ -110,8 +154,10 @@ public abstract class AbstractQueryRunner {
      * @param stmtConfig The configuration to apply to statements when they are prepared
      */
     public AbstractQueryRunner(DataSource ds, StatementConfiguration stmtConfig) {
+        this.pmdKnownBroken = false;
         this.ds = ds;
         this.stmtConfig = stmtConfig;
+        this.statementCache = null;
     }
 
     /**
@@ -130,6 +176,30 @@ public abstract class AbstractQueryRunner {
         this.pmdKnownBroken = pmdKnownBroken;
         this.ds = ds;
         this.stmtConfig = stmtConfig;
+        this.statementCache = null;
+    }
+
+    /**
+     * Constructor to provide a <code>DataSource</code>, a <code>pmdKnownBroken</code>, a
+     * <code>StatementConfiguration</code> and a <code>StatementCache</code>. Methods that don't
+     * take connections will retrieve connections from this <code>DataSource</code>
+     * 
+     * @param ds The <code>DataSource</code> to retrieve connections from, may be <code>null</code>
+     * @param pmdKnownBroken Some drivers don't support
+     *        {@link ParameterMetaData#getParameterTypeName(int)}; if the
+     *        <code>pmdKnownBroken</code> is set true, we will not try it, if it is set false, we
+     *        will try it, and if it breaks, we'll remember not to try it again.
+     * @param stmtConfig The configuration to apply to statement when they are prepared, may be
+     *        <code>null</code>
+     * @param statementCache The cache to reuse prepared statements from, <code>null</code> to
+     *        prepare every statement anew
+     */
+    public AbstractQueryRunner(DataSource ds, boolean pmdKnownBroken, StatementConfiguration stmtConfig,
+            StatementCache statementCache) {
+        this.pmdKnownBroken = pmdKnownBroken;
+        this.ds = ds;
+        this.stmtConfig = stmtConfig;
+        this.statementCache = statementCache;
     }
 
     /**
@@ -144,31 +214,120 @@ public abstract class AbstractQueryRunner {
     }
 
     /**
-     * /** Some drivers don't support {@link ParameterMetaData#getParameterType(int) }; if
+     * Some drivers don't support {@link ParameterMetaData#getParameterType(int) }; if
      * <code>pmdKnownBroken</code> is set to true, we won't even try it; if false, we'll try it, and
-     * if it breaks, we'll remember not to use it again.
+     * if it breaks, the database's <code>DatabaseCapabilities</code> remember not to use it again.
      *
-     * @return the flag to skip (or not) {@link ParameterMetaData#getParameterType(int) }
+     * @return true if the flag was set, or if the driver used last was found broken
      */
     public boolean isPmdKnownBroken() {
-        return pmdKnownBroken;
+        if (pmdKnownBroken) {
+            return true;
+        }
+        DatabaseCapabilities capabilities = dsCapabilities;
+        if (capabilities == null) {
+            BoundCapabilities last = lastCapabilities;
+            capabilities = last == null ? unknownDatabase : last.capabilities;
+        }
+        return capabilities.isParameterMetaDataBroken();
+    }
+
+    /**
+     * Get the capabilities of the database a connection is connected to. The capabilities are
+     * probed once per <code>DataSource</code>, or once per JDBC URL for runners without one, so a
+     * runner with a <code>DataSource</code> assumes connections passed to it reach the same
+     * database.
+     *
+     * @param conn The connection, <code>null</code> if unknown
+     * @return The capabilities
+     * @throws SQLException If the database metadata can't be read
+     */
+    public DatabaseCapabilities getCapabilities(Connection conn) throws SQLException {
+        DatabaseCapabilities capabilities = dsCapabilities;
+        if (capabilities != null) {
+            return capabilities;
+        }
+        if (conn == null) {
+            return unknownDatabase;
+        }
+        DataSource source = this.getDataSource();
+        if (source != null) {
+            capabilities = DatabaseCapabilities.of(source, conn);
+            dsCapabilities = capabilities;
+            return capabilities;
+        }
+        BoundCapabilities last = lastCapabilities;
+        if (last != null && last.conn == conn) {
+            return last.capabilities;
+        }
+        capabilities = DatabaseCapabilities.of(conn);
+        lastCapabilities = new BoundCapabilities(conn, capabilities);
+        return capabilities;
+    }
+
+    /**
+     * Check whether a subclass overrides a method of <code>AbstractQueryRunner</code>
+     * 
+     * @param name The method name
+     * @param parameterTypes The method parameter types
+     * @return true if the method is declared below <code>AbstractQueryRunner</code>
+     */
+    private boolean isOverridden(String name, Class<?>... parameterTypes) {
+        for (Class<?> c = this.getClass(); c != AbstractQueryRunner.class; c = c.getSuperclass()) {
+            try {
+                c.getDeclaredMethod(name, parameterTypes);
+                return true;
+            } catch (NoSuchMethodException e) {
+                // keep looking in the super class
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the registry whose <code>ParameterBinder</code>s bind parameter values. This
+     * implementation returns {@link HandlerRegistry#getDefault()}; subclasses can override it to
+     * bind custom types, the result must not change over the runner's life since binders are
+     * resolved once per SQL.
+     * 
+     * @return The handler registry
+     */
+    protected HandlerRegistry getHandlerRegistry() {
+        return HandlerRegistry.getDefault();
+    }
+
+    /**
+     * Get the cache prepared statements are reused from
+     * 
+     * @return The statement cache or <code>null</code> if statements aren't cached
+     */
+    public StatementCache getStatementCache() {
+        return statementCache;
     }
 
     /**
      * Factory method that creates and initializes a <code>PreparedStatement</code> object for the
      * given SQL. <code>QueryRunner</code> methods always call this method to prepare statements for
      * them. Subclasses can override this method to provide special PreparedStatement configuration
-     * if needed. This implementation simply calls <code>conn.prepareStatement(sql)</code>.
+     * if needed. This implementation takes the statement from the <code>StatementCache</code> if
+     * there is one, and otherwise calls <code>conn.prepareStatement(sql)</code>. Under a
+     * {@link Deadline} the statement is limited to the remaining time.
      *
      * @param conn The <code>Connection</code> used to create the <code>PreparedStatement</code>
      * @param sql The SQL statement to prepare.
      * @return An initialized <code>PreparedStatement</code>.
-     * @throws SQLException if a database access error occurs
+     * @throws SQLException if a database access error occurs, or the deadline has passed
      */
     protected PreparedStatement prepareStatement(Connection conn, String sql) throws SQLException {
-
-        PreparedStatement ps = conn.prepareStatement(sql);
-        configureStatement(ps);
+        Deadline.checkCurrent("preparing statement");
+        PreparedStatement ps;
+        if (statementCache != null) {
+            ps = this.cachedStatement(conn, sql, Statement.NO_GENERATED_KEYS, false);
+        } else {
+            ps = conn.prepareStatement(sql);
+            configureStatement(ps);
+        }
+        this.applyDeadline(ps);
         return ps;
     }
 
@@ -178,21 +337,52 @@ public abstract class AbstractQueryRunner {
      * them. Subclasses can override this method to provide special PreparedStatement configuration
      * if needed. This implementation simply calls
      * <code>conn.prepareStatement(sql, returnedKeys)</code> which will result in the ability to
-     * retrieve the automatically-generated keys from an auto_increment column.
+     * retrieve the automatically-generated keys from an auto_increment column, unless the
+     * statement can be taken from the <code>StatementCache</code>. Under a {@link Deadline} the
+     * statement is limited to the remaining time.
      *
      * @param conn The <code>Connection</code> used to create the <code>PreparedStatement</code>
      * @param sql The SQL statement to prepare.
      * @param returnedKeys Flag indicating whether to return generated keys or not.
      *
      * @return An initialized <code>PreparedStatement</code>.
-     * @throws SQLException if a database access error occurs
+     * @throws SQLException if a database access error occurs, or the deadline has passed
      * @since 1.6
      */
     protected PreparedStatement prepareStatement(Connection conn, String sql, int returnedKeys)
             throws SQLException {
+        Deadline.checkCurrent("preparing statement");
+        PreparedStatement ps;
+        if (statementCache != null) {
+            ps = this.cachedStatement(conn, sql, returnedKeys, true);
+        } else {
+            ps = conn.prepareStatement(sql, returnedKeys);
+            configureStatement(ps);
+        }
+        this.applyDeadline(ps);
+        return ps;
+    }
 
-        PreparedStatement ps = conn.prepareStatement(sql, returnedKeys);
+    /**
+     * Take a statement from the cache, or prepare one and check it out of the cache
+     *
+     * @param conn The <code>Connection</code> used to create the <code>PreparedStatement</code>
+     * @param sql The SQL statement to prepare.
+     * @param returnedKeys Flag indicating whether to return generated keys or not.
+     * @param keysRequested Whether the caller asked for a generated keys mode explicitly
+     * @return An initialized <code>PreparedStatement</code>.
+     * @throws SQLException if a database access error occurs
+     */
+    private PreparedStatement cachedStatement(Connection conn, String sql, int returnedKeys,
+            boolean keysRequested) throws SQLException {
+        PreparedStatement ps = statementCache.take(conn, sql, returnedKeys);
+        if (ps != null) {
+            return ps;
+        }
+        long start = System.nanoTime();
+        ps = keysRequested ? conn.prepareStatement(sql, returnedKeys) : conn.prepareStatement(sql);
         configureStatement(ps);
+        statementCache.prepared(conn, sql, returnedKeys, ps, System.nanoTime() - start);
         return ps;
     }
 
@@ -221,20 +411,59 @@ public abstract class AbstractQueryRunner {
         }
     }
 
+    /**
+     * Limit a statement to the time left by the deadline of the current thread, if there is one:
+     * the driver's query timeout is set to the remaining seconds, rounded up, unless the configured
+     * timeout is shorter, and the statement is cancelled when the deadline passes.
+     *
+     * @param stmt The statement
+     * @throws SQLException if a database access error occurs
+     */
+    private void applyDeadline(Statement stmt) throws SQLException {
+        Deadline deadline = Deadline.current();
+        if (deadline == null) {
+            return;
+        }
+        int seconds = (int) Math.max(1, Math.min(Integer.MAX_VALUE,
+                (deadline.remainingNanos() + 999999999L) / 1000000000L));
+        int configured = this.configuredQueryTimeout();
+        if (configured == 0 || configured > seconds) {
+            try {
+                stmt.setQueryTimeout(seconds);
+            } catch (SQLFeatureNotSupportedException e) {
+                // the watchdog still cancels it
+            }
+        }
+        StatementWatchdog.watch(stmt, deadline);
+    }
+
+    /**
+     * @return The query timeout of the <code>StatementConfiguration</code>, 0 if there is none
+     */
+    private int configuredQueryTimeout() {
+        if (stmtConfig != null && stmtConfig.isQueryTimeoutSet()) {
+            return stmtConfig.getQueryTimeout().intValue();
+        }
+        return 0;
+    }
+
     /**
      * Factory method that creates and initializes a <code>CallableStatement</code> object for the
      * given SQL. <code>QueryRunner</code> methods always call this method to prepare callable
      * statements for them. Subclasses can override this method to provide special CallableStatement
-     * configuration if needed. This implementation simply calls <code>conn.prepareCall(sql)</code>.
+     * configuration if needed. This implementation simply calls <code>conn.prepareCall(sql)</code>,
+     * and limits the statement to the time left by the {@link Deadline} if there is one.
      *
      * @param conn The <code>Connection</code> used to create the <code>CallableStatement</code>
      * @param sql The SQL statement to prepare.
      * @return An initialized <code>CallableStatement</code>.
-     * @throws SQLException if a database access error occurs
+     * @throws SQLException if a database access error occurs, or the deadline has passed
      */
     protected CallableStatement prepareCall(Connection conn, String sql) throws SQLException {
-
-        return conn.prepareCall(sql);
+        Deadline.checkCurrent("preparing call");
+        CallableStatement cs = conn.prepareCall(sql);
+        this.applyDeadline(cs);
+        return cs;
     }
 
     /**
@@ -242,9 +471,11 @@ public abstract class AbstractQueryRunner {
      * <code>QueryRunner</code> methods always call this method to retrieve connections from its
      * DataSource. Subclasses can override this method to provide special <code>Connection</code>
      * configuration if needed. This implementation simply calls <code>ds.getConnection()</code>.
+     * Under a {@link Deadline} it fails without asking the <code>DataSource</code> once the deadline
+     * has passed, and closes a connection that arrives after it.
      *
      * @return An initialized <code>Connection</code>.
-     * @throws SQLException if a database access error occurs
+     * @throws SQLException if a database access error occurs, or the deadline has passed
      * @since DbUtils 1.1
      */
     protected Connection prepareConnection() throws SQLException {
@@ -252,72 +483,96 @@ public abstract class AbstractQueryRunner {
             throw new SQLException("QueryRunner requires a DataSource to be "
                     + "invoked in this way, or a Connection should be passed in");
         }
-        return this.getDataSource().getConnection();
+        Deadline deadline = Deadline.current();
+        if (deadline == null) {
+            return this.getDataSource().getConnection();
+        }
+        deadline.check("acquiring connection");
+        Connection conn = this.getDataSource().getConnection();
+        if (deadline.isExpired()) {
+            DbUtils.closeQuietly(conn);
+            deadline.check("using the acquired connection");
+        }
+        return conn;
     }
 
     /**
-     * Fill <code>PreparedStatement</code> replacement parameters with given objects
+     * Fill <code>PreparedStatement</code> replacement parameters with given objects, bound by the
+     * <code>ParameterBinder</code>s of {@link #getHandlerRegistry()}. The parameter count is checked
+     * against the statement's <code>ParameterMetaData</code> unless it is known broken; use
+     * {@link #bindParameters(PreparedStatement, String, Object...)} where the SQL is known, so the
+     * metadata is read once per SQL.
      * 
      * @param stmt The <code>PreparedStatement</code> to fill
      * @param params The Query replacement parameters, <code>null</code> is a valid value to pass
      *        in.
      * @throws SQLException If a database access error occurs.
      */
-    @SuppressWarnings("rawtypes")
     public void fillStatement(PreparedStatement stmt, Object... params) throws SQLException {
-        ParameterMetaData pmd = null;
+        ParameterTypes types = null;
         if (!this.pmdKnownBroken) {
-            try {
-                pmd = stmt.getParameterMetaData();
-                if (pmd == null) {// can be returned by implementations that don't support the
-                                  // method
-                    pmdKnownBroken = true;
-                } else {
-                    int stmtCount = pmd.getParameterCount();
-                    int paramsCount = params == null ? 0 : params.length;
-                    if (stmtCount != paramsCount) {
-                        throw new SQLException("Wrong number of parameters: expected " + stmtCount
-                                + ", was given " + paramsCount);
-                    }
-                }
-            } catch (SQLFeatureNotSupportedException ex) {
-                pmdKnownBroken = true;
-            }
+            types = this.getCapabilities(stmt.getConnection()).readParameterTypes(stmt);
         }
-        // nothing to do here
-        if (params == null) {
-            return;
+        new ParameterBinding(this.getHandlerRegistry(), types).bind(stmt, params);
+    }
+
+    /**
+     * Fill <code>PreparedStatement</code> replacement parameters of given SQL. Its parameter count
+     * and types are read from <code>ParameterMetaData</code> the first time the SQL is seen and
+     * cached in the database's <code>DatabaseCapabilities</code>, and the <code>ParameterBinder</code>
+     * of each parameter is resolved once per database, SQL and value class. <code>QueryRunner</code>
+     * methods always call this method; if a subclass overrides
+     * {@link #fillStatement(PreparedStatement, Object...)} that method is called instead.
+     * 
+     * @param stmt The <code>PreparedStatement</code> to fill
+     * @param sql The SQL the statement was prepared for
+     * @param params The Query replacement parameters, <code>null</code> is a valid value to pass
+     *        in.
+     * @throws SQLException If a database access error occurs.
+     */
+    protected void bindParameters(PreparedStatement stmt, String sql, Object... params) throws SQLException {
+        this.bind(stmt, this.parameterBinding(stmt, sql), params);
+    }
+
+    /**
+     * Get how the parameters of given SQL are bound, resolving its parameter types once
+     * 
+     * @param stmt The <code>PreparedStatement</code> prepared for the SQL
+     * @param sql The SQL
+     * @return The binding or <code>null</code> if a subclass overrides
+     *         {@link #fillStatement(PreparedStatement, Object...)}
+     * @throws SQLException If a database access error occurs.
+     */
+    ParameterBinding parameterBinding(PreparedStatement stmt, String sql) throws SQLException {
+        if (fillStatementOverridden) {
+            return null;
         }
-        CallableStatement call = null;
-        if (stmt instanceof CallableStatement) {
-            call = (CallableStatement) stmt;
+        // without metadata the binding is the same for every database
+        DatabaseCapabilities capabilities = this.pmdKnownBroken ? null : this.getCapabilities(stmt.getConnection());
+        BindingKey key = new BindingKey(capabilities, sql);
+        ParameterBinding binding = bindings.get(key);
+        if (binding == null) {
+            ParameterTypes types = capabilities == null ? null : capabilities.getParameterTypes(sql, stmt);
+            binding = bindings.put(key, new ParameterBinding(this.getHandlerRegistry(), types));
         }
-        for (int i = 0; i < params.length; i++) {
-            if (params[i] != null) {
-                if (call != null && params[i] instanceof OutParameter) {
-                    ((OutParameter) params[i]).register(call, i + 1);
-                } else {
-                    stmt.setObject(i + 1, params[i]);
-                }
-            } else {
-                /*
-                 * VARCHAR works with many drivers regardless of the actual column type. Oddly, NULL
-                 * and OTHER don't work with Oracle's driver
-                 */
-                int sqlType = Types.VARCHAR;
-                if (!pmdKnownBroken) {
-                    /*
-                     * It's not possible for pmkKnownBroken to change from true to false, (once
-                     * true, always true) so pmd cannot be null here
-                     */
-                    try {
-                        sqlType = pmd.getParameterType(i + 1);
-                    } catch (SQLException e) {
-                        pmdKnownBroken = true;
-                    }
-                }
-                stmt.setNull(i + 1, sqlType);
-            }
+        return binding;
+    }
+
+    /**
+     * Fill <code>PreparedStatement</code> replacement parameters with a binding resolved once, e.g.
+     * for all rows of a batch
+     * 
+     * @param stmt The <code>PreparedStatement</code> to fill
+     * @param binding The binding from {@link #parameterBinding(PreparedStatement, String)}
+     * @param params The Query replacement parameters, <code>null</code> is a valid value to pass
+     *        in.
+     * @throws SQLException If a database access error occurs.
+     */
+    void bind(PreparedStatement stmt, ParameterBinding binding, Object[] params) throws SQLException {
+        if (binding == null) {
+            this.fillStatement(stmt, params);
+        } else {
+            binding.bind(stmt, params);
         }
     }
 
@@ -357,45 +612,18 @@ public abstract class AbstractQueryRunner {
 
     /**
      * Fill <code>PreparedStatement</code> replacement parameters with the given object's bean
-     * property values
+     * property values, read through getters resolved once per bean class and property names
      * 
      * @param stmt The <code>PreparedStatement</code> to fill
      * @param bean A JavaBean object
      * @param propertyNames An ordered array of property names(these should match the
      *        getters/setters); the gives the order to insert values in the statement
-     * @throws SQLException If a database access error occurs
+     * @throws SQLException If a database access error occurs, or a property can't be read
      */
     public void fillStatementWithBean(PreparedStatement stmt, Object bean, String... propertyNames)
             throws SQLException {
-        PropertyDescriptor[] descriptors = null;
-
-        try {
-            descriptors = Introspector.getBeanInfo(bean.getClass()).getPropertyDescriptors();
-        } catch (IntrospectionException e) {
-            throw new RuntimeException("Could't introspect bean " + bean.getClass().toString(), e);
-        }
-        PropertyDescriptor[] stored = new PropertyDescriptor[propertyNames.length];
-        for (int i = 0; i < propertyNames.length; i++) {
-            String propertyName = propertyNames[i];
-            if (propertyName == null) {
-                throw new NullPointerException("PropertyName can't be null: " + i);
-            }
-            boolean found = false;
-            for (int j = 0; j < descriptors.length; j++) {
-                PropertyDescriptor descriptor = descriptors[i];
-                if (propertyName.equals(descriptor.getName())) {
-                    stored[i] = descriptor;
-                    found = true;
-                    break;
-                }
-            }
-            if (!found) {
-                throw new RuntimeException("Could't find bean property: " + bean.getClass() + " "
-                        + propertyName);
-            }
-        }
-
-        fillStatementWithBean(stmt, bean, stored);
+        BeanAccessPlan plan = BeanAccessPlan.of(bean.getClass(), propertyNames);
+        fillStatement(stmt, plan.read(bean, new Object[plan.size()]));
     }
 
     /**
@@ -449,28 +677,51 @@ public abstract class AbstractQueryRunner {
     }
 
     /**
-     * Close a <code>Connection</code>. This implementation avoids closing if null and does
-     * <strong>not</strong> suppress any exceptions. Subclasses can override to provide special
-     * handling like logging.
+     * Close a <code>Connection</code>. This implementation closes the statements cached for the
+     * connection, avoids closing if null and does <strong>not</strong> suppress any exceptions.
+     * Subclasses can override to provide special handling like logging.
      *
      * @param conn Connection to close
      * @throws SQLException if a database access error occurs
      * @since DbUtils 1.1
      */
     protected void close(Connection conn) throws SQLException {
+        if (statementCache != null && conn != null) {
+            statementCache.evict(conn);
+        }
         DbUtils.close(conn);
     }
 
     /**
-     * Close a <code>Statement</code>. This implementation avoids closing if null and does
-     * <strong>not</strong> suppress any exceptions. Subclasses can override to provide special
-     * handling like logging.
+     * Close a <code>Statement</code>. This implementation stops the deadline watchdog of the
+     * statement, returns statements taken from the <code>StatementCache</code> to the cache with
+     * their configured query timeout, avoids closing if null and does <strong>not</strong> suppress
+     * any exceptions. A statement the watchdog cancelled, or is cancelling, is closed instead of
+     * cached, so the cancellation can't reach the next caller. Subclasses can override to provide
+     * special handling like logging.
      *
      * @param stmt Statement to close
      * @throws SQLException if a database access error occurs
      * @since DbUtils 1.1
      */
     protected void close(Statement stmt) throws SQLException {
+        int watch = stmt == null ? StatementWatchdog.NOT_WATCHED : StatementWatchdog.release(stmt);
+        boolean cached = statementCache != null && stmt instanceof PreparedStatement;
+        if (watch == StatementWatchdog.CANCELLED) {
+            try {
+                DbUtils.close(stmt);
+            } finally {
+                if (cached) {
+                    // hands the closed statement back, so the cache forgets it
+                    statementCache.release((PreparedStatement) stmt);
+                }
+            }
+            return;
+        }
+        if (cached && statementCache.release((PreparedStatement) stmt,
+                watch == StatementWatchdog.RELEASED ? this.configuredQueryTimeout() : -1)) {
+            return;
+        }
         DbUtils.close(stmt);
     }
 
@@ -487,4 +738,49 @@ public abstract class AbstractQueryRunner {
         DbUtils.close(rs);
     }
 
+    /**
+     * The key of a cached <code>ParameterBinding</code>: the database, as runners without a
+     * <code>DataSource</code> may be passed connections to different ones, and the SQL
+     */
+    private static final class BindingKey {
+
+        private final DatabaseCapabilities capabilities;
+
+        private final String sql;
+
+        BindingKey(DatabaseCapabilities capabilities, String sql) {
+            this.capabilities = capabilities;
+            this.sql = sql;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof BindingKey)) {
+                return false;
+            }
+            BindingKey other = (BindingKey) obj;
+            return capabilities == other.capabilities && sql.equals(other.sql);
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(capabilities) * 31 + sql.hashCode();
+        }
+    }
+
+    /**
+     * A connection and the capabilities of its database
+     */
+    private static final class BoundCapabilities {
+
+        final Connection conn;
+
+        final DatabaseCapabilities capabilities;
+
+        BoundCapabilities(Connection conn, DatabaseCapabilities capabilities) {
+            this.conn = conn;
+            this.capabilities = capabilities;
+        }
+    }
+
 }
@@ -0,0 +1,117 @@
+package org.apache.commons.dbutils;
+
+/**
+ * The batch size of a chunked batch, adapted after each batch to the configured target latency.
+ * The size is scaled by the ratio of target to observed execution time, at most halved or doubled
+ * at once, and left alone while the time is within a quarter of the target so it doesn't jitter.
+ * Batches cut short by the payload limit set the size to the rows that fit instead.
+ *
+ * <p>
+ * Instances belong to one batch call and aren't thread safe.
+ * </p>
+ */
+final class AdaptiveBatchSize {
+
+    private final int minBatchSize;
+
+    private final int maxBatchSize;
+
+    private final long targetNanos;
+
+    private final long maxBatchBytes;
+
+    private int batchSize;
+
+    AdaptiveBatchSize(BatchConfiguration config) {
+        this.minBatchSize = config.getMinBatchSize();
+        this.maxBatchSize = config.getMaxBatchSize();
+        this.targetNanos = config.getTargetBatchMillis() * 1000000L;
+        this.maxBatchBytes = config.getMaxBatchBytes();
+        this.batchSize = config.getBatchSize();
+    }
+
+    /**
+     * Get the number of rows the current batch should have
+     *
+     * @return The batch size
+     */
+    int get() {
+        return batchSize;
+    }
+
+    /**
+     * Whether a batch of given estimated payload is full
+     *
+     * @param bytes The estimated payload
+     * @return true if the batch should be executed now
+     */
+    boolean isFull(long bytes) {
+        return maxBatchBytes > 0 && bytes >= maxBatchBytes;
+    }
+
+    /**
+     * Adapt the batch size to an executed batch
+     *
+     * @param rows The number of rows of the batch
+     * @param nanos The time it took to execute the batch
+     * @param byBytes Whether the batch was cut short by the payload limit
+     */
+    void executed(int rows, long nanos, boolean byBytes) {
+        if (byBytes) {
+            batchSize = this.bounded(rows);
+            return;
+        }
+        if (targetNanos == 0 || rows < batchSize || nanos <= 0) {
+            // fixed size, or the last, partial batch
+            return;
+        }
+        double ratio = (double) targetNanos / nanos;
+        if (ratio > 0.8 && ratio < 1.25) {
+            return;
+        }
+        ratio = Math.max(0.5, Math.min(2, ratio));
+        batchSize = this.bounded((long) (batchSize * ratio));
+    }
+
+    private int bounded(long size) {
+        return (int) Math.max(minBatchSize, Math.min(maxBatchSize, size));
+    }
+
+    /**
+     * Estimate the bytes a row of parameters adds to the driver's buffer
+     *
+     * @param row The parameters
+     * @return The estimated payload, 0 if the payload isn't limited
+     */
+    long estimate(Object[] row) {
+        return maxBatchBytes == 0 ? 0 : estimateBytes(row);
+    }
+
+    /**
+     * Estimate the bytes a row of parameters adds to a statement, whatever the limits
+     *
+     * @param row The parameters
+     * @return The estimated payload
+     */
+    static long estimateBytes(Object[] row) {
+        if (row == null) {
+            return 0;
+        }
+        long bytes = 0;
+        for (Object value : row) {
+            if (value == null) {
+                bytes += 1;
+            } else if (value instanceof CharSequence) {
+                bytes += ((CharSequence) value).length() + 4;
+            } else if (value instanceof byte[]) {
+                bytes += ((byte[]) value).length + 4;
+            } else if (value instanceof Number || value instanceof Boolean) {
+                bytes += 8;
+            } else {
+                bytes += 16;
+            }
+        }
+        return bytes;
+    }
+
+}
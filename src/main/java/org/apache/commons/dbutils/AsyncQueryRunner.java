@@ -0,0 +1,671 @@
+package org.apache.commons.dbutils;
+
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+/**
+ * Executes SQL queries of a <code>QueryRunner</code> on an <code>Executor</code> and returns
+ * <code>CompletableFuture</code>s of their results, so independent queries can overlap instead of
+ * blocking the calling thread one after the other.
+ *
+ * <p>
+ * At most {@link #getMaxConcurrency()} statements run at a time, by default the maximum size of
+ * the runner's <code>DataSource</code> pool if it can be read from the pool ({@link ConnectionPool},
+ * {@link GatedDataSource}, c3p0, HikariCP, DBCP, Tomcat JDBC), otherwise
+ * {@link #DEFAULT_MAX_CONCURRENCY}; further calls are queued, without blocking a thread, until a
+ * running one completes. So a burst of requests waits for connections here instead of exhausting
+ * the pool or piling up threads blocked in it. A call the executor rejects, e.g. after it was shut
+ * down, completes exceptionally with the <code>RejectedExecutionException</code>. Virtual threads
+ * suit the executor well, see {@link #newVirtualThreadExecutor()}.
+ * </p>
+ *
+ * <pre>
+ * AsyncQueryRunner async = new AsyncQueryRunner(new QueryRunner(ds), AsyncQueryRunner.newVirtualThreadExecutor());
+ * CompletableFuture&lt;User&gt; user = async.query(userSql, userHandler, id);
+ * CompletableFuture&lt;List&lt;Order&gt;&gt; orders = async.query(ordersSql, ordersHandler, id);
+ * </pre>
+ *
+ * <p>
+ * The {@link Deadline} of the calling thread applies to the statements, and a call still queued
+ * when it passes fails before it starts. Methods that take a <code>Connection</code> run on that
+ * connection; don't use it for anything else until the future completes. A
+ * <code>TxQueryRunner</code> can't be used, its transaction connection belongs to the calling
+ * thread. The class is thread safe.
+ * </p>
+ */
+public class AsyncQueryRunner extends AbstractQueryRunner {
+
+    /**
+     * The concurrency bound when the pool size of the <code>DataSource</code> can't be read, the
+     * default maximum size of a {@link ConnectionPool}
+     */
+    public static final int DEFAULT_MAX_CONCURRENCY = 10;
+
+    /**
+     * The getters of the maximum pool size of the common pooling <code>DataSource</code>s:
+     * <code>ConnectionPool</code> and c3p0, HikariCP, DBCP 2, Tomcat JDBC and DBCP 1, and
+     * <code>GatedDataSource</code>
+     */
+    private static final String[] POOL_SIZE_GETTERS = { "getMaxPoolSize", "getMaximumPoolSize", "getMaxTotal",
+            "getMaxActive", "getPermits" };
+
+    private final QueryRunner queryRunner;
+
+    private final Executor executor;
+
+    private final int maxConcurrency;
+
+    /**
+     * The tasks waiting for a free slot
+     */
+    private final ConcurrentLinkedQueue<Queued<?>> queue = new ConcurrentLinkedQueue<Queued<?>>();
+
+    private final AtomicInteger active = new AtomicInteger();
+
+    /**
+     * Constructor for AsyncQueryRunner, bounded by the pool size of the runner's
+     * <code>DataSource</code>, or by {@link #DEFAULT_MAX_CONCURRENCY} if it can't be read
+     *
+     * @param queryRunner The runner that executes the statements
+     * @param executor The executor that runs them
+     */
+    public AsyncQueryRunner(QueryRunner queryRunner, Executor executor) {
+        this(queryRunner, executor, poolSize(queryRunner.getDataSource()));
+    }
+
+    /**
+     * Constructor for AsyncQueryRunner
+     *
+     * @param queryRunner The runner that executes the statements
+     * @param executor The executor that runs them
+     * @param maxConcurrency The most statements running at a time, must be positive
+     */
+    public AsyncQueryRunner(QueryRunner queryRunner, Executor executor, int maxConcurrency) {
+        super(queryRunner.getDataSource());
+        if (executor == null) {
+            throw new IllegalArgumentException("executor can not be null");
+        }
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("maxConcurrency must be positive: " + maxConcurrency);
+        }
+        this.queryRunner = queryRunner;
+        this.executor = executor;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * Create an executor that starts a virtual thread per task where the JVM supports them (Java 21
+     * and later), and otherwise a cached pool of daemon threads. Shut it down when it's no longer
+     * needed.
+     *
+     * @return The executor
+     */
+    public static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (Exception e) {
+            // not available before Java 21
+        }
+        final AtomicInteger count = new AtomicInteger();
+        return Executors.newCachedThreadPool(new ThreadFactory() {
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "AsyncQueryRunner-" + count.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            }
+        });
+    }
+
+    /**
+     * Read the maximum pool size of a pooling <code>DataSource</code>
+     *
+     * @param ds The <code>DataSource</code>, may be <code>null</code>
+     * @return The maximum pool size or {@link #DEFAULT_MAX_CONCURRENCY} if it can't be read
+     */
+    static int poolSize(DataSource ds) {
+        if (ds != null) {
+            for (String getter : POOL_SIZE_GETTERS) {
+                try {
+                    Object size = ds.getClass().getMethod(getter).invoke(ds);
+                    if (size instanceof Integer && ((Integer) size).intValue() > 0) {
+                        return ((Integer) size).intValue();
+                    }
+                } catch (Exception e) {
+                    // not this kind of pool
+                }
+            }
+        }
+        return DEFAULT_MAX_CONCURRENCY;
+    }
+
+    /**
+     * Get the runner that executes the statements
+     *
+     * @return The query runner
+     */
+    public QueryRunner getQueryRunner() {
+        return queryRunner;
+    }
+
+    /**
+     * Get the most statements running at a time
+     *
+     * @return The concurrency bound
+     */
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * Get the number of statements running
+     *
+     * @return The active count
+     */
+    public int getActiveCount() {
+        return active.get();
+    }
+
+    /**
+     * Get the number of statements waiting for a free slot
+     *
+     * @return The queued count
+     */
+    public int getQueuedCount() {
+        return queue.size();
+    }
+
+    /**
+     * Queue a task and run it once a slot is free, under the deadline of the calling thread
+     *
+     * @param task The task
+     * @return The future of the task's result
+     */
+    private <T> CompletableFuture<T> submit(final Callable<T> task) {
+        Queued<T> queued = new Queued<T>(task, Deadline.current());
+        queue.add(queued);
+        this.dispatch();
+        return queued.future;
+    }
+
+    /**
+     * Start queued tasks while slots are free. A task the executor rejects fails with the
+     * rejection instead of running on the dispatching thread.
+     */
+    private void dispatch() {
+        while (!queue.isEmpty()) {
+            int running = active.get();
+            if (running >= maxConcurrency) {
+                return;
+            }
+            if (!active.compareAndSet(running, running + 1)) {
+                continue;
+            }
+            final Queued<?> task = queue.poll();
+            if (task == null) {
+                active.decrementAndGet();
+                // a task added meanwhile is dispatched by its submitter
+                continue;
+            }
+            try {
+                executor.execute(new Runnable() {
+                    public void run() {
+                        try {
+                            task.run();
+                        } finally {
+                            active.decrementAndGet();
+                            AsyncQueryRunner.this.dispatch();
+                        }
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                active.decrementAndGet();
+                task.future.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * A queued task and the future of its result
+     */
+    private static final class Queued<T> implements Runnable {
+
+        final CompletableFuture<T> future = new CompletableFuture<T>();
+
+        private final Callable<T> task;
+
+        private final Deadline deadline;
+
+        Queued(Callable<T> task, Deadline deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        public void run() {
+            if (future.isDone()) {
+                // cancelled while queued
+                return;
+            }
+            Deadline joined = deadline == null ? null : deadline.join();
+            try {
+                future.complete(task.call());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            } finally {
+                if (joined != null) {
+                    joined.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Execute a batch of SQL INSERT, UPDATE, or DELETE queries.
+     *
+     * @param conn The <code>Connection</code> to use to run the query. The caller is responsible
+     *        for closing this Connection.
+     * @param sql The SQL to execute.
+     * @param params An array of query replacement parameters. Each row in this array is one set of
+     *        batch replacement values.
+     * @return A <code>CompletableFuture</code> of the number of rows updated per statement.
+     */
+    public CompletableFuture<int[]> batch(final Connection conn, final String sql, final Object[][] params) {
+        return this.submit(new Callable<int[]>() {
+            public int[] call() throws SQLException {
+                return queryRunner.batch(conn, sql, params);
+            }
+        });
+    }
+
+    /**
+     * Execute a batch of SQL INSERT, UPDATE, or DELETE queries. The <code>Connection</code> is
+     * retrieved from the <code>DataSource</code> set in the constructor.
+     *
+     * @param sql The SQL to execute.
+     * @param params An array of query replacement parameters. Each row in this array is one set of
+     *        batch replacement values.
+     * @return A <code>CompletableFuture</code> of the number of rows updated per statement.
+     */
+    public CompletableFuture<int[]> batch(final String sql, final Object[][] params) {
+        return this.submit(new Callable<int[]>() {
+            public int[] call() throws SQLException {
+                return queryRunner.batch(sql, params);
+            }
+        });
+    }
+
+    /**
+     * Execute an SQL SELECT query with replacement parameters. The caller is responsible for
+     * closing the connection.
+     *
+     * @param <T> The type of object that the handler returns
+     * @param conn The connection to execute the query in.
+     * @param sql The query to execute.
+     * @param rsh The handler that converts the results into an object.
+     * @param params The replacement parameters.
+     * @return A <code>CompletableFuture</code> of the object returned by the handler.
+     */
+    public <T> CompletableFuture<T> query(final Connection conn, final String sql, final ResultSetHandler<T> rsh,
+            final Object... params) {
+        return this.submit(new Callable<T>() {
+            public T call() throws SQLException {
+                return queryRunner.query(conn, sql, rsh, params);
+            }
+        });
+    }
+
+    /**
+     * Execute an SQL SELECT query without any replacement parameters. The caller is responsible for
+     * closing the connection.
+     *
+     * @param <T> The type of object that the handler returns
+     * @param conn The connection to execute the query in.
+     * @param sql The query to execute.
+     * @param rsh The handler that converts the results into an object.
+     * @return A <code>CompletableFuture</code> of the object returned by the handler.
+     */
+    public <T> CompletableFuture<T> query(final Connection conn, final String sql, final ResultSetHandler<T> rsh) {
+        return this.submit(new Callable<T>() {
+            public T call() throws SQLException {
+                return queryRunner.query(conn, sql, rsh);
+            }
+        });
+    }
+
+    /**
+     * Executes the given SELECT SQL query. The <code>Connection</code> is retrieved from the
+     * <code>DataSource</code> set in the constructor.
+     *
+     * @param <T> The type of object that the handler returns
+     * @param sql The SQL statement to execute.
+     * @param rsh The handler used to create the result object from the <code>ResultSet</code>.
+     * @param params Initialize the PreparedStatement's IN parameters with this array.
+     * @return A <code>CompletableFuture</code> of the object generated by the handler.
+     */
+    public <T> CompletableFuture<T> query(final String sql, final ResultSetHandler<T> rsh, final Object... params) {
+        return this.submit(new Callable<T>() {
+            public T call() throws SQLException {
+                return queryRunner.query(sql, rsh, params);
+            }
+        });
+    }
+
+    /**
+     * Executes the given SELECT SQL without any replacement parameters. The
+     * <code>Connection</code> is retrieved from the <code>DataSource</code> set in the
+     * constructor.
+     *
+     * @param <T> The type of object that the handler returns
+     * @param sql The SQL statement to execute.
+     * @param rsh The handler used to create the result object from the <code>ResultSet</code>.
+     * @return A <code>CompletableFuture</code> of the object generated by the handler.
+     */
+    public <T> CompletableFuture<T> query(final String sql, final ResultSetHandler<T> rsh) {
+        return this.submit(new Callable<T>() {
+            public T call() throws SQLException {
+                return queryRunner.query(sql, rsh);
+            }
+        });
+    }
+
+    /**
+     * Execute an SQL INSERT, UPDATE, or DELETE query without replacement parameters.
+     *
+     * @param conn The connection to use to run the query.
+     * @param sql The SQL to execute.
+     * @return A <code>CompletableFuture</code> of the number of rows updated.
+     */
+    public CompletableFuture<Integer> update(final Connection conn, final String sql) {
+        return this.submit(new Callable<Integer>() {
+            public Integer call() throws SQLException {
+                return Integer.valueOf(queryRunner.update(conn, sql));
+            }
+        });
+    }
+
+    /**
+     * Execute an SQL INSERT, UPDATE, or DELETE query with a single replacement parameter.
+     *
+     * @param conn The connection to use to run the query.
+     * @param sql The SQL to execute.
+     * @param param The replacement parameter.
+     * @return A <code>CompletableFuture</code> of the number of rows updated.
+     */
+    public CompletableFuture<Integer> update(final Connection conn, final String sql, final Object param) {
+        return this.submit(new Callable<Integer>() {
+            public Integer call() throws SQLException {
+                return Integer.valueOf(queryRunner.update(conn, sql, param));
+            }
+        });
+    }
+
+    /**
+     * Execute an SQL INSERT, UPDATE, or DELETE query.
+     *
+     * @param conn The connection to use to run the query.
+     * @param sql The SQL to execute.
+     * @param params The query replacement parameters.
+     * @return A <code>CompletableFuture</code> of the number of rows updated.
+     */
+    public CompletableFuture<Integer> update(final Connection conn, final String sql, final Object... params) {
+        return this.submit(new Callable<Integer>() {
+            public Integer call() throws SQLException {
+                return Integer.valueOf(queryRunner.update(conn, sql, params));
+            }
+        });
+    }
+
+    /**
+     * Executes the given INSERT, UPDATE, or DELETE SQL statement without any replacement
+     * parameters. The <code>Connection</code> is retrieved from the <code>DataSource</code> set in
+     * the constructor.
+     *
+     * @param sql The SQL statement to execute.
+     * @return A <code>CompletableFuture</code> of the number of rows updated.
+     */
+    public CompletableFuture<Integer> update(final String sql) {
+        return this.submit(new Callable<Integer>() {
+            public Integer call() throws SQLException {
+                return Integer.valueOf(queryRunner.update(sql));
+            }
+        });
+    }
+
+    /**
+     * Executes the given INSERT, UPDATE, or DELETE SQL statement with a single replacement
+     * parameter. The <code>Connection</code> is retrieved from the <code>DataSource</code> set in
+     * the constructor.
+     *
+     * @param sql The SQL statement to execute.
+     * @param param The replacement parameter.
+     * @return A <code>CompletableFuture</code> of the number of rows updated.
+     */
+    public CompletableFuture<Integer> update(final String sql, final Object param) {
+        return this.submit(new Callable<Integer>() {
+            public Integer call() throws SQLException {
+                return Integer.valueOf(queryRunner.update(sql, param));
+            }
+        });
+    }
+
+    /**
+     * Executes the given INSERT, UPDATE, or DELETE SQL statement. The <code>Connection</code> is
+     * retrieved from the <code>DataSource</code> set in the constructor.
+     *
+     * @param sql The SQL statement to execute.
+     * @param params Initializes the PreparedStatement's IN (i.e. '?') parameters.
+     * @return A <code>CompletableFuture</code> of the number of rows updated.
+     */
+    public CompletableFuture<Integer> update(final String sql, final Object... params) {
+        return this.submit(new Callable<Integer>() {
+            public Integer call() throws SQLException {
+                return Integer.valueOf(queryRunner.update(sql, params));
+            }
+        });
+    }
+
+    /**
+     * Executes the given INSERT SQL without any replacement parameters.
+     *
+     * @param <T> The type of object that the handler returns
+     * @param conn The connection to use to run the query.
+     * @param sql The SQL to execute.
+     * @param rsh The handler used to create the result object from the <code>ResultSet</code> of
+     *        auto-generated keys.
+     * @return A <code>CompletableFuture</code> of the result generated by the handler.
+     */
+    public <T> CompletableFuture<T> insert(final Connection conn, final String sql, final ResultSetHandler<T> rsh) {
+        return this.submit(new Callable<T>() {
+            public T call() throws SQLException {
+                return queryRunner.insert(conn, sql, rsh);
+            }
+        });
+    }
+
+    /**
+     * Executes the given INSERT SQL statement.
+     *
+     * @param <T> The type of object that the handler returns
+     * @param conn The connection to use to run the query.
+     * @param sql The SQL to execute.
+     * @param rsh The handler used to create the result object from the <code>ResultSet</code> of
+     *        auto-generated keys.
+     * @param params The query replacement parameters.
+     * @return A <code>CompletableFuture</code> of the result generated by the handler.
+     */
+    public <T> CompletableFuture<T> insert(final Connection conn, final String sql, final ResultSetHandler<T> rsh,
+            final Object... params) {
+        return this.submit(new Callable<T>() {
+            public T call() throws SQLException {
+                return queryRunner.insert(conn, sql, rsh, params);
+            }
+        });
+    }
+
+    /**
+     * Executes the given INSERT SQL without any replacement parameters. The
+     * <code>Connection</code> is retrieved from the <code>DataSource</code> set in the
+     * constructor.
+     *
+     * @param <T> The type of object that the handler returns
+     * @param sql The SQL statement to execute.
+     * @param rsh The handler used to create the result object from the <code>ResultSet</code> of
+     *        auto-generated keys.
+     * @return A <code>CompletableFuture</code> of the result generated by the handler.
+     */
+    public <T> CompletableFuture<T> insert(final String sql, final ResultSetHandler<T> rsh) {
+        return this.submit(new Callable<T>() {
+            public T call() throws SQLException {
+                return queryRunner.insert(sql, rsh);
+            }
+        });
+    }
+
+    /**
+     * Executes the given INSERT SQL statement. The <code>Connection</code> is retrieved from the
+     * <code>DataSource</code> set in the constructor.
+     *
+     * @param <T> The type of object that the handler returns
+     * @param sql The SQL statement to execute.
+     * @param rsh The handler used to create the result object from the <code>ResultSet</code> of
+     *        auto-generated keys.
+     * @param params Initializes the PreparedStatement's IN (i.e. '?') parameters.
+     * @return A <code>CompletableFuture</code> of the result generated by the handler.
+     */
+    public <T> CompletableFuture<T> insert(final String sql, final ResultSetHandler<T> rsh, final Object... params) {
+        return this.submit(new Callable<T>() {
+            public T call() throws SQLException {
+                return queryRunner.insert(sql, rsh, params);
+            }
+        });
+    }
+
+    /**
+     * Executes the given batch of INSERT SQL statements.
+     *
+     * @param <T> The type of object that the handler returns
+     * @param conn The connection to use to run the query.
+     * @param sql The SQL to execute.
+     * @param rsh The handler used to create the result object from the <code>ResultSet</code> of
+     *        auto-generated keys.
+     * @param params The query replacement parameters.
+     * @return A <code>CompletableFuture</code> of the result generated by the handler.
+     */
+    public <T> CompletableFuture<T> insertBatch(final Connection conn, final String sql,
+            final ResultSetHandler<T> rsh, final Object[][] params) {
+        return this.submit(new Callable<T>() {
+            public T call() throws SQLException {
+                return queryRunner.insertBatch(conn, sql, rsh, params);
+            }
+        });
+    }
+
+    /**
+     * Executes the given batch of INSERT SQL statements. The <code>Connection</code> is retrieved
+     * from the <code>DataSource</code> set in the constructor.
+     *
+     * @param <T> The type of object that the handler returns
+     * @param sql The SQL statement to execute.
+     * @param rsh The handler used to create the result object from the <code>ResultSet</code> of
+     *        auto-generated keys.
+     * @param params Initializes the PreparedStatement's IN (i.e. '?')
+     * @return A <code>CompletableFuture</code> of the result generated by the handler.
+     */
+    public <T> CompletableFuture<T> insertBatch(final String sql, final ResultSetHandler<T> rsh,
+            final Object[][] params) {
+        return this.submit(new Callable<T>() {
+            public T call() throws SQLException {
+                return queryRunner.insertBatch(sql, rsh, params);
+            }
+        });
+    }
+
+    /**
+     * Execute an SQL statement, including a stored procedure call, which does not return any result
+     * sets. Any parameters which are instances of {@link OutParameter} will be registered as OUT
+     * parameters.
+     *
+     * @param conn The connection to use to run the query.
+     * @param sql The SQL to execute.
+     * @param params The query replacement parameters.
+     * @return A <code>CompletableFuture</code> of the number of rows updated.
+     */
+    public CompletableFuture<Integer> execute(final Connection conn, final String sql, final Object... params) {
+        return this.submit(new Callable<Integer>() {
+            public Integer call() throws SQLException {
+                return Integer.valueOf(queryRunner.execute(conn, sql, params));
+            }
+        });
+    }
+
+    /**
+     * Execute an SQL statement, including a stored procedure call, which does not return any result
+     * sets. The <code>Connection</code> is retrieved from the <code>DataSource</code> set in the
+     * constructor.
+     *
+     * @param sql The SQL statement to execute.
+     * @param params Initializes the CallableStatement's parameters (i.e. '?').
+     * @return A <code>CompletableFuture</code> of the number of rows updated.
+     */
+    public CompletableFuture<Integer> execute(final String sql, final Object... params) {
+        return this.submit(new Callable<Integer>() {
+            public Integer call() throws SQLException {
+                return Integer.valueOf(queryRunner.execute(sql, params));
+            }
+        });
+    }
+
+    /**
+     * Execute an SQL statement, including a stored procedure call, which returns one or more result
+     * sets.
+     *
+     * @param <T> The type of object that the handler returns
+     * @param conn The connection to use to run the query.
+     * @param sql The SQL to execute.
+     * @param rsh The result set handler
+     * @param params The query replacement parameters.
+     * @return A <code>CompletableFuture</code> of the list of objects generated by the handler.
+     */
+    public <T> CompletableFuture<List<T>> execute(final Connection conn, final String sql,
+            final ResultSetHandler<T> rsh, final Object... params) {
+        return this.submit(new Callable<List<T>>() {
+            public List<T> call() throws SQLException {
+                return queryRunner.execute(conn, sql, rsh, params);
+            }
+        });
+    }
+
+    /**
+     * Execute an SQL statement, including a stored procedure call, which returns one or more result
+     * sets. The <code>Connection</code> is retrieved from the <code>DataSource</code> set in the
+     * constructor.
+     *
+     * @param <T> The type of object that the handler returns
+     * @param sql The SQL statement to execute.
+     * @param rsh The result set handler
+     * @param params Initializes the CallableStatement's parameters (i.e. '?').
+     * @return A <code>CompletableFuture</code> of the list of objects generated by the handler.
+     */
+    public <T> CompletableFuture<List<T>> execute(final String sql, final ResultSetHandler<T> rsh,
+            final Object... params) {
+        return this.submit(new Callable<List<T>>() {
+            public List<T> call() throws SQLException {
+                return queryRunner.execute(sql, rsh, params);
+            }
+        });
+    }
+
+}
@@ -0,0 +1,405 @@
+package org.apache.commons.dbutils;
+
+/**
+ * Configuration of the chunked batches <code>QueryRunner</code> executes from an
+ * <code>Iterator</code> or <code>Stream</code> of parameter rows. Rows are added to the statement
+ * until the batch size or the estimated payload is reached, then the batch is executed and the next
+ * one started, so neither the rows nor the driver's buffer grow with the input.
+ *
+ * <p>
+ * The batch size starts at {@link #getBatchSize()} and, if a target latency is set, is adjusted
+ * after each batch within {@link #getMinBatchSize()} and {@link #getMaxBatchSize()}: batches that
+ * take longer than the target shrink the size, faster ones grow it. With
+ * {@link #isCommitEachBatch()} a connection that isn't in auto-commit mode is committed after each
+ * batch, which bounds how long the database holds the locks of the import, at the price of the
+ * import no longer being atomic.
+ * </p>
+ *
+ * <p>
+ * With {@link #isRewriteInserts()} <code>insertBatch</code> regroups the rows of a simple
+ * single-row <code>INSERT ... VALUES (?, ?)</code> into multi-row
+ * <code>VALUES (?, ?), (?, ?), ...</code> statements, each at most
+ * {@link #getMaxParametersPerStatement()} parameters and {@link #getMaxStatementBytes()} estimated
+ * bytes, so the database parses one statement per group instead of one per row. Since the rows'
+ * generated keys are returned, this is only done on databases whose drivers return the key of
+ * every row of a multi-row insert (MySQL, MariaDB, PostgreSQL and H2); elsewhere the rows run as a
+ * plain JDBC batch.
+ * </p>
+ *
+ * <pre>
+ * BatchConfiguration config = new BatchConfiguration.Builder().batchSize(500).targetBatchMillis(100)
+ *         .commitEachBatch(true).build();
+ * BatchResult result = runner.batch(conn, sql, rows.iterator(), config);
+ * </pre>
+ */
+public class BatchConfiguration {
+
+    /**
+     * The default initial batch size
+     */
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    /**
+     * The default smallest batch size the adaptation goes down to
+     */
+    public static final int DEFAULT_MIN_BATCH_SIZE = 50;
+
+    /**
+     * The default largest batch size the adaptation goes up to
+     */
+    public static final int DEFAULT_MAX_BATCH_SIZE = 20000;
+
+    /**
+     * The default target execution time of one batch
+     */
+    public static final long DEFAULT_TARGET_BATCH_MILLIS = 200;
+
+    /**
+     * The default limit of the estimated payload of one batch, 4 MB
+     */
+    public static final long DEFAULT_MAX_BATCH_BYTES = 4L * 1024 * 1024;
+
+    /**
+     * The default limit of parameters of a rewritten insert, below the limits of the common
+     * databases, e.g. 2100 for SQL Server
+     */
+    public static final int DEFAULT_MAX_PARAMETERS_PER_STATEMENT = 2000;
+
+    /**
+     * The default limit of the estimated size of a rewritten insert, 1 MB, MySQL's smallest
+     * default <code>max_allowed_packet</code>
+     */
+    public static final long DEFAULT_MAX_STATEMENT_BYTES = 1024L * 1024;
+
+    /**
+     * The configuration used when none is given
+     */
+    static final BatchConfiguration DEFAULT = new Builder().build();
+
+    private final int batchSize;
+
+    private final int minBatchSize;
+
+    private final int maxBatchSize;
+
+    private final long targetBatchMillis;
+
+    private final long maxBatchBytes;
+
+    private final boolean keepUpdateCounts;
+
+    private final boolean commitEachBatch;
+
+    private final boolean rewriteInserts;
+
+    private final int maxParametersPerStatement;
+
+    private final long maxStatementBytes;
+
+    /**
+     * Constructor for <code>BatchConfiguration</code>
+     *
+     * @param batchSize The number of rows of the first batch
+     * @param minBatchSize The smallest batch size the adaptation may choose
+     * @param maxBatchSize The largest batch size the adaptation may choose
+     * @param targetBatchMillis The execution time per batch the size is adapted to, 0 to keep the
+     *        batch size fixed
+     * @param maxBatchBytes The estimated payload after which a batch is executed early, 0 for no
+     *        limit
+     * @param keepUpdateCounts Whether the update count of every row is kept in the result, or only
+     *        the totals
+     * @param commitEachBatch Whether a connection that isn't in auto-commit mode is committed after
+     *        each batch
+     */
+    public BatchConfiguration(int batchSize, int minBatchSize, int maxBatchSize, long targetBatchMillis,
+            long maxBatchBytes, boolean keepUpdateCounts, boolean commitEachBatch) {
+        this(batchSize, minBatchSize, maxBatchSize, targetBatchMillis, maxBatchBytes, keepUpdateCounts,
+                commitEachBatch, false, DEFAULT_MAX_PARAMETERS_PER_STATEMENT, DEFAULT_MAX_STATEMENT_BYTES);
+    }
+
+    /**
+     * Constructor for <code>BatchConfiguration</code> with multi-row insert rewriting options
+     *
+     * @param batchSize The number of rows of the first batch
+     * @param minBatchSize The smallest batch size the adaptation may choose
+     * @param maxBatchSize The largest batch size the adaptation may choose
+     * @param targetBatchMillis The execution time per batch the size is adapted to, 0 to keep the
+     *        batch size fixed
+     * @param maxBatchBytes The estimated payload after which a batch is executed early, 0 for no
+     *        limit
+     * @param keepUpdateCounts Whether the update count of every row is kept in the result, or only
+     *        the totals
+     * @param commitEachBatch Whether a connection that isn't in auto-commit mode is committed after
+     *        each batch
+     * @param rewriteInserts Whether <code>insertBatch</code> regroups single-row inserts into
+     *        multi-row inserts
+     * @param maxParametersPerStatement The most parameters of a rewritten insert
+     * @param maxStatementBytes The largest estimated payload of a rewritten insert
+     */
+    public BatchConfiguration(int batchSize, int minBatchSize, int maxBatchSize, long targetBatchMillis,
+            long maxBatchBytes, boolean keepUpdateCounts, boolean commitEachBatch, boolean rewriteInserts,
+            int maxParametersPerStatement, long maxStatementBytes) {
+        if (minBatchSize <= 0 || minBatchSize > maxBatchSize) {
+            throw new IllegalArgumentException("Invalid batch size bounds: " + minBatchSize + ".." + maxBatchSize);
+        }
+        if (batchSize < minBatchSize || batchSize > maxBatchSize) {
+            throw new IllegalArgumentException("batchSize must be within " + minBatchSize + ".." + maxBatchSize
+                    + ": " + batchSize);
+        }
+        if (targetBatchMillis < 0 || maxBatchBytes < 0) {
+            throw new IllegalArgumentException("targetBatchMillis and maxBatchBytes can not be negative");
+        }
+        if (maxParametersPerStatement <= 0 || maxStatementBytes <= 0) {
+            throw new IllegalArgumentException("maxParametersPerStatement and maxStatementBytes must be positive");
+        }
+        this.batchSize = batchSize;
+        this.minBatchSize = minBatchSize;
+        this.maxBatchSize = maxBatchSize;
+        this.targetBatchMillis = targetBatchMillis;
+        this.maxBatchBytes = maxBatchBytes;
+        this.keepUpdateCounts = keepUpdateCounts;
+        this.commitEachBatch = commitEachBatch;
+        this.rewriteInserts = rewriteInserts;
+        this.maxParametersPerStatement = maxParametersPerStatement;
+        this.maxStatementBytes = maxStatementBytes;
+    }
+
+    /**
+     * Get the number of rows of the first batch
+     *
+     * @return The initial batch size
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Get the smallest batch size the adaptation may choose
+     *
+     * @return The minimum batch size
+     */
+    public int getMinBatchSize() {
+        return minBatchSize;
+    }
+
+    /**
+     * Get the largest batch size the adaptation may choose
+     *
+     * @return The maximum batch size
+     */
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * Get the execution time per batch the batch size is adapted to
+     *
+     * @return The target in milliseconds, 0 if the batch size is fixed
+     */
+    public long getTargetBatchMillis() {
+        return targetBatchMillis;
+    }
+
+    /**
+     * Get the estimated payload after which a batch is executed early
+     *
+     * @return The limit in bytes, 0 for no limit
+     */
+    public long getMaxBatchBytes() {
+        return maxBatchBytes;
+    }
+
+    /**
+     * Whether the update count of every row is kept in the <code>BatchResult</code>
+     *
+     * @return true if the counts are kept, false if only the totals are
+     */
+    public boolean isKeepUpdateCounts() {
+        return keepUpdateCounts;
+    }
+
+    /**
+     * Whether a connection that isn't in auto-commit mode is committed after each batch
+     *
+     * @return true to commit after each batch
+     */
+    public boolean isCommitEachBatch() {
+        return commitEachBatch;
+    }
+
+    /**
+     * Whether <code>insertBatch</code> regroups the rows of single-row inserts into multi-row
+     * inserts, where the database supports them
+     *
+     * @return true to rewrite inserts
+     */
+    public boolean isRewriteInserts() {
+        return rewriteInserts;
+    }
+
+    /**
+     * Get the most parameters of a rewritten insert
+     *
+     * @return The parameter limit
+     */
+    public int getMaxParametersPerStatement() {
+        return maxParametersPerStatement;
+    }
+
+    /**
+     * Get the largest estimated payload of a rewritten insert
+     *
+     * @return The limit in bytes
+     */
+    public long getMaxStatementBytes() {
+        return maxStatementBytes;
+    }
+
+    /**
+     * Builder for <code>BatchConfiguration</code>, starting from the defaults.
+     */
+    public static final class Builder {
+
+        private int batchSize = DEFAULT_BATCH_SIZE;
+
+        private int minBatchSize = DEFAULT_MIN_BATCH_SIZE;
+
+        private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+
+        private long targetBatchMillis = DEFAULT_TARGET_BATCH_MILLIS;
+
+        private long maxBatchBytes = DEFAULT_MAX_BATCH_BYTES;
+
+        private boolean keepUpdateCounts;
+
+        private boolean commitEachBatch;
+
+        private boolean rewriteInserts;
+
+        private int maxParametersPerStatement = DEFAULT_MAX_PARAMETERS_PER_STATEMENT;
+
+        private long maxStatementBytes = DEFAULT_MAX_STATEMENT_BYTES;
+
+        /**
+         * Set the initial batch size; the bounds are widened to include it if needed
+         *
+         * @param batchSize The number of rows of the first batch
+         * @return This builder
+         */
+        public Builder batchSize(final int batchSize) {
+            this.batchSize = batchSize;
+            if (batchSize > 0) {
+                this.minBatchSize = Math.min(minBatchSize, batchSize);
+                this.maxBatchSize = Math.max(maxBatchSize, batchSize);
+            }
+            return this;
+        }
+
+        /**
+         * Set the bounds of the batch size adaptation
+         *
+         * @param minBatchSize The smallest batch size
+         * @param maxBatchSize The largest batch size
+         * @return This builder
+         */
+        public Builder batchSizeBounds(final int minBatchSize, final int maxBatchSize) {
+            this.minBatchSize = minBatchSize;
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        /**
+         * Keep the batch size fixed at its initial value
+         *
+         * @return This builder
+         */
+        public Builder fixedBatchSize() {
+            this.targetBatchMillis = 0;
+            return this;
+        }
+
+        /**
+         * Set the execution time per batch the batch size is adapted to
+         *
+         * @param targetBatchMillis The target in milliseconds, 0 to keep the batch size fixed
+         * @return This builder
+         */
+        public Builder targetBatchMillis(final long targetBatchMillis) {
+            this.targetBatchMillis = targetBatchMillis;
+            return this;
+        }
+
+        /**
+         * Set the estimated payload after which a batch is executed early
+         *
+         * @param maxBatchBytes The limit in bytes, 0 for no limit
+         * @return This builder
+         */
+        public Builder maxBatchBytes(final long maxBatchBytes) {
+            this.maxBatchBytes = maxBatchBytes;
+            return this;
+        }
+
+        /**
+         * Set whether the update count of every row is kept
+         *
+         * @param keepUpdateCounts true to keep the counts, false for the totals only
+         * @return This builder
+         */
+        public Builder keepUpdateCounts(final boolean keepUpdateCounts) {
+            this.keepUpdateCounts = keepUpdateCounts;
+            return this;
+        }
+
+        /**
+         * Set whether a connection that isn't in auto-commit mode is committed after each batch
+         *
+         * @param commitEachBatch true to commit after each batch
+         * @return This builder
+         */
+        public Builder commitEachBatch(final boolean commitEachBatch) {
+            this.commitEachBatch = commitEachBatch;
+            return this;
+        }
+
+        /**
+         * Set whether <code>insertBatch</code> regroups single-row inserts into multi-row inserts
+         *
+         * @param rewriteInserts true to rewrite inserts
+         * @return This builder
+         */
+        public Builder rewriteInserts(final boolean rewriteInserts) {
+            this.rewriteInserts = rewriteInserts;
+            return this;
+        }
+
+        /**
+         * Set the most parameters of a rewritten insert
+         *
+         * @param maxParametersPerStatement The parameter limit
+         * @return This builder
+         */
+        public Builder maxParametersPerStatement(final int maxParametersPerStatement) {
+            this.maxParametersPerStatement = maxParametersPerStatement;
+            return this;
+        }
+
+        /**
+         * Set the largest estimated payload of a rewritten insert
+         *
+         * @param maxStatementBytes The limit in bytes
+         * @return This builder
+         */
+        public Builder maxStatementBytes(final long maxStatementBytes) {
+            this.maxStatementBytes = maxStatementBytes;
+            return this;
+        }
+
+        public BatchConfiguration build() {
+            return new BatchConfiguration(batchSize, minBatchSize, maxBatchSize, targetBatchMillis,
+                    maxBatchBytes, keepUpdateCounts, commitEachBatch, rewriteInserts,
+                    maxParametersPerStatement, maxStatementBytes);
+        }
+    }
+
+}
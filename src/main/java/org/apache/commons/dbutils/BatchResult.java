@@ -0,0 +1,141 @@
+package org.apache.commons.dbutils;
+
+import java.sql.Statement;
+import java.util.Arrays;
+
+/**
+ * The outcome of a chunked batch: how many rows were executed in how many batches, and the sum of
+ * their update counts. The update count of every row is only kept if the
+ * <code>BatchConfiguration</code> asks for it, so a result of millions of rows stays small.
+ */
+public final class BatchResult {
+
+    private long rowCount;
+
+    private long updateCount;
+
+    private long successNoInfoCount;
+
+    private int batchCount;
+
+    private int lastBatchSize;
+
+    private long executeNanos;
+
+    /**
+     * The kept update counts, <code>null</code> if they aren't kept
+     */
+    private int[] updateCounts;
+
+    private int updateCountsSize;
+
+    BatchResult(boolean keepUpdateCounts) {
+        if (keepUpdateCounts) {
+            this.updateCounts = new int[64];
+        }
+    }
+
+    /**
+     * Account for an executed batch
+     *
+     * @param counts The update counts returned by <code>executeBatch</code>
+     * @param rows The number of rows of the batch
+     * @param nanos The time it took to execute the batch
+     */
+    void executed(int[] counts, int rows, long nanos) {
+        rowCount += rows;
+        batchCount++;
+        lastBatchSize = rows;
+        executeNanos += nanos;
+        if (counts != null) {
+            for (int count : counts) {
+                if (count >= 0) {
+                    updateCount += count;
+                } else if (count == Statement.SUCCESS_NO_INFO) {
+                    successNoInfoCount++;
+                }
+            }
+            if (updateCounts != null) {
+                if (updateCountsSize + counts.length > updateCounts.length) {
+                    updateCounts = Arrays.copyOf(updateCounts,
+                            Math.max(updateCounts.length * 2, updateCountsSize + counts.length));
+                }
+                System.arraycopy(counts, 0, updateCounts, updateCountsSize, counts.length);
+                updateCountsSize += counts.length;
+            }
+        }
+    }
+
+    /**
+     * Get the number of parameter rows executed
+     *
+     * @return The row count
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Get the sum of the update counts the driver reported
+     *
+     * @return The number of rows updated
+     */
+    public long getUpdateCount() {
+        return updateCount;
+    }
+
+    /**
+     * Get the number of rows the driver reported as <code>Statement.SUCCESS_NO_INFO</code>, which
+     * aren't part of {@link #getUpdateCount()}
+     *
+     * @return The number of rows executed without known update count
+     */
+    public long getSuccessNoInfoCount() {
+        return successNoInfoCount;
+    }
+
+    /**
+     * Get the number of times <code>executeBatch</code> was called
+     *
+     * @return The batch count
+     */
+    public int getBatchCount() {
+        return batchCount;
+    }
+
+    /**
+     * Get the number of rows of the last batch
+     *
+     * @return The last batch size, 0 if no batch was executed
+     */
+    public int getLastBatchSize() {
+        return lastBatchSize;
+    }
+
+    /**
+     * Get the total time spent in <code>executeBatch</code>, including fetching generated keys and
+     * committing
+     *
+     * @return The execution time in nanoseconds
+     */
+    public long getExecuteTimeNanos() {
+        return executeNanos;
+    }
+
+    /**
+     * Get the update count of every row, in row order
+     *
+     * @return A copy of the update counts, <code>null</code> if they weren't kept
+     */
+    public int[] getUpdateCounts() {
+        return updateCounts == null ? null : Arrays.copyOf(updateCounts, updateCountsSize);
+    }
+
+    @Override
+    public String toString() {
+        return "BatchResult[rows=" + rowCount + ", updated=" + updateCount + ", successNoInfo="
+                + successNoInfoCount + ", batches=" + batchCount + ", lastBatchSize=" + lastBatchSize
+                + ", executeTimeMillis=" + executeNanos / 1000000 + "]";
+    }
+
+}
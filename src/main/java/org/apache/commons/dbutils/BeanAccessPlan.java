@@ -0,0 +1,171 @@
+package org.apache.commons.dbutils;
+
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * The compiled getters of an ordered list of bean properties, built once per bean class and list
+ * and cached, so reading the statement parameters of a bean costs one direct call per property
+ * instead of an introspection and a search over the property descriptors.
+ *
+ * <p>
+ * Instances are immutable and thread safe.
+ * </p>
+ */
+final class BeanAccessPlan {
+
+    private static final BoundedCache<Key, BeanAccessPlan> PLANS = new BoundedCache<Key, BeanAccessPlan>();
+
+    private final Class<?> type;
+
+    private final PropertyGetter[] getters;
+
+    private BeanAccessPlan(Class<?> type, PropertyGetter[] getters) {
+        this.type = type;
+        this.getters = getters;
+    }
+
+    /**
+     * Get the plan of a bean class and properties
+     *
+     * @param type The bean class
+     * @param properties The names of the properties, in parameter order
+     * @return The plan
+     * @throws SQLException If a property doesn't exist or can't be read
+     */
+    static BeanAccessPlan of(Class<?> type, String[] properties) throws SQLException {
+        Key key = new Key(type, properties);
+        BeanAccessPlan plan = PLANS.get(key);
+        if (plan == null) {
+            plan = PLANS.put(new Key(type, properties.clone()), build(type, properties));
+        }
+        return plan;
+    }
+
+    private static BeanAccessPlan build(Class<?> type, String[] properties) throws SQLException {
+        PropertyDescriptor[] descriptors;
+        try {
+            descriptors = Introspector.getBeanInfo(type).getPropertyDescriptors();
+        } catch (IntrospectionException e) {
+            throw new SQLException("Bean Introsepction fail:" + e.getMessage());
+        }
+        PropertyGetter[] getters = new PropertyGetter[properties.length];
+        for (int i = 0; i < properties.length; i++) {
+            String property = properties[i];
+            if (property == null) {
+                throw new SQLException("PropertyName can't be null: " + i);
+            }
+            for (PropertyDescriptor descriptor : descriptors) {
+                if (property.equals(descriptor.getName()) && descriptor.getReadMethod() != null) {
+                    getters[i] = PropertyGetter.of(descriptor.getReadMethod());
+                    break;
+                }
+            }
+            if (getters[i] == null) {
+                throw new SQLException("Could't find readable bean property: " + type.getName() + " " + property);
+            }
+        }
+        return new BeanAccessPlan(type, getters);
+    }
+
+    /**
+     * Get the number of properties
+     *
+     * @return The parameter count
+     */
+    int size() {
+        return getters.length;
+    }
+
+    /**
+     * Read the properties of a bean
+     *
+     * @param bean The bean, of the plan's class
+     * @param values The array to read the values into, at least {@link #size()} long
+     * @return The array
+     * @throws SQLException If a getter fails
+     */
+    Object[] read(Object bean, Object[] values) throws SQLException {
+        for (int i = 0; i < getters.length; i++) {
+            values[i] = getters[i].get(bean);
+        }
+        return values;
+    }
+
+    /**
+     * Adapt beans to parameter rows. The rows share one array, refilled by every
+     * <code>next()</code>, so each row must be bound before the next one is read. A getter failure
+     * is thrown as a <code>RuntimeException</code> wrapping the <code>SQLException</code>.
+     *
+     * @param beans The beans
+     * @param properties The names of the properties, in parameter order
+     * @return The rows
+     */
+    static Iterator<Object[]> rows(final Iterator<?> beans, final String[] properties) {
+        final Object[] values = new Object[properties.length];
+        return new Iterator<Object[]>() {
+
+            private BeanAccessPlan plan;
+
+            public boolean hasNext() {
+                return beans.hasNext();
+            }
+
+            public Object[] next() {
+                Object bean = beans.next();
+                try {
+                    if (plan == null || plan.type != bean.getClass()) {
+                        plan = of(bean.getClass(), properties);
+                    }
+                    return plan.read(bean, values);
+                } catch (SQLException e) {
+                    throw new RuntimeException(e.getMessage(), e);
+                }
+            }
+
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    /**
+     * The key of a cached plan: the bean class plus the property names, in order
+     */
+    private static final class Key {
+
+        private final Class<?> type;
+
+        private final String[] properties;
+
+        private final int hash;
+
+        Key(Class<?> type, String[] properties) {
+            this.type = type;
+            this.properties = properties;
+            this.hash = 31 * type.hashCode() + Arrays.hashCode(properties);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return hash == other.hash && type == other.type && Arrays.equals(properties, other.properties);
+        }
+    }
+
+}
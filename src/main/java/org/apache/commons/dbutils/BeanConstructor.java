@@ -0,0 +1,280 @@
+package org.apache.commons.dbutils;
+
+import java.beans.ConstructorProperties;
+import java.beans.IntrospectionException;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.sql.SQLException;
+
+/**
+ * The constructor <code>BeanProcessor</code> creates immutable result types with: all columns of a
+ * row are read into an argument array and passed to one constructor call, instead of calling a
+ * no-arg constructor and then one setter per column. {@link #find(Class)} selects, in this order:
+ * <ol>
+ * <li>the canonical constructor of a Java record, its parameters are named after the record
+ * components;</li>
+ * <li>for a class without a public no-arg constructor, a public constructor annotated with
+ * {@link ConstructorProperties}, the one with most parameters if there are several;</li>
+ * <li>otherwise the only public constructor of such a class, if the class was compiled with
+ * <code>-parameters</code> so its parameter names are known.</li>
+ * </ol>
+ * Other classes, including every class with a public no-arg constructor, are treated as JavaBeans.
+ *
+ * <p>
+ * Instances are immutable and thread safe.
+ * </p>
+ */
+public class BeanConstructor {
+
+    /**
+     * The constructor
+     */
+    private final Constructor<?> constructor;
+
+    /**
+     * The constructor spread over an <code>Object[]</code>, typed <code>(Object[])Object</code>,
+     * or <code>null</code> if the constructor is called reflectively.
+     */
+    private final MethodHandle handle;
+
+    /**
+     * The parameter names, in declaration order
+     */
+    private final String[] names;
+
+    /**
+     * The parameter types, in declaration order
+     */
+    private final Class<?>[] types;
+
+    /**
+     * The argument passed for a parameter that no column maps to: the primitive default or
+     * <code>null</code>
+     */
+    private final Object[] defaults;
+
+    /**
+     * Constructor for BeanConstructor
+     *
+     * @param constructor The constructor
+     * @param names The names of the constructor's parameters, in declaration order
+     */
+    public BeanConstructor(Constructor<?> constructor, String[] names) {
+        this.constructor = constructor;
+        this.names = names;
+        this.types = constructor.getParameterTypes();
+        if (names.length != types.length) {
+            throw new IllegalArgumentException("Expected " + types.length + " parameter names for "
+                    + constructor + ", was given " + names.length);
+        }
+        this.defaults = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            if (types[i].isPrimitive()) {
+                defaults[i] = Array.get(Array.newInstance(types[i], 1), 0);
+            }
+        }
+        this.handle = spreader(constructor);
+    }
+
+    /**
+     * Find the constructor to create instances of given class with, see the class description for
+     * the rules.
+     *
+     * @param type The class
+     * @return The constructor or <code>null</code> if the class should be created with its no-arg
+     *         constructor and populated through setters
+     */
+    public static BeanConstructor find(Class<?> type) {
+        if (type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+            return null;
+        }
+        BeanConstructor record = findRecordConstructor(type);
+        if (record != null) {
+            return record;
+        }
+        if (hasNoArgConstructor(type)) {
+            return null;
+        }
+        Constructor<?> annotated = null;
+        for (Constructor<?> c : type.getConstructors()) {
+            ConstructorProperties cp = c.getAnnotation(ConstructorProperties.class);
+            if (cp != null && (annotated == null
+                    || c.getParameterTypes().length > annotated.getParameterTypes().length)) {
+                annotated = c;
+            }
+        }
+        if (annotated != null) {
+            return new BeanConstructor(annotated, annotated.getAnnotation(ConstructorProperties.class).value());
+        }
+        Constructor<?>[] constructors = type.getConstructors();
+        if (constructors.length != 1 || constructors[0].getParameterTypes().length == 0) {
+            return null;
+        }
+        Parameter[] parameters = constructors[0].getParameters();
+        String[] names = new String[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            if (!parameters[i].isNamePresent()) {
+                return null;
+            }
+            names[i] = parameters[i].getName();
+        }
+        return new BeanConstructor(constructors[0], names);
+    }
+
+    /**
+     * Check whether a class has a public no-arg constructor, so it can be populated as a JavaBean
+     *
+     * @param type The class
+     * @return true if the class has a public no-arg constructor
+     */
+    private static boolean hasNoArgConstructor(Class<?> type) {
+        try {
+            type.getConstructor();
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Find the canonical constructor of a record. Records are looked up reflectively so the class
+     * also runs on Java versions without them.
+     *
+     * @param type The class
+     * @return The canonical constructor or <code>null</code> if the class isn't a record
+     */
+    private static BeanConstructor findRecordConstructor(Class<?> type) {
+        try {
+            Method isRecord = Class.class.getMethod("isRecord");
+            if (!((Boolean) isRecord.invoke(type)).booleanValue()) {
+                return null;
+            }
+            Object[] components = (Object[]) Class.class.getMethod("getRecordComponents").invoke(type);
+            String[] names = new String[components.length];
+            Class<?>[] types = new Class<?>[components.length];
+            for (int i = 0; i < components.length; i++) {
+                Class<?> componentClass = components[i].getClass();
+                names[i] = (String) componentClass.getMethod("getName").invoke(components[i]);
+                types[i] = (Class<?>) componentClass.getMethod("getType").invoke(components[i]);
+            }
+            return new BeanConstructor(type.getDeclaredConstructor(types), names);
+        } catch (NoSuchMethodException e) {
+            // no records in this runtime
+            return null;
+        } catch (IllegalAccessException e) {
+            return null;
+        } catch (InvocationTargetException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Adapt the constructor to <code>(Object[])Object</code>
+     *
+     * @param constructor The constructor
+     * @return The handle or <code>null</code> if the constructor can only be called reflectively
+     */
+    private static MethodHandle spreader(Constructor<?> constructor) {
+        try {
+            if (!Modifier.isPublic(constructor.getModifiers())
+                    || !Modifier.isPublic(constructor.getDeclaringClass().getModifiers())) {
+                constructor.setAccessible(true);
+            }
+            MethodHandle handle = MethodHandles.lookup().unreflectConstructor(constructor);
+            return handle.asSpreader(Object[].class, constructor.getParameterTypes().length).asType(
+                    MethodType.methodType(Object.class, Object[].class));
+        } catch (RuntimeException e) {
+            // the constructor's module doesn't open it to us
+            return null;
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Get the parameters as property descriptors without read or write methods, so columns can be
+     * matched to them like to bean properties.
+     *
+     * @return The parameter descriptors, in declaration order
+     * @throws SQLException If a parameter name isn't a valid property name
+     */
+    public PropertyDescriptor[] getParameterDescriptors() throws SQLException {
+        PropertyDescriptor[] descriptors = new PropertyDescriptor[names.length];
+        for (int i = 0; i < names.length; i++) {
+            try {
+                descriptors[i] = new PropertyDescriptor(names[i], null, null);
+            } catch (IntrospectionException e) {
+                throw new SQLException("Bad parameter name " + names[i] + " of " + constructor + ": "
+                        + e.getMessage());
+            }
+        }
+        return descriptors;
+    }
+
+    /**
+     * Get the parameter types
+     *
+     * @return The parameter types, in declaration order
+     */
+    public Class<?>[] getParameterTypes() {
+        return types.clone();
+    }
+
+    /**
+     * Get the parameter type
+     *
+     * @param index The parameter index
+     * @return The parameter type
+     */
+    public Class<?> getParameterType(int index) {
+        return types[index];
+    }
+
+    /**
+     * Create an argument array holding the default argument for every parameter
+     *
+     * @return The new argument array
+     */
+    public Object[] newArguments() {
+        return defaults.clone();
+    }
+
+    /**
+     * Call the constructor. An <code>Error</code> is rethrown as is.
+     *
+     * @param args The arguments, compatible with the parameter types
+     * @return The new instance
+     * @throws SQLException If the instance can't be created
+     */
+    public Object newInstance(Object[] args) throws SQLException {
+        try {
+            if (handle != null) {
+                return (Object) handle.invokeExact(args);
+            }
+            return constructor.newInstance(args);
+        } catch (InvocationTargetException e) {
+            throw cannotCreate(e.getCause());
+        } catch (Throwable e) {
+            throw cannotCreate(e);
+        }
+    }
+
+    private SQLException cannotCreate(Throwable cause) {
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        SQLException e = new SQLException("Cannot create " + constructor.getDeclaringClass().getName() + ":"
+                + cause.getMessage());
+        e.initCause(cause);
+        return e;
+    }
+
+}
@@ -0,0 +1,335 @@
+package org.apache.commons.dbutils;
+
+import java.beans.PropertyDescriptor;
+import java.util.Arrays;
+
+/**
+ * The compiled plan <code>BeanProcessor</code> uses to copy the columns of a <code>ResultSet</code>
+ * into a bean. A plan is built once for a bean class and a column label signature, and then reused
+ * for every row and every query that has the same shape.
+ *
+ * <p>
+ * A plan either populates a bean created with its no-arg constructor through setters, or, for
+ * immutable result types, collects the columns into the arguments of a {@link BeanConstructor}. In
+ * the latter case the "properties" are the constructor parameters.
+ * </p>
+ *
+ * <p>
+ * Instances are thread safe, though not immutable: the column mapping is fixed when the plan is
+ * built, but the property handlers resolved later are remembered per column in a plain array.
+ * Threads racing on an element may overwrite each other's entry; since entries are immutable and
+ * checked against the value type before use, that only costs resolving the handler again.
+ * </p>
+ */
+public class BeanMapping {
+
+    /**
+     * The column is read as an object and written through {@link PropertySetter#set(Object, Object)}
+     */
+    public static final int READ_OBJECT = 0;
+
+    /**
+     * The column is read with <code>getInt</code> and written through
+     * {@link PropertySetter#setInt(Object, int)}
+     */
+    public static final int READ_INT = 1;
+
+    /**
+     * The column is read with <code>getLong</code> and written through
+     * {@link PropertySetter#setLong(Object, long)}
+     */
+    public static final int READ_LONG = 2;
+
+    /**
+     * The column is read with <code>getDouble</code> and written through
+     * {@link PropertySetter#setDouble(Object, double)}
+     */
+    public static final int READ_DOUBLE = 3;
+
+    /**
+     * The bean property descriptors
+     */
+    private final PropertyDescriptor[] props;
+
+    /**
+     * The column index to property index mappings, the 0th is meaningless because JDBC column index
+     * start at 1.
+     */
+    private final int[] columnToProperty;
+
+    /**
+     * The property type each column is converted into, indexed as <code>columnToProperty</code>.
+     * The position is <code>null</code> if the column doesn't match a property.
+     */
+    private final Class<?>[] columnTypes;
+
+    /**
+     * The compiled write method each column is set through, indexed as
+     * <code>columnToProperty</code>. A <code>null</code> position is written reflectively.
+     */
+    private final PropertySetter[] setters;
+
+    /**
+     * The <code>ColumnHandler</code> that reads each column, indexed as
+     * <code>columnToProperty</code>, or <code>null</code> if the handlers weren't resolved for
+     * this plan. A <code>null</code> position means <code>ResultSet.getObject</code> is used.
+     */
+    private final ColumnHandler[] columnHandlers;
+
+    /**
+     * The <code>PropertyHandler</code> resolved for the type of value last read from each column.
+     * Columns return the same value type row after row, so this is resolved once per column. The
+     * elements are immutable, so racing writes only cost a repeated resolution.
+     */
+    private final Conversion[] conversions;
+
+    /**
+     * How each column is read and written, one of the <code>READ_*</code> constants, indexed as
+     * <code>columnToProperty</code>
+     */
+    private final int[] readKinds;
+
+    /**
+     * The constructor the columns are passed to, or <code>null</code> if the bean is populated
+     * through setters
+     */
+    private final BeanConstructor constructor;
+
+    /**
+     * Constructor for BeanMapping whose columns are all read and written as configured by
+     * <code>BeanProcessor</code> for each value
+     *
+     * @param props The bean property descriptors
+     * @param columnToProperty The column index to property index mappings
+     */
+    public BeanMapping(PropertyDescriptor[] props, int[] columnToProperty) {
+        this(props, columnToProperty, new PropertySetter[columnToProperty.length], null);
+    }
+
+    /**
+     * Constructor for BeanMapping
+     *
+     * @param props The bean property descriptors
+     * @param columnToProperty The column index to property index mappings
+     * @param setters The compiled write method per column, indexed as <code>columnToProperty</code>
+     * @param columnHandlers The column handler per column, indexed as <code>columnToProperty</code>,
+     *        or <code>null</code> if not resolved
+     */
+    public BeanMapping(PropertyDescriptor[] props, int[] columnToProperty, PropertySetter[] setters,
+            ColumnHandler[] columnHandlers) {
+        this(props, columnToProperty, setters, columnHandlers, new int[columnToProperty.length]);
+    }
+
+    /**
+     * Constructor for BeanMapping
+     *
+     * @param props The bean property descriptors
+     * @param columnToProperty The column index to property index mappings
+     * @param setters The compiled write method per column, indexed as <code>columnToProperty</code>
+     * @param columnHandlers The column handler per column, indexed as <code>columnToProperty</code>,
+     *        or <code>null</code> if not resolved
+     * @param readKinds How each column is read and written, one of the <code>READ_*</code>
+     *        constants, indexed as <code>columnToProperty</code>
+     */
+    public BeanMapping(PropertyDescriptor[] props, int[] columnToProperty, PropertySetter[] setters,
+            ColumnHandler[] columnHandlers, int[] readKinds) {
+        this(props, columnToProperty, setters, columnHandlers, readKinds, null);
+    }
+
+    /**
+     * Constructor for BeanMapping that passes the columns to a constructor
+     *
+     * @param constructor The constructor to create instances with
+     * @param params The constructor parameters, from
+     *        {@link BeanConstructor#getParameterDescriptors()}
+     * @param columnToParameter The column index to parameter index mappings
+     * @param columnHandlers The column handler per column, indexed as
+     *        <code>columnToParameter</code>, or <code>null</code> if not resolved
+     */
+    public BeanMapping(BeanConstructor constructor, PropertyDescriptor[] params, int[] columnToParameter,
+            ColumnHandler[] columnHandlers) {
+        this(params, columnToParameter, new PropertySetter[columnToParameter.length], columnHandlers,
+                new int[columnToParameter.length], constructor);
+    }
+
+    private BeanMapping(PropertyDescriptor[] props, int[] columnToProperty, PropertySetter[] setters,
+            ColumnHandler[] columnHandlers, int[] readKinds, BeanConstructor constructor) {
+        this.props = props;
+        this.columnToProperty = columnToProperty;
+        this.setters = setters;
+        this.columnHandlers = columnHandlers;
+        this.readKinds = readKinds;
+        this.constructor = constructor;
+        this.conversions = new Conversion[columnToProperty.length];
+        this.columnTypes = new Class<?>[columnToProperty.length];
+        for (int i = 1; i < columnToProperty.length; i++) {
+            if (columnToProperty[i] < 0) {
+                continue;
+            }
+            if (constructor == null) {
+                columnTypes[i] = props[columnToProperty[i]].getPropertyType();
+            } else {
+                columnTypes[i] = constructor.getParameterType(columnToProperty[i]);
+            }
+        }
+    }
+
+    /**
+     * Get the bean property descriptors
+     *
+     * @return The property descriptors
+     */
+    public PropertyDescriptor[] getProps() {
+        return props;
+    }
+
+    /**
+     * Get the column index to property index mappings
+     *
+     * @return The column to property mappings
+     */
+    public int[] getColumnToProperty() {
+        return columnToProperty;
+    }
+
+    /**
+     * Get the property type the column is converted into
+     *
+     * @param column The JDBC column index
+     * @return The property type or <code>null</code> if the column doesn't match a property
+     */
+    public Class<?> getColumnType(int column) {
+        return columnTypes[column];
+    }
+
+    /**
+     * Get the compiled write method for a column
+     *
+     * @param column The JDBC column index
+     * @return The setter or <code>null</code> if the column must be written reflectively
+     */
+    public PropertySetter getSetter(int column) {
+        return setters[column];
+    }
+
+    /**
+     * Get the constructor the columns are passed to
+     *
+     * @return The constructor or <code>null</code> if the bean is populated through setters
+     */
+    public BeanConstructor getConstructor() {
+        return constructor;
+    }
+
+    /**
+     * Get how a column is read and written
+     *
+     * @param column The JDBC column index
+     * @return One of the <code>READ_*</code> constants
+     */
+    public int getReadKind(int column) {
+        return readKinds[column];
+    }
+
+    /**
+     * Whether the column handlers were resolved when the plan was built
+     *
+     * @return true if {@link #getColumnHandler(int)} is meaningful
+     */
+    public boolean isColumnHandlersResolved() {
+        return columnHandlers != null;
+    }
+
+    /**
+     * Get the column handler that reads a column
+     *
+     * @param column The JDBC column index
+     * @return The column handler or <code>null</code> if the column is read with
+     *         <code>getObject</code>
+     */
+    public ColumnHandler getColumnHandler(int column) {
+        return columnHandlers[column];
+    }
+
+    /**
+     * Get the property handler resolved for a column and value type
+     *
+     * @param column The JDBC column index
+     * @param valueType The type of value read from the column, <code>null</code> for SQL NULL
+     * @return The resolution or <code>null</code> if the column wasn't resolved for this value type
+     */
+    Conversion getConversion(int column, Class<?> valueType) {
+        Conversion conversion = conversions[column];
+        if (conversion != null && conversion.valueType == valueType) {
+            return conversion;
+        }
+        return null;
+    }
+
+    /**
+     * Remember the property handler resolved for a column and value type
+     *
+     * @param column The JDBC column index
+     * @param conversion The resolution
+     */
+    void setConversion(int column, Conversion conversion) {
+        conversions[column] = conversion;
+    }
+
+    /**
+     * The <code>PropertyHandler</code> resolved for a type of value, <code>handler</code> is
+     * <code>null</code> if no handler matches.
+     */
+    static final class Conversion {
+
+        final Class<?> valueType;
+
+        final PropertyHandler handler;
+
+        Conversion(Class<?> valueType, PropertyHandler handler) {
+            this.valueType = valueType;
+            this.handler = handler;
+        }
+    }
+
+    /**
+     * The key of a cached <code>BeanMapping</code>: the bean class plus the column labels of the
+     * <code>ResultSet</code>, in order, and whether the plan may use a constructor.
+     */
+    static final class Key {
+
+        private final Class<?> type;
+
+        private final String[] labels;
+
+        private final boolean construct;
+
+        private final int hash;
+
+        Key(Class<?> type, String[] labels, boolean construct) {
+            this.type = type;
+            this.labels = labels;
+            this.construct = construct;
+            this.hash = 31 * (31 * type.hashCode() + Arrays.hashCode(labels)) + (construct ? 1 : 0);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return hash == other.hash && type == other.type && construct == other.construct
+                    && Arrays.equals(labels, other.labels);
+        }
+    }
+
+}
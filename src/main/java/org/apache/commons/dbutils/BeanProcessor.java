@@ -4,7 +4,6 @@ import java.beans.BeanInfo;
 import java.beans.IntrospectionException;
 import java.beans.Introspector;
 import java.beans.PropertyDescriptor;
-import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.sql.ResultSet;
@@ -15,7 +14,11 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.ServiceLoader;
+
+import org.apache.commons.dbutils.handlers.columns.DoubleColumnHandler;
+import org.apache.commons.dbutils.handlers.columns.IntegerColumnHandler;
+import org.apache.commons.dbutils.handlers.columns.LongColumnHandler;
+import org.apache.commons.dbutils.naming.ExactNamingStrategy;
 
 /**
  * The sourceCode comes from Apache
@@ -27,6 +30,13 @@ import java.util.ServiceLoader;
  *         </p>
  * 
  *         <p>
+ *         Immutable result types, Java records and classes without a public no-arg constructor
+ *         that {@link BeanConstructor} can select a constructor of, are created by passing all
+ *         columns of a row to that constructor in one call instead of populating them through
+ *         setters, unless a subclass overrides <code>newInstance</code>.
+ *         </p>
+ * 
+ *         <p>
  *         The class is thread safe
  *         </p>
  * 
@@ -47,33 +57,65 @@ public class BeanProcessor {
     private static final Map<Class<?>, Object> primitiveDefault = new HashMap<Class<?>, Object>();
 
     /**
-     * ServiceLoader to find <code>ColumnHandler</code> implementations on the classpath. The
-     * iterator for this is lazy and each time <code>iterator()</code> is called.
+     * The column and property handlers used to read columns and coerce values.
      */
-    private static final ServiceLoader<ColumnHandler> columnHandlers = ServiceLoader
-            .load(ColumnHandler.class);
+    private final HandlerRegistry handlers;
 
     /**
-     * ServiceLoad to find <code>PropertyHandler</code> implementations on the classpath. The
-     * iterator for this is lazy and each time <code>iterator[]</code> is called.
+     * ResultSet column to bean property name overrides.
      */
-    private static final ServiceLoader<PropertyHandler> propertyHandlers = ServiceLoader
-            .load(PropertyHandler.class);
+    private Map<String, String> columnToPropertyOverrides;
 
     /**
-     * ResultSet column to bean property name overrides.
+     * How column labels are matched to property names when there is no override.
      */
-    private Map<String, String> columnToPropertyOverrides;
+    private final NamingStrategy naming;
+
+    /**
+     * The property descriptors of each bean class, indexed by their naming strategy key.
+     */
+    private final BoundedCache<Class<?>, PropertyIndex> propertyIndexes;
+
+    /**
+     * Compiled mapping plans keyed by bean class and the column labels of the
+     * <code>ResultSet</code>. The overrides and the <code>mapColumnsToProperties</code> result are
+     * captured when a plan is built, so they should not change after the processor is in use.
+     */
+    private final BoundedCache<BeanMapping.Key, BeanMapping> mappings;
+
+    /**
+     * Whether a subclass overrides <code>getWriteMethod</code>. If so it is asked for the write
+     * method of every value and the compiled setters aren't used.
+     */
+    private final boolean writeMethodOverridden;
+
+    /**
+     * Whether a subclass overrides <code>processColumn</code>. If so it is called for every value
+     * instead of reading columns through the handlers resolved in the mapping plan.
+     */
+    private final boolean processColumnOverridden;
+
+    /**
+     * Whether a subclass overrides <code>mapColumnsToProperties</code>. If so it is called to map
+     * the columns when a plan is built instead of looking them up in the cached property index.
+     */
+    private final boolean mapColumnsOverridden;
+
+    /**
+     * Whether a subclass overrides <code>newInstance</code>. If so every bean is created through it
+     * and populated through setters, never through a {@link BeanConstructor}.
+     */
+    private final boolean newInstanceOverridden;
 
     static {
-        primitiveDefault.put(Byte.class, Byte.valueOf((byte) 0));
-        primitiveDefault.put(Float.class, Float.valueOf(0f));
-        primitiveDefault.put(Integer.class, Integer.valueOf(0));
-        primitiveDefault.put(Long.class, Long.valueOf(0L));
-        primitiveDefault.put(Double.class, Double.valueOf(0d));
-        primitiveDefault.put(Short.class, Short.valueOf((short) 0));
-        primitiveDefault.put(Boolean.class, Boolean.FALSE);
-        primitiveDefault.put(Character.class, Character.valueOf((char) 0));
+        primitiveDefault.put(Byte.TYPE, Byte.valueOf((byte) 0));
+        primitiveDefault.put(Float.TYPE, Float.valueOf(0f));
+        primitiveDefault.put(Integer.TYPE, Integer.valueOf(0));
+        primitiveDefault.put(Long.TYPE, Long.valueOf(0L));
+        primitiveDefault.put(Double.TYPE, Double.valueOf(0d));
+        primitiveDefault.put(Short.TYPE, Short.valueOf((short) 0));
+        primitiveDefault.put(Boolean.TYPE, Boolean.FALSE);
+        primitiveDefault.put(Character.TYPE, Character.valueOf((char) 0));
     }
 
     /**
@@ -89,11 +131,119 @@ public class BeanProcessor {
      * @param columnToPropertyOverrides The ResultSet column to property name overrides
      */
     public BeanProcessor(Map<String, String> columnToPropertyOverrides) {
+        this(columnToPropertyOverrides, BoundedCache.DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Constructor for BeanProcessor with configured with column to property name overrides and the
+     * number of mapping plans to cache.
+     * 
+     * @param columnToPropertyOverrides The ResultSet column to property name overrides
+     * @param maxCachedMappings The maximum number of (bean class, column labels) mapping plans to
+     *        keep, the least recently used plan is evicted when it's exceeded
+     */
+    public BeanProcessor(Map<String, String> columnToPropertyOverrides, int maxCachedMappings) {
+        this(columnToPropertyOverrides, maxCachedMappings, HandlerRegistry.getDefault());
+    }
+
+    /**
+     * Constructor for BeanProcessor that reads columns and coerces values with the handlers of a
+     * custom registry.
+     * 
+     * @param handlers The column and property handlers to use
+     */
+    public BeanProcessor(HandlerRegistry handlers) {
+        this(new HashMap<String, String>(), BoundedCache.DEFAULT_MAX_SIZE, handlers);
+    }
+
+    /**
+     * Constructor for BeanProcessor with configured with column to property name overrides, the
+     * number of mapping plans to cache and the handlers to use.
+     * 
+     * @param columnToPropertyOverrides The ResultSet column to property name overrides
+     * @param maxCachedMappings The maximum number of (bean class, column labels) mapping plans to
+     *        keep, the least recently used plan is evicted when it's exceeded
+     * @param handlers The column and property handlers to use
+     */
+    public BeanProcessor(Map<String, String> columnToPropertyOverrides, int maxCachedMappings,
+            HandlerRegistry handlers) {
+        this(columnToPropertyOverrides, maxCachedMappings, handlers, new ExactNamingStrategy());
+    }
+
+    /**
+     * Constructor for BeanProcessor with configured with column to property name overrides, the
+     * number of mapping plans to cache, the handlers to use and how columns are matched to
+     * properties. See also {@link Builder}.
+     * 
+     * @param columnToPropertyOverrides The ResultSet column to property name overrides, they take
+     *        precedence over the naming strategy and name properties exactly
+     * @param maxCachedMappings The maximum number of (bean class, column labels) mapping plans to
+     *        keep, the least recently used plan is evicted when it's exceeded
+     * @param handlers The column and property handlers to use
+     * @param naming How column labels are matched to property names
+     */
+    public BeanProcessor(Map<String, String> columnToPropertyOverrides, int maxCachedMappings,
+            HandlerRegistry handlers, NamingStrategy naming) {
         super();
         if (columnToPropertyOverrides == null) {
             throw new IllegalArgumentException("columnToPropertyOverrides map can not be null");
         }
+        if (handlers == null) {
+            throw new IllegalArgumentException("handlers can not be null");
+        }
+        if (naming == null) {
+            throw new IllegalArgumentException("naming can not be null");
+        }
         this.columnToPropertyOverrides = columnToPropertyOverrides;
+        this.handlers = handlers;
+        this.naming = naming;
+        this.mappings = new BoundedCache<BeanMapping.Key, BeanMapping>(maxCachedMappings);
+        this.propertyIndexes = new BoundedCache<Class<?>, PropertyIndex>(maxCachedMappings);
+        this.writeMethodOverridden = this.isOverridden("getWriteMethod", Object.class,
+                PropertyDescriptor.class, Object.class);
+        this.processColumnOverridden = this.isOverridden("processColumn", ResultSet.class, int.class,
+                Class.class);
+        this.mapColumnsOverridden = this.isOverridden("mapColumnsToProperties", PropertyDescriptor[].class,
+                ResultSetMetaData.class);
+        this.newInstanceOverridden = this.isOverridden("newInstance", Class.class);
+    }
+
+    /**
+     * Check whether a subclass overrides a method of <code>BeanProcessor</code>
+     * 
+     * @param name The method name
+     * @param parameterTypes The method parameter types
+     * @return true if the method is declared below <code>BeanProcessor</code>
+     */
+    private boolean isOverridden(String name, Class<?>... parameterTypes) {
+        for (Class<?> c = this.getClass(); c != BeanProcessor.class; c = c.getSuperclass()) {
+            try {
+                c.getDeclaredMethod(name, parameterTypes);
+                return true;
+            } catch (NoSuchMethodException e) {
+                // keep looking in the super class
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the column and property handlers this processor uses
+     * 
+     * @return The handler registry
+     */
+    public HandlerRegistry getHandlerRegistry() {
+        return handlers;
+    }
+
+    /**
+     * Get the cache of mapping plans, e.g. to read its hit, miss and eviction counters or its size.
+     * Its keys are internal, so it can't be read by key.
+     * 
+     * @return The mapping plan cache
+     */
+    public BoundedCache<?, ?> getMappingCache() {
+        return mappings;
     }
 
     /**
@@ -126,8 +276,36 @@ public class BeanProcessor {
      * @throws SQLException If a database access error occurs.
      */
     public <T> T toBean(ResultSet rs, Class<? extends T> type) throws SQLException {
-        T bean = this.newInstance(type);
-        return this.polulateBean(rs, bean);
+        return this.createBean(rs, type, this.mapping(rs, type, true));
+    }
+
+    /**
+     * Convert the current row of a <code>ResultSet</code> into a JavaBean with a mapping plan from
+     * {@link #getMapping(ResultSet, Class)}. Callers that convert many rows one at a time use this
+     * to look the plan up only once.
+     * 
+     * @param <T> The type of bean to create.
+     * @param rs The <code>ResultSet</code> that supplies the bean data.
+     * @param type The Class from which to create the bean instance.
+     * @param mapping The mapping plan for type and the columns of rs
+     * @return The newly create bean.
+     * @throws SQLException If a database access error occurs.
+     */
+    public <T> T toBean(ResultSet rs, Class<? extends T> type, BeanMapping mapping) throws SQLException {
+        return this.createBean(rs, type, mapping);
+    }
+
+    /**
+     * Get the mapping plan <code>toBean</code> uses for given bean class and the columns of a
+     * <code>ResultSet</code>
+     * 
+     * @param rs The <code>ResultSet</code> that supplies the bean data.
+     * @param type The bean type
+     * @return The mapping plan
+     * @throws SQLException If a database access error occurs.
+     */
+    public BeanMapping getMapping(ResultSet rs, Class<?> type) throws SQLException {
+        return this.mapping(rs, type, true);
     }
 
     /**
@@ -162,10 +340,9 @@ public class BeanProcessor {
         if(!rs.next()){
             return results;
         }
-        PropertyDescriptor[] props = this.propertyDescriptors(type);
-        int[] columnToProperty = this.mapColumnsToProperties(props, rs.getMetaData());
+        BeanMapping mapping = this.mapping(rs, type, true);
         do {
-            results.add(this.createBean(rs, type, props, columnToProperty));
+            results.add(this.createBean(rs, type, mapping));
         } while (rs.next());
         return results;
     }
@@ -176,14 +353,199 @@ public class BeanProcessor {
      * @param <T> The type bean to create
      * @param rs The ResultSet that supplies bean data
      * @param type The bean type
-     * @param props The property descriptor
-     * @param columnToProperty An array the columns match to properties
+     * @param mapping The mapping plan for the type and the ResultSet columns
      * @return A initialized object
      * @throws SQLException If a database access error occurs.
      */
-    private <T> T createBean(ResultSet rs,Class<T> type,PropertyDescriptor[]props,int[] columnToProperty) throws SQLException{
+    private <T> T createBean(ResultSet rs, Class<T> type, BeanMapping mapping) throws SQLException {
+        if (mapping.getConstructor() != null) {
+            return this.construct(rs, type, mapping);
+        }
         T bean = this.newInstance(type);
-        return this.polulateBean(rs, bean, props, columnToProperty);
+        return this.polulateBean(rs, bean, mapping);
+    }
+
+    /**
+     * Create an immutable object by reading the columns into the arguments of its constructor
+     * 
+     * @param <T> The type to create
+     * @param rs The ResultSet that supplies the data
+     * @param type The type
+     * @param mapping The mapping plan, its properties are the constructor parameters
+     * @return The new object
+     * @throws SQLException If a database access error occurs.
+     */
+    private <T> T construct(ResultSet rs, Class<T> type, BeanMapping mapping) throws SQLException {
+        BeanConstructor constructor = mapping.getConstructor();
+        PropertyDescriptor[] params = mapping.getProps();
+        int[] columnToParameter = mapping.getColumnToProperty();
+        Object[] args = constructor.newArguments();
+        for (int i = 1; i < columnToParameter.length; i++) {
+            if (columnToParameter[i] == PROPERTY_NOT_FOUND) {
+                continue;
+            }
+            Class<?> paramType = mapping.getColumnType(i);
+            Object value;
+            if (mapping.isColumnHandlersResolved()) {
+                value = this.readColumn(rs, i, paramType, mapping.getColumnHandler(i));
+            } else {
+                value = this.processColumn(rs, i, paramType);
+            }
+            if (value != null) {
+                args[columnToParameter[i]] = this.convertValue(params[columnToParameter[i]], paramType,
+                        value, mapping, i);
+            }
+        }
+        return type.cast(constructor.newInstance(args));
+    }
+
+    /**
+     * Get the mapping plan for given bean class and the columns of the ResultSet, building and
+     * caching it when this shape is seen the first time.
+     * 
+     * @param rs The ResultSet that supplies bean data
+     * @param type The bean type
+     * @param construct Whether the plan may create instances through a {@link BeanConstructor},
+     *        false if it must populate an existing bean
+     * @return The mapping plan
+     * @throws SQLException If a database access error occurs.
+     */
+    private BeanMapping mapping(ResultSet rs, Class<?> type, boolean construct) throws SQLException {
+        ResultSetMetaData rsmd = rs.getMetaData();
+        int cols = rsmd.getColumnCount();
+        String[] labels = new String[cols];
+        for (int col = 1; col <= cols; col++) {
+            labels[col - 1] = columnLabel(rsmd, col);
+        }
+        BeanMapping.Key key = new BeanMapping.Key(type, labels, construct);
+        BeanMapping mapping = mappings.get(key);
+        if (mapping != null) {
+            return mapping;
+        }
+        BeanConstructor constructor = construct && !newInstanceOverridden ? BeanConstructor.find(type) : null;
+        if (constructor != null) {
+            PropertyDescriptor[] params = constructor.getParameterDescriptors();
+            int[] columnToParameter = mapColumnsOverridden ? this.mapColumnsToProperties(params, rsmd)
+                    : this.mapColumns(new PropertyIndex(params, naming), rsmd);
+            mapping = new BeanMapping(constructor, params, columnToParameter, this.columnHandlers(
+                    constructor.getParameterTypes(), columnToParameter));
+        } else {
+            PropertyIndex index = this.propertyIndex(type);
+            PropertyDescriptor[] props = index.props;
+            int[] columnToProperty = mapColumnsOverridden ? this.mapColumnsToProperties(props, rsmd)
+                    : this.mapColumns(index, rsmd);
+            PropertySetter[] setters = this.setters(props, columnToProperty);
+            ColumnHandler[] columnHandlers = this.columnHandlers(propertyTypes(props), columnToProperty);
+            mapping = new BeanMapping(props, columnToProperty, setters, columnHandlers, this.readKinds(props,
+                    columnToProperty, setters, columnHandlers));
+        }
+        return mappings.put(key, mapping);
+    }
+
+    /**
+     * Get the type of every property
+     * 
+     * @param props The bean property descriptors
+     * @return The property types, in the same order
+     */
+    private static Class<?>[] propertyTypes(PropertyDescriptor[] props) {
+        Class<?>[] types = new Class<?>[props.length];
+        for (int i = 0; i < props.length; i++) {
+            types[i] = props[i].getPropertyType();
+        }
+        return types;
+    }
+
+    /**
+     * Compile the write method of every mapped column
+     * 
+     * @param props The bean property descriptors
+     * @param columnToProperty The column index to property index mappings
+     * @return The setters indexed as <code>columnToProperty</code>, positions are <code>null</code>
+     *         for unmapped columns, properties without a single argument write method, or when
+     *         <code>getWriteMethod</code> is overridden
+     */
+    private PropertySetter[] setters(PropertyDescriptor[] props, int[] columnToProperty) {
+        PropertySetter[] setters = new PropertySetter[columnToProperty.length];
+        if (writeMethodOverridden) {
+            return setters;
+        }
+        for (int i = 1; i < columnToProperty.length; i++) {
+            if (columnToProperty[i] == PROPERTY_NOT_FOUND) {
+                continue;
+            }
+            Method setter = props[columnToProperty[i]].getWriteMethod();
+            if (setter != null && setter.getParameterTypes().length == 1) {
+                setters[i] = PropertySetter.of(setter, props[columnToProperty[i]].getName());
+            }
+        }
+        return setters;
+    }
+
+    /**
+     * Resolve the <code>ColumnHandler</code> of every mapped column
+     * 
+     * @param propTypes The bean property types
+     * @param columnToProperty The column index to property index mappings
+     * @return The handlers indexed as <code>columnToProperty</code>, positions are <code>null</code>
+     *         for unmapped columns or columns no handler matches, or <code>null</code> when
+     *         <code>processColumn</code> is overridden
+     */
+    private ColumnHandler[] columnHandlers(Class<?>[] propTypes, int[] columnToProperty) {
+        if (processColumnOverridden) {
+            return null;
+        }
+        ColumnHandler[] columnHandlers = new ColumnHandler[columnToProperty.length];
+        for (int i = 1; i < columnToProperty.length; i++) {
+            if (columnToProperty[i] == PROPERTY_NOT_FOUND) {
+                continue;
+            }
+            Class<?> propType = propTypes[columnToProperty[i]];
+            if (propType != null) {
+                columnHandlers[i] = handlers.findColumnHandler(propType);
+            }
+        }
+        return columnHandlers;
+    }
+
+    /**
+     * Decide how every mapped column is read and written. An <code>int</code>, <code>long</code>
+     * or <code>double</code> property is read with the primitive <code>ResultSet</code> getter and
+     * written through the primitive setter call site when nothing could observe the difference:
+     * the column is read by the bundled handler for that type, no <code>PropertyHandler</code> wants
+     * the boxed value and the setter takes the primitive type.
+     * 
+     * @param props The bean property descriptors
+     * @param columnToProperty The column index to property index mappings
+     * @param setters The compiled setters
+     * @param columnHandlers The resolved column handlers or <code>null</code>
+     * @return The <code>BeanMapping.READ_*</code> constant per column
+     */
+    private int[] readKinds(PropertyDescriptor[] props, int[] columnToProperty, PropertySetter[] setters,
+            ColumnHandler[] columnHandlers) {
+        int[] readKinds = new int[columnToProperty.length];
+        if (columnHandlers == null) {
+            return readKinds;
+        }
+        for (int i = 1; i < columnToProperty.length; i++) {
+            if (setters[i] == null || columnHandlers[i] == null) {
+                continue;
+            }
+            Class<?> propType = props[columnToProperty[i]].getPropertyType();
+            if (setters[i].getParameterType() != propType
+                    || handlers.findPropertyHandler(propType, primitiveDefault.get(propType)) != null) {
+                continue;
+            }
+            Class<?> handlerType = columnHandlers[i].getClass();
+            if (propType == Integer.TYPE && handlerType == IntegerColumnHandler.class) {
+                readKinds[i] = BeanMapping.READ_INT;
+            } else if (propType == Long.TYPE && handlerType == LongColumnHandler.class) {
+                readKinds[i] = BeanMapping.READ_LONG;
+            } else if (propType == Double.TYPE && handlerType == DoubleColumnHandler.class) {
+                readKinds[i] = BeanMapping.READ_DOUBLE;
+            }
+        }
+        return readKinds;
     }
 
     /**
@@ -196,11 +558,7 @@ public class BeanProcessor {
      * @throws SQLException If a database access error occurs;
      */
     public <T> T polulateBean(ResultSet rs, T bean) throws SQLException {
-        PropertyDescriptor[] props = this.propertyDescriptors(bean.getClass());
-        ResultSetMetaData rsmd = rs.getMetaData();
-        int[] columnToProperty = this.mapColumnsToProperties(props, rsmd);
-
-        return polulateBean(rs, bean, props, columnToProperty);
+        return polulateBean(rs, bean, this.mapping(rs, bean.getClass(), false));
     }
 
     /**
@@ -216,20 +574,60 @@ public class BeanProcessor {
      */
     public <T> T polulateBean(ResultSet rs, T bean, PropertyDescriptor[] props, int[] columnToProperty)
             throws SQLException {
+        return polulateBean(rs, bean, new BeanMapping(props, columnToProperty));
+    }
+
+    /**
+     * This method populates a bean from the ResultSet with a compiled mapping plan
+     * 
+     * @param <T> The type of bean
+     * @param rs The ResultSet
+     * @param bean The bean to be populated
+     * @param mapping The mapping plan
+     * @return An initialized object
+     * @throws SQLException If a database access error occurs
+     */
+    private <T> T polulateBean(ResultSet rs, T bean, BeanMapping mapping) throws SQLException {
+        PropertyDescriptor[] props = mapping.getProps();
+        int[] columnToProperty = mapping.getColumnToProperty();
         for (int i = 1; i < columnToProperty.length; i++) {
             if (columnToProperty[i] == PROPERTY_NOT_FOUND) {
                 continue;
             }
             PropertyDescriptor prop = props[columnToProperty[i]];
-            Class<?> propType = prop.getPropertyType();
+            // The primitive getters return 0 for SQL NULL, the same as primitiveDefault
+            switch (mapping.getReadKind(i)) {
+            case BeanMapping.READ_INT:
+                mapping.getSetter(i).setInt(bean, rs.getInt(i));
+                continue;
+            case BeanMapping.READ_LONG:
+                mapping.getSetter(i).setLong(bean, rs.getLong(i));
+                continue;
+            case BeanMapping.READ_DOUBLE:
+                mapping.getSetter(i).setDouble(bean, rs.getDouble(i));
+                continue;
+            default:
+                break;
+            }
+            Class<?> propType = mapping.getColumnType(i);
             Object value = null;
             if (propType != null) {
-                value = this.processColumn(rs, i, propType);
+                if (mapping.isColumnHandlersResolved()) {
+                    value = this.readColumn(rs, i, propType, mapping.getColumnHandler(i));
+                } else {
+                    value = this.processColumn(rs, i, propType);
+                }
             }
-            if (value == null && propType.isPrimitive()) {
+            if (value == null && propType != null && propType.isPrimitive()) {
                 value = primitiveDefault.get(propType);
             }
-            this.callSetter(bean, prop, value);
+            PropertySetter setter = mapping.getSetter(i);
+            if (setter == null) {
+                this.callSetter(bean, prop, value);
+            } else {
+                this.callSetter(bean, prop, setter, this.convertValue(prop, setter.getParameterType(),
+                        value, mapping, i));
+            }
 
         }
         return bean;
@@ -251,20 +649,8 @@ public class BeanProcessor {
         }
         try {
             Class<?> firstParam = setter.getParameterTypes()[0];
-            for (PropertyHandler handler : propertyHandlers) {
-                if (handler.match(firstParam, value)) {
-                    value = handler.apply(firstParam, value);
-                    break;
-                }
-            }
-            // Don't call setter if the value object is not the right type
-            if (this.isCompatibleType(value, firstParam)) {
-                setter.invoke(target, new Object[] { value });
-            } else {
-                throw new SQLException("Can not set " + prop.getName() + ":compatible types, can not convert"
-                        + value.getClass().getName() + "to " + firstParam.getName());
-                // value cannot be null here because isCompatibleType allows null.
-            }
+            value = this.convertValue(prop, firstParam, value);
+            setter.invoke(target, new Object[] { value });
         } catch (IllegalAccessException e) {
             throw new SQLException("Cannot set " + prop.getName() + ": " + e.getMessage());
         } catch (IllegalArgumentException e) {
@@ -274,6 +660,78 @@ public class BeanProcessor {
         }
     }
 
+    /**
+     * Call a compiled setter on the target object for the given property.
+     * 
+     * @param target The object to set object on.
+     * @param prop The property to set
+     * @param setter The compiled write method of the property
+     * @param value The converted value to pass into the setter
+     * @throws SQLException If an error occurs setting the property.
+     */
+    private void callSetter(Object target, PropertyDescriptor prop, PropertySetter setter, Object value)
+            throws SQLException {
+        setter.set(target, value);
+    }
+
+    /**
+     * Apply the <code>PropertyHandler</code> resolved for the column and the value's type, and
+     * check the result can be passed into the setter. The handler is resolved with the first value
+     * of each type read from the column and remembered in the mapping plan, then asked to
+     * <code>match</code> each later value again, see {@link PropertyHandler}.
+     * 
+     * @param prop The property to set
+     * @param firstParam The setter's parameter type
+     * @param value The value to pass into the setter
+     * @param mapping The mapping plan
+     * @param column The JDBC column index the value was read from
+     * @return The converted value
+     * @throws SQLException If the value can't be converted to the setter's parameter type
+     */
+    private Object convertValue(PropertyDescriptor prop, Class<?> firstParam, Object value,
+            BeanMapping mapping, int column) throws SQLException {
+        Class<?> valueType = value == null ? null : value.getClass();
+        BeanMapping.Conversion conversion = mapping.getConversion(column, valueType);
+        if (conversion == null || (conversion.handler != null && !conversion.handler.match(firstParam, value))) {
+            conversion = new BeanMapping.Conversion(valueType, handlers.findPropertyHandler(firstParam,
+                    value));
+            mapping.setConversion(column, conversion);
+        }
+        if (conversion.handler != null) {
+            value = conversion.handler.apply(firstParam, value);
+        }
+        if (!this.isCompatibleType(value, firstParam)) {
+            throw new SQLException("Can not set " + prop.getName() + ":compatible types, can not convert"
+                    + value.getClass().getName() + "to " + firstParam.getName());
+        }
+        return value;
+    }
+
+    /**
+     * Apply the first matching <code>PropertyHandler</code> to a value and check the result can be
+     * passed into the setter.
+     * 
+     * @param prop The property to set
+     * @param firstParam The setter's parameter type
+     * @param value The value to pass into the setter
+     * @return The converted value
+     * @throws SQLException If the value can't be converted to the setter's parameter type
+     */
+    private Object convertValue(PropertyDescriptor prop, Class<?> firstParam, Object value)
+            throws SQLException {
+        PropertyHandler handler = handlers.findPropertyHandler(firstParam, value);
+        if (handler != null) {
+            value = handler.apply(firstParam, value);
+        }
+        // Don't call setter if the value object is not the right type
+        if (!this.isCompatibleType(value, firstParam)) {
+            throw new SQLException("Can not set " + prop.getName() + ":compatible types, can not convert"
+                    + value.getClass().getName() + "to " + firstParam.getName());
+            // value cannot be null here because isCompatibleType allows null.
+        }
+        return value;
+    }
+
     /**
      * ResultSet.getObject() returns an Integer object for INT column. The setter method for the
      * property might take an Integer or primitive int. The method returns true if value can be
@@ -299,22 +757,7 @@ public class BeanProcessor {
      * @return Whether the <code>valueType</code> can be coerced into <code>targetType</code>
      */
     private boolean matchesPrimitive(Class<?> targetType, Class<? extends Object> valueType) {
-        if (!targetType.isPrimitive()) {
-            return false;
-        }
-        try {
-            Field typeField = valueType.getField("TYPE");
-            Object primitiveValueType = typeField.get(valueType);
-            if (primitiveValueType == targetType) {
-                return true;
-            }
-        } catch (NoSuchFieldException e) {
-
-        } catch (IllegalAccessException e) {
-
-        }
-
-        return false;
+        return targetType.isPrimitive() && PropertySetter.wrapper(targetType) == valueType;
     }
 
     /**
@@ -356,11 +799,33 @@ public class BeanProcessor {
         if (!propType.isPrimitive() && value == null) {
             return null;
         }
-        for (ColumnHandler handler : columnHandlers) {
-            if (handler.match(propType)) {
-                value = handler.apply(rs, index);
-                break;
-            }
+        ColumnHandler handler = handlers.findColumnHandler(propType);
+        if (handler != null) {
+            value = handler.apply(rs, index);
+        }
+        return value;
+    }
+
+    /**
+     * Read a column with the <code>ColumnHandler</code> resolved for it in the mapping plan. The
+     * column is read exactly once, <code>wasNull()</code> tells an SQL NULL from a value.
+     * 
+     * @param rs The <code>ResultSet</code> currently being processed, positioned on a valid row
+     * @param index The current index being processed
+     * @param propType The bean property type the column need to convert into
+     * @param handler The resolved handler or <code>null</code> to use <code>getObject</code>
+     * @return The object from the <code>ResultSet</code> or <code>null</code> if the column value
+     *         is SQL NULL and the property isn't primitive
+     * @throws SQLException If a database access error occurs.
+     */
+    private Object readColumn(ResultSet rs, int index, Class<?> propType, ColumnHandler handler)
+            throws SQLException {
+        if (handler == null) {
+            return rs.getObject(index);
+        }
+        Object value = handler.apply(rs, index);
+        if (!propType.isPrimitive() && rs.wasNull()) {
+            return null;
         }
         return value;
     }
@@ -379,29 +844,72 @@ public class BeanProcessor {
      */
     protected int[] mapColumnsToProperties(PropertyDescriptor[] props, ResultSetMetaData rsmd)
             throws SQLException {
+        return this.mapColumns(new PropertyIndex(props, naming), rsmd);
+    }
+
+    /**
+     * Map each column to a property with hash lookups: a column with an override matches the
+     * property with exactly the overriding name, any other column matches the property indexed under
+     * its naming strategy key. If several properties share a key the first one wins.
+     * 
+     * @param index The bean properties indexed by name and by naming strategy key
+     * @param rsmd the <code>ResultSetMetaData</code> containing column information.
+     * @return An int[] with column index to property index mappings, as
+     *         <code>mapColumnsToProperties</code>
+     * @throws SQLException If a database access error occurs.
+     */
+    private int[] mapColumns(PropertyIndex index, ResultSetMetaData rsmd) throws SQLException {
         int cols = rsmd.getColumnCount();
         int[] columnToProperty = new int[cols + 1];
         Arrays.fill(columnToProperty, PROPERTY_NOT_FOUND);
         for (int col = 1; col <= cols; col++) {
-            String columnName = rsmd.getColumnLabel(col);
-            if (columnName == null | columnName.length() == 0) {
-                columnName = rsmd.getCatalogName(col);
-            }
+            String columnName = columnLabel(rsmd, col);
             String propertyName = columnToPropertyOverrides.get(columnName);
-            if (propertyName == null) {
-                propertyName = columnName;
+            Integer property;
+            if (propertyName != null) {
+                property = index.byName.get(propertyName);
+            } else {
+                String key = naming.columnKey(columnName);
+                property = key == null ? null : index.byKey.get(key);
             }
-            for (int i = 0; i < props.length; i++) {
-                if (propertyName.equals(props[i].getName())) {
-                    columnToProperty[col] = i;
-                    break;
-                }
-
+            if (property != null) {
+                columnToProperty[col] = property.intValue();
             }
         }
         return columnToProperty;
     }
 
+    /**
+     * Get the property index of a bean class, introspecting the class the first time.
+     * 
+     * @param type The bean class
+     * @return The property index
+     * @throws SQLException If introspection fails
+     */
+    private PropertyIndex propertyIndex(Class<?> type) throws SQLException {
+        PropertyIndex index = propertyIndexes.get(type);
+        if (index == null) {
+            index = propertyIndexes.put(type, new PropertyIndex(this.propertyDescriptors(type), naming));
+        }
+        return index;
+    }
+
+    /**
+     * Get the label of a column, falling back to its name if the driver return no label
+     * 
+     * @param rsmd The <code>ResultSetMetaData</code> containing column information
+     * @param col The JDBC column index
+     * @return The column label
+     * @throws SQLException If a database access error occurs
+     */
+    private static String columnLabel(ResultSetMetaData rsmd, int col) throws SQLException {
+        String columnName = rsmd.getColumnLabel(col);
+        if (columnName == null || columnName.length() == 0) {
+            columnName = rsmd.getColumnName(col);
+        }
+        return columnName;
+    }
+
     /**
      * Return a PropertyDescriptors for given Class
      * 
@@ -441,4 +949,78 @@ public class BeanProcessor {
         }
     }
 
+    /**
+     * Bean property descriptors with hash indexes from property name and from naming strategy key
+     * to the position in <code>props</code>. Immutable once built.
+     */
+    private static final class PropertyIndex {
+
+        final PropertyDescriptor[] props;
+
+        final Map<String, Integer> byName;
+
+        final Map<String, Integer> byKey;
+
+        PropertyIndex(PropertyDescriptor[] props, NamingStrategy naming) {
+            this.props = props;
+            this.byName = new HashMap<String, Integer>(props.length * 2);
+            this.byKey = new HashMap<String, Integer>(props.length * 2);
+            for (int i = 0; i < props.length; i++) {
+                Integer position = Integer.valueOf(i);
+                String name = props[i].getName();
+                if (!byName.containsKey(name)) {
+                    byName.put(name, position);
+                }
+                String key = naming.propertyKey(name);
+                if (!byKey.containsKey(key)) {
+                    byKey.put(key, position);
+                }
+            }
+        }
+    }
+
+    /**
+     * Builder for <code>BeanProcessor</code> is more flexible constructions.
+     * 
+     * <pre>
+     * BeanProcessor convert = new BeanProcessor.Builder()
+     *         .naming(new SnakeCaseNamingStrategy()).build();
+     * </pre>
+     * 
+     * @author ygh 2017年2月15日
+     */
+    public static final class Builder {
+        private Map<String, String> columnToPropertyOverrides = new HashMap<String, String>();
+
+        private int maxCachedMappings = BoundedCache.DEFAULT_MAX_SIZE;
+
+        private HandlerRegistry handlers = HandlerRegistry.getDefault();
+
+        private NamingStrategy naming = new ExactNamingStrategy();
+
+        public Builder columnToPropertyOverrides(final Map<String, String> columnToPropertyOverrides) {
+            this.columnToPropertyOverrides = columnToPropertyOverrides;
+            return this;
+        }
+
+        public Builder maxCachedMappings(final int maxCachedMappings) {
+            this.maxCachedMappings = maxCachedMappings;
+            return this;
+        }
+
+        public Builder handlers(final HandlerRegistry handlers) {
+            this.handlers = handlers;
+            return this;
+        }
+
+        public Builder naming(final NamingStrategy naming) {
+            this.naming = naming;
+            return this;
+        }
+
+        public BeanProcessor build() {
+            return new BeanProcessor(columnToPropertyOverrides, maxCachedMappings, handlers, naming);
+        }
+    }
+
 }
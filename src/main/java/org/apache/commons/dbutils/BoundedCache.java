@@ -0,0 +1,181 @@
+package org.apache.commons.dbutils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A small thread safe cache with a bounded number of entries. When the bound is reached the least
+ * recently used entry is evicted, so keys that reference dynamically loaded classes can't pin them
+ * for ever.
+ *
+ * <p>
+ * The cache keeps hit, miss and eviction counters so callers can judge whether the bound fits their
+ * work load.
+ * </p>
+ *
+ * <p>
+ * The class is thread safe.
+ * </p>
+ *
+ * @param <K> The type of key
+ * @param <V> The type of cached value
+ */
+public class BoundedCache<K, V> {
+
+    /**
+     * The default maximum number of entries.
+     */
+    public static final int DEFAULT_MAX_SIZE = 256;
+
+    /**
+     * The maximum number of entries kept in the cache
+     */
+    private final int maxSize;
+
+    /**
+     * The entries in access order, the eldest entry is the least recently used one. Guarded by
+     * itself.
+     */
+    private final Map<K, V> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Constructor for BoundedCache with {@link #DEFAULT_MAX_SIZE} entries.
+     */
+    public BoundedCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Constructor for BoundedCache
+     *
+     * @param maxSize The maximum number of entries kept in the cache, must be positive
+     */
+    public BoundedCache(final int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<K, V>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 6386386389442717049L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                if (size() > BoundedCache.this.maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Get the value cached for given key and count it as a hit or a miss.
+     *
+     * @param key The key to look up
+     * @return The cached value or <code>null</code> if there is none
+     */
+    public V get(K key) {
+        V value;
+        synchronized (entries) {
+            value = entries.get(key);
+        }
+        if (value == null) {
+            misses.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return value;
+    }
+
+    /**
+     * Store a value, evicting the least recently used entry when the cache is full. If another
+     * thread stored a value for the same key first, that value is kept and returned so all callers
+     * share one instance.
+     *
+     * @param key The key to store value for
+     * @param value The value to store
+     * @return The value now cached for key
+     */
+    public V put(K key, V value) {
+        synchronized (entries) {
+            V existing = entries.get(key);
+            if (existing != null) {
+                return existing;
+            }
+            entries.put(key, value);
+            return value;
+        }
+    }
+
+    /**
+     * Remove all entries. The counters are kept.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Get the number of entries currently cached
+     *
+     * @return The number of entries
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Get the maximum number of entries
+     *
+     * @return The maximum number of entries
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Get the number of lookups that found a value
+     *
+     * @return The hit count
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Get the number of lookups that found nothing
+     *
+     * @return The miss count
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Get the number of entries evicted because the cache was full
+     *
+     * @return The eviction count
+     */
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    @Override
+    public String toString() {
+        return "BoundedCache[size=" + size() + ", maxSize=" + maxSize + ", hits=" + hits.get()
+                + ", misses=" + misses.get() + ", evictions=" + evictions.get() + "]";
+    }
+
+}
@@ -0,0 +1,307 @@
+package org.apache.commons.dbutils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The rows of several <code>ResultSet</code>s with the same columns copied into memory and read
+ * back as one forward only <code>ResultSet</code>, e.g. the generated keys of the statements a
+ * rewritten insert batch was split into, so the caller's <code>ResultSetHandler</code> sees them as
+ * if they came from one statement. The buffered <code>ResultSet</code> supports the getters
+ * <code>ResultSetHandler</code>s use, by index or label, and its metadata the column count, names,
+ * labels and types; other methods throw <code>SQLFeatureNotSupportedException</code>.
+ */
+final class BufferedResultSet {
+
+    private final List<Object[]> rows = new ArrayList<Object[]>();
+
+    private int columnCount = -1;
+
+    private String[] labels;
+
+    private String[] names;
+
+    private int[] types;
+
+    private String[] typeNames;
+
+    private String[] classNames;
+
+    /**
+     * Copy the remaining rows of a <code>ResultSet</code>, and its column metadata if it is the
+     * first one. The <code>ResultSet</code> isn't closed.
+     *
+     * @param rs The <code>ResultSet</code>
+     * @throws SQLException If a database access error occurs
+     */
+    void append(ResultSet rs) throws SQLException {
+        if (columnCount < 0) {
+            this.readMetaData(rs.getMetaData());
+        }
+        while (rs.next()) {
+            Object[] row = new Object[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                row[i] = rs.getObject(i + 1);
+            }
+            rows.add(row);
+        }
+    }
+
+    private void readMetaData(ResultSetMetaData rsmd) throws SQLException {
+        columnCount = rsmd.getColumnCount();
+        labels = new String[columnCount];
+        names = new String[columnCount];
+        types = new int[columnCount];
+        typeNames = new String[columnCount];
+        classNames = new String[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            names[i] = rsmd.getColumnName(i + 1);
+            labels[i] = rsmd.getColumnLabel(i + 1);
+            if (labels[i] == null || labels[i].length() == 0) {
+                labels[i] = names[i];
+            }
+            types[i] = rsmd.getColumnType(i + 1);
+            try {
+                typeNames[i] = rsmd.getColumnTypeName(i + 1);
+                classNames[i] = rsmd.getColumnClassName(i + 1);
+            } catch (SQLException e) {
+                // optional, some drivers don't tell for generated keys
+            }
+        }
+    }
+
+    /**
+     * Get the number of rows buffered
+     *
+     * @return The row count
+     */
+    int size() {
+        return rows.size();
+    }
+
+    /**
+     * Create a <code>ResultSet</code> positioned before the first buffered row
+     *
+     * @return The <code>ResultSet</code>
+     */
+    ResultSet toResultSet() {
+        if (columnCount < 0) {
+            columnCount = 0;
+            labels = names = typeNames = classNames = new String[0];
+            types = new int[0];
+        }
+        return (ResultSet) Proxy.newProxyInstance(BufferedResultSet.class.getClassLoader(),
+                new Class<?>[] { ResultSet.class }, new Cursor());
+    }
+
+    private int indexOf(Object column) throws SQLException {
+        if (column instanceof Integer) {
+            int index = ((Integer) column).intValue();
+            if (index < 1 || index > columnCount) {
+                throw new SQLException("Column index out of range: " + index);
+            }
+            return index - 1;
+        }
+        String label = (String) column;
+        for (int i = 0; i < columnCount; i++) {
+            if (label.equalsIgnoreCase(labels[i])) {
+                return i;
+            }
+        }
+        throw new SQLException("Column label not found: " + label);
+    }
+
+    /**
+     * The state of one <code>ResultSet</code> over the buffered rows
+     */
+    private final class Cursor implements InvocationHandler {
+
+        private int row = -1;
+
+        private boolean wasNull;
+
+        private boolean closed;
+
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("equals")) {
+                return Boolean.valueOf(proxy == args[0]);
+            } else if (name.equals("hashCode")) {
+                return Integer.valueOf(System.identityHashCode(proxy));
+            } else if (name.equals("toString")) {
+                return "BufferedResultSet[rows=" + rows.size() + "]";
+            } else if (name.equals("next")) {
+                this.checkOpen();
+                if (row < rows.size()) {
+                    row++;
+                }
+                return Boolean.valueOf(row < rows.size());
+            } else if (name.equals("close")) {
+                closed = true;
+                return null;
+            } else if (name.equals("isClosed")) {
+                return Boolean.valueOf(closed);
+            } else if (name.equals("wasNull")) {
+                return Boolean.valueOf(wasNull);
+            } else if (name.equals("getMetaData")) {
+                return Proxy.newProxyInstance(BufferedResultSet.class.getClassLoader(),
+                        new Class<?>[] { ResultSetMetaData.class }, new MetaData());
+            } else if (name.equals("findColumn")) {
+                return Integer.valueOf(indexOf(args[0]) + 1);
+            } else if (name.equals("getRow")) {
+                return Integer.valueOf(row >= 0 && row < rows.size() ? row + 1 : 0);
+            } else if (name.equals("getType")) {
+                return Integer.valueOf(ResultSet.TYPE_FORWARD_ONLY);
+            } else if (name.equals("getConcurrency")) {
+                return Integer.valueOf(ResultSet.CONCUR_READ_ONLY);
+            } else if (name.equals("getWarnings") || name.equals("getStatement")) {
+                return null;
+            } else if (name.equals("clearWarnings") || name.equals("setFetchSize")) {
+                return null;
+            } else if (name.equals("isWrapperFor")) {
+                return Boolean.FALSE;
+            } else if (name.startsWith("get") && args != null && args.length >= 1
+                    && (args[0] instanceof Integer || args[0] instanceof String)) {
+                return this.get(name, args);
+            }
+            throw new SQLFeatureNotSupportedException("BufferedResultSet." + name);
+        }
+
+        private void checkOpen() throws SQLException {
+            if (closed) {
+                throw new SQLException("ResultSet is closed");
+            }
+        }
+
+        private Object get(String name, Object[] args) throws SQLException {
+            this.checkOpen();
+            if (row < 0 || row >= rows.size()) {
+                throw new SQLException("No current row");
+            }
+            Object value = rows.get(row)[indexOf(args[0])];
+            wasNull = value == null;
+            if (name.equals("getObject")) {
+                if (args.length == 2 && args[1] instanceof Class) {
+                    return convert(value, (Class<?>) args[1]);
+                }
+                return value;
+            } else if (name.equals("getString")) {
+                return value == null ? null : value.toString();
+            } else if (name.equals("getLong")) {
+                return Long.valueOf(value == null ? 0 : number(value).longValue());
+            } else if (name.equals("getInt")) {
+                return Integer.valueOf(value == null ? 0 : number(value).intValue());
+            } else if (name.equals("getShort")) {
+                return Short.valueOf(value == null ? 0 : number(value).shortValue());
+            } else if (name.equals("getByte")) {
+                return Byte.valueOf(value == null ? 0 : number(value).byteValue());
+            } else if (name.equals("getDouble")) {
+                return Double.valueOf(value == null ? 0 : number(value).doubleValue());
+            } else if (name.equals("getFloat")) {
+                return Float.valueOf(value == null ? 0 : number(value).floatValue());
+            } else if (name.equals("getBoolean")) {
+                if (value == null) {
+                    return Boolean.FALSE;
+                }
+                if (value instanceof Boolean) {
+                    return value;
+                }
+                return Boolean.valueOf(number(value).intValue() != 0);
+            } else if (name.equals("getBigDecimal")) {
+                if (value == null || value instanceof BigDecimal) {
+                    return value;
+                }
+                return new BigDecimal(value.toString());
+            } else if (args.length == 1) {
+                // getTimestamp, getDate, getBytes, ...: the value as the driver returned it
+                return convert(value, name.equals("getBytes") ? byte[].class
+                        : method(name).getReturnType());
+            }
+            throw new SQLFeatureNotSupportedException("BufferedResultSet." + name);
+        }
+
+        private Method method(String name) throws SQLException {
+            try {
+                return ResultSet.class.getMethod(name, int.class);
+            } catch (NoSuchMethodException e) {
+                throw new SQLFeatureNotSupportedException("BufferedResultSet." + name);
+            }
+        }
+    }
+
+    private static Number number(Object value) throws SQLException {
+        if (value instanceof Number) {
+            return (Number) value;
+        }
+        if (value instanceof Boolean) {
+            return Integer.valueOf(((Boolean) value).booleanValue() ? 1 : 0);
+        }
+        try {
+            return new BigDecimal(value.toString().trim());
+        } catch (NumberFormatException e) {
+            throw new SQLException("Not a number: " + value);
+        }
+    }
+
+    private static Object convert(Object value, Class<?> type) throws SQLException {
+        if (value == null || type.isInstance(value)) {
+            return value;
+        }
+        if (type == Long.class) {
+            return Long.valueOf(number(value).longValue());
+        } else if (type == Integer.class) {
+            return Integer.valueOf(number(value).intValue());
+        } else if (type == BigDecimal.class) {
+            return new BigDecimal(value.toString());
+        } else if (type == String.class) {
+            return value.toString();
+        }
+        throw new SQLException("Can't convert " + value.getClass().getName() + " to " + type.getName());
+    }
+
+    /**
+     * The metadata of the buffered columns
+     */
+    private final class MetaData implements InvocationHandler {
+
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("getColumnCount")) {
+                return Integer.valueOf(columnCount);
+            } else if (name.equals("hashCode")) {
+                return Integer.valueOf(System.identityHashCode(proxy));
+            } else if (name.equals("equals")) {
+                return Boolean.valueOf(proxy == args[0]);
+            } else if (name.equals("toString")) {
+                return "BufferedResultSet.MetaData[columns=" + columnCount + "]";
+            }
+            if (args == null || args.length != 1 || !(args[0] instanceof Integer)) {
+                throw new SQLFeatureNotSupportedException("ResultSetMetaData." + name);
+            }
+            int i = indexOf(args[0]);
+            if (name.equals("getColumnLabel")) {
+                return labels[i];
+            } else if (name.equals("getColumnName")) {
+                return names[i];
+            } else if (name.equals("getColumnType")) {
+                return Integer.valueOf(types[i]);
+            } else if (name.equals("getColumnTypeName")) {
+                return typeNames[i];
+            } else if (name.equals("getColumnClassName")) {
+                return classNames[i];
+            } else if (name.equals("isNullable")) {
+                return Integer.valueOf(ResultSetMetaData.columnNullableUnknown);
+            }
+            throw new SQLFeatureNotSupportedException("ResultSetMetaData." + name);
+        }
+    }
+
+}
@@ -0,0 +1,1003 @@
+package org.apache.commons.dbutils;
+
+import java.io.PrintWriter;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+import javax.sql.DataSource;
+
+/**
+ * A small, low latency JDBC connection pool, e.g. for <code>QueryRunner(DataSource)</code> and
+ * <code>JdbcUtils</code>.
+ *
+ * <p>
+ * Borrowing is lock-free: a thread first tries the connection it returned last, then any idle
+ * connection, each claimed by one compare-and-set, and opens a new connection while the pool is
+ * below {@link #getMaxPoolSize()}. Otherwise it waits, at most the connection timeout or the time
+ * left by its {@link Deadline}, and returned connections are handed directly to the waiters,
+ * longest waiting first. One background thread per pool retires connections past
+ * their maximum lifetime or idle too long, validates idle connections and keeps
+ * {@link Builder#minIdle(int)} connections open.
+ * </p>
+ *
+ * <p>
+ * Borrowers get a handle on the connection; closing it returns the connection, after closing the
+ * statements left open, rolling back an unfinished transaction and restoring auto-commit, read only
+ * and isolation. A connection that reported a connection error (SQL state <code>08</code>), also
+ * through one of its statements, or that was aborted with <code>abort(Executor)</code>, is dropped
+ * instead. The statements, metadata and result sets
+ * of a borrowed connection lead back to the borrower's handle, never to the pooled connection.
+ * </p>
+ *
+ * <pre>
+ * ConnectionPool pool = new ConnectionPool.Builder().jdbcUrl(&quot;jdbc:h2:mem:test&quot;).maxPoolSize(20).build();
+ * QueryRunner runner = new QueryRunner(pool);
+ * ...
+ * System.out.println(pool); // active, idle, waiting, borrow latency
+ * pool.close();
+ * </pre>
+ *
+ * <p>
+ * The class is thread safe.
+ * </p>
+ */
+public class ConnectionPool implements DataSource, AutoCloseable {
+
+    private static final int REMOVED = -1;
+
+    private static final int IDLE = 0;
+
+    private static final int IN_USE = 1;
+
+    /**
+     * Claimed by the housekeeper for validation or retirement
+     */
+    private static final int RESERVED = 2;
+
+    private static final AtomicInteger POOL_NUMBER = new AtomicInteger();
+
+    private final String name;
+
+    private final String jdbcUrl;
+
+    private final Properties connectionProperties;
+
+    private final int minIdle;
+
+    private final int maxPoolSize;
+
+    private final long connectionTimeoutNanos;
+
+    private final long idleTimeoutNanos;
+
+    private final long maxLifetimeNanos;
+
+    private final int validationTimeoutSeconds;
+
+    /**
+     * All open connections
+     */
+    private final CopyOnWriteArrayList<Entry> entries = new CopyOnWriteArrayList<Entry>();
+
+    /**
+     * The open connections plus those being opened
+     */
+    private final AtomicInteger total = new AtomicInteger();
+
+    private final AtomicInteger waiters = new AtomicInteger();
+
+    /**
+     * Hands returned connections to waiting borrowers, longest waiting first
+     */
+    private final SynchronousQueue<Entry> handoff = new SynchronousQueue<Entry>(true);
+
+    /**
+     * The connection each thread returned last
+     */
+    private final ThreadLocal<WeakReference<Entry>> affinity = new ThreadLocal<WeakReference<Entry>>();
+
+    private final LatencyHistogram borrowLatency = new LatencyHistogram();
+
+    private final AtomicLong timeouts = new AtomicLong();
+
+    private final ScheduledExecutorService housekeeper;
+
+    private volatile boolean closed;
+
+    private volatile PrintWriter logWriter;
+
+    private volatile int loginTimeout;
+
+    /**
+     * Constructor for ConnectionPool, see {@link Builder}
+     *
+     * @param builder The configuration
+     */
+    protected ConnectionPool(Builder builder) {
+        if (builder.jdbcUrl == null) {
+            throw new IllegalArgumentException("jdbcUrl can not be null");
+        }
+        if (builder.driverClassName != null) {
+            try {
+                Class.forName(builder.driverClassName);
+            } catch (ClassNotFoundException e) {
+                throw new IllegalArgumentException("JDBC driver not found: " + builder.driverClassName, e);
+            }
+        }
+        this.name = builder.name != null ? builder.name : "pool-" + POOL_NUMBER.incrementAndGet();
+        this.jdbcUrl = builder.jdbcUrl;
+        this.connectionProperties = (Properties) builder.properties.clone();
+        this.minIdle = builder.minIdle;
+        this.maxPoolSize = builder.maxPoolSize;
+        this.connectionTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(builder.connectionTimeoutMillis);
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(builder.idleTimeoutMillis);
+        this.maxLifetimeNanos = TimeUnit.MILLISECONDS.toNanos(builder.maxLifetimeMillis);
+        this.validationTimeoutSeconds = builder.validationTimeoutSeconds;
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "ConnectionPool-" + name + "-housekeeper");
+                t.setDaemon(true);
+                return t;
+            }
+        });
+        this.housekeeper.scheduleWithFixedDelay(new Runnable() {
+            public void run() {
+                housekeep();
+            }
+        }, 0, builder.housekeepingPeriodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrow a connection; close it to return it to the pool
+     *
+     * @return The connection
+     * @throws SQLException If the pool is closed, no connection became available in time, or a
+     *         new connection can't be opened
+     */
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        Entry entry = this.borrow(start);
+        borrowLatency.record(System.nanoTime() - start);
+        return (Connection) Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, new Handle(entry));
+    }
+
+    private Entry borrow(long start) throws SQLException {
+        this.checkOpen();
+        long timeout = connectionTimeoutNanos;
+        Deadline deadline = Deadline.current();
+        if (deadline != null) {
+            deadline.check("acquiring connection");
+            timeout = Math.min(timeout, deadline.remainingNanos());
+        }
+        WeakReference<Entry> last = affinity.get();
+        Entry entry = last == null ? null : last.get();
+        if (entry != null && entry.state.compareAndSet(IDLE, IN_USE)) {
+            return entry;
+        }
+        entry = this.claimIdle();
+        if (entry == null) {
+            entry = this.open();
+        }
+        if (entry != null) {
+            return entry;
+        }
+        waiters.incrementAndGet();
+        try {
+            while (true) {
+                // look again once registered, so a connection returned meanwhile isn't missed
+                entry = this.claimIdle();
+                if (entry == null) {
+                    entry = this.open();
+                }
+                if (entry != null) {
+                    return entry;
+                }
+                long remaining = start + timeout - System.nanoTime();
+                if (remaining <= 0) {
+                    timeouts.incrementAndGet();
+                    if (deadline != null) {
+                        deadline.check("acquiring connection");
+                    }
+                    throw new SQLTransientConnectionException("No connection available in "
+                            + TimeUnit.NANOSECONDS.toMillis(timeout) + " ms: " + this);
+                }
+                entry = handoff.poll(remaining, TimeUnit.NANOSECONDS);
+                if (entry != null && entry.state.compareAndSet(IDLE, IN_USE)) {
+                    return entry;
+                }
+                this.checkOpen();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection", e);
+        } finally {
+            waiters.decrementAndGet();
+        }
+    }
+
+    private Entry claimIdle() {
+        for (Entry entry : entries) {
+            if (entry.state.compareAndSet(IDLE, IN_USE)) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Open a new connection, in use, if the pool isn't full
+     *
+     * @return The connection or <code>null</code> if the pool is full
+     * @throws SQLException If the connection can't be opened
+     */
+    private Entry open() throws SQLException {
+        while (true) {
+            int n = total.get();
+            if (n >= maxPoolSize) {
+                return null;
+            }
+            if (total.compareAndSet(n, n + 1)) {
+                break;
+            }
+        }
+        Connection raw = null;
+        try {
+            raw = DriverManager.getConnection(jdbcUrl, connectionProperties);
+            Entry entry = new Entry(raw);
+            entries.add(entry);
+            return entry;
+        } catch (SQLException e) {
+            total.decrementAndGet();
+            DbUtils.closeQuietly(raw);
+            throw e;
+        } catch (RuntimeException e) {
+            total.decrementAndGet();
+            DbUtils.closeQuietly(raw);
+            throw e;
+        }
+    }
+
+    /**
+     * Take a connection back from a borrower
+     */
+    private void giveBack(Entry entry, Handle handle) {
+        boolean broken = handle.broken;
+        if (!broken) {
+            try {
+                handle.reset(entry);
+            } catch (SQLException e) {
+                broken = true;
+            }
+        }
+        long now = System.nanoTime();
+        if (broken || closed || (maxLifetimeNanos > 0 && now - entry.createdNanos > maxLifetimeNanos)) {
+            this.remove(entry);
+            return;
+        }
+        entry.lastUsedNanos = now;
+        affinity.set(entry.ref);
+        entry.state.set(IDLE);
+        this.handOff(entry);
+    }
+
+    /**
+     * Offer an idle connection to the waiting borrowers until one takes it, or someone else
+     * claimed it meanwhile
+     */
+    private void handOff(Entry entry) {
+        for (int i = 0; waiters.get() > 0; i++) {
+            if (entry.state.get() != IDLE || handoff.offer(entry)) {
+                return;
+            }
+            if ((i & 0xff) == 0xff) {
+                try {
+                    Thread.sleep(0, 10000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            } else {
+                Thread.yield();
+            }
+        }
+    }
+
+    /**
+     * Close a connection and drop it from the pool; a replacement is opened in the background if
+     * borrowers are waiting
+     */
+    private void remove(Entry entry) {
+        if (entry.state.getAndSet(REMOVED) == REMOVED) {
+            return;
+        }
+        entries.remove(entry);
+        total.decrementAndGet();
+        try {
+            entry.raw.close();
+        } catch (SQLException e) {
+            // already broken
+        }
+        if (waiters.get() > 0 && !closed) {
+            try {
+                housekeeper.execute(new Runnable() {
+                    public void run() {
+                        fill(1);
+                    }
+                });
+            } catch (RuntimeException e) {
+                // shut down meanwhile
+            }
+        }
+    }
+
+    /**
+     * Retire expired and idle connections, validate the others and top the pool up to the minimum
+     * of idle connections. Runs on the housekeeping thread.
+     */
+    private void housekeep() {
+        try {
+            for (Entry entry : entries) {
+                if (!entry.state.compareAndSet(IDLE, RESERVED)) {
+                    continue;
+                }
+                long now = System.nanoTime();
+                boolean retire = maxLifetimeNanos > 0 && now - entry.createdNanos > maxLifetimeNanos;
+                if (!retire && idleTimeoutNanos > 0 && now - entry.lastUsedNanos > idleTimeoutNanos) {
+                    retire = total.get() > minIdle;
+                }
+                if (!retire) {
+                    retire = !this.isValid(entry);
+                }
+                if (retire) {
+                    this.remove(entry);
+                } else {
+                    entry.state.set(IDLE);
+                    this.handOff(entry);
+                }
+            }
+            this.fill(0);
+        } catch (RuntimeException e) {
+            // keep the housekeeper scheduled
+            this.log("Housekeeping failed", e);
+        }
+    }
+
+    private boolean isValid(Entry entry) {
+        try {
+            return entry.raw.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        } catch (AbstractMethodError e) {
+            // pre JDBC 4 driver
+            return true;
+        }
+    }
+
+    /**
+     * Open idle connections up to the minimum, and at least a given number while borrowers wait
+     *
+     * @param forWaiters The connections to open anyway if borrowers are waiting
+     */
+    private void fill(int forWaiters) {
+        while (!closed) {
+            boolean needed = this.count(IDLE) < minIdle || (forWaiters-- > 0 && waiters.get() > 0);
+            if (!needed) {
+                return;
+            }
+            Entry entry;
+            try {
+                entry = this.open();
+            } catch (SQLException e) {
+                this.log("Can't open connection", e);
+                return;
+            }
+            if (entry == null) {
+                return;
+            }
+            entry.state.set(IDLE);
+            this.handOff(entry);
+        }
+    }
+
+    private int count(int state) {
+        int n = 0;
+        for (Entry entry : entries) {
+            if (entry.state.get() == state) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    private void checkOpen() throws SQLException {
+        if (closed) {
+            throw new SQLException("ConnectionPool " + name + " is closed");
+        }
+    }
+
+    private void log(String message, Exception e) {
+        PrintWriter writer = logWriter;
+        if (writer != null) {
+            writer.println("ConnectionPool " + name + ": " + message + ": " + e);
+        }
+    }
+
+    /**
+     * Close the idle connections and stop the housekeeping thread. Connections in use are closed
+     * when they are returned.
+     */
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        for (Entry entry : entries) {
+            if (entry.state.compareAndSet(IDLE, RESERVED)) {
+                this.remove(entry);
+            }
+        }
+    }
+
+    /**
+     * Whether the pool was closed
+     *
+     * @return true if closed
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Get the name of the pool, used in its thread name
+     *
+     * @return The name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the most connections the pool opens
+     *
+     * @return The maximum pool size
+     */
+    public int getMaxPoolSize() {
+        return maxPoolSize;
+    }
+
+    /**
+     * Get the number of idle connections the pool keeps open
+     *
+     * @return The minimum of idle connections
+     */
+    public int getMinIdle() {
+        return minIdle;
+    }
+
+    /**
+     * Get the number of connections borrowed
+     *
+     * @return The active count
+     */
+    public int getActiveCount() {
+        return this.count(IN_USE);
+    }
+
+    /**
+     * Get the number of connections ready to be borrowed
+     *
+     * @return The idle count
+     */
+    public int getIdleCount() {
+        return this.count(IDLE);
+    }
+
+    /**
+     * Get the number of open connections
+     *
+     * @return The total count
+     */
+    public int getTotalCount() {
+        return entries.size();
+    }
+
+    /**
+     * Get the number of borrowers waiting for a connection
+     *
+     * @return The waiting count
+     */
+    public int getWaitingCount() {
+        return waiters.get();
+    }
+
+    /**
+     * Get the number of borrowers that gave up waiting
+     *
+     * @return The timeout count
+     */
+    public long getTimeoutCount() {
+        return timeouts.get();
+    }
+
+    /**
+     * Get the time borrowers took to get a connection, including opening new ones and waiting
+     *
+     * @return The live histogram
+     */
+    public LatencyHistogram getBorrowLatency() {
+        return borrowLatency;
+    }
+
+    /**
+     * Not supported, the pool's connections all use the configured credentials
+     */
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("ConnectionPool.getConnection(username, password)");
+    }
+
+    public PrintWriter getLogWriter() throws SQLException {
+        return logWriter;
+    }
+
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        this.logWriter = out;
+    }
+
+    public void setLoginTimeout(int seconds) throws SQLException {
+        this.loginTimeout = seconds;
+    }
+
+    public int getLoginTimeout() throws SQLException {
+        return loginTimeout;
+    }
+
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException("ConnectionPool.getParentLogger");
+    }
+
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("ConnectionPool doesn't wrap " + iface.getName());
+    }
+
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this);
+    }
+
+    @Override
+    public String toString() {
+        return "ConnectionPool[" + name + ", active=" + this.getActiveCount() + ", idle=" + this.getIdleCount()
+                + ", waiting=" + this.getWaitingCount() + ", total=" + this.getTotalCount() + "/" + maxPoolSize
+                + ", timeouts=" + timeouts.get() + ", borrow=" + borrowLatency + "]";
+    }
+
+    /**
+     * A pooled connection
+     */
+    private static final class Entry {
+
+        final Connection raw;
+
+        final AtomicInteger state = new AtomicInteger(IN_USE);
+
+        final long createdNanos = System.nanoTime();
+
+        volatile long lastUsedNanos = createdNanos;
+
+        /**
+         * The reference threads keep to the connection they returned last, one per connection
+         */
+        final WeakReference<Entry> ref = new WeakReference<Entry>(this);
+
+        final int isolation;
+
+        Entry(Connection raw) throws SQLException {
+            this.raw = raw;
+            this.isolation = raw.getTransactionIsolation();
+        }
+    }
+
+    /**
+     * A borrower's handle on a pooled connection
+     */
+    private final class Handle implements InvocationHandler {
+
+        private Entry entry;
+
+        private volatile boolean broken;
+
+        private boolean autoCommitChanged;
+
+        private boolean readOnlyChanged;
+
+        private boolean isolationChanged;
+
+        /**
+         * The statements still open, removed again when the borrower closes them
+         */
+        private Set<Statement> statements;
+
+        Handle(Entry entry) {
+            this.entry = entry;
+        }
+
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("close") || name.equals("abort")) {
+                if (name.equals("abort")) {
+                    broken = true;
+                }
+                Entry e;
+                synchronized (this) {
+                    e = entry;
+                    entry = null;
+                }
+                if (e != null) {
+                    giveBack(e, this);
+                }
+                return null;
+            } else if (name.equals("isClosed")) {
+                return Boolean.valueOf(entry == null);
+            } else if (name.equals("equals")) {
+                return Boolean.valueOf(proxy == args[0]);
+            } else if (name.equals("hashCode")) {
+                return Integer.valueOf(System.identityHashCode(proxy));
+            } else if (name.equals("toString")) {
+                Entry e = entry;
+                return "PooledConnection[" + (e == null ? "closed" : e.raw.toString()) + "]";
+            }
+            Entry e = entry;
+            if (e == null) {
+                if (name.equals("isValid")) {
+                    return Boolean.FALSE;
+                }
+                throw new SQLException("Connection is closed");
+            }
+            if (name.equals("setAutoCommit")) {
+                autoCommitChanged = true;
+            } else if (name.equals("setReadOnly")) {
+                readOnlyChanged = true;
+            } else if (name.equals("setTransactionIsolation")) {
+                isolationChanged = true;
+            }
+            Object result;
+            try {
+                result = method.invoke(e.raw, args);
+            } catch (InvocationTargetException ex) {
+                throw this.failed(ex.getCause());
+            }
+            if (result instanceof Statement) {
+                opened((Statement) result);
+                return Child.wrap(method.getReturnType(), result, this, proxy, null);
+            } else if (result instanceof DatabaseMetaData) {
+                return Child.wrap(DatabaseMetaData.class, result, this, proxy, null);
+            }
+            return result;
+        }
+
+        synchronized void opened(Statement stmt) {
+            if (statements == null) {
+                statements = Collections.newSetFromMap(new IdentityHashMap<Statement, Boolean>());
+            }
+            statements.add(stmt);
+        }
+
+        synchronized void closed(Statement stmt) {
+            if (statements != null) {
+                statements.remove(stmt);
+            }
+        }
+
+        /**
+         * Mark the connection broken if a failure of it or its objects is a connection error
+         *
+         * @param cause The failure
+         * @return The failure, to throw
+         */
+        Throwable failed(Throwable cause) {
+            if (cause instanceof SQLException) {
+                String state = ((SQLException) cause).getSQLState();
+                if (state != null && state.startsWith("08")) {
+                    broken = true;
+                }
+            }
+            return cause;
+        }
+
+        /**
+         * Close the statements left open and restore the connection state changed by the borrower
+         */
+        void reset(Entry e) throws SQLException {
+            Connection raw = e.raw;
+            Statement[] open;
+            synchronized (this) {
+                open = statements == null ? new Statement[0]
+                        : statements.toArray(new Statement[statements.size()]);
+                statements = null;
+            }
+            for (Statement stmt : open) {
+                DbUtils.closeQuietly(stmt);
+            }
+            if (autoCommitChanged && !raw.getAutoCommit()) {
+                raw.rollback();
+                raw.setAutoCommit(true);
+            }
+            if (readOnlyChanged) {
+                raw.setReadOnly(false);
+            }
+            if (isolationChanged) {
+                raw.setTransactionIsolation(e.isolation);
+            }
+            raw.clearWarnings();
+        }
+    }
+
+    /**
+     * A statement, metadata or result set of a borrowed connection. <code>getConnection()</code>
+     * returns the borrower's handle and <code>getStatement()</code> the wrapped statement, so the
+     * pooled connection can't be reached and closed or kept past its return.
+     */
+    private static final class Child implements InvocationHandler {
+
+        private final Object target;
+
+        private final Handle handle;
+
+        private final Object connection;
+
+        private final Object statement;
+
+        private Child(Object target, Handle handle, Object connection, Object statement) {
+            this.target = target;
+            this.handle = handle;
+            this.connection = connection;
+            this.statement = statement;
+        }
+
+        /**
+         * Wrap an object of a borrowed connection
+         *
+         * @param type The interface to expose, e.g. <code>PreparedStatement</code>
+         * @param target The object of the pooled connection
+         * @param handle The borrower's handle, told about connection errors
+         * @param connection The proxy of the handle
+         * @param statement The wrapped statement a result set belongs to, or <code>null</code>
+         * @return The wrapper
+         */
+        static Object wrap(Class<?> type, Object target, Handle handle, Object connection, Object statement) {
+            if (!type.isInterface()) {
+                return target;
+            }
+            return Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(), new Class<?>[] { type },
+                    new Child(target, handle, connection, statement));
+        }
+
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("getConnection") && method.getParameterTypes().length == 0) {
+                return connection;
+            } else if (name.equals("getStatement") && method.getParameterTypes().length == 0) {
+                return statement;
+            } else if (name.equals("equals")) {
+                return Boolean.valueOf(proxy == args[0]);
+            } else if (name.equals("hashCode")) {
+                return Integer.valueOf(System.identityHashCode(proxy));
+            }
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw handle.failed(e.getCause());
+            }
+            if (name.equals("close") && target instanceof Statement) {
+                handle.closed((Statement) target);
+            } else if (result instanceof ResultSet) {
+                Object owner = target instanceof Statement ? proxy : null;
+                return wrap(ResultSet.class, result, handle, connection, owner);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Builder for <code>ConnectionPool</code>
+     */
+    public static class Builder {
+
+        private String name;
+
+        private String jdbcUrl;
+
+        private String driverClassName;
+
+        private final Properties properties = new Properties();
+
+        private int minIdle = 2;
+
+        private int maxPoolSize = 10;
+
+        private long connectionTimeoutMillis = 30000;
+
+        private long idleTimeoutMillis = 600000;
+
+        private long maxLifetimeMillis = 1800000;
+
+        private int validationTimeoutSeconds = 5;
+
+        private long housekeepingPeriodMillis = 30000;
+
+        /**
+         * @param name The name of the pool, used in its thread name
+         * @return this
+         */
+        public Builder name(final String name) {
+            this.name = name;
+            return this;
+        }
+
+        /**
+         * @param jdbcUrl The JDBC URL of the database, required
+         * @return this
+         */
+        public Builder jdbcUrl(final String jdbcUrl) {
+            this.jdbcUrl = jdbcUrl;
+            return this;
+        }
+
+        /**
+         * @param driverClassName The JDBC driver to load, for drivers that don't register
+         *        themselves
+         * @return this
+         */
+        public Builder driverClassName(final String driverClassName) {
+            this.driverClassName = driverClassName;
+            return this;
+        }
+
+        /**
+         * @param username The database user
+         * @return this
+         */
+        public Builder username(final String username) {
+            return this.property("user", username);
+        }
+
+        /**
+         * @param password The password of the database user
+         * @return this
+         */
+        public Builder password(final String password) {
+            return this.property("password", password);
+        }
+
+        /**
+         * @param key A driver connection property
+         * @param value The value, <code>null</code> to remove the property
+         * @return this
+         */
+        public Builder property(final String key, final String value) {
+            if (value == null) {
+                properties.remove(key);
+            } else {
+                properties.setProperty(key, value);
+            }
+            return this;
+        }
+
+        /**
+         * @param minIdle The number of idle connections kept open, default 2
+         * @return this
+         */
+        public Builder minIdle(final int minIdle) {
+            this.minIdle = minIdle;
+            return this;
+        }
+
+        /**
+         * @param maxPoolSize The most connections opened, default 10
+         * @return this
+         */
+        public Builder maxPoolSize(final int maxPoolSize) {
+            this.maxPoolSize = maxPoolSize;
+            return this;
+        }
+
+        /**
+         * @param connectionTimeoutMillis The longest a borrower waits for a connection, default 30
+         *        seconds
+         * @return this
+         */
+        public Builder connectionTimeoutMillis(final long connectionTimeoutMillis) {
+            this.connectionTimeoutMillis = connectionTimeoutMillis;
+            return this;
+        }
+
+        /**
+         * @param idleTimeoutMillis The time after which connections above the minimum of idle
+         *        connections are closed when unused, default 10 minutes, 0 for never
+         * @return this
+         */
+        public Builder idleTimeoutMillis(final long idleTimeoutMillis) {
+            this.idleTimeoutMillis = idleTimeoutMillis;
+            return this;
+        }
+
+        /**
+         * @param maxLifetimeMillis The time after which connections are retired, default 30
+         *        minutes, 0 for never
+         * @return this
+         */
+        public Builder maxLifetimeMillis(final long maxLifetimeMillis) {
+            this.maxLifetimeMillis = maxLifetimeMillis;
+            return this;
+        }
+
+        /**
+         * @param validationTimeoutSeconds The time given <code>Connection.isValid</code> when idle
+         *        connections are validated, default 5
+         * @return this
+         */
+        public Builder validationTimeoutSeconds(final int validationTimeoutSeconds) {
+            this.validationTimeoutSeconds = validationTimeoutSeconds;
+            return this;
+        }
+
+        /**
+         * @param housekeepingPeriodMillis The time between housekeeping runs, default 30 seconds
+         * @return this
+         */
+        public Builder housekeepingPeriodMillis(final long housekeepingPeriodMillis) {
+            this.housekeepingPeriodMillis = housekeepingPeriodMillis;
+            return this;
+        }
+
+        /**
+         * Create the pool and start its housekeeping thread
+         *
+         * @return The pool
+         */
+        public ConnectionPool build() {
+            if (maxPoolSize <= 0) {
+                throw new IllegalArgumentException("maxPoolSize must be positive: " + maxPoolSize);
+            }
+            if (minIdle < 0 || minIdle > maxPoolSize) {
+                throw new IllegalArgumentException("minIdle must be between 0 and maxPoolSize: " + minIdle);
+            }
+            if (connectionTimeoutMillis < 0 || idleTimeoutMillis < 0 || maxLifetimeMillis < 0
+                    || validationTimeoutSeconds < 0) {
+                throw new IllegalArgumentException("timeouts can not be negative");
+            }
+            if (housekeepingPeriodMillis <= 0) {
+                throw new IllegalArgumentException("housekeepingPeriodMillis must be positive: "
+                        + housekeepingPeriodMillis);
+            }
+            return new ConnectionPool(this);
+        }
+    }
+
+}
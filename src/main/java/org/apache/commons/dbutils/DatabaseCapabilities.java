@@ -0,0 +1,399 @@
+package org.apache.commons.dbutils;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Types;
+import java.util.Locale;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.sql.DataSource;
+
+/**
+ * What a database and its driver support, probed once per <code>DataSource</code>, or per JDBC URL
+ * for connections that don't come from a known <code>DataSource</code>, and shared by all runners
+ * that use it. Besides the capabilities reported by <code>DatabaseMetaData</code>, an instance
+ * caches the parameter count and SQL types of every statement it has seen, so
+ * <code>ParameterMetaData</code>, which costs an extra server round trip with some drivers, is
+ * consulted at most once per SQL.
+ *
+ * <p>
+ * Whether <code>ParameterMetaData</code> works can't be told from <code>DatabaseMetaData</code>; it
+ * is learned from the first statement that asks for it and then holds for every runner.
+ * </p>
+ *
+ * <p>
+ * The class is thread safe.
+ * </p>
+ */
+public class DatabaseCapabilities {
+
+    /**
+     * <code>ParameterMetaData</code> wasn't asked for yet
+     */
+    private static final int PMD_UNKNOWN = 0;
+
+    private static final int PMD_SUPPORTED = 1;
+
+    private static final int PMD_BROKEN = 2;
+
+    /**
+     * The capabilities of known <code>DataSource</code>s. Guarded by itself.
+     */
+    private static final Map<DataSource, DatabaseCapabilities> BY_DATA_SOURCE = new WeakHashMap<DataSource, DatabaseCapabilities>();
+
+    /**
+     * The capabilities of connections that don't come from a known <code>DataSource</code>, by URL
+     */
+    private static final ConcurrentHashMap<String, DatabaseCapabilities> BY_URL = new ConcurrentHashMap<String, DatabaseCapabilities>();
+
+    /**
+     * Product name prefixes, lower case, of databases that accept
+     * <code>INSERT ... VALUES (...), (...)</code>
+     */
+    private static final String[] MULTI_ROW_VALUES = { "mysql", "mariadb", "postgresql", "h2", "hsql",
+            "sqlite", "microsoft sql server", "db2", "apache derby" };
+
+    /**
+     * Product name prefixes, lower case, of databases whose drivers return the generated keys of
+     * every row of a multi-row insert, in row order. Others may return only the first or last key.
+     */
+    private static final String[] MULTI_ROW_KEYS = { "mysql", "mariadb", "postgresql", "h2" };
+
+    private final String productName;
+
+    private final String productVersion;
+
+    private final String driverName;
+
+    private final boolean batchUpdates;
+
+    private final boolean generatedKeys;
+
+    private final boolean multiRowValues;
+
+    private final boolean multiRowKeys;
+
+    /**
+     * One of the <code>PMD_*</code> constants, only ever moves away from unknown
+     */
+    private volatile int parameterMetaData = PMD_UNKNOWN;
+
+    /**
+     * The parameter SQL types of each statement seen, by SQL
+     */
+    private final BoundedCache<String, ParameterTypes> parameterTypes;
+
+    /**
+     * Constructor for DatabaseCapabilities
+     *
+     * @param productName The database product name
+     * @param productVersion The database product version
+     * @param driverName The driver name
+     * @param batchUpdates Whether the driver supports batch updates
+     * @param generatedKeys Whether the driver can return generated keys
+     * @param multiRowValues Whether the database accepts multi-row <code>VALUES</code> lists
+     */
+    public DatabaseCapabilities(String productName, String productVersion, String driverName,
+            boolean batchUpdates, boolean generatedKeys, boolean multiRowValues) {
+        this(productName, productVersion, driverName, batchUpdates, generatedKeys, multiRowValues, false);
+    }
+
+    /**
+     * Constructor for DatabaseCapabilities
+     *
+     * @param productName The database product name
+     * @param productVersion The database product version
+     * @param driverName The driver name
+     * @param batchUpdates Whether the driver supports batch updates
+     * @param generatedKeys Whether the driver can return generated keys
+     * @param multiRowValues Whether the database accepts multi-row <code>VALUES</code> lists
+     * @param multiRowKeys Whether the driver returns the generated keys of every row of a multi-row
+     *        insert
+     */
+    public DatabaseCapabilities(String productName, String productVersion, String driverName,
+            boolean batchUpdates, boolean generatedKeys, boolean multiRowValues, boolean multiRowKeys) {
+        this.productName = productName;
+        this.productVersion = productVersion;
+        this.driverName = driverName;
+        this.batchUpdates = batchUpdates;
+        this.generatedKeys = generatedKeys;
+        this.multiRowValues = multiRowValues;
+        this.multiRowKeys = multiRowValues && multiRowKeys;
+        this.parameterTypes = new BoundedCache<String, ParameterTypes>(BoundedCache.DEFAULT_MAX_SIZE * 4);
+    }
+
+    /**
+     * Get the capabilities of the database behind a <code>DataSource</code>, probing them with
+     * given connection the first time
+     *
+     * @param ds The <code>DataSource</code>
+     * @param conn A connection from the <code>DataSource</code>
+     * @return The capabilities
+     * @throws SQLException If the database metadata can't be read
+     */
+    public static DatabaseCapabilities of(DataSource ds, Connection conn) throws SQLException {
+        synchronized (BY_DATA_SOURCE) {
+            DatabaseCapabilities capabilities = BY_DATA_SOURCE.get(ds);
+            if (capabilities != null) {
+                return capabilities;
+            }
+        }
+        DatabaseCapabilities capabilities = of(conn);
+        synchronized (BY_DATA_SOURCE) {
+            BY_DATA_SOURCE.put(ds, capabilities);
+        }
+        return capabilities;
+    }
+
+    /**
+     * Get the capabilities of the database a connection is connected to, probing them the first
+     * time the connection's URL is seen
+     *
+     * @param conn The connection
+     * @return The capabilities
+     * @throws SQLException If the database metadata can't be read
+     */
+    public static DatabaseCapabilities of(Connection conn) throws SQLException {
+        DatabaseMetaData dmd = conn.getMetaData();
+        String url = dmd.getURL();
+        if (url == null) {
+            return probe(dmd);
+        }
+        DatabaseCapabilities capabilities = BY_URL.get(url);
+        if (capabilities == null) {
+            capabilities = probe(dmd);
+            DatabaseCapabilities existing = BY_URL.putIfAbsent(url, capabilities);
+            if (existing != null) {
+                capabilities = existing;
+            }
+        }
+        return capabilities;
+    }
+
+    /**
+     * Read the capabilities from database metadata
+     *
+     * @param dmd The database metadata
+     * @return The capabilities
+     * @throws SQLException If the database metadata can't be read
+     */
+    public static DatabaseCapabilities probe(DatabaseMetaData dmd) throws SQLException {
+        String productName = dmd.getDatabaseProductName();
+        boolean generatedKeys;
+        try {
+            generatedKeys = dmd.supportsGetGeneratedKeys();
+        } catch (SQLFeatureNotSupportedException e) {
+            generatedKeys = false;
+        }
+        return new DatabaseCapabilities(productName, dmd.getDatabaseProductVersion(), dmd.getDriverName(),
+                dmd.supportsBatchUpdates(), generatedKeys, matches(productName, MULTI_ROW_VALUES),
+                generatedKeys && matches(productName, MULTI_ROW_KEYS));
+    }
+
+    private static boolean matches(String productName, String[] prefixes) {
+        if (productName == null) {
+            return false;
+        }
+        String name = productName.toLowerCase(Locale.ENGLISH);
+        for (String prefix : prefixes) {
+            if (name.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the parameter types of a statement, from the cache or, the first time the SQL is seen,
+     * from its <code>ParameterMetaData</code>
+     *
+     * @param sql The SQL of the statement
+     * @param stmt The statement prepared for the SQL
+     * @return The parameter types or <code>null</code> if the driver has no working
+     *         <code>ParameterMetaData</code>
+     * @throws SQLException If a database access error occurs.
+     */
+    public ParameterTypes getParameterTypes(String sql, PreparedStatement stmt) throws SQLException {
+        if (parameterMetaData == PMD_BROKEN) {
+            return null;
+        }
+        ParameterTypes types = parameterTypes.get(sql);
+        if (types != null) {
+            return types;
+        }
+        types = this.readParameterTypes(stmt);
+        return types == null ? null : parameterTypes.put(sql, types);
+    }
+
+    /**
+     * Read the parameter types of a statement from its <code>ParameterMetaData</code>, without
+     * caching them
+     *
+     * @param stmt The statement
+     * @return The parameter types or <code>null</code> if the driver has no working
+     *         <code>ParameterMetaData</code>
+     * @throws SQLException If a database access error occurs.
+     */
+    public ParameterTypes readParameterTypes(PreparedStatement stmt) throws SQLException {
+        if (parameterMetaData == PMD_BROKEN) {
+            return null;
+        }
+        ParameterMetaData pmd;
+        int count;
+        try {
+            pmd = stmt.getParameterMetaData();
+            // null can be returned by implementations that don't support the method
+            if (pmd == null) {
+                parameterMetaData = PMD_BROKEN;
+                return null;
+            }
+            count = pmd.getParameterCount();
+        } catch (SQLFeatureNotSupportedException e) {
+            parameterMetaData = PMD_BROKEN;
+            return null;
+        }
+        parameterMetaData = PMD_SUPPORTED;
+        int[] sqlTypes = new int[count];
+        for (int i = 0; i < count; i++) {
+            try {
+                sqlTypes[i] = pmd.getParameterType(i + 1);
+            } catch (SQLException e) {
+                /*
+                 * VARCHAR works with many drivers regardless of the actual column type. Oddly,
+                 * NULL and OTHER don't work with Oracle's driver
+                 */
+                sqlTypes[i] = Types.VARCHAR;
+            }
+        }
+        return new ParameterTypes(sqlTypes);
+    }
+
+    /**
+     * Whether <code>ParameterMetaData</code> was found not to work with this driver
+     *
+     * @return true if it's known broken, false if it works or wasn't tried yet
+     */
+    public boolean isParameterMetaDataBroken() {
+        return parameterMetaData == PMD_BROKEN;
+    }
+
+    /**
+     * Get the database product name
+     *
+     * @return The database product name, <code>null</code> if unknown
+     */
+    public String getProductName() {
+        return productName;
+    }
+
+    /**
+     * Get the database product version
+     *
+     * @return The database product version, <code>null</code> if unknown
+     */
+    public String getProductVersion() {
+        return productVersion;
+    }
+
+    /**
+     * Get the driver name
+     *
+     * @return The driver name, <code>null</code> if unknown
+     */
+    public String getDriverName() {
+        return driverName;
+    }
+
+    /**
+     * Whether the driver supports <code>addBatch</code> and <code>executeBatch</code>
+     *
+     * @return true if batch updates are supported
+     */
+    public boolean supportsBatchUpdates() {
+        return batchUpdates;
+    }
+
+    /**
+     * Whether the driver can return the keys generated by an insert
+     *
+     * @return true if <code>getGeneratedKeys</code> is supported
+     */
+    public boolean supportsGeneratedKeys() {
+        return generatedKeys;
+    }
+
+    /**
+     * Whether the database accepts <code>INSERT ... VALUES (...), (...)</code>
+     *
+     * @return true if multi-row <code>VALUES</code> lists are supported
+     */
+    public boolean supportsMultiRowValues() {
+        return multiRowValues;
+    }
+
+    /**
+     * Whether the driver returns the generated keys of every row of a multi-row insert, in row
+     * order. Only known for MySQL, MariaDB, PostgreSQL and H2.
+     *
+     * @return true if a multi-row insert returns one key per row
+     */
+    public boolean returnsMultiRowKeys() {
+        return multiRowKeys;
+    }
+
+    /**
+     * Get the cache of parameter types by SQL, for its statistics
+     *
+     * @return The parameter types cache
+     */
+    public BoundedCache<String, ParameterTypes> getParameterTypesCache() {
+        return parameterTypes;
+    }
+
+    @Override
+    public String toString() {
+        return "DatabaseCapabilities[" + productName + " " + productVersion + ", driver=" + driverName
+                + ", batchUpdates=" + batchUpdates + ", generatedKeys=" + generatedKeys + ", multiRowValues="
+                + multiRowValues + ", multiRowKeys=" + multiRowKeys + ", parameterMetaDataBroken="
+                + isParameterMetaDataBroken() + "]";
+    }
+
+    /**
+     * The parameter count and SQL types of a statement, as reported by its
+     * <code>ParameterMetaData</code>
+     */
+    public static final class ParameterTypes {
+
+        private final int[] sqlTypes;
+
+        ParameterTypes(int[] sqlTypes) {
+            this.sqlTypes = sqlTypes;
+        }
+
+        /**
+         * Get the number of parameters
+         *
+         * @return The parameter count
+         */
+        public int getCount() {
+            return sqlTypes.length;
+        }
+
+        /**
+         * Get the SQL type of a parameter, <code>VARCHAR</code> if the driver couldn't tell
+         *
+         * @param index The 1-based parameter index
+         * @return The <code>java.sql.Types</code> constant
+         */
+        public int getSqlType(int index) {
+            return sqlTypes[index - 1];
+        }
+    }
+
+}
@@ -0,0 +1,172 @@
+package org.apache.commons.dbutils;
+
+import java.sql.SQLTimeoutException;
+
+/**
+ * A point in time by which the database work of the current thread must be done, e.g. the budget
+ * of a request. While a deadline is started, runners:
+ * <ul>
+ * <li>fail connection acquisition with a <code>SQLTimeoutException</code> once it has passed, in
+ * <code>prepareConnection</code> and <code>JdbcUtils.getConnection()</code>, and close a
+ * connection that arrives too late;</li>
+ * <li>set the query timeout of prepared statements to the remaining time, rounded up to whole
+ * seconds as JDBC requires, unless the <code>StatementConfiguration</code> sets a shorter one;</li>
+ * <li>cancel statements still running when it passes, at millisecond resolution, so the work
+ * fails and the connection is released right away.</li>
+ * </ul>
+ *
+ * <pre>
+ * try (Deadline deadline = Deadline.start(250)) {
+ *     User user = runner.query(userSql, userHandler, id);
+ *     List&lt;Order&gt; orders = runner.query(ordersSql, ordersHandler, id);
+ * }
+ * </pre>
+ *
+ * <p>
+ * Deadlines nest: a deadline started within another one never ends later than the outer one.
+ * <code>AsyncQueryRunner</code> carries the deadline of the submitting thread over to the executor.
+ * </p>
+ */
+public final class Deadline implements AutoCloseable {
+
+    /**
+     * The deadline started last on the thread
+     */
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<Deadline>();
+
+    /**
+     * The deadline in <code>System.nanoTime()</code>
+     */
+    private final long deadlineNanos;
+
+    /**
+     * The deadline this one was started in, restored when it is closed
+     */
+    private final Deadline previous;
+
+    private final Thread thread;
+
+    private Deadline(long deadlineNanos, Deadline previous) {
+        this.deadlineNanos = deadlineNanos;
+        this.previous = previous;
+        this.thread = Thread.currentThread();
+    }
+
+    /**
+     * Start a deadline for the current thread, ending when the returned deadline is closed
+     *
+     * @param timeoutMillis The time from now the work must be done in
+     * @return The deadline, to close when the work is done
+     */
+    public static Deadline start(long timeoutMillis) {
+        if (timeoutMillis < 0) {
+            throw new IllegalArgumentException("timeoutMillis can not be negative: " + timeoutMillis);
+        }
+        return enter(System.nanoTime() + timeoutMillis * 1000000L);
+    }
+
+    /**
+     * Start a deadline for the current thread at a given time, not later than the current deadline
+     */
+    private static Deadline enter(long deadlineNanos) {
+        Deadline current = CURRENT.get();
+        if (current != null && current.deadlineNanos - deadlineNanos < 0) {
+            deadlineNanos = current.deadlineNanos;
+        }
+        Deadline deadline = new Deadline(deadlineNanos, current);
+        CURRENT.set(deadline);
+        return deadline;
+    }
+
+    /**
+     * Get the deadline of the current thread
+     *
+     * @return The deadline started last and not closed yet, or <code>null</code>
+     */
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Throw if the deadline of the current thread has passed
+     *
+     * @param what The work about to start, for the message
+     * @throws SQLTimeoutException If the deadline has passed
+     */
+    static void checkCurrent(String what) throws SQLTimeoutException {
+        Deadline deadline = CURRENT.get();
+        if (deadline != null) {
+            deadline.check(what);
+        }
+    }
+
+    /**
+     * Start this deadline on the current thread too, e.g. on the thread executing work submitted
+     * under it
+     *
+     * @return The deadline to close when the work is done
+     */
+    Deadline join() {
+        return enter(deadlineNanos);
+    }
+
+    /**
+     * Get the time left
+     *
+     * @return The remaining nanoseconds, negative once the deadline has passed
+     */
+    public long remainingNanos() {
+        return deadlineNanos - System.nanoTime();
+    }
+
+    /**
+     * Get the time left
+     *
+     * @return The remaining milliseconds, rounded down, 0 once the deadline has passed
+     */
+    public long remainingMillis() {
+        return Math.max(0, this.remainingNanos() / 1000000L);
+    }
+
+    /**
+     * Whether the deadline has passed
+     *
+     * @return true if no time is left
+     */
+    public boolean isExpired() {
+        return this.remainingNanos() <= 0;
+    }
+
+    /**
+     * Throw if the deadline has passed
+     *
+     * @param what The work about to start, for the message
+     * @throws SQLTimeoutException If the deadline has passed
+     */
+    public void check(String what) throws SQLTimeoutException {
+        long remaining = this.remainingNanos();
+        if (remaining <= 0) {
+            throw new SQLTimeoutException("Deadline exceeded by " + (-remaining / 1000000L) + " ms before " + what);
+        }
+    }
+
+    /**
+     * End the deadline on the thread that started it and restore the deadline it was started in.
+     * Closing it again, or on another thread, does nothing.
+     */
+    public void close() {
+        if (Thread.currentThread() == thread && CURRENT.get() == this) {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Deadline[remaining=" + this.remainingMillis() + "ms]";
+    }
+
+}
@@ -0,0 +1,272 @@
+package org.apache.commons.dbutils;
+
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+import javax.sql.DataSource;
+
+/**
+ * A <code>DataSource</code> that lets a bounded number of connections be in use at a time and
+ * queues the other borrowers, first come first served, on a semaphore. With thousands of virtual
+ * threads it keeps the excess callers parked cheaply in front of the pool instead of all competing
+ * inside it. A permit is held from <code>getConnection()</code> until the connection is closed.
+ *
+ * <pre>
+ * JdbcUtils.setDataSource(new GatedDataSource(pool, pool.getMaxPoolSize(), 30000));
+ * </pre>
+ *
+ * <p>
+ * The class is thread safe.
+ * </p>
+ */
+public class GatedDataSource implements DataSource {
+
+    private final DataSource dataSource;
+
+    /**
+     * Guarded by this for writes
+     */
+    private volatile int permits;
+
+    private volatile long timeoutNanos;
+
+    private final Gate semaphore;
+
+    /**
+     * Constructor for GatedDataSource
+     *
+     * @param dataSource The <code>DataSource</code> to borrow from
+     * @param permits The most connections in use at a time
+     * @param timeoutMillis The longest a borrower waits for a permit; a {@link Deadline} may
+     *        shorten it
+     */
+    public GatedDataSource(DataSource dataSource, int permits, long timeoutMillis) {
+        if (dataSource == null) {
+            throw new IllegalArgumentException("dataSource can not be null");
+        }
+        if (permits <= 0) {
+            throw new IllegalArgumentException("permits must be positive: " + permits);
+        }
+        if (timeoutMillis < 0) {
+            throw new IllegalArgumentException("timeoutMillis can not be negative: " + timeoutMillis);
+        }
+        this.dataSource = dataSource;
+        this.permits = permits;
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        this.semaphore = new Gate(permits);
+    }
+
+    /**
+     * Wait for a permit, then borrow a connection; closing it gives the permit back
+     *
+     * @return The connection
+     * @throws SQLException If no permit became available in time or the connection can't be
+     *         borrowed
+     */
+    public Connection getConnection() throws SQLException {
+        long timeout = timeoutNanos;
+        Deadline deadline = Deadline.current();
+        if (deadline != null) {
+            deadline.check("acquiring connection");
+            timeout = Math.min(timeout, deadline.remainingNanos());
+        }
+        try {
+            if (!semaphore.tryAcquire(timeout, TimeUnit.NANOSECONDS)) {
+                if (deadline != null) {
+                    deadline.check("acquiring connection");
+                }
+                throw new SQLTransientConnectionException("No connection permit available in "
+                        + TimeUnit.NANOSECONDS.toMillis(timeout) + " ms: " + this);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection permit", e);
+        }
+        Connection conn;
+        try {
+            conn = dataSource.getConnection();
+        } catch (SQLException e) {
+            semaphore.release();
+            throw e;
+        } catch (RuntimeException e) {
+            semaphore.release();
+            throw e;
+        }
+        return (Connection) Proxy.newProxyInstance(GatedDataSource.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, new Permit(conn));
+    }
+
+    /**
+     * Not supported, like the pools this wraps
+     */
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("GatedDataSource.getConnection(username, password)");
+    }
+
+    /**
+     * Get the wrapped <code>DataSource</code>
+     *
+     * @return The <code>DataSource</code>
+     */
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    /**
+     * Get the most connections in use at a time
+     *
+     * @return The number of permits
+     */
+    public int getPermits() {
+        return permits;
+    }
+
+    /**
+     * Change the most connections in use at a time. Connections in use keep their permits, so a
+     * lower bound is reached as they are closed, meanwhile the connections in use stay within the
+     * old bound.
+     *
+     * @param permits The most connections in use at a time
+     * @param timeoutMillis The longest a borrower waits for a permit
+     */
+    public synchronized void setPermits(int permits, long timeoutMillis) {
+        if (permits <= 0) {
+            throw new IllegalArgumentException("permits must be positive: " + permits);
+        }
+        if (timeoutMillis < 0) {
+            throw new IllegalArgumentException("timeoutMillis can not be negative: " + timeoutMillis);
+        }
+        int change = permits - this.permits;
+        if (change > 0) {
+            semaphore.release(change);
+        } else if (change < 0) {
+            semaphore.reducePermits(-change);
+        }
+        this.permits = permits;
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+    }
+
+    /**
+     * Get the number of connections in use through this <code>DataSource</code>
+     *
+     * @return The active count
+     */
+    public int getActiveCount() {
+        return permits - semaphore.availablePermits();
+    }
+
+    /**
+     * Get the number of borrowers waiting for a permit, an estimate
+     *
+     * @return The waiting count
+     */
+    public int getWaitingCount() {
+        return semaphore.getQueueLength();
+    }
+
+    public PrintWriter getLogWriter() throws SQLException {
+        return dataSource.getLogWriter();
+    }
+
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        dataSource.setLogWriter(out);
+    }
+
+    public void setLoginTimeout(int seconds) throws SQLException {
+        dataSource.setLoginTimeout(seconds);
+    }
+
+    public int getLoginTimeout() throws SQLException {
+        return dataSource.getLoginTimeout();
+    }
+
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return dataSource.getParentLogger();
+    }
+
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        return dataSource.unwrap(iface);
+    }
+
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || dataSource.isWrapperFor(iface);
+    }
+
+    @Override
+    public String toString() {
+        return "GatedDataSource[active=" + this.getActiveCount() + "/" + permits + ", waiting="
+                + this.getWaitingCount() + ", " + dataSource + "]";
+    }
+
+    /**
+     * The fair semaphore of the permits, which can also take permits away
+     */
+    private static final class Gate extends Semaphore {
+
+        private static final long serialVersionUID = 1L;
+
+        Gate(int permits) {
+            super(permits, true);
+        }
+
+        @Override
+        protected void reducePermits(int reduction) {
+            super.reducePermits(reduction);
+        }
+    }
+
+    /**
+     * A connection holding a permit until it is closed
+     */
+    private final class Permit implements InvocationHandler {
+
+        private final Connection conn;
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        Permit(Connection conn) {
+            this.conn = conn;
+        }
+
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("equals")) {
+                return Boolean.valueOf(proxy == args[0]);
+            } else if (name.equals("hashCode")) {
+                return Integer.valueOf(System.identityHashCode(proxy));
+            } else if (name.equals("isClosed") && released.get()) {
+                return Boolean.TRUE;
+            } else if (name.equals("close")) {
+                if (!released.compareAndSet(false, true)) {
+                    return null;
+                }
+                try {
+                    conn.close();
+                } finally {
+                    semaphore.release();
+                }
+                return null;
+            }
+            try {
+                return method.invoke(conn, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+}
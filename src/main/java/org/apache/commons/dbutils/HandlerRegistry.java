@@ -0,0 +1,347 @@
+package org.apache.commons.dbutils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ServiceLoader;
+
+/**
+ * An immutable, ordered snapshot of the <code>ColumnHandler</code> and <code>PropertyHandler</code>
+ * implementations a <code>BeanProcessor</code> uses, and of the <code>ParameterBinder</code>
+ * implementations query runners bind parameters with. Handlers are consulted in priority order,
+ * highest first, and in registration order among equal priorities; the first one that matches
+ * wins.
+ *
+ * <p>
+ * The default registry loads the providers listed under <code>META-INF/services</code> exactly once.
+ * Custom registries are assembled with a {@link Builder}:
+ * </p>
+ *
+ * <pre>
+ * HandlerRegistry registry = HandlerRegistry.getDefault().toBuilder()
+ *         .columnHandler(new MoneyColumnHandler(), 10).build();
+ * BeanProcessor convert = new BeanProcessor(registry);
+ * </pre>
+ *
+ * <p>
+ * The class is thread safe, lookups read plain arrays that never change after construction.
+ * </p>
+ */
+public final class HandlerRegistry {
+
+    /**
+     * The priority of handlers loaded through <code>ServiceLoader</code> or registered without
+     * priority.
+     */
+    public static final int DEFAULT_PRIORITY = 0;
+
+    private final ColumnHandler[] columnHandlers;
+
+    private final PropertyHandler[] propertyHandlers;
+
+    private final ParameterBinder[] parameterBinders;
+
+    /**
+     * The registrations this registry was built from, kept for {@link #toBuilder()}
+     */
+    private final List<Registration<ColumnHandler>> columnRegistrations;
+
+    private final List<Registration<PropertyHandler>> propertyRegistrations;
+
+    private final List<Registration<ParameterBinder>> binderRegistrations;
+
+    /**
+     * Holder of the default registry, so the service providers are loaded once, on first use.
+     */
+    private static final class DefaultHolder {
+        static final HandlerRegistry INSTANCE = builder().loadServices().build();
+    }
+
+    private HandlerRegistry(List<Registration<ColumnHandler>> columnRegistrations,
+            List<Registration<PropertyHandler>> propertyRegistrations,
+            List<Registration<ParameterBinder>> binderRegistrations) {
+        this.columnRegistrations = sorted(columnRegistrations);
+        this.propertyRegistrations = sorted(propertyRegistrations);
+        this.binderRegistrations = sorted(binderRegistrations);
+        this.columnHandlers = new ColumnHandler[this.columnRegistrations.size()];
+        for (int i = 0; i < columnHandlers.length; i++) {
+            columnHandlers[i] = this.columnRegistrations.get(i).handler;
+        }
+        this.propertyHandlers = new PropertyHandler[this.propertyRegistrations.size()];
+        for (int i = 0; i < propertyHandlers.length; i++) {
+            propertyHandlers[i] = this.propertyRegistrations.get(i).handler;
+        }
+        this.parameterBinders = new ParameterBinder[this.binderRegistrations.size()];
+        for (int i = 0; i < parameterBinders.length; i++) {
+            parameterBinders[i] = this.binderRegistrations.get(i).handler;
+        }
+    }
+
+    /**
+     * Get the registry of the handlers found on the classpath by <code>ServiceLoader</code>
+     *
+     * @return The default registry
+     */
+    public static HandlerRegistry getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    /**
+     * Create a builder for an empty registry
+     *
+     * @return The builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Create a builder that starts with the handlers of this registry
+     *
+     * @return The builder
+     */
+    public Builder toBuilder() {
+        Builder builder = new Builder();
+        builder.columnRegistrations.addAll(columnRegistrations);
+        builder.propertyRegistrations.addAll(propertyRegistrations);
+        builder.binderRegistrations.addAll(binderRegistrations);
+        return builder;
+    }
+
+    /**
+     * Find the first <code>ColumnHandler</code> that matches a property type
+     *
+     * @param propType The property type
+     * @return The handler or <code>null</code> if none matches
+     */
+    public ColumnHandler findColumnHandler(Class<?> propType) {
+        for (ColumnHandler handler : columnHandlers) {
+            if (handler.match(propType)) {
+                return handler;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Find the first <code>PropertyHandler</code> that matches a setter parameter type and value
+     *
+     * @param parameter The setter's parameter type
+     * @param value The value to pass into the setter
+     * @return The handler or <code>null</code> if none matches
+     */
+    public PropertyHandler findPropertyHandler(Class<?> parameter, Object value) {
+        for (PropertyHandler handler : propertyHandlers) {
+            if (handler.match(parameter, value)) {
+                return handler;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Find the first <code>ParameterBinder</code> that matches the class of a parameter value
+     *
+     * @param type The class of the value
+     * @return The binder or <code>null</code> if none matches, then the value is bound with
+     *         <code>setObject</code>
+     */
+    public ParameterBinder findParameterBinder(Class<?> type) {
+        for (ParameterBinder binder : parameterBinders) {
+            if (binder.match(type)) {
+                return binder;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the column handlers in the order they are consulted
+     *
+     * @return A copy of the column handlers
+     */
+    public ColumnHandler[] getColumnHandlers() {
+        return columnHandlers.clone();
+    }
+
+    /**
+     * Get the property handlers in the order they are consulted
+     *
+     * @return A copy of the property handlers
+     */
+    public PropertyHandler[] getPropertyHandlers() {
+        return propertyHandlers.clone();
+    }
+
+    /**
+     * Get the parameter binders in the order they are consulted
+     *
+     * @return A copy of the parameter binders
+     */
+    public ParameterBinder[] getParameterBinders() {
+        return parameterBinders.clone();
+    }
+
+    /**
+     * Stable sort of registrations by descending priority
+     *
+     * @param registrations The registrations
+     * @return The sorted copy
+     */
+    private static <H> List<Registration<H>> sorted(List<Registration<H>> registrations) {
+        List<Registration<H>> result = new ArrayList<Registration<H>>(registrations);
+        Collections.sort(result, new Comparator<Registration<H>>() {
+            public int compare(Registration<H> o1, Registration<H> o2) {
+                return o1.priority > o2.priority ? -1 : (o1.priority == o2.priority ? 0 : 1);
+            }
+        });
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * A handler and its priority
+     */
+    private static final class Registration<H> {
+
+        final H handler;
+
+        final int priority;
+
+        Registration(H handler, int priority) {
+            this.handler = handler;
+            this.priority = priority;
+        }
+    }
+
+    /**
+     * Builder for <code>HandlerRegistry</code>. The builder isn't thread safe, the registries it
+     * builds are.
+     */
+    public static final class Builder {
+
+        private final List<Registration<ColumnHandler>> columnRegistrations = new ArrayList<Registration<ColumnHandler>>();
+
+        private final List<Registration<PropertyHandler>> propertyRegistrations = new ArrayList<Registration<PropertyHandler>>();
+
+        private final List<Registration<ParameterBinder>> binderRegistrations = new ArrayList<Registration<ParameterBinder>>();
+
+        private Builder() {
+        }
+
+        /**
+         * Register the handlers found by <code>ServiceLoader</code> with the context class loader
+         * with {@link HandlerRegistry#DEFAULT_PRIORITY}, in the order they're found.
+         *
+         * @return This builder
+         */
+        public Builder loadServices() {
+            return loadServices(Thread.currentThread().getContextClassLoader());
+        }
+
+        /**
+         * Register the handlers found by <code>ServiceLoader</code> with given class loader with
+         * {@link HandlerRegistry#DEFAULT_PRIORITY}, in the order they're found.
+         *
+         * @param loader The class loader to find providers with
+         * @return This builder
+         */
+        public Builder loadServices(ClassLoader loader) {
+            for (ColumnHandler handler : ServiceLoader.load(ColumnHandler.class, loader)) {
+                columnHandler(handler);
+            }
+            for (PropertyHandler handler : ServiceLoader.load(PropertyHandler.class, loader)) {
+                propertyHandler(handler);
+            }
+            for (ParameterBinder binder : ServiceLoader.load(ParameterBinder.class, loader)) {
+                parameterBinder(binder);
+            }
+            return this;
+        }
+
+        /**
+         * Register a column handler with {@link HandlerRegistry#DEFAULT_PRIORITY}
+         *
+         * @param handler The handler
+         * @return This builder
+         */
+        public Builder columnHandler(ColumnHandler handler) {
+            return columnHandler(handler, DEFAULT_PRIORITY);
+        }
+
+        /**
+         * Register a column handler
+         *
+         * @param handler The handler
+         * @param priority The priority, handlers with higher priority are consulted first
+         * @return This builder
+         */
+        public Builder columnHandler(ColumnHandler handler, int priority) {
+            if (handler == null) {
+                throw new IllegalArgumentException("handler can not be null");
+            }
+            columnRegistrations.add(new Registration<ColumnHandler>(handler, priority));
+            return this;
+        }
+
+        /**
+         * Register a property handler with {@link HandlerRegistry#DEFAULT_PRIORITY}
+         *
+         * @param handler The handler
+         * @return This builder
+         */
+        public Builder propertyHandler(PropertyHandler handler) {
+            return propertyHandler(handler, DEFAULT_PRIORITY);
+        }
+
+        /**
+         * Register a property handler
+         *
+         * @param handler The handler
+         * @param priority The priority, handlers with higher priority are consulted first
+         * @return This builder
+         */
+        public Builder propertyHandler(PropertyHandler handler, int priority) {
+            if (handler == null) {
+                throw new IllegalArgumentException("handler can not be null");
+            }
+            propertyRegistrations.add(new Registration<PropertyHandler>(handler, priority));
+            return this;
+        }
+
+        /**
+         * Register a parameter binder with {@link HandlerRegistry#DEFAULT_PRIORITY}
+         *
+         * @param binder The binder
+         * @return This builder
+         */
+        public Builder parameterBinder(ParameterBinder binder) {
+            return parameterBinder(binder, DEFAULT_PRIORITY);
+        }
+
+        /**
+         * Register a parameter binder
+         *
+         * @param binder The binder
+         * @param priority The priority, binders with higher priority are consulted first
+         * @return This builder
+         */
+        public Builder parameterBinder(ParameterBinder binder, int priority) {
+            if (binder == null) {
+                throw new IllegalArgumentException("binder can not be null");
+            }
+            binderRegistrations.add(new Registration<ParameterBinder>(binder, priority));
+            return this;
+        }
+
+        /**
+         * Build the immutable registry
+         *
+         * @return The registry
+         */
+        public HandlerRegistry build() {
+            return new HandlerRegistry(columnRegistrations, propertyRegistrations, binderRegistrations);
+        }
+    }
+
+}
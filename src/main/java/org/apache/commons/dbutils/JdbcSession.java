@@ -0,0 +1,104 @@
+package org.apache.commons.dbutils;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * A unit of work that pins one auto-commit connection to a {@link TransactionContext}, opened by
+ * {@link JdbcUtils#openSession()}. Outside a transaction, <code>TxQueryRunner</code> and
+ * <code>JdbcUtils.getConnection()</code> use the session's connection instead of borrowing one
+ * from the pool for every statement, so a request issuing many small statements checks out and
+ * resets one connection, and a <code>StatementCache</code> gets hits across the statements.
+ *
+ * <pre>
+ * try (JdbcSession session = JdbcUtils.openSession()) {
+ *     User user = runner.query(...);
+ *     List&lt;Order&gt; orders = runner.query(...);
+ * }
+ * </pre>
+ *
+ * <p>
+ * The connection is borrowed on first use and returned when the session is closed. A transaction
+ * begun within the session runs on the session's connection, which goes back to auto-commit when
+ * the transaction ends. Opening a session while one is open joins it; only the outermost
+ * <code>close()</code> ends it.
+ * </p>
+ *
+ * <p>
+ * A session belongs to the context it was opened in, by default the one of the current thread; it
+ * may move between threads with its context but must be used by one at a time.
+ * </p>
+ */
+public final class JdbcSession implements AutoCloseable {
+
+    private final TransactionContext context;
+
+    private int depth = 1;
+
+    private Connection connection;
+
+    JdbcSession(TransactionContext context) {
+        this.context = context;
+    }
+
+    /**
+     * Join the session, see {@link JdbcUtils#openSession()}
+     */
+    void enter() {
+        depth++;
+    }
+
+    /**
+     * Get the session's connection, borrowed from the pool on first use. A connection closed
+     * meanwhile, e.g. dropped by the pool after a connection error, is replaced.
+     *
+     * @return The connection, don't close it
+     * @throws SQLException If the session is closed or a connection can't be borrowed
+     */
+    public Connection getConnection() throws SQLException {
+        if (depth == 0) {
+            throw new SQLException("The session is closed");
+        }
+        if (connection == null || connection.isClosed()) {
+            connection = JdbcUtils.connectionSource().getConnection();
+        }
+        return connection;
+    }
+
+    /**
+     * Get the connection pinned by the session
+     *
+     * @return The connection, <code>null</code> if none was borrowed yet
+     */
+    Connection pinned() {
+        return connection;
+    }
+
+    /**
+     * Whether the session is still open
+     *
+     * @return true if open
+     */
+    public boolean isOpen() {
+        return depth > 0;
+    }
+
+    /**
+     * Leave the session; the outermost close ends it and returns its connection, unless a
+     * transaction still runs on it, which then returns it when it ends.
+     *
+     * @throws SQLException If the connection can't be closed
+     */
+    public void close() throws SQLException {
+        if (depth == 0 || --depth > 0) {
+            return;
+        }
+        Connection conn = connection;
+        connection = null;
+        JdbcUtils.endSession(context, this);
+        if (conn != null && conn != context.getConnection()) {
+            conn.close();
+        }
+    }
+
+}
@@ -2,13 +2,27 @@ package org.apache.commons.dbutils;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import javax.sql.DataSource;
 
-import com.mchange.v2.c3p0.ComboPooledDataSource;
-
 /**
- * This is utility class to provide DataSource from C3p0 and is responsible for transaction.
+ * This is utility class to provide DataSource from a {@link ConnectionPool} and is responsible for
+ * transaction.
+ * 
+ * <p>
+ * The pool of the <code>&lt;default-config&gt;</code> of <code>c3p0-config.xml</code>, read by
+ * the built-in {@link ConnectionPool}, is created once, on first use or by {@link #start()}, which
+ * also warms it up, and closed by {@link #shutdown()}. Each <code>&lt;named-config&gt;</code>
+ * gets a pool of its own the same way, see {@link #getDataSource(String)}. Applications with their
+ * own pool can inject it with {@link #setDataSource(DataSource)} before the first use.
+ * </p>
  * 
  * @author ygh 2017年1月5日
  */
@@ -17,53 +31,422 @@ public class JdbcUtils {
     /**
      * The parameter used to stored <code>DataSource</code>
      */
-    private static DataSource dataSource;
+    private static volatile DataSource dataSource;
+
+    /**
+     * The <code>DataSource</code>s of the named configurations, created or injected. Guarded by
+     * the class.
+     */
+    private static final Map<String, DataSource> namedDataSources = new HashMap<String, DataSource>();
+
+    /**
+     * The pools created here, closed by {@link #shutdown()}. Guarded by the class.
+     */
+    private static final List<ConnectionPool> createdPools = new ArrayList<ConnectionPool>();
+
+    /**
+     * The statements prepared by {@link #start()}. Guarded by the class.
+     */
+    private static final Set<String> hotSql = new LinkedHashSet<String>();
 
     /**
-     * The parameter used to stored ThreadLocal
+     * Finds the transaction and session of the running code, one context per thread by default
      */
-    private static ThreadLocal<Connection> tl = new ThreadLocal<Connection>();
+    private static volatile TransactionContextHolder contextHolder = TransactionContextHolder.threadLocal();
 
     /**
-     * Providing DataSource from C3p0.Subclasses can override to provide more
-     * <code>DataSource</code> sources.
+     * The most connections in use at a time through this class, 0 for no bound. Guarded by the
+     * class.
+     */
+    private static int connectionPermits;
+
+    private static long permitTimeoutMillis;
+
+    /**
+     * The gate in front of the current <code>DataSource</code>, see
+     * {@link #setConnectionPermits(int, long)}
+     */
+    private static volatile GatedDataSource gate;
+
+    /**
+     * Providing DataSource from the pool, created on first use from the default configuration of
+     * <code>c3p0-config.xml</code> unless one was set with {@link #setDataSource(DataSource)}.
      * 
-     * @return The DataSource provided by C3p0
+     * @return The DataSource of the default configuration
+     * @throws IllegalStateException If the configuration is missing or invalid
      */
     protected static DataSource getDataSource() {
-        dataSource = new ComboPooledDataSource();
-        return dataSource;
+        DataSource ds = dataSource;
+        if (ds == null) {
+            synchronized (JdbcUtils.class) {
+                ds = dataSource;
+                if (ds == null) {
+                    ConnectionPool pool = PoolConfiguration.load(null).build();
+                    createdPools.add(pool);
+                    ds = pool;
+                    dataSource = ds;
+                }
+            }
+        }
+        return ds;
+    }
+
+    /**
+     * Get the DataSource of a named configuration, created on first use from the
+     * <code>&lt;named-config&gt;</code> of <code>c3p0-config.xml</code> unless one was set with
+     * {@link #setDataSource(String, DataSource)}. Its connections don't take part in the
+     * transactions of this class.
+     * 
+     * @param configName The name of the configuration, <code>null</code> for the default one
+     * @return The DataSource
+     * @throws IllegalStateException If the configuration is missing or invalid
+     */
+    public static DataSource getDataSource(String configName) {
+        if (configName == null) {
+            return getDataSource();
+        }
+        synchronized (JdbcUtils.class) {
+            DataSource ds = namedDataSources.get(configName);
+            if (ds == null) {
+                ConnectionPool pool = PoolConfiguration.load(configName).build();
+                createdPools.add(pool);
+                ds = pool;
+                namedDataSources.put(configName, ds);
+            }
+            return ds;
+        }
+    }
+
+    /**
+     * Use the given DataSource instead of creating a pool from <code>c3p0-config.xml</code>. A pool
+     * created before is closed. The DataSource isn't closed by {@link #shutdown()}, its owner is
+     * responsible for it.
+     * 
+     * @param ds The DataSource, <code>null</code> to create the pool from the configuration again
+     */
+    public static void setDataSource(DataSource ds) {
+        synchronized (JdbcUtils.class) {
+            closeCreated(dataSource);
+            dataSource = ds;
+        }
+    }
+
+    /**
+     * Use the given DataSource for a named configuration instead of creating a pool from
+     * <code>c3p0-config.xml</code>, see {@link #setDataSource(DataSource)}.
+     * 
+     * @param configName The name of the configuration
+     * @param ds The DataSource, <code>null</code> to create the pool from the configuration again
+     */
+    public static void setDataSource(String configName, DataSource ds) {
+        if (configName == null) {
+            setDataSource(ds);
+            return;
+        }
+        synchronized (JdbcUtils.class) {
+            closeCreated(namedDataSources.remove(configName));
+            if (ds != null) {
+                namedDataSources.put(configName, ds);
+            }
+        }
     }
 
     /**
-     * If ThreadLocal has be put a <code>Connection</code>, get it and return, otherwise call
-     * <code>DataSource.getConnection()</code>
+     * Register SQL statements to prepare on every connection opened by {@link #start()}, e.g. the
+     * statements of <code>BaseDao.getStatementSql()</code>.
      * 
+     * @param sql The statements
+     */
+    public static void registerStatements(Collection<String> sql) {
+        synchronized (JdbcUtils.class) {
+            hotSql.addAll(sql);
+        }
+    }
+
+    /**
+     * Create the default pool, if it doesn't exist yet, and warm it up: open its minimum of
+     * connections in parallel, validate them and prepare the registered statements on each, so the
+     * first requests don't pay for them.
+     * 
+     * @return The outcome of the warm-up, with its duration
+     * @throws SQLException If no connection can be opened
+     */
+    public static PoolWarmup.Result start() throws SQLException {
+        return start(null);
+    }
+
+    /**
+     * Create the pool of a named configuration, if it doesn't exist yet, and warm it up, see
+     * {@link #start()}.
+     * 
+     * @param configName The name of the configuration, <code>null</code> for the default one
+     * @return The outcome of the warm-up, with its duration
+     * @throws SQLException If no connection can be opened
+     */
+    public static PoolWarmup.Result start(String configName) throws SQLException {
+        List<String> sql;
+        synchronized (JdbcUtils.class) {
+            sql = new ArrayList<String>(hotSql);
+        }
+        return new PoolWarmup.Builder().dataSource(getDataSource(configName)).sql(sql).build().run();
+    }
+
+    /**
+     * Close the pools created from <code>c3p0-config.xml</code> and forget all DataSources; the
+     * next use creates them again. Injected DataSources aren't closed. Transactions still open
+     * lose their connections.
+     */
+    public static void shutdown() {
+        List<ConnectionPool> pools;
+        synchronized (JdbcUtils.class) {
+            pools = new ArrayList<ConnectionPool>(createdPools);
+            createdPools.clear();
+            namedDataSources.clear();
+            dataSource = null;
+        }
+        for (ConnectionPool pool : pools) {
+            pool.close();
+        }
+    }
+
+    /**
+     * Close a DataSource if it is a pool created here. Called holding the class lock.
+     */
+    private static void closeCreated(DataSource ds) {
+        if (ds != null && createdPools.remove(ds)) {
+            ((ConnectionPool) ds).close();
+        }
+    }
+
+    /**
+     * Get the strategy finding the {@link TransactionContext} of the running code
+     *
+     * @return The context holder
+     */
+    public static TransactionContextHolder getContextHolder() {
+        return contextHolder;
+    }
+
+    /**
+     * Set the strategy finding the {@link TransactionContext} of the running code, e.g.
+     * {@link TransactionContextHolder#scopedValues()} for virtual threads. Set it at start up,
+     * before any transaction begins.
+     *
+     * @param holder The context holder
+     */
+    public static void setContextHolder(TransactionContextHolder holder) {
+        if (holder == null) {
+            throw new IllegalArgumentException("holder can not be null");
+        }
+        contextHolder = holder;
+    }
+
+    /**
+     * Get the context of the running code, bound on demand if the holder supports it
+     */
+    private static TransactionContext bindContext() throws SQLException {
+        TransactionContextHolder holder = contextHolder;
+        TransactionContext context = holder.get();
+        if (context == null) {
+            context = holder.bind();
+            if (context == null) {
+                throw new SQLException("No TransactionContext bound by " + holder
+                        + ", run the work in its call() or pass a context");
+            }
+        }
+        return context;
+    }
+
+    /**
+     * Unbind a context whose transaction and session have ended
+     */
+    private static void unbindIfEmpty(TransactionContext context) {
+        if (context != null && context.isEmpty()) {
+            contextHolder.unbind(context);
+        }
+    }
+
+    /**
+     * Let at most a number of connections be in use at a time through this class, so excess
+     * callers, e.g. thousands of virtual threads, queue on a fair semaphore in front of the pool;
+     * see {@link GatedDataSource}. Changing the bound adjusts the gate in use, whose connections
+     * still count against it.
+     *
+     * @param permits The most connections in use at a time, 0 for no bound
+     * @param timeoutMillis The longest a caller waits for a permit
+     */
+    public static void setConnectionPermits(int permits, long timeoutMillis) {
+        if (permits < 0 || timeoutMillis < 0) {
+            throw new IllegalArgumentException("permits and timeoutMillis can not be negative");
+        }
+        synchronized (JdbcUtils.class) {
+            connectionPermits = permits;
+            permitTimeoutMillis = timeoutMillis;
+            if (permits == 0) {
+                gate = null;
+            } else if (gate != null) {
+                gate.setPermits(permits, timeoutMillis);
+            }
+        }
+    }
+
+    /**
+     * Get the <code>DataSource</code> transactions, sessions and single statements borrow from:
+     * the default one, behind the gate if connection permits are set
+     */
+    static DataSource connectionSource() {
+        DataSource ds = getDataSource();
+        GatedDataSource g = gate;
+        if (g != null && g.getDataSource() == ds) {
+            return g;
+        }
+        synchronized (JdbcUtils.class) {
+            if (connectionPermits == 0) {
+                return ds;
+            }
+            g = gate;
+            if (g == null || g.getDataSource() != ds) {
+                g = new GatedDataSource(ds, connectionPermits, permitTimeoutMillis);
+                gate = g;
+            }
+            return g;
+        }
+    }
+
+    /**
+     * Get the connection of the transaction of the running code, otherwise the connection of its
+     * {@link JdbcSession}, otherwise call <code>DataSource.getConnection()</code>. Under a
+     * {@link Deadline} it fails once the deadline has passed, and closes a connection that arrives
+     * after it.
+     *
      * @return The <code>Connection</code>
-     * @throws SQLException If a database access error occurs.
+     * @throws SQLException If a database access error occurs, or the deadline has passed.
      */
     public static Connection getConnection() throws SQLException {
-        if (tl.get() == null) {
-            return getDataSource().getConnection();
+        return getConnection(contextHolder.get());
+    }
+
+    /**
+     * Get the connection of the transaction of a context, otherwise the connection of its
+     * {@link JdbcSession}, otherwise call <code>DataSource.getConnection()</code>, see
+     * {@link #getConnection()}.
+     *
+     * @param context The context, <code>null</code> for none
+     * @return The <code>Connection</code>
+     * @throws SQLException If a database access error occurs, or the deadline has passed.
+     */
+    public static Connection getConnection(TransactionContext context) throws SQLException {
+        Deadline deadline = Deadline.current();
+        if (deadline != null) {
+            deadline.check("acquiring connection");
         }
-        return tl.get();
+        if (context != null) {
+            Connection connection = context.getConnection();
+            if (connection != null) {
+                return connection;
+            }
+            JdbcSession session = context.getSession();
+            if (session != null) {
+                return session.getConnection();
+            }
+        }
+        Connection connection = connectionSource().getConnection();
+        if (deadline != null && deadline.isExpired()) {
+            DbUtils.closeQuietly(connection);
+            deadline.check("using the acquired connection");
+        }
+        return connection;
     }
 
     /**
-     * Start transaction.
-     * 
+     * Get a connection of a named configuration. It doesn't take part in the transaction of the
+     * current thread; close it when done.
+     *
+     * @param configName The name of the configuration, <code>null</code> for the default one
+     * @return The <code>Connection</code>
+     * @throws SQLException If a database access error occurs, or the {@link Deadline} has passed.
+     */
+    public static Connection getConnection(String configName) throws SQLException {
+        Deadline.checkCurrent("acquiring connection");
+        return getDataSource(configName).getConnection();
+    }
+
+    /**
+     * Open a session that pins one auto-commit connection to the running code until it is closed,
+     * see {@link JdbcSession}. If a session is open already, it is joined.
+     *
+     * @return The session, to close when the unit of work is done
+     * @throws SQLException If the context holder can't bind a context here
+     */
+    public static JdbcSession openSession() throws SQLException {
+        return openSession(bindContext());
+    }
+
+    /**
+     * Open a session in a context, see {@link #openSession()}
+     *
+     * @param context The context
+     * @return The session, to close when the unit of work is done
+     */
+    public static JdbcSession openSession(TransactionContext context) {
+        JdbcSession session = context.getSession();
+        if (session != null) {
+            session.enter();
+            return session;
+        }
+        session = new JdbcSession(context);
+        context.setSession(session);
+        return session;
+    }
+
+    /**
+     * Forget a session. Called by {@link JdbcSession#close()}.
+     */
+    static void endSession(TransactionContext context, JdbcSession session) {
+        if (context.getSession() == session) {
+            context.setSession(null);
+            unbindIfEmpty(context);
+        }
+    }
+
+    /**
+     * Whether a connection is pinned by the session of a context
+     */
+    private static boolean inSession(TransactionContext context, Connection connection) {
+        JdbcSession session = context.getSession();
+        return connection != null && session != null && connection == session.pinned();
+    }
+
+    /**
+     * Start transaction. Within a {@link JdbcSession} it runs on the session's connection.
+     *
      * @throws SQLException If ThreadLocak has <code>Connection</code> indicates transaction has
      *         been started.
      */
     public static void beginTransaction() throws SQLException {
-        Connection connection = tl.get();
+        beginTransaction(bindContext());
+    }
+
+    /**
+     * Start transaction in a context, see {@link #beginTransaction()}
+     *
+     * @param context The context
+     * @throws SQLException If a transaction has been started in the context.
+     */
+    public static void beginTransaction(TransactionContext context) throws SQLException {
+        Connection connection = context.getConnection();
         if (connection != null) {
-            throw new SQLException("A transaction " + tl.get().getClass().getName()
+            throw new SQLException("A transaction " + connection.getClass().getName()
                     + "has been started,don't start again ");
         }
-        connection = getDataSource().getConnection();
-        connection.setAutoCommit(false);
-        tl.set(connection);
+        try {
+            JdbcSession session = context.getSession();
+            connection = session != null ? session.getConnection() : connectionSource().getConnection();
+            connection.setAutoCommit(false);
+            context.setConnection(connection);
+        } finally {
+            unbindIfEmpty(context);
+        }
     }
 
     /**
@@ -71,14 +454,22 @@ public class JdbcUtils {
      * @throws SQLException If <code>Connection</code> is null, indicating no transactions
      */
     public static void commitTransaction() throws SQLException {
-        Connection connection = tl.get();
+        commitTransaction(contextHolder.get());
+    }
+
+    /**
+     * Commit the transaction of a context
+     * @param context The context
+     * @throws SQLException If <code>Connection</code> is null, indicating no transactions
+     */
+    public static void commitTransaction(TransactionContext context) throws SQLException {
+        Connection connection = context == null ? null : context.getConnection();
         if (connection == null) {
             throw new SQLException("没有事务不能提交");
         }
-        connection = tl.get();
         connection.commit();
-        connection.close();
-        tl.remove();
+        context.setConnection(null);
+        endTransaction(context, connection);
     }
 
     /**
@@ -86,27 +477,61 @@ public class JdbcUtils {
      * @throws SQLException If <code>Connection</code> is null, indicating no transactions
      */
     public static void rollback() throws SQLException {
-        Connection connection = tl.get();
+        rollback(contextHolder.get());
+    }
+
+    /**
+     * Rollback the transaction of a context
+     * @param context The context
+     * @throws SQLException If <code>Connection</code> is null, indicating no transactions
+     */
+    public static void rollback(TransactionContext context) throws SQLException {
+        Connection connection = context == null ? null : context.getConnection();
         if (connection == null) {
             throw new SQLException("没有事务不能回滚");
         }
-        connection = tl.get();
         connection.rollback();
-        connection.close();
-        tl.remove();
+        context.setConnection(null);
+        endTransaction(context, connection);
     }
 
     /**
-     * Release connection if it don't join transaction.
-     * @param connection The <code>Connection</code> need to release 
-     * @throws SQLException If a database access error occurs
+     * Hand the connection of an ended transaction back to the session it came from, in
+     * auto-commit mode, or close it.
      */
-    public static void realeaseConnection(Connection connection) throws SQLException {
-        Connection con = tl.get();// 获取当前线程的事务连接
-        if (connection != con) {// 如果参数连接，与当前事务连接不同，说明这个连接不是当前事务，可以关闭！
-            if (connection != null && !connection.isClosed()) {// 如果参数连接没有关闭，关闭之！
+    private static void endTransaction(TransactionContext context, Connection connection) throws SQLException {
+        try {
+            if (inSession(context, connection)) {
+                connection.setAutoCommit(true);
+            } else {
                 connection.close();
             }
+        } finally {
+            unbindIfEmpty(context);
+        }
+    }
+
+    /**
+     * Release connection if it don't join transaction nor the current {@link JdbcSession}.
+     * @param connection The <code>Connection</code> need to release
+     * @throws SQLException If a database access error occurs
+     */
+    public static void realeaseConnection(Connection connection) throws SQLException {
+        realeaseConnection(contextHolder.get(), connection);
+    }
+
+    /**
+     * Release connection if it don't join the transaction nor the session of a context.
+     * @param context The context, <code>null</code> for none
+     * @param connection The <code>Connection</code> need to release
+     * @throws SQLException If a database access error occurs
+     */
+    public static void realeaseConnection(TransactionContext context, Connection connection) throws SQLException {
+        if (context != null && (connection == context.getConnection() || inSession(context, connection))) {
+            return;// 事务或会话的连接，不能关闭
+        }
+        if (connection != null && !connection.isClosed()) {// 如果参数连接没有关闭，关闭之！
+            connection.close();
         }
     }
 }
@@ -0,0 +1,119 @@
+package org.apache.commons.dbutils;
+
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
+import java.sql.SQLException;
+
+/**
+ * Writes generated keys into a property of beans through a setter compiled once per bean class and
+ * property. <code>long</code> and <code>int</code> properties are written through the primitive
+ * call sites of {@link PropertySetter}, others as a <code>Long</code>, <code>Integer</code> or
+ * <code>String</code> depending on the property type. Instances are immutable and thread safe.
+ */
+final class KeyWriter {
+
+    private static final BoundedCache<Key, KeyWriter> WRITERS = new BoundedCache<Key, KeyWriter>();
+
+    private final PropertySetter setter;
+
+    private final Class<?> type;
+
+    private KeyWriter(PropertySetter setter) {
+        this.setter = setter;
+        this.type = PropertySetter.wrapper(setter.getParameterType());
+    }
+
+    /**
+     * Get the writer of a property
+     *
+     * @param beanClass The bean class
+     * @param property The name of the key property
+     * @return The writer
+     * @throws SQLException If the class has no writable property of that name and a numeric,
+     *         <code>String</code> or <code>Object</code> type
+     */
+    static KeyWriter of(Class<?> beanClass, String property) throws SQLException {
+        Key key = new Key(beanClass, property);
+        KeyWriter writer = WRITERS.get(key);
+        if (writer == null) {
+            writer = WRITERS.put(key, new KeyWriter(PropertySetter.of(setter(beanClass, property), property)));
+        }
+        return writer;
+    }
+
+    private static Method setter(Class<?> beanClass, String property) throws SQLException {
+        PropertyDescriptor[] descriptors;
+        try {
+            descriptors = Introspector.getBeanInfo(beanClass).getPropertyDescriptors();
+        } catch (IntrospectionException e) {
+            throw new SQLException("Bean Introsepction fail:" + e.getMessage());
+        }
+        for (PropertyDescriptor descriptor : descriptors) {
+            if (descriptor.getName().equals(property) && descriptor.getWriteMethod() != null) {
+                Class<?> type = PropertySetter.wrapper(descriptor.getPropertyType());
+                if (type == Long.class || type == Integer.class || type == String.class
+                        || type.isAssignableFrom(Long.class)) {
+                    return descriptor.getWriteMethod();
+                }
+                throw new SQLException(beanClass.getName() + "." + property + " of type " + type.getName()
+                        + " can't hold a generated key");
+            }
+        }
+        throw new SQLException(beanClass.getName() + " has no writable property " + property);
+    }
+
+    /**
+     * Write a key into a bean
+     *
+     * @param bean The bean
+     * @param key The key
+     * @throws SQLException If the setter fails
+     */
+    void write(Object bean, long key) throws SQLException {
+        if (type == Long.class) {
+            setter.setLong(bean, key);
+        } else if (type == Integer.class) {
+            if (key > Integer.MAX_VALUE || key < Integer.MIN_VALUE) {
+                throw new SQLException("Generated key " + key + " overflows int property "
+                        + setter.getMethod().getName());
+            }
+            setter.setInt(bean, (int) key);
+        } else if (type == String.class) {
+            setter.set(bean, Long.toString(key));
+        } else {
+            setter.set(bean, Long.valueOf(key));
+        }
+    }
+
+    /**
+     * The cache key of a writer
+     */
+    private static final class Key {
+
+        private final Class<?> beanClass;
+
+        private final String property;
+
+        Key(Class<?> beanClass, String property) {
+            this.beanClass = beanClass;
+            this.property = property;
+        }
+
+        @Override
+        public int hashCode() {
+            return beanClass.hashCode() * 31 + property.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return beanClass == other.beanClass && property.equals(other.property);
+        }
+    }
+
+}
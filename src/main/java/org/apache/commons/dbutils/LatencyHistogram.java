@@ -0,0 +1,128 @@
+package org.apache.commons.dbutils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free histogram of latencies in buckets of powers of two microseconds, e.g. of the time
+ * <code>ConnectionPool</code> borrowers wait for a connection. Recording is one atomic increment,
+ * so it can stay enabled in production; percentiles are accurate to the bucket, i.e. within a
+ * factor of two.
+ *
+ * <p>
+ * The class is thread safe.
+ * </p>
+ */
+public final class LatencyHistogram {
+
+    /**
+     * Bucket i counts latencies below 2^i microseconds and at least 2^(i-1); the last bucket counts
+     * everything above
+     */
+    private static final int BUCKETS = 32;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    private final AtomicLong totalNanos = new AtomicLong();
+
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * Record a latency
+     *
+     * @param nanos The latency in nanoseconds
+     */
+    public void record(long nanos) {
+        long micros = Math.max(0, nanos / 1000);
+        int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+        counts.incrementAndGet(bucket);
+        totalNanos.addAndGet(nanos);
+        long max = maxNanos.get();
+        while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+            max = maxNanos.get();
+        }
+    }
+
+    /**
+     * Get the number of latencies recorded
+     *
+     * @return The count
+     */
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * Get the mean latency
+     *
+     * @return The mean in microseconds, 0 if nothing was recorded
+     */
+    public double getMeanMicros() {
+        long count = this.getCount();
+        return count == 0 ? 0 : totalNanos.get() / 1000.0 / count;
+    }
+
+    /**
+     * Get the highest latency recorded
+     *
+     * @return The maximum in microseconds
+     */
+    public long getMaxMicros() {
+        return maxNanos.get() / 1000;
+    }
+
+    /**
+     * Get the upper bound of the bucket a percentile of the latencies falls in
+     *
+     * @param percentile The percentile, between 0 and 100
+     * @return The bound in microseconds, 0 if nothing was recorded
+     */
+    public long getPercentileMicros(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile must be between 0 and 100: " + percentile);
+        }
+        long[] snapshot = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            count += snapshot[i];
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(count * percentile / 100);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS - 1; i++) {
+            seen += snapshot[i];
+            if (seen >= Math.max(1, rank)) {
+                return Math.min(1L << i, this.getMaxMicros());
+            }
+        }
+        return this.getMaxMicros();
+    }
+
+    /**
+     * Get the count of each bucket; bucket i holds latencies from 2^(i-1) up to 2^i microseconds
+     *
+     * @return A copy of the counts
+     */
+    public long[] getBucketCounts() {
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+        }
+        return snapshot;
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyHistogram[count=" + this.getCount() + ", mean=" + String.format("%.1f", this.getMeanMicros())
+                + "us, p50<=" + this.getPercentileMicros(50) + "us, p99<=" + this.getPercentileMicros(99)
+                + "us, max=" + this.getMaxMicros() + "us]";
+    }
+
+}
@@ -0,0 +1,203 @@
+package org.apache.commons.dbutils;
+
+/**
+ * A simple single-row <code>INSERT INTO t (a, b) VALUES (?, ?)</code> split into the part up to
+ * <code>VALUES</code> and the row tuple, so rows can be regrouped into
+ * <code>VALUES (?, ?), (?, ?), ...</code>. Statements with anything after the tuple, e.g.
+ * <code>ON DUPLICATE KEY UPDATE</code> or <code>RETURNING</code>, with parameters outside the tuple,
+ * or without <code>VALUES</code> aren't recognized. Quoted strings and identifiers and nested
+ * parentheses are skipped when scanning.
+ */
+final class MultiRowInsert {
+
+    /**
+     * The SQL up to and including <code>VALUES</code>
+     */
+    private final String prefix;
+
+    /**
+     * The row tuple including its parentheses
+     */
+    private final String tuple;
+
+    private final int parameterCount;
+
+    /**
+     * The SQL built last and its number of rows, groups mostly have the same size
+     */
+    private String lastSql;
+
+    private int lastRows;
+
+    private MultiRowInsert(String prefix, String tuple, int parameterCount) {
+        this.prefix = prefix;
+        this.tuple = tuple;
+        this.parameterCount = parameterCount;
+    }
+
+    /**
+     * Recognize a simple single-row insert
+     *
+     * @param sql The SQL
+     * @return The split insert or <code>null</code> if the SQL isn't a simple single-row insert with
+     *         parameters
+     */
+    static MultiRowInsert parse(String sql) {
+        String s = sql.trim();
+        if (s.endsWith(";")) {
+            s = s.substring(0, s.length() - 1).trim();
+        }
+        if (!startsWithKeyword(s, 0, "insert")) {
+            return null;
+        }
+        // find VALUES at top level, with no parameter before it
+        int values = -1;
+        int i = 0;
+        while (i < s.length()) {
+            char c = s.charAt(i);
+            if (c == '\'' || c == '"' || c == '`') {
+                i = skipQuoted(s, i);
+                if (i < 0) {
+                    return null;
+                }
+            } else if (c == '(') {
+                i = skipParentheses(s, i);
+                if (i < 0) {
+                    return null;
+                }
+            } else if (c == '?') {
+                return null;
+            } else if ((c == 'v' || c == 'V') && startsWithKeyword(s, i, "values")) {
+                values = i;
+                break;
+            } else {
+                i++;
+            }
+        }
+        if (values < 0) {
+            return null;
+        }
+        int open = values + "values".length();
+        while (open < s.length() && Character.isWhitespace(s.charAt(open))) {
+            open++;
+        }
+        if (open >= s.length() || s.charAt(open) != '(') {
+            return null;
+        }
+        int end = skipParentheses(s, open);
+        if (end != s.length()) {
+            // a second tuple or a trailing clause
+            return null;
+        }
+        String tuple = s.substring(open, end);
+        int count = countParameters(tuple);
+        if (count == 0) {
+            return null;
+        }
+        return new MultiRowInsert(s.substring(0, open), tuple, count);
+    }
+
+    private static boolean startsWithKeyword(String s, int at, String keyword) {
+        int end = at + keyword.length();
+        if (end > s.length() || !s.regionMatches(true, at, keyword, 0, keyword.length())) {
+            return false;
+        }
+        boolean startsWord = at == 0 || !Character.isJavaIdentifierPart(s.charAt(at - 1));
+        boolean endsWord = end == s.length() || !Character.isJavaIdentifierPart(s.charAt(end));
+        return startsWord && endsWord;
+    }
+
+    /**
+     * @return The index after the closing quote, -1 if it isn't closed
+     */
+    private static int skipQuoted(String s, int at) {
+        char quote = s.charAt(at);
+        for (int i = at + 1; i < s.length(); i++) {
+            if (s.charAt(i) == quote) {
+                // a doubled quote is an escaped quote
+                if (i + 1 < s.length() && s.charAt(i + 1) == quote) {
+                    i++;
+                } else {
+                    return i + 1;
+                }
+            } else if (s.charAt(i) == '\\' && quote == '\'') {
+                i++;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return The index after the matching parenthesis, -1 if there is none
+     */
+    private static int skipParentheses(String s, int at) {
+        int depth = 0;
+        int i = at;
+        while (i < s.length()) {
+            char c = s.charAt(i);
+            if (c == '\'' || c == '"' || c == '`') {
+                i = skipQuoted(s, i);
+                if (i < 0) {
+                    return -1;
+                }
+                continue;
+            }
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+                if (depth == 0) {
+                    return i + 1;
+                }
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    private static int countParameters(String tuple) {
+        int count = 0;
+        int i = 0;
+        while (i < tuple.length()) {
+            char c = tuple.charAt(i);
+            if (c == '\'' || c == '"' || c == '`') {
+                i = skipQuoted(tuple, i);
+            } else {
+                if (c == '?') {
+                    count++;
+                }
+                i++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Get the number of parameters of one row
+     *
+     * @return The parameter count
+     */
+    int getParameterCount() {
+        return parameterCount;
+    }
+
+    /**
+     * Build the insert of given number of rows
+     *
+     * @param rows The number of rows
+     * @return The SQL
+     */
+    String sql(int rows) {
+        if (rows != lastRows) {
+            StringBuilder sql = new StringBuilder(prefix.length() + (tuple.length() + 2) * rows);
+            sql.append(prefix).append(tuple);
+            for (int i = 1; i < rows; i++) {
+                sql.append(", ").append(tuple);
+            }
+            lastSql = sql.toString();
+            lastRows = rows;
+        }
+        return lastSql;
+    }
+
+}
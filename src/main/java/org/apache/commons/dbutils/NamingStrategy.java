@@ -0,0 +1,24 @@
+package org.apache.commons.dbutils;
+
+/**
+ * Interface to define how <code>BeanProcessor</code> matches column labels to bean property names.
+ * Property names are indexed under {@link #propertyKey(String)} once per bean class, a column matches
+ * the property indexed under its {@link #columnKey(String)}. Implementations must be thread safe and
+ * must return the same key for the same name every time.
+ */
+public interface NamingStrategy {
+
+    /**
+     * Get the key a bean property is indexed under
+     * @param propertyName The bean property name
+     * @return The key, never <code>null</code>
+     */
+    public String propertyKey(String propertyName);
+
+    /**
+     * Get the key a column is looked up with
+     * @param columnName The column label
+     * @return The key or <code>null</code> if the column shouldn't match any property
+     */
+    public String columnKey(String columnName);
+}
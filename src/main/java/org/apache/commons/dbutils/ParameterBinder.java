@@ -0,0 +1,46 @@
+package org.apache.commons.dbutils;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Interface to define how a replacement parameter of a given Java type is bound to a
+ * <code>PreparedStatement</code>, the counterpart of {@link ColumnHandler} for statements. Binders
+ * call the typed setter, e.g. <code>setLong</code> or <code>setTimestamp</code>, so the driver
+ * doesn't have to sniff the type of a <code>setObject</code> argument. Values without a matching
+ * binder are bound with <code>setObject</code>.
+ *
+ * <p>
+ * The default binders call the setter the driver would pick for the type, with these exceptions:
+ * <code>java.util.Date</code> is bound as a <code>Timestamp</code> and the <code>java.time</code>
+ * types as their <code>java.sql</code> counterparts, <code>LocalTime</code> without fraction of
+ * second. Enums are left to <code>setObject</code>, see
+ * {@link org.apache.commons.dbutils.handlers.binders.EnumParameterBinder}.
+ * </p>
+ *
+ * <p>
+ * Implementations are found through <code>ServiceLoader</code> or registered with a
+ * {@link HandlerRegistry}, and must be thread safe.
+ * </p>
+ */
+public interface ParameterBinder {
+
+    /**
+     * Test whether this <code>ParameterBinder</code> wants to bind values of given type
+     *
+     * @param type The class of the value, never a primitive type
+     * @return true if this binder can/wants to bind values of this type; false otherwise.
+     */
+    public boolean match(Class<?> type);
+
+    /**
+     * Bind a value. This method is called only if this binder responded <code>true</code> after
+     * call {@link #match(Class)} for the value's class
+     *
+     * @param stmt The statement to bind the value to
+     * @param index The 1-based parameter index
+     * @param value The value, never <code>null</code>
+     * @throws SQLException If a database access error occurs.
+     */
+    public void bind(PreparedStatement stmt, int index, Object value) throws SQLException;
+}
@@ -0,0 +1,151 @@
+package org.apache.commons.dbutils;
+
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+
+import org.apache.commons.dbutils.DatabaseCapabilities.ParameterTypes;
+
+/**
+ * How the parameters of one SQL statement are bound: their SQL types, for nulls and the parameter
+ * count check, and the <code>ParameterBinder</code> of each parameter position. The binder of a
+ * position is resolved for the class of the first value bound there and reused while values of that
+ * class come along, so a batch resolves its binders with the first row only.
+ *
+ * <p>
+ * The class is thread safe, resolved binders are published as immutable pairs.
+ * </p>
+ */
+final class ParameterBinding {
+
+    /**
+     * Resolved for a value class without matching binder, such values are bound with
+     * <code>setObject</code>
+     */
+    private static final ParameterBinder SET_OBJECT = new ParameterBinder() {
+
+        public boolean match(Class<?> type) {
+            return true;
+        }
+
+        public void bind(PreparedStatement stmt, int index, Object value) throws SQLException {
+            stmt.setObject(index, value);
+        }
+    };
+
+    private final HandlerRegistry registry;
+
+    /**
+     * The parameter types or <code>null</code> if unknown
+     */
+    private final ParameterTypes types;
+
+    /**
+     * The binder resolved for each parameter position, grown when a call passes more parameters
+     * than seen before
+     */
+    private volatile Resolved[] resolved;
+
+    /**
+     * Constructor for ParameterBinding
+     *
+     * @param registry The registry to find binders in
+     * @param types The parameter types or <code>null</code> if unknown
+     */
+    ParameterBinding(HandlerRegistry registry, ParameterTypes types) {
+        this.registry = registry;
+        this.types = types;
+        this.resolved = new Resolved[types == null ? 0 : types.getCount()];
+    }
+
+    /**
+     * Set the parameters of a statement
+     *
+     * @param stmt The <code>PreparedStatement</code> to fill
+     * @param params The Query replacement parameters, <code>null</code> is a valid value to pass
+     *        in.
+     * @throws SQLException If a database access error occurs.
+     */
+    @SuppressWarnings("rawtypes")
+    void bind(PreparedStatement stmt, Object... params) throws SQLException {
+        if (types != null) {
+            int paramsCount = params == null ? 0 : params.length;
+            if (types.getCount() != paramsCount) {
+                throw new SQLException("Wrong number of parameters: expected " + types.getCount()
+                        + ", was given " + paramsCount);
+            }
+        }
+        // nothing to do here
+        if (params == null) {
+            return;
+        }
+        CallableStatement call = null;
+        if (stmt instanceof CallableStatement) {
+            call = (CallableStatement) stmt;
+        }
+        for (int i = 0; i < params.length; i++) {
+            Object value = params[i];
+            if (value != null) {
+                if (call != null && value instanceof OutParameter) {
+                    ((OutParameter) value).register(call, i + 1);
+                } else {
+                    this.binder(i, value.getClass()).bind(stmt, i + 1, value);
+                }
+            } else {
+                /*
+                 * VARCHAR works with many drivers regardless of the actual column type. Oddly, NULL
+                 * and OTHER don't work with Oracle's driver
+                 */
+                stmt.setNull(i + 1, types == null ? Types.VARCHAR : types.getSqlType(i + 1));
+            }
+        }
+    }
+
+    /**
+     * Get the binder of a parameter position for a value class, resolving it if the position saw
+     * another class before
+     *
+     * @param position The 0-based parameter position
+     * @param type The class of the value
+     * @return The binder
+     */
+    private ParameterBinder binder(int position, Class<?> type) {
+        Resolved[] current = resolved;
+        if (position < current.length) {
+            Resolved r = current[position];
+            if (r != null && r.type == type) {
+                return r.binder;
+            }
+        }
+        ParameterBinder binder = registry.findParameterBinder(type);
+        if (binder == null) {
+            binder = SET_OBJECT;
+        }
+        if (position >= current.length) {
+            Resolved[] grown = new Resolved[position + 1];
+            System.arraycopy(current, 0, grown, 0, current.length);
+            current = grown;
+            resolved = grown;
+        }
+        // a racing thread may overwrite it, either binder is right for its class
+        current[position] = new Resolved(type, binder);
+        return binder;
+    }
+
+    /**
+     * A value class and its binder
+     */
+    private static final class Resolved {
+
+        final Class<?> type;
+
+        final ParameterBinder binder;
+
+        Resolved(Class<?> type, ParameterBinder binder) {
+            this.type = type;
+            this.binder = binder;
+        }
+    }
+
+}
@@ -0,0 +1,146 @@
+package org.apache.commons.dbutils;
+
+import java.sql.BatchUpdateException;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+
+/**
+ * The parameter rows of a parallel batch split into contiguous partitions, and the update counts
+ * and failures of the partitions merged back in the original row order. Each partition writes only
+ * its own range of the update counts, so the partitions can report from different threads as long
+ * as {@link #result()} is called after all of them finished.
+ */
+final class PartitionedBatch {
+
+    private final int[] bounds;
+
+    private final int[] counts;
+
+    private final SQLException[] failures;
+
+    /**
+     * Split the rows into partitions of equal size, differing by one row at most
+     *
+     * @param rows The number of rows
+     * @param partitions The number of partitions wanted, fewer are used if there are fewer rows
+     */
+    PartitionedBatch(int rows, int partitions) {
+        int n = Math.max(1, Math.min(partitions, rows));
+        this.bounds = new int[n + 1];
+        for (int p = 1; p <= n; p++) {
+            bounds[p] = (int) ((long) rows * p / n);
+        }
+        this.counts = new int[rows];
+        this.failures = new SQLException[n];
+    }
+
+    /**
+     * Get the number of partitions
+     *
+     * @return The partition count
+     */
+    int size() {
+        return failures.length;
+    }
+
+    /**
+     * Get the first row of a partition
+     *
+     * @param partition The partition
+     * @return The index of the row
+     */
+    int from(int partition) {
+        return bounds[partition];
+    }
+
+    /**
+     * Get the end of a partition
+     *
+     * @param partition The partition
+     * @return The index after its last row
+     */
+    int to(int partition) {
+        return bounds[partition + 1];
+    }
+
+    /**
+     * Record the update counts of a partition
+     *
+     * @param partition The partition
+     * @param updateCounts The update counts of its rows
+     */
+    void succeeded(int partition, int[] updateCounts) {
+        System.arraycopy(updateCounts, 0, counts, from(partition),
+                Math.min(updateCounts.length, to(partition) - from(partition)));
+    }
+
+    /**
+     * Record the failure of a partition. The rows the driver reports executed keep their update
+     * counts unless the partition was rolled back, the others are marked
+     * <code>Statement.EXECUTE_FAILED</code>.
+     *
+     * @param partition The partition
+     * @param e The exception
+     * @param rolledBack Whether the partition's rows were rolled back
+     */
+    void failed(int partition, SQLException e, boolean rolledBack) {
+        failures[partition] = e;
+        int executed = 0;
+        BatchUpdateException bue = batchUpdateException(e);
+        if (!rolledBack && bue != null && bue.getUpdateCounts() != null) {
+            executed = Math.min(bue.getUpdateCounts().length, to(partition) - from(partition));
+            System.arraycopy(bue.getUpdateCounts(), 0, counts, from(partition), executed);
+        }
+        Arrays.fill(counts, from(partition) + executed, to(partition), Statement.EXECUTE_FAILED);
+    }
+
+    /**
+     * Get the merged update counts
+     *
+     * @return The update counts in the original row order
+     * @throws BatchUpdateException If a partition failed, with the merged update counts and the
+     *         partitions' exceptions chained as next exceptions
+     */
+    int[] result() throws BatchUpdateException {
+        BatchUpdateException merged = null;
+        int failed = 0;
+        for (int p = 0; p < failures.length; p++) {
+            if (failures[p] != null) {
+                failed++;
+            }
+        }
+        for (int p = 0; p < failures.length; p++) {
+            SQLException e = failures[p];
+            if (e == null) {
+                continue;
+            }
+            if (merged == null) {
+                String msg = "Parallel batch failed in " + failed + " of " + failures.length
+                        + " partitions, first in rows " + from(p) + " to " + (to(p) - 1) + ": "
+                        + e.getMessage();
+                merged = new BatchUpdateException(msg, e.getSQLState(), e.getErrorCode(), counts.clone());
+            }
+            merged.setNextException(e);
+        }
+        if (merged != null) {
+            throw merged;
+        }
+        return counts;
+    }
+
+    /**
+     * Find the <code>BatchUpdateException</code> of a failure, which may be wrapped by
+     * {@link AbstractQueryRunner#rethrow(SQLException, Object, Object...)}
+     */
+    private static BatchUpdateException batchUpdateException(SQLException e) {
+        while (e != null) {
+            if (e instanceof BatchUpdateException) {
+                return (BatchUpdateException) e;
+            }
+            e = e.getNextException();
+        }
+        return null;
+    }
+
+}
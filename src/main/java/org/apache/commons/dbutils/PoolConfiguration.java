@@ -0,0 +1,148 @@
+package org.apache.commons.dbutils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+/**
+ * Reads the <code>&lt;default-config&gt;</code> and <code>&lt;named-config&gt;</code> sections of a
+ * <code>c3p0-config.xml</code> on the classpath into {@link ConnectionPool.Builder}s, so existing
+ * configurations keep working with the built-in pool. The properties mapped are
+ * <code>jdbcUrl</code>, <code>driverClass</code>, <code>user</code>, <code>password</code>,
+ * <code>minPoolSize</code>, <code>maxPoolSize</code>, <code>checkoutTimeout</code> (milliseconds),
+ * <code>maxIdleTime</code>, <code>maxConnectionAge</code> and
+ * <code>idleConnectionTestPeriod</code> (seconds); the others are ignored.
+ */
+final class PoolConfiguration {
+
+    /**
+     * The configuration file, looked up on the classpath
+     */
+    static final String RESOURCE = "c3p0-config.xml";
+
+    private PoolConfiguration() {
+    }
+
+    /**
+     * Read a configuration from {@link #RESOURCE}
+     *
+     * @param configName The name of a <code>&lt;named-config&gt;</code>, <code>null</code> for the
+     *        <code>&lt;default-config&gt;</code>
+     * @return The builder of the pool, named after the configuration
+     * @throws IllegalStateException If the file or the configuration is missing or can't be read
+     */
+    static ConnectionPool.Builder load(String configName) {
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        if (loader == null) {
+            loader = PoolConfiguration.class.getClassLoader();
+        }
+        InputStream in = loader.getResourceAsStream(RESOURCE);
+        if (in == null) {
+            throw new IllegalStateException(RESOURCE + " not found on the classpath");
+        }
+        Document document;
+        try {
+            document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(in);
+        } catch (ParserConfigurationException e) {
+            throw new IllegalStateException("Can't read " + RESOURCE + ": " + e.getMessage(), e);
+        } catch (SAXException e) {
+            throw new IllegalStateException("Can't read " + RESOURCE + ": " + e.getMessage(), e);
+        } catch (IOException e) {
+            throw new IllegalStateException("Can't read " + RESOURCE + ": " + e.getMessage(), e);
+        } finally {
+            try {
+                in.close();
+            } catch (IOException e) {
+                // quiet
+            }
+        }
+        Element section = find(document.getDocumentElement(), configName);
+        if (section == null) {
+            throw new IllegalStateException("No " + (configName == null ? "<default-config>" : "<named-config name=\""
+                    + configName + "\">") + " in " + RESOURCE);
+        }
+        return builder(configName == null ? "default" : configName, properties(section));
+    }
+
+    private static Element find(Element root, String configName) {
+        NodeList children = root.getChildNodes();
+        for (int i = 0; i < children.getLength(); i++) {
+            Node node = children.item(i);
+            if (node.getNodeType() != Node.ELEMENT_NODE) {
+                continue;
+            }
+            Element element = (Element) node;
+            if (configName == null ? element.getTagName().equals("default-config")
+                    : element.getTagName().equals("named-config") && configName.equals(element.getAttribute("name"))) {
+                return element;
+            }
+        }
+        return null;
+    }
+
+    private static Map<String, String> properties(Element section) {
+        Map<String, String> properties = new LinkedHashMap<String, String>();
+        NodeList nodes = section.getElementsByTagName("property");
+        for (int i = 0; i < nodes.getLength(); i++) {
+            Element property = (Element) nodes.item(i);
+            properties.put(property.getAttribute("name"), property.getTextContent().trim());
+        }
+        return properties;
+    }
+
+    /**
+     * Map c3p0 properties to a builder
+     *
+     * @param name The name of the pool
+     * @param properties The c3p0 properties
+     * @return The builder
+     */
+    static ConnectionPool.Builder builder(String name, Map<String, String> properties) {
+        ConnectionPool.Builder builder = new ConnectionPool.Builder().name(name);
+        builder.jdbcUrl(properties.get("jdbcUrl"));
+        builder.driverClassName(properties.get("driverClass"));
+        builder.username(properties.get("user"));
+        builder.password(properties.get("password"));
+        int maxPoolSize = 15; // c3p0's default
+        if (properties.containsKey("maxPoolSize")) {
+            maxPoolSize = intValue(properties, "maxPoolSize");
+        }
+        builder.maxPoolSize(maxPoolSize);
+        builder.minIdle(properties.containsKey("minPoolSize") ? Math.min(intValue(properties, "minPoolSize"),
+                maxPoolSize) : Math.min(3, maxPoolSize));
+        // 0 means no limit for c3p0 and for the pool, except the checkout timeout
+        if (properties.containsKey("checkoutTimeout")) {
+            long millis = intValue(properties, "checkoutTimeout");
+            builder.connectionTimeoutMillis(millis == 0 ? Integer.MAX_VALUE : millis);
+        }
+        if (properties.containsKey("maxIdleTime")) {
+            builder.idleTimeoutMillis(intValue(properties, "maxIdleTime") * 1000L);
+        }
+        if (properties.containsKey("maxConnectionAge")) {
+            builder.maxLifetimeMillis(intValue(properties, "maxConnectionAge") * 1000L);
+        }
+        if (properties.containsKey("idleConnectionTestPeriod") && intValue(properties, "idleConnectionTestPeriod") > 0) {
+            builder.housekeepingPeriodMillis(intValue(properties, "idleConnectionTestPeriod") * 1000L);
+        }
+        return builder;
+    }
+
+    private static int intValue(Map<String, String> properties, String name) {
+        try {
+            return Integer.parseInt(properties.get(name));
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Invalid " + name + " in " + RESOURCE + ": " + properties.get(name), e);
+        }
+    }
+
+}
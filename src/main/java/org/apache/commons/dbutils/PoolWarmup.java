@@ -0,0 +1,389 @@
+package org.apache.commons.dbutils;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+/**
+ * Warms a connection pool up before the first requests: opens the minimum of connections in
+ * parallel, validates them and optionally prepares the hot SQL statements on each, so the driver
+ * and the database have parsed them (drivers with a statement cache, e.g. MySQL
+ * <code>cachePrepStmts</code> or Oracle's implicit cache, keep them on the connection).
+ *
+ * <pre>
+ * PoolWarmup.Result result = new PoolWarmup.Builder().dataSource(pool).sql(hotSql).build().run();
+ * System.out.println(result); // connections, statements, failures and duration
+ * </pre>
+ *
+ * <p>
+ * Instances are immutable and thread safe.
+ * </p>
+ */
+public final class PoolWarmup {
+
+    /**
+     * The getters of the minimum pool size of the common pooling <code>DataSource</code>s: c3p0,
+     * HikariCP and DBCP 2
+     */
+    private static final String[] MIN_SIZE_GETTERS = { "getMinPoolSize", "getMinimumIdle", "getMinIdle" };
+
+    /**
+     * Runs the work of <code>Connection.abort</code> on the calling thread
+     */
+    private static final Executor DIRECT = new Executor() {
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    private final DataSource dataSource;
+
+    private final int connections;
+
+    private final int validationTimeoutSeconds;
+
+    private final List<String> sql;
+
+    private PoolWarmup(Builder builder) {
+        this.dataSource = builder.dataSource;
+        this.connections = builder.connections > 0 ? builder.connections : minPoolSize(builder.dataSource);
+        this.validationTimeoutSeconds = builder.validationTimeoutSeconds;
+        this.sql = Collections.unmodifiableList(new ArrayList<String>(builder.sql));
+    }
+
+    /**
+     * Read the minimum size of a pooling <code>DataSource</code>
+     *
+     * @param ds The <code>DataSource</code>
+     * @return The minimum size, 1 if it can't be read
+     */
+    static int minPoolSize(DataSource ds) {
+        if (ds instanceof ConnectionPool) {
+            return Math.max(1, ((ConnectionPool) ds).getMinIdle());
+        }
+        for (String getter : MIN_SIZE_GETTERS) {
+            try {
+                Object size = ds.getClass().getMethod(getter).invoke(ds);
+                if (size instanceof Integer && ((Integer) size).intValue() > 0) {
+                    return ((Integer) size).intValue();
+                }
+            } catch (Exception e) {
+                // not this kind of pool
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * Open the connections, each on its own thread, validate them and prepare the statements on
+     * each. The connections are held until all are open, so the pool opens as many distinct ones,
+     * and then returned. If the wait is interrupted, threads still opening a connection return it
+     * themselves once they are done.
+     *
+     * @return The outcome
+     * @throws SQLException If no connection could be opened; failures of only some connections,
+     *         and statements that couldn't be prepared, are reported by the result
+     */
+    public Result run() throws SQLException {
+        final long start = System.nanoTime();
+        final Result result = new Result();
+        final Connection[] opened = new Connection[connections];
+        // set once run() stops waiting; workers finishing later close their own connection
+        final boolean[] abandoned = new boolean[1];
+        final CountDownLatch done = new CountDownLatch(connections);
+        for (int i = 0; i < connections; i++) {
+            final int index = i;
+            Thread thread = new Thread(new Runnable() {
+                public void run() {
+                    Connection conn = null;
+                    try {
+                        conn = warm(result);
+                    } catch (SQLException e) {
+                        result.failed(e);
+                    } catch (RuntimeException e) {
+                        result.failed(new SQLException(e.getMessage(), e));
+                    } finally {
+                        synchronized (opened) {
+                            if (!abandoned[0]) {
+                                opened[index] = conn;
+                                conn = null;
+                            }
+                        }
+                        DbUtils.closeQuietly(conn);
+                        done.countDown();
+                    }
+                }
+            }, "PoolWarmup-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while warming the pool up", e);
+        } finally {
+            Connection[] held;
+            synchronized (opened) {
+                abandoned[0] = true;
+                held = opened.clone();
+            }
+            for (Connection conn : held) {
+                DbUtils.closeQuietly(conn);
+            }
+        }
+        result.durationNanos = System.nanoTime() - start;
+        if (result.connections == 0 && !result.failures.isEmpty()) {
+            SQLException first = result.failures.get(0);
+            SQLException e = new SQLException("Pool warm-up failed: " + first.getMessage(), first.getSQLState(),
+                    first.getErrorCode(), first);
+            for (int i = 1; i < result.failures.size(); i++) {
+                e.setNextException(result.failures.get(i));
+            }
+            throw e;
+        }
+        return result;
+    }
+
+    /**
+     * Open, validate and prepare one connection. A statement that can't be prepared, e.g. for a
+     * table not created yet, is recorded and the connection kept.
+     */
+    private Connection warm(Result result) throws SQLException {
+        Connection conn = dataSource.getConnection();
+        try {
+            if (!conn.isValid(validationTimeoutSeconds)) {
+                throw new SQLException("Connection isn't valid: " + conn);
+            }
+        } catch (SQLException e) {
+            discard(conn);
+            throw e;
+        }
+        result.opened();
+        for (String s : sql) {
+            PreparedStatement stmt = null;
+            try {
+                stmt = conn.prepareStatement(s);
+                result.prepared();
+            } catch (SQLException e) {
+                result.statementFailed(e);
+            } finally {
+                DbUtils.closeQuietly(stmt);
+            }
+        }
+        return conn;
+    }
+
+    /**
+     * Give back a connection that failed validation so that the pool drops it instead of keeping it
+     * idle: <code>abort</code> tells pools to discard it, e.g. <code>ConnectionPool</code> and
+     * HikariCP; <code>close</code> gives it back to pools that don't support it.
+     */
+    private static void discard(Connection conn) {
+        try {
+            conn.abort(DIRECT);
+        } catch (SQLException e) {
+            // the pool validates it on its own
+        } catch (RuntimeException e) {
+            // the pool validates it on its own
+        } catch (AbstractMethodError e) {
+            // a driver older than JDBC 4.1
+        } finally {
+            DbUtils.closeQuietly(conn);
+        }
+    }
+
+    /**
+     * Get the number of connections opened
+     *
+     * @return The connection count
+     */
+    public int getConnections() {
+        return connections;
+    }
+
+    /**
+     * Get the statements prepared on each connection
+     *
+     * @return The SQL statements
+     */
+    public List<String> getSql() {
+        return sql;
+    }
+
+    /**
+     * The outcome of a warm-up
+     */
+    public static final class Result {
+
+        private int connections;
+
+        private int statements;
+
+        private final List<SQLException> failures = new ArrayList<SQLException>();
+
+        private final List<SQLException> statementFailures = new ArrayList<SQLException>();
+
+        private long durationNanos;
+
+        private synchronized void opened() {
+            connections++;
+        }
+
+        private synchronized void prepared() {
+            statements++;
+        }
+
+        private synchronized void failed(SQLException e) {
+            failures.add(e);
+        }
+
+        private synchronized void statementFailed(SQLException e) {
+            statementFailures.add(e);
+        }
+
+        /**
+         * Get the number of connections opened and validated
+         *
+         * @return The connection count
+         */
+        public synchronized int getConnections() {
+            return connections;
+        }
+
+        /**
+         * Get the number of statements prepared, over all connections
+         *
+         * @return The statement count
+         */
+        public synchronized int getStatements() {
+            return statements;
+        }
+
+        /**
+         * Get the failures of the connections that couldn't be opened or validated
+         *
+         * @return A copy of the failures
+         */
+        public synchronized List<SQLException> getFailures() {
+            return new ArrayList<SQLException>(failures);
+        }
+
+        /**
+         * Get the failures of the statements that couldn't be prepared, over all connections
+         *
+         * @return A copy of the failures
+         */
+        public synchronized List<SQLException> getStatementFailures() {
+            return new ArrayList<SQLException>(statementFailures);
+        }
+
+        /**
+         * Get how long the warm-up took
+         *
+         * @return The duration in milliseconds
+         */
+        public long getDurationMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(durationNanos);
+        }
+
+        @Override
+        public synchronized String toString() {
+            return "PoolWarmup.Result[connections=" + connections + ", statements=" + statements + ", failures="
+                    + failures.size() + ", statementFailures=" + statementFailures.size() + ", duration="
+                    + this.getDurationMillis() + "ms]";
+        }
+    }
+
+    /**
+     * Builder for <code>PoolWarmup</code>
+     */
+    public static final class Builder {
+
+        private DataSource dataSource;
+
+        private int connections;
+
+        private int validationTimeoutSeconds = 5;
+
+        private final Set<String> sql = new LinkedHashSet<String>();
+
+        /**
+         * @param dataSource The pool to warm up, required
+         * @return This builder
+         */
+        public Builder dataSource(final DataSource dataSource) {
+            this.dataSource = dataSource;
+            return this;
+        }
+
+        /**
+         * @param connections The number of connections to open, by default the minimum size of
+         *        the pool if it can be read, else 1
+         * @return This builder
+         */
+        public Builder connections(final int connections) {
+            this.connections = connections;
+            return this;
+        }
+
+        /**
+         * @param validationTimeoutSeconds The time given <code>Connection.isValid</code>, default 5
+         * @return This builder
+         */
+        public Builder validationTimeoutSeconds(final int validationTimeoutSeconds) {
+            this.validationTimeoutSeconds = validationTimeoutSeconds;
+            return this;
+        }
+
+        /**
+         * @param sql Statements to prepare on each connection, duplicates are prepared once
+         * @return This builder
+         */
+        public Builder sql(final String... sql) {
+            for (String s : sql) {
+                this.sql.add(s);
+            }
+            return this;
+        }
+
+        /**
+         * @param sql Statements to prepare on each connection, duplicates are prepared once
+         * @return This builder
+         */
+        public Builder sql(final Collection<String> sql) {
+            this.sql.addAll(sql);
+            return this;
+        }
+
+        /**
+         * Build the warm-up
+         *
+         * @return The warm-up
+         */
+        public PoolWarmup build() {
+            if (dataSource == null) {
+                throw new IllegalArgumentException("dataSource can not be null");
+            }
+            if (connections < 0 || validationTimeoutSeconds < 0) {
+                throw new IllegalArgumentException("connections and validationTimeoutSeconds can not be negative");
+            }
+            if (sql.contains(null)) {
+                throw new IllegalArgumentException("sql can not contain null");
+            }
+            return new PoolWarmup(this);
+        }
+    }
+
+}
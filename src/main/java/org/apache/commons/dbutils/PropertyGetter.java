@@ -0,0 +1,177 @@
+package org.apache.commons.dbutils;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.sql.SQLException;
+import java.util.function.Function;
+
+/**
+ * A compiled call site for a bean property's read method, the counterpart of
+ * {@link PropertySetter}. {@link #of(Method)} links public getters of public classes once into a
+ * direct call through <code>LambdaMetafactory</code>, so reading a value neither allocates an
+ * argument array nor goes through reflection. Getters that can't be linked that way fall back to a
+ * <code>MethodHandle</code> or to {@link Method#invoke(Object, Object...)}.
+ *
+ * <p>
+ * Instances are immutable and thread safe.
+ * </p>
+ */
+abstract class PropertyGetter {
+
+    /**
+     * The read method
+     */
+    protected final Method method;
+
+    PropertyGetter(Method method) {
+        this.method = method;
+    }
+
+    /**
+     * Get the read method
+     *
+     * @return The read method
+     */
+    Method getMethod() {
+        return method;
+    }
+
+    /**
+     * Call the read method
+     *
+     * @param target The bean to read the value of
+     * @return The value, primitives boxed
+     * @throws SQLException If the getter can't be called or throws an exception
+     */
+    abstract Object get(Object target) throws SQLException;
+
+    /**
+     * Compile a getter for given read method
+     *
+     * @param method The read method, it must take no parameter
+     * @return The compiled getter
+     */
+    static PropertyGetter of(Method method) {
+        Class<?> declaring = method.getDeclaringClass();
+        if (!Modifier.isPublic(method.getModifiers()) || !Modifier.isPublic(declaring.getModifiers())) {
+            return new ReflectiveGetter(method);
+        }
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodHandle handle = lookup.unreflect(method);
+            if (isVisible(declaring)) {
+                return new GeneratedGetter(method, lookup, handle);
+            }
+            return new MethodHandleGetter(method, handle);
+        } catch (Throwable e) {
+            // linkage isn't possible in this runtime, reflection always works
+            return new ReflectiveGetter(method);
+        }
+    }
+
+    /**
+     * Check whether a class resolves to itself from this class's class loader, which is where
+     * generated call sites are defined.
+     */
+    private static boolean isVisible(Class<?> c) {
+        try {
+            return Class.forName(c.getName(), false, PropertyGetter.class.getClassLoader()) == c;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Build the exception thrown when a getter fails. An <code>Error</code> is rethrown as is.
+     *
+     * @param cause The failure
+     * @return The exception to throw
+     */
+    protected SQLException cannotGet(Throwable cause) {
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        SQLException e = new SQLException("Cannot get " + method.getName() + ": " + cause.getMessage());
+        e.initCause(cause);
+        return e;
+    }
+
+    /**
+     * Getter linked through <code>LambdaMetafactory</code> into a <code>Function</code>
+     */
+    private static final class GeneratedGetter extends PropertyGetter {
+
+        private final Function<Object, Object> function;
+
+        @SuppressWarnings("unchecked")
+        GeneratedGetter(Method method, MethodHandles.Lookup lookup, MethodHandle handle) throws Throwable {
+            super(method);
+            MethodType instantiated = MethodType.methodType(PropertySetter.wrapper(method.getReturnType()),
+                    method.getDeclaringClass());
+            CallSite site = LambdaMetafactory.metafactory(lookup, "apply", MethodType.methodType(Function.class),
+                    MethodType.methodType(Object.class, Object.class), handle, instantiated);
+            this.function = (Function<Object, Object>) site.getTarget().invoke();
+        }
+
+        @Override
+        Object get(Object target) throws SQLException {
+            try {
+                return function.apply(target);
+            } catch (RuntimeException e) {
+                throw cannotGet(e);
+            }
+        }
+    }
+
+    /**
+     * Getter called through a <code>MethodHandle</code> adapted to <code>(Object)Object</code>
+     */
+    private static final class MethodHandleGetter extends PropertyGetter {
+
+        private final MethodHandle handle;
+
+        MethodHandleGetter(Method method, MethodHandle handle) {
+            super(method);
+            this.handle = handle.asType(MethodType.methodType(Object.class, Object.class));
+        }
+
+        @Override
+        Object get(Object target) throws SQLException {
+            try {
+                return handle.invokeExact(target);
+            } catch (Throwable e) {
+                throw cannotGet(e);
+            }
+        }
+    }
+
+    /**
+     * Getter called through reflection
+     */
+    private static final class ReflectiveGetter extends PropertyGetter {
+
+        ReflectiveGetter(Method method) {
+            super(method);
+        }
+
+        @Override
+        Object get(Object target) throws SQLException {
+            try {
+                return method.invoke(target, new Object[0]);
+            } catch (IllegalAccessException e) {
+                throw cannotGet(e);
+            } catch (IllegalArgumentException e) {
+                throw cannotGet(e);
+            } catch (InvocationTargetException e) {
+                throw cannotGet(e);
+            }
+        }
+    }
+
+}
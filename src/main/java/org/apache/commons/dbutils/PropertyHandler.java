@@ -14,6 +14,13 @@ public interface PropertyHandler {
     /**
      * Test whether this  <code>PropertyHanlde</code> wants to handle setting <code>value</code> into something of type
      * parameter.
+     * <p>
+     * <code>BeanProcessor</code> resolves the handler with the first value of each class read from a column and
+     * remembers it for the column. For later values of that class it asks the remembered handler to match again and
+     * resolves anew only if it declines; values of a class no handler matched are set unconverted without asking
+     * again. Handlers should therefore decide from the parameter type and the class of the value. One that also looks
+     * at the content is never applied to a value it rejects, but may not be asked about every value.
+     * </p>
      * @param parameter The type of target parameter.
      * @param value The value to be set
      * @return True is this handler can/wants to handle this value; false otherwise.
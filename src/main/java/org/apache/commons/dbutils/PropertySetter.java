@@ -0,0 +1,438 @@
+package org.apache.commons.dbutils;
+
+import java.beans.Introspector;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.sql.SQLException;
+import java.util.function.BiConsumer;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * A compiled call site for a bean property's write method. {@link #of(Method)} compiles public
+ * setters of public classes once into a direct call through <code>LambdaMetafactory</code>, so
+ * writing a value neither allocates an argument array nor goes through reflection. Setters that
+ * can't be linked that way fall back to {@link Method#invoke(Object, Object...)}.
+ *
+ * <p>
+ * Setters of <code>int</code>, <code>long</code> and <code>double</code> properties also get a
+ * primitive typed call site, {@link #setInt(Object, int)} and friends, which pass the value without
+ * boxing it.
+ * </p>
+ *
+ * <p>
+ * Instances are immutable and thread safe.
+ * </p>
+ */
+public abstract class PropertySetter {
+
+    /**
+     * The write method
+     */
+    protected final Method method;
+
+    /**
+     * The name of the property the write method sets
+     */
+    private final String propertyName;
+
+    /**
+     * The type of the write method's parameter
+     */
+    private final Class<?> parameterType;
+
+    /**
+     * Constructor for PropertySetter, naming the property after the write method
+     *
+     * @param method The write method, it must take exactly one parameter
+     */
+    protected PropertySetter(Method method) {
+        this(method, propertyName(method));
+    }
+
+    /**
+     * Constructor for PropertySetter
+     *
+     * @param method The write method, it must take exactly one parameter
+     * @param propertyName The name of the property, used in error messages
+     */
+    protected PropertySetter(Method method, String propertyName) {
+        this.method = method;
+        this.propertyName = propertyName;
+        this.parameterType = method.getParameterTypes()[0];
+    }
+
+    /**
+     * Get the write method
+     *
+     * @return The write method
+     */
+    public Method getMethod() {
+        return method;
+    }
+
+    /**
+     * Get the name of the property
+     *
+     * @return The property name
+     */
+    public String getPropertyName() {
+        return propertyName;
+    }
+
+    /**
+     * Get the type of the write method's parameter
+     *
+     * @return The parameter type
+     */
+    public Class<?> getParameterType() {
+        return parameterType;
+    }
+
+    /**
+     * Call the write method
+     *
+     * @param target The bean to set value on
+     * @param value The value to pass into the setter, it must be compatible with
+     *        {@link #getParameterType()}
+     * @throws SQLException If the setter can't be called or throws an exception
+     */
+    public abstract void set(Object target, Object value) throws SQLException;
+
+    /**
+     * Call the write method of an <code>int</code> property. This implementation boxes the value
+     * and calls {@link #set(Object, Object)}.
+     *
+     * @param target The bean to set value on
+     * @param value The value to pass into the setter
+     * @throws SQLException If the setter can't be called or throws an exception
+     */
+    public void setInt(Object target, int value) throws SQLException {
+        set(target, Integer.valueOf(value));
+    }
+
+    /**
+     * Call the write method of a <code>long</code> property. This implementation boxes the value
+     * and calls {@link #set(Object, Object)}.
+     *
+     * @param target The bean to set value on
+     * @param value The value to pass into the setter
+     * @throws SQLException If the setter can't be called or throws an exception
+     */
+    public void setLong(Object target, long value) throws SQLException {
+        set(target, Long.valueOf(value));
+    }
+
+    /**
+     * Call the write method of a <code>double</code> property. This implementation boxes the value
+     * and calls {@link #set(Object, Object)}.
+     *
+     * @param target The bean to set value on
+     * @param value The value to pass into the setter
+     * @throws SQLException If the setter can't be called or throws an exception
+     */
+    public void setDouble(Object target, double value) throws SQLException {
+        set(target, Double.valueOf(value));
+    }
+
+    /**
+     * Compile a setter for given write method. Public methods of public classes visible from this
+     * class's class loader are linked through <code>LambdaMetafactory</code>, other public methods
+     * through a <code>MethodHandle</code>, everything else uses reflection.
+     *
+     * @param method The write method, it must take exactly one parameter
+     * @return The compiled setter
+     */
+    public static PropertySetter of(Method method) {
+        return of(method, propertyName(method));
+    }
+
+    /**
+     * Compile a setter for given write method of a named property, see {@link #of(Method)}
+     *
+     * @param method The write method, it must take exactly one parameter
+     * @param propertyName The name of the property, used in error messages
+     * @return The compiled setter
+     */
+    public static PropertySetter of(Method method, String propertyName) {
+        Class<?> declaring = method.getDeclaringClass();
+        if (!Modifier.isPublic(method.getModifiers()) || !Modifier.isPublic(declaring.getModifiers())) {
+            return new ReflectiveSetter(method, propertyName);
+        }
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodHandle handle = lookup.unreflect(method);
+            if (isVisible(declaring)) {
+                return new GeneratedSetter(method, propertyName, lookup, handle);
+            }
+            return new MethodHandleSetter(method, propertyName, handle);
+        } catch (Throwable e) {
+            // linkage isn't possible in this runtime, reflection always works
+            return new ReflectiveSetter(method, propertyName);
+        }
+    }
+
+    /**
+     * Derive the property name from a write method's name, e.g. <code>userName</code> from
+     * <code>setUserName</code>
+     *
+     * @param method The write method
+     * @return The property name
+     */
+    private static String propertyName(Method method) {
+        String name = method.getName();
+        if (name.startsWith("set") && name.length() > 3) {
+            return Introspector.decapitalize(name.substring(3));
+        }
+        return name;
+    }
+
+    /**
+     * Check whether a class resolves to itself from this class's class loader, which is where
+     * generated call sites are defined.
+     *
+     * @param c The class to check
+     * @return true if generated code can link against the class
+     */
+    private static boolean isVisible(Class<?> c) {
+        try {
+            return Class.forName(c.getName(), false, PropertySetter.class.getClassLoader()) == c;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Box primitive type
+     *
+     * @param type The type to box
+     * @return The wrapper type if type is primitive, type otherwise
+     */
+    static Class<?> wrapper(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return type;
+        } else if (type == Integer.TYPE) {
+            return Integer.class;
+        } else if (type == Long.TYPE) {
+            return Long.class;
+        } else if (type == Double.TYPE) {
+            return Double.class;
+        } else if (type == Boolean.TYPE) {
+            return Boolean.class;
+        } else if (type == Float.TYPE) {
+            return Float.class;
+        } else if (type == Short.TYPE) {
+            return Short.class;
+        } else if (type == Byte.TYPE) {
+            return Byte.class;
+        } else if (type == Character.TYPE) {
+            return Character.class;
+        }
+        return type;
+    }
+
+    /**
+     * Build the exception thrown when a setter fails. An <code>Error</code> is rethrown as is.
+     *
+     * @param cause The failure
+     * @return The exception to throw
+     */
+    protected SQLException cannotSet(Throwable cause) {
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        SQLException e = new SQLException("Cannot set " + propertyName + ": " + cause.getMessage());
+        e.initCause(cause);
+        return e;
+    }
+
+    /**
+     * Setter linked through <code>LambdaMetafactory</code> into a <code>BiConsumer</code>
+     */
+    private static final class GeneratedSetter extends PropertySetter {
+
+        private final BiConsumer<Object, Object> consumer;
+
+        private final ObjIntConsumer<Object> intConsumer;
+
+        private final ObjLongConsumer<Object> longConsumer;
+
+        private final ObjDoubleConsumer<Object> doubleConsumer;
+
+        @SuppressWarnings("unchecked")
+        GeneratedSetter(Method method, String propertyName, MethodHandles.Lookup lookup, MethodHandle handle)
+                throws Throwable {
+            super(method, propertyName);
+            Class<?> bean = method.getDeclaringClass();
+            Class<?> param = method.getParameterTypes()[0];
+            this.consumer = (BiConsumer<Object, Object>) link(lookup, handle, BiConsumer.class,
+                    Object.class, MethodType.methodType(void.class, bean, wrapper(param)));
+            MethodType primitive = MethodType.methodType(void.class, bean, param);
+            this.intConsumer = param == Integer.TYPE ? (ObjIntConsumer<Object>) link(lookup, handle,
+                    ObjIntConsumer.class, param, primitive) : null;
+            this.longConsumer = param == Long.TYPE ? (ObjLongConsumer<Object>) link(lookup, handle,
+                    ObjLongConsumer.class, param, primitive) : null;
+            this.doubleConsumer = param == Double.TYPE ? (ObjDoubleConsumer<Object>) link(lookup, handle,
+                    ObjDoubleConsumer.class, param, primitive) : null;
+        }
+
+        /**
+         * Link a setter to a functional interface whose method is <code>accept(Object, V)</code>
+         */
+        private static Object link(MethodHandles.Lookup lookup, MethodHandle handle, Class<?> type,
+                Class<?> valueType, MethodType instantiated) throws Throwable {
+            CallSite site = LambdaMetafactory.metafactory(lookup, "accept", MethodType.methodType(type),
+                    MethodType.methodType(void.class, Object.class, valueType), handle, instantiated);
+            return site.getTarget().invoke();
+        }
+
+        @Override
+        public void set(Object target, Object value) throws SQLException {
+            try {
+                consumer.accept(target, value);
+            } catch (Throwable e) {
+                throw cannotSet(e);
+            }
+        }
+
+        @Override
+        public void setInt(Object target, int value) throws SQLException {
+            if (intConsumer == null) {
+                super.setInt(target, value);
+                return;
+            }
+            try {
+                intConsumer.accept(target, value);
+            } catch (Throwable e) {
+                throw cannotSet(e);
+            }
+        }
+
+        @Override
+        public void setLong(Object target, long value) throws SQLException {
+            if (longConsumer == null) {
+                super.setLong(target, value);
+                return;
+            }
+            try {
+                longConsumer.accept(target, value);
+            } catch (Throwable e) {
+                throw cannotSet(e);
+            }
+        }
+
+        @Override
+        public void setDouble(Object target, double value) throws SQLException {
+            if (doubleConsumer == null) {
+                super.setDouble(target, value);
+                return;
+            }
+            try {
+                doubleConsumer.accept(target, value);
+            } catch (Throwable e) {
+                throw cannotSet(e);
+            }
+        }
+    }
+
+    /**
+     * Setter called through a <code>MethodHandle</code> adapted to <code>(Object,Object)void</code>
+     */
+    private static final class MethodHandleSetter extends PropertySetter {
+
+        private final MethodHandle handle;
+
+        /**
+         * The handle adapted to <code>(Object,P)void</code> for primitive parameter type P, or
+         * <code>null</code> if the parameter isn't primitive
+         */
+        private final MethodHandle primitiveHandle;
+
+        MethodHandleSetter(Method method, String propertyName, MethodHandle handle) {
+            super(method, propertyName);
+            Class<?> param = method.getParameterTypes()[0];
+            this.handle = handle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+            this.primitiveHandle = param.isPrimitive() ? handle.asType(MethodType.methodType(void.class,
+                    Object.class, param)) : null;
+        }
+
+        @Override
+        public void set(Object target, Object value) throws SQLException {
+            try {
+                handle.invokeExact(target, value);
+            } catch (Throwable e) {
+                throw cannotSet(e);
+            }
+        }
+
+        @Override
+        public void setInt(Object target, int value) throws SQLException {
+            if (getParameterType() != Integer.TYPE) {
+                super.setInt(target, value);
+                return;
+            }
+            try {
+                primitiveHandle.invokeExact(target, value);
+            } catch (Throwable e) {
+                throw cannotSet(e);
+            }
+        }
+
+        @Override
+        public void setLong(Object target, long value) throws SQLException {
+            if (getParameterType() != Long.TYPE) {
+                super.setLong(target, value);
+                return;
+            }
+            try {
+                primitiveHandle.invokeExact(target, value);
+            } catch (Throwable e) {
+                throw cannotSet(e);
+            }
+        }
+
+        @Override
+        public void setDouble(Object target, double value) throws SQLException {
+            if (getParameterType() != Double.TYPE) {
+                super.setDouble(target, value);
+                return;
+            }
+            try {
+                primitiveHandle.invokeExact(target, value);
+            } catch (Throwable e) {
+                throw cannotSet(e);
+            }
+        }
+    }
+
+    /**
+     * Setter called through reflection
+     */
+    private static final class ReflectiveSetter extends PropertySetter {
+
+        ReflectiveSetter(Method method, String propertyName) {
+            super(method, propertyName);
+        }
+
+        @Override
+        public void set(Object target, Object value) throws SQLException {
+            try {
+                method.invoke(target, new Object[] { value });
+            } catch (IllegalAccessException e) {
+                throw cannotSet(e);
+            } catch (IllegalArgumentException e) {
+                throw cannotSet(e);
+            } catch (InvocationTargetException e) {
+                throw cannotSet(e.getCause());
+            }
+        }
+    }
+
+}
@@ -6,12 +6,24 @@ import java.sql.ParameterMetaData;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
 import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import javax.sql.DataSource;
 
+import org.apache.commons.dbutils.handlers.LongArrayHandler;
+import org.apache.commons.dbutils.handlers.RowCallbackHandler;
+
 /**
  * Execute SQL queries with pluggable strategies for handing <code>ResultSet</code>s. The class is
  * thread safe.
@@ -20,6 +32,13 @@ import javax.sql.DataSource;
  */
 public class QueryRunner extends AbstractQueryRunner {
 
+    /**
+     * The default batch configuration keeping the update counts, for the batch methods returning
+     * them
+     */
+    private static final BatchConfiguration KEEP_UPDATE_COUNTS = new BatchConfiguration.Builder()
+            .keepUpdateCounts(true).build();
+
     /**
      * Default constructor for QueryRunner
      */
@@ -56,6 +75,27 @@ public class QueryRunner extends AbstractQueryRunner {
         super(ds, pmdKnownBroken, stmtConfig);
     }
 
+    /**
+     * Constructor for QueryRunner that takes a <code>DataSource</code>, controls the use of
+     * <code>ParameterMetaData</code>, and reuses prepared statements from a
+     * <code>StatementCache</code>. Methods that don't take <code>Connection</code> will retrieve
+     * connections from this <code>DataSource</code>
+     * 
+     * @param ds The <code>DataSource</code> to retrieve connections from, may be <code>null</code>
+     * @param pmdKnownBroken Some drivers don't support
+     *        {@link ParameterMetaData #getParameterType(int)}; if <code>pmdKnownBroken</code> is
+     *        set true, we won't try it, if false, we will try it and if it breaks, we will remember
+     *        not to use it again.
+     * @param stmtConfig The configuration to apply to statements when they are prepared, may be
+     *        <code>null</code>
+     * @param statementCache The cache to reuse prepared statements from, <code>null</code> to
+     *        prepare every statement anew
+     */
+    public QueryRunner(DataSource ds, boolean pmdKnownBroken, StatementConfiguration stmtConfig,
+            StatementCache statementCache) {
+        super(ds, pmdKnownBroken, stmtConfig, statementCache);
+    }
+
     /**
      * Constructor for QueryRunner that take a <code>DataSourc</code> and controls the use of
      * <code>ParameterMetaData</code> Methods that don't take <code>Connection</code> will retrieve
@@ -135,6 +175,336 @@ public class QueryRunner extends AbstractQueryRunner {
         return this.batch(conn, true, sql, params);
     }
 
+    /**
+     * Execute a batch of SQL INSERT, UPDATE or DELETE queries for parameter rows read one at a
+     * time, executing the statement every time the batch size of the
+     * <code>BatchConfiguration</code> is reached, so memory use doesn't grow with the number of
+     * rows. The caller is responsible for closing the connection.
+     * 
+     * @param conn The connection to use run the query.
+     * @param sql The SQL to execute
+     * @param params The query replacement parameters, one array per execution
+     * @param config The batch configuration, <code>null</code> for the defaults
+     * @return The aggregated update counts
+     * @throws SQLException If a database access error occurs; the batches executed before it are
+     *         not rolled back
+     */
+    public BatchResult batch(Connection conn, String sql, Iterator<Object[]> params, BatchConfiguration config)
+            throws SQLException {
+        return this.batch(conn, false, sql, params, config, null);
+    }
+
+    /**
+     * Execute a batch of SQL INSERT, UPDATE or DELETE queries for parameter rows read one at a
+     * time, executing the statement every time the batch size of the
+     * <code>BatchConfiguration</code> is reached. The <code>Connection</code> is retrieved from
+     * the <code>DataSource</code> set in the constructor and closed afterwards.
+     * 
+     * @param sql The SQL to execute
+     * @param params The query replacement parameters, one array per execution
+     * @param config The batch configuration, <code>null</code> for the defaults
+     * @return The aggregated update counts
+     * @throws SQLException If a database access error occurs
+     */
+    public BatchResult batch(String sql, Iterator<Object[]> params, BatchConfiguration config)
+            throws SQLException {
+        Connection conn = this.prepareConnection();
+        return this.batch(conn, true, sql, params, config, null);
+    }
+
+    /**
+     * Execute a batch of SQL INSERT, UPDATE or DELETE queries for a stream of parameter rows, see
+     * {@link #batch(Connection, String, Iterator, BatchConfiguration)}. The stream is consumed but
+     * not closed.
+     * 
+     * @param conn The connection to use run the query.
+     * @param sql The SQL to execute
+     * @param params The query replacement parameters, one array per execution
+     * @param config The batch configuration, <code>null</code> for the defaults
+     * @return The aggregated update counts
+     * @throws SQLException If a database access error occurs
+     */
+    public BatchResult batch(Connection conn, String sql, Stream<Object[]> params, BatchConfiguration config)
+            throws SQLException {
+        return this.batch(conn, sql, params == null ? null : params.iterator(), config);
+    }
+
+    /**
+     * Execute a batch of SQL INSERT, UPDATE or DELETE queries for a stream of parameter rows, see
+     * {@link #batch(String, Iterator, BatchConfiguration)}. The stream is consumed but not closed.
+     * 
+     * @param sql The SQL to execute
+     * @param params The query replacement parameters, one array per execution
+     * @param config The batch configuration, <code>null</code> for the defaults
+     * @return The aggregated update counts
+     * @throws SQLException If a database access error occurs
+     */
+    public BatchResult batch(String sql, Stream<Object[]> params, BatchConfiguration config) throws SQLException {
+        return this.batch(sql, params == null ? null : params.iterator(), config);
+    }
+
+    /**
+     * Execute a batch of SQL INSERT, UPDATE or DELETE queries with the properties of beans as
+     * replacement parameters. The properties are read through getters compiled once per bean class,
+     * and the beans are added to the statement one at a time and executed in chunks of the default
+     * {@link BatchConfiguration}. The caller is responsible for closing the connection.
+     *
+     * @param <T> The type of the beans
+     * @param conn The connection to use run the query.
+     * @param sql The SQL to execute
+     * @param beans The beans, one execution each
+     * @param properties The names of the properties to pass, in parameter order
+     * @return The number of rows updated per bean
+     * @throws SQLException If a database access error occurs, or a property can't be read
+     */
+    public <T> int[] batchBeans(Connection conn, String sql, Collection<T> beans, String... properties)
+            throws SQLException {
+        return this.batchBeans(conn, sql, beans, KEEP_UPDATE_COUNTS, properties).getUpdateCounts();
+    }
+
+    /**
+     * Execute a batch of SQL INSERT, UPDATE or DELETE queries with the properties of beans as
+     * replacement parameters, see {@link #batchBeans(Connection, String, Collection, String...)}.
+     * The <code>Connection</code> is retrieved from the <code>DataSource</code> set in the
+     * constructor and closed afterwards.
+     *
+     * @param <T> The type of the beans
+     * @param sql The SQL to execute
+     * @param beans The beans, one execution each
+     * @param properties The names of the properties to pass, in parameter order
+     * @return The number of rows updated per bean
+     * @throws SQLException If a database access error occurs, or a property can't be read
+     */
+    public <T> int[] batchBeans(String sql, Collection<T> beans, String... properties) throws SQLException {
+        return this.batchBeans(sql, beans, KEEP_UPDATE_COUNTS, properties).getUpdateCounts();
+    }
+
+    /**
+     * Execute a batch of SQL INSERT, UPDATE or DELETE queries with the properties of beans as
+     * replacement parameters, executed in chunks as the <code>BatchConfiguration</code> says. The
+     * beans are read one at a time, so they can come from a lazy source. The caller is responsible
+     * for closing the connection.
+     *
+     * @param <T> The type of the beans
+     * @param conn The connection to use run the query.
+     * @param sql The SQL to execute
+     * @param beans The beans, one execution each
+     * @param config The batch configuration, <code>null</code> for the defaults
+     * @param properties The names of the properties to pass, in parameter order
+     * @return The aggregated update counts
+     * @throws SQLException If a database access error occurs, or a property can't be read; the
+     *         chunks executed before it are not rolled back
+     */
+    public <T> BatchResult batchBeans(Connection conn, String sql, Iterable<T> beans, BatchConfiguration config,
+            String... properties) throws SQLException {
+        checkBeans(beans, properties);
+        try {
+            return this.batch(conn, sql, BeanAccessPlan.rows(beans.iterator(), properties), config);
+        } catch (RuntimeException e) {
+            throw unwrapGetterFailure(e);
+        }
+    }
+
+    /**
+     * Execute a batch of SQL INSERT, UPDATE or DELETE queries with the properties of beans as
+     * replacement parameters, executed in chunks as the <code>BatchConfiguration</code> says. The
+     * <code>Connection</code> is retrieved from the <code>DataSource</code> set in the constructor
+     * and closed afterwards.
+     *
+     * @param <T> The type of the beans
+     * @param sql The SQL to execute
+     * @param beans The beans, one execution each
+     * @param config The batch configuration, <code>null</code> for the defaults
+     * @param properties The names of the properties to pass, in parameter order
+     * @return The aggregated update counts
+     * @throws SQLException If a database access error occurs, or a property can't be read
+     */
+    public <T> BatchResult batchBeans(String sql, Iterable<T> beans, BatchConfiguration config,
+            String... properties) throws SQLException {
+        checkBeans(beans, properties);
+        try {
+            return this.batch(sql, BeanAccessPlan.rows(beans.iterator(), properties), config);
+        } catch (RuntimeException e) {
+            throw unwrapGetterFailure(e);
+        }
+    }
+
+    /**
+     * Check the arguments of a bean batch, and the properties against the first bean so a
+     * misspelled property fails before anything is executed
+     */
+    private static void checkBeans(Iterable<?> beans, String[] properties) throws SQLException {
+        if (beans == null || properties == null) {
+            throw new SQLException("Null beans or properties");
+        }
+        Iterator<?> it = beans.iterator();
+        if (it.hasNext()) {
+            Object first = it.next();
+            if (first == null) {
+                throw new SQLException("Null bean");
+            }
+            BeanAccessPlan.of(first.getClass(), properties);
+        }
+    }
+
+    /**
+     * Get the <code>SQLException</code> a bean row iterator wrapped
+     */
+    private static SQLException unwrapGetterFailure(RuntimeException e) {
+        if (e.getCause() instanceof SQLException) {
+            return (SQLException) e.getCause();
+        }
+        throw e;
+    }
+
+    /**
+     * Execute a batch of SQL INSERT, UPDATE or DELETE queries in parallel. The rows are split into
+     * contiguous partitions of equal size and each partition is executed as one batch on its own
+     * <code>Connection</code> retrieved from the <code>DataSource</code> set in the constructor,
+     * so the database can work on them with several threads. The rows must be independent of each
+     * other, the partitions run in no particular order.
+     *
+     * <p>
+     * With <code>commitPartitions</code> every partition runs in its own transaction, committed
+     * when it succeeds and rolled back when it fails; otherwise the statements run in the
+     * connections' own auto-commit mode. Either way the batch as a whole isn't atomic.
+     * </p>
+     *
+     * <p>
+     * The {@link Deadline} of the calling thread applies to every partition, and bounds the wait
+     * for them: once it passes this method throws, even if partitions are still running or were
+     * never run by the executor.
+     * </p>
+     *
+     * @param sql The SQL statement to execute
+     * @param params An array of query replacement parameters. Each row in the array is one set of
+     *        batch replacements values.
+     * @param partitions The number of partitions, at most one per row; bounded by the connections
+     *        the <code>DataSource</code> can hand out at once
+     * @param executor The executor to run the partitions on, e.g. a fixed thread pool or a
+     *        <code>ForkJoinPool</code>
+     * @param commitPartitions Whether to commit each partition on its own
+     * @return The number of rows updated per statement, in the order of the rows
+     * @throws SQLException If a database access error occurs; if partitions fail a
+     *         <code>BatchUpdateException</code> with the update counts of all rows, failed rows
+     *         marked <code>Statement.EXECUTE_FAILED</code>, and the failures of the partitions as
+     *         next exceptions; a <code>SQLTimeoutException</code> if the deadline passed before
+     *         all partitions finished
+     */
+    public int[] batch(final String sql, final Object[][] params, int partitions, Executor executor,
+            final boolean commitPartitions) throws SQLException {
+        if (sql == null) {
+            throw new SQLException("Null SQL statement");
+        }
+        if (params == null) {
+            throw new SQLException("Null parameters. If parameters aren't need, pass an empty array.");
+        }
+        if (partitions <= 0) {
+            throw new IllegalArgumentException("partitions must be positive: " + partitions);
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException("executor can not be null");
+        }
+        final PartitionedBatch batch = new PartitionedBatch(params.length, partitions);
+        final CountDownLatch done = new CountDownLatch(batch.size());
+        final Deadline deadline = Deadline.current();
+        for (int p = 0; p < batch.size(); p++) {
+            final int partition = p;
+            Runnable task = new Runnable() {
+                public void run() {
+                    Deadline joined = deadline == null ? null : deadline.join();
+                    try {
+                        QueryRunner.this.batchPartition(sql, params, batch, partition, commitPartitions);
+                    } finally {
+                        if (joined != null) {
+                            joined.close();
+                        }
+                        done.countDown();
+                    }
+                }
+            };
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                task.run();
+            }
+        }
+        try {
+            if (deadline == null) {
+                done.await();
+            } else if (!done.await(deadline.remainingNanos(), TimeUnit.NANOSECONDS)) {
+                throw new SQLTimeoutException("Deadline exceeded while waiting for the partitions of the batch, "
+                        + done.getCount() + " not finished. Query: " + sql);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for the partitions of the batch, "
+                    + done.getCount() + " still running. Query: " + sql, e);
+        }
+        return batch.result();
+    }
+
+    /**
+     * Execute one partition of a parallel batch on a connection of its own. Any failure, also an
+     * unchecked one, is recorded in the batch rather than thrown.
+     *
+     * @param sql The SQL statement to execute
+     * @param params The rows of all partitions
+     * @param batch The partitions, receiving the update counts or the failure
+     * @param partition The partition to execute
+     * @param commit Whether to execute the partition in a transaction of its own
+     */
+    private void batchPartition(String sql, Object[][] params, PartitionedBatch batch, int partition,
+            boolean commit) {
+        Object[][] rows = Arrays.copyOfRange(params, batch.from(partition), batch.to(partition));
+        Connection conn = null;
+        boolean autoCommit = true;
+        try {
+            conn = this.prepareConnection();
+            if (commit) {
+                autoCommit = conn.getAutoCommit();
+                conn.setAutoCommit(false);
+            }
+            int[] counts = this.batch(conn, false, sql, rows);
+            if (commit) {
+                conn.commit();
+            }
+            batch.succeeded(partition, counts);
+        } catch (Throwable e) {
+            boolean rolledBack = false;
+            if (commit && conn != null) {
+                try {
+                    conn.rollback();
+                    rolledBack = true;
+                } catch (SQLException ignore) {
+                    // the connection is closed below anyway
+                }
+            }
+            SQLException failure;
+            if (e instanceof SQLException) {
+                failure = (SQLException) e;
+            } else {
+                failure = new SQLException("Partition failed: " + e, e);
+            }
+            batch.failed(partition, failure, rolledBack);
+        } finally {
+            if (conn != null) {
+                if (commit) {
+                    try {
+                        conn.setAutoCommit(autoCommit);
+                    } catch (SQLException ignore) {
+                        // don't hide the result of the partition
+                    }
+                }
+                try {
+                    close(conn);
+                } catch (SQLException ignore) {
+                    // quiet
+                }
+            }
+        }
+    }
+
     /**
      * 
      * Calls updates after checking the parameters to ensure nothing is null.
@@ -170,8 +540,9 @@ public class QueryRunner extends AbstractQueryRunner {
 
         try {
             stmt = this.prepareStatement(conn, sql);
+            ParameterBinding binding = this.parameterBinding(stmt, sql);
             for (int i = 0; i < params.length; i++) {
-                this.fillStatement(stmt, params[i]);
+                this.bind(stmt, binding, params[i]);
                 stmt.addBatch();
             }
             rows = stmt.executeBatch();
@@ -378,10 +749,11 @@ public class QueryRunner extends AbstractQueryRunner {
         ResultSet rs = null;
         try {
             stmt = this.prepareStatement(conn, sql);
-            this.fillStatement(stmt, params);
+            this.bindParameters(stmt, sql, params);
             rs = stmt.executeQuery();
             result = rsh.handle(rs);
         } catch (SQLException e) {
+            this.rethrow(e, sql, params);
         } finally {
             try {
                 close(rs);
@@ -395,6 +767,173 @@ public class QueryRunner extends AbstractQueryRunner {
         return result;
     }
 
+    /**
+     * Execute an SQL SELECT query and return an iterator that converts the rows one at a time. The
+     * caller is responsible for closing the connection, and for closing the iterator if it isn't
+     * read to the end.
+     * 
+     * @param <T> The type of object each row is converted into
+     * @param conn The connection to execute the query in.
+     * @param sql The query to execute.
+     * @param rh The handler that converts each row into an object.
+     * @param params The replacement parameters.
+     * @return The iterator over the converted rows.
+     * @throws SQLException if a database access error occurs
+     */
+    public <T> RowIterator<T> iterate(Connection conn, String sql, RowHandler<T> rh, Object... params)
+            throws SQLException {
+        return this.<T> iterate(conn, false, sql, rh, params);
+    }
+
+    /**
+     * Execute an SQL SELECT query and return an iterator that converts the rows one at a time. The
+     * <code>Connection</code> is retrieved from the <code>DataSource</code> set in the constructor
+     * and closed with the iterator, which happens once the last row has been read or when the
+     * iterator is closed.
+     * 
+     * @param <T> The type of object each row is converted into
+     * @param sql The query to execute.
+     * @param rh The handler that converts each row into an object.
+     * @param params The replacement parameters.
+     * @return The iterator over the converted rows.
+     * @throws SQLException if a database access error occurs
+     */
+    public <T> RowIterator<T> iterate(String sql, RowHandler<T> rh, Object... params) throws SQLException {
+        Connection conn = this.prepareConnection();
+        return this.<T> iterate(conn, true, sql, rh, params);
+    }
+
+    /**
+     * Execute an SQL SELECT query and return a <code>Stream</code> that converts the rows on
+     * demand. The caller is responsible for closing the connection, and for closing the stream if it
+     * isn't read to the end, e.g. with try-with-resources. Set a fetch size in the
+     * <code>StatementConfiguration</code> so the driver doesn't buffer the whole result.
+     * 
+     * @param <T> The type of object each row is converted into
+     * @param conn The connection to execute the query in.
+     * @param sql The query to execute.
+     * @param rh The handler that converts each row into an object.
+     * @param params The replacement parameters.
+     * @return The stream of converted rows.
+     * @throws SQLException if a database access error occurs
+     */
+    public <T> Stream<T> stream(Connection conn, String sql, RowHandler<T> rh, Object... params)
+            throws SQLException {
+        return this.<T> iterate(conn, false, sql, rh, params).stream();
+    }
+
+    /**
+     * Execute an SQL SELECT query and return a <code>Stream</code> that converts the rows on
+     * demand. The <code>Connection</code> is retrieved from the <code>DataSource</code> set in the
+     * constructor and closed with the stream, which happens once the last row has been read or when
+     * the stream is closed.
+     * 
+     * @param <T> The type of object each row is converted into
+     * @param sql The query to execute.
+     * @param rh The handler that converts each row into an object.
+     * @param params The replacement parameters.
+     * @return The stream of converted rows.
+     * @throws SQLException if a database access error occurs
+     */
+    public <T> Stream<T> stream(String sql, RowHandler<T> rh, Object... params) throws SQLException {
+        return this.<T> iterate(sql, rh, params).stream();
+    }
+
+    /**
+     * Execute an SQL SELECT query and pass every row to a callback through one reused
+     * <code>RowView</code>, without creating an object per row. The caller is responsible for
+     * closing the connection.
+     * 
+     * @param conn The connection to execute the query in.
+     * @param sql The query to execute.
+     * @param callback The callback that receives the rows.
+     * @param params The replacement parameters.
+     * @return The number of rows scanned.
+     * @throws SQLException if a database access error occurs
+     */
+    public long scan(Connection conn, String sql, RowCallback callback, Object... params) throws SQLException {
+        return this.query(conn, sql, new RowCallbackHandler(callback), params).longValue();
+    }
+
+    /**
+     * Execute an SQL SELECT query and pass every row to a callback through one reused
+     * <code>RowView</code>, without creating an object per row. The <code>Connection</code> is
+     * retrieved from the <code>DataSource</code> set in the constructor.
+     * 
+     * @param sql The query to execute.
+     * @param callback The callback that receives the rows.
+     * @param params The replacement parameters.
+     * @return The number of rows scanned.
+     * @throws SQLException if a database access error occurs
+     */
+    public long scan(String sql, RowCallback callback, Object... params) throws SQLException {
+        return this.query(sql, new RowCallbackHandler(callback), params).longValue();
+    }
+
+    /**
+     * Execute the query and wrap the open <code>ResultSet</code> in a <code>RowIterator</code>
+     * after checking the parameters to ensure nothing is null. If the query can't be executed the
+     * statement, and the connection if closeConn is true, are closed before the exception is thrown.
+     * 
+     * @param <T> The type of object each row is converted into
+     * @param conn The connection to use for the query call.
+     * @param closeConn True if the connection should be closed with the iterator, false otherwise.
+     * @param sql The SQL statement to execute.
+     * @param rh The handler that converts each row into an object.
+     * @param params The replacement parameters.
+     * @return The iterator over the converted rows.
+     * @throws SQLException If there are database or parameter errors.
+     */
+    protected <T> RowIterator<T> iterate(Connection conn, boolean closeConn, String sql, RowHandler<T> rh,
+            Object... params) throws SQLException {
+        if (conn == null) {
+            throw new SQLException("Null Connection");
+        }
+        if (sql == null) {
+            if (closeConn) {
+                close(conn);
+            }
+            throw new SQLException("Null SQL Statemet");
+        }
+
+        if (rh == null) {
+            if (closeConn) {
+                close(conn);
+            }
+            throw new SQLException("Null RowHandler");
+        }
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        boolean started = false;
+        try {
+            stmt = this.prepareStatement(conn, sql);
+            this.bindParameters(stmt, sql, params);
+            rs = this.wrap(stmt.executeQuery());
+            RowIterator<T> it = new RowIterator<T>(this, conn, closeConn, stmt, rs, rh, sql);
+            started = true;
+            return it;
+        } catch (SQLException e) {
+            this.rethrow(e, sql, params);
+            return null;
+        } finally {
+            // the iterator owns the resources once it exists, until then they are released here
+            // whatever failed, a binder or wrap() may throw unchecked exceptions too
+            if (!started) {
+                try {
+                    close(rs);
+                } finally {
+                    try {
+                        close(stmt);
+                    } finally {
+                        if (closeConn) {
+                            close(conn);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
     /**
      * Execute an SQL INSERT, UPDATE, or DELETE query without replacement parameters.
      *
@@ -482,6 +1021,44 @@ public class QueryRunner extends AbstractQueryRunner {
         return this.update(conn, true, sql, params);
     }
 
+    /**
+     * Execute an SQL INSERT, UPDATE, or DELETE query with the properties of a bean as replacement
+     * parameters, read through getters compiled once per bean class.
+     *
+     * @param conn The connection to use to run the query.
+     * @param sql The SQL to execute.
+     * @param bean The bean
+     * @param properties The names of the properties to pass, in parameter order
+     * @return The number of rows updated.
+     * @throws SQLException If a database access error occurs, or a property can't be read
+     */
+    public int updateBean(Connection conn, String sql, Object bean, String... properties) throws SQLException {
+        return this.update(conn, sql, beanParameters(bean, properties));
+    }
+
+    /**
+     * Execute an SQL INSERT, UPDATE, or DELETE query with the properties of a bean as replacement
+     * parameters. The <code>Connection</code> is retrieved from the <code>DataSource</code> set in
+     * the constructor.
+     *
+     * @param sql The SQL to execute.
+     * @param bean The bean
+     * @param properties The names of the properties to pass, in parameter order
+     * @return The number of rows updated.
+     * @throws SQLException If a database access error occurs, or a property can't be read
+     */
+    public int updateBean(String sql, Object bean, String... properties) throws SQLException {
+        return this.update(sql, beanParameters(bean, properties));
+    }
+
+    private static Object[] beanParameters(Object bean, String[] properties) throws SQLException {
+        if (bean == null || properties == null) {
+            throw new SQLException("Null bean or properties");
+        }
+        BeanAccessPlan plan = BeanAccessPlan.of(bean.getClass(), properties);
+        return plan.read(bean, new Object[plan.size()]);
+    }
+
     /**
      * Calls update after checking the parameters to ensure nothing is null.
      * 
@@ -510,7 +1087,7 @@ public class QueryRunner extends AbstractQueryRunner {
 
         try {
             stmt = this.prepareStatement(conn, sql);
-            this.fillStatement(stmt, params);
+            this.bindParameters(stmt, sql, params);
             rows = stmt.executeUpdate();
 
         } catch (SQLException e) {
@@ -631,11 +1208,15 @@ public class QueryRunner extends AbstractQueryRunner {
         T generatedKeys = null;
 
         try {
-            stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
-            this.fillStatement(stmt, params);
+            stmt = this.prepareStatement(conn, sql, Statement.RETURN_GENERATED_KEYS);
+            this.bindParameters(stmt, sql, params);
             stmt.executeUpdate();
             ResultSet resultSet = stmt.getGeneratedKeys();
-            generatedKeys = rsh.handle(resultSet);
+            try {
+                generatedKeys = rsh.handle(resultSet);
+            } finally {
+                close(resultSet);
+            }
         } catch (SQLException e) {
             this.rethrow(e, sql, params);
         } finally {
@@ -684,6 +1265,302 @@ public class QueryRunner extends AbstractQueryRunner {
         return insertBatch(conn, false, sql, rsh, params);
     }
 
+    /**
+     * Executes the given batch of INSERT SQL statements. If the <code>BatchConfiguration</code>
+     * asks to rewrite inserts, the driver is known to return the generated keys of every row of a
+     * multi-row insert and the SQL is a simple single-row insert, the rows are regrouped into multi-row inserts within the
+     * configured parameter and size limits; otherwise this is
+     * {@link #insertBatch(Connection, String, ResultSetHandler, Object[][])}. Either way the handler
+     * gets the auto-generated keys of all rows, in row order. The caller is responsible for closing
+     * the connection.
+     * 
+     * @param <T> The type of object that the handler returns
+     * @param conn The connection to use to run the query.
+     * @param sql The SQL to execute.
+     * @param rsh The handler used to create the result object from the <code>ResultSet</code> of
+     *        auto-generated keys.
+     * @param params The query replacement parameters.
+     * @param config The batch configuration, <code>null</code> for the defaults
+     * @return The result generated by the handler.
+     * @throws SQLException if a database access error occurs
+     */
+    public <T> T insertBatch(Connection conn, String sql, ResultSetHandler<T> rsh, Object[][] params,
+            BatchConfiguration config) throws SQLException {
+        return insertBatch(conn, false, sql, rsh, params, config);
+    }
+
+    /**
+     * Executes the given batch of INSERT SQL statements, rewritten into multi-row inserts where
+     * configured and possible, see
+     * {@link #insertBatch(Connection, String, ResultSetHandler, Object[][], BatchConfiguration)}.
+     * The <code>Connection</code> is retrieved from the <code>DataSource</code> set in the
+     * constructor and closed afterwards.
+     * 
+     * @param <T> The type of object that the handler returns
+     * @param sql The SQL to execute.
+     * @param rsh The handler used to create the result object from the <code>ResultSet</code> of
+     *        auto-generated keys.
+     * @param params The query replacement parameters.
+     * @param config The batch configuration, <code>null</code> for the defaults
+     * @return The result generated by the handler.
+     * @throws SQLException if a database access error occurs
+     */
+    public <T> T insertBatch(String sql, ResultSetHandler<T> rsh, Object[][] params, BatchConfiguration config)
+            throws SQLException {
+        return insertBatch(this.prepareConnection(), true, sql, rsh, params, config);
+    }
+
+    /**
+     * Executes INSERT statements for parameter rows read one at a time, in batches sized by the
+     * <code>BatchConfiguration</code>. The auto-generated keys of each batch are passed to the
+     * callback row by row, in the order of the parameter rows; the row number of the
+     * <code>RowView</code> restarts with every batch. The caller is responsible for closing the
+     * connection.
+     * 
+     * @param conn The connection to use to run the query.
+     * @param sql The SQL to execute.
+     * @param params The query replacement parameters, one array per execution
+     * @param config The batch configuration, <code>null</code> for the defaults
+     * @param keys The callback that receives the auto-generated keys
+     * @return The aggregated update counts
+     * @throws SQLException if a database access error occurs
+     */
+    public BatchResult insertBatch(Connection conn, String sql, Iterator<Object[]> params,
+            BatchConfiguration config, RowCallback keys) throws SQLException {
+        return this.batch(conn, false, sql, params, config, keys);
+    }
+
+    /**
+     * Executes INSERT statements for parameter rows read one at a time, in batches sized by the
+     * <code>BatchConfiguration</code>, see
+     * {@link #insertBatch(Connection, String, Iterator, BatchConfiguration, RowCallback)}. The
+     * <code>Connection</code> is retrieved from the <code>DataSource</code> set in the constructor
+     * and closed afterwards.
+     * 
+     * @param sql The SQL to execute.
+     * @param params The query replacement parameters, one array per execution
+     * @param config The batch configuration, <code>null</code> for the defaults
+     * @param keys The callback that receives the auto-generated keys
+     * @return The aggregated update counts
+     * @throws SQLException if a database access error occurs
+     */
+    public BatchResult insertBatch(String sql, Iterator<Object[]> params, BatchConfiguration config,
+            RowCallback keys) throws SQLException {
+        Connection conn = this.prepareConnection();
+        return this.batch(conn, true, sql, params, config, keys);
+    }
+
+    /**
+     * Executes INSERT statements for a stream of parameter rows, see
+     * {@link #insertBatch(Connection, String, Iterator, BatchConfiguration, RowCallback)}. The
+     * stream is consumed but not closed.
+     * 
+     * @param conn The connection to use to run the query.
+     * @param sql The SQL to execute.
+     * @param params The query replacement parameters, one array per execution
+     * @param config The batch configuration, <code>null</code> for the defaults
+     * @param keys The callback that receives the auto-generated keys
+     * @return The aggregated update counts
+     * @throws SQLException if a database access error occurs
+     */
+    public BatchResult insertBatch(Connection conn, String sql, Stream<Object[]> params,
+            BatchConfiguration config, RowCallback keys) throws SQLException {
+        return this.insertBatch(conn, sql, params == null ? null : params.iterator(), config, keys);
+    }
+
+    /**
+     * Executes INSERT statements for a stream of parameter rows, see
+     * {@link #insertBatch(String, Iterator, BatchConfiguration, RowCallback)}. The stream is
+     * consumed but not closed.
+     * 
+     * @param sql The SQL to execute.
+     * @param params The query replacement parameters, one array per execution
+     * @param config The batch configuration, <code>null</code> for the defaults
+     * @param keys The callback that receives the auto-generated keys
+     * @return The aggregated update counts
+     * @throws SQLException if a database access error occurs
+     */
+    public BatchResult insertBatch(String sql, Stream<Object[]> params, BatchConfiguration config,
+            RowCallback keys) throws SQLException {
+        return this.insertBatch(sql, params == null ? null : params.iterator(), config, keys);
+    }
+
+    /**
+     * Executes the given INSERT SQL statement and returns the numeric key it generated, read with
+     * <code>getLong</code> from the first column of the generated keys.
+     *
+     * @param conn The connection to use to run the query.
+     * @param sql The SQL to execute.
+     * @param params The query replacement parameters.
+     * @return The generated key
+     * @throws SQLException if a database access error occurs, or no key was generated
+     */
+    public long insertForKey(Connection conn, String sql, Object... params) throws SQLException {
+        return singleKey(this.insert(conn, sql, new LongArrayHandler(), params), sql);
+    }
+
+    /**
+     * Executes the given INSERT SQL statement and returns the numeric key it generated. The
+     * <code>Connection</code> is retrieved from the <code>DataSource</code> set in the constructor.
+     *
+     * @param sql The SQL statement to execute.
+     * @param params Initializes the PreparedStatement's IN (i.e. '?')
+     * @return The generated key
+     * @throws SQLException if a database access error occurs, or no key was generated
+     */
+    public long insertForKey(String sql, Object... params) throws SQLException {
+        return singleKey(this.insert(sql, new LongArrayHandler(), params), sql);
+    }
+
+    /**
+     * Executes the given batch of INSERT SQL statements and returns the numeric keys they
+     * generated, read with <code>getLong</code> from the first column of the generated keys without
+     * creating an object per key.
+     *
+     * @param conn The connection to use to run the query.
+     * @param sql The SQL to execute.
+     * @param params The query replacement parameters.
+     * @return The generated keys, in the order the driver returns them
+     * @throws SQLException if a database access error occurs
+     */
+    public long[] insertBatchForKeys(Connection conn, String sql, Object[][] params) throws SQLException {
+        return this.insertBatch(conn, sql, new LongArrayHandler(), params);
+    }
+
+    /**
+     * Executes the given batch of INSERT SQL statements and returns the numeric keys they
+     * generated. The <code>Connection</code> is retrieved from the <code>DataSource</code> set in
+     * the constructor.
+     *
+     * @param sql The SQL statement to execute.
+     * @param params Initializes the PreparedStatement's IN (i.e. '?')
+     * @return The generated keys, in the order the driver returns them
+     * @throws SQLException if a database access error occurs
+     */
+    public long[] insertBatchForKeys(String sql, Object[][] params) throws SQLException {
+        return this.insertBatch(sql, new LongArrayHandler(), params);
+    }
+
+    /**
+     * Executes the given batch of INSERT SQL statements, rewritten into multi-row inserts if the
+     * <code>BatchConfiguration</code> asks for it, and returns the numeric keys they generated.
+     *
+     * @param conn The connection to use to run the query.
+     * @param sql The SQL to execute.
+     * @param params The query replacement parameters.
+     * @param config The batch configuration, <code>null</code> for a plain batch
+     * @return The generated keys, in the order the driver returns them
+     * @throws SQLException if a database access error occurs
+     */
+    public long[] insertBatchForKeys(Connection conn, String sql, Object[][] params, BatchConfiguration config)
+            throws SQLException {
+        return this.insertBatch(conn, sql, new LongArrayHandler(), params, config);
+    }
+
+    /**
+     * Executes the given batch of INSERT SQL statements, rewritten into multi-row inserts if the
+     * <code>BatchConfiguration</code> asks for it, and returns the numeric keys they generated. The
+     * <code>Connection</code> is retrieved from the <code>DataSource</code> set in the constructor.
+     *
+     * @param sql The SQL statement to execute.
+     * @param params Initializes the PreparedStatement's IN (i.e. '?')
+     * @param config The batch configuration, <code>null</code> for a plain batch
+     * @return The generated keys, in the order the driver returns them
+     * @throws SQLException if a database access error occurs
+     */
+    public long[] insertBatchForKeys(String sql, Object[][] params, BatchConfiguration config)
+            throws SQLException {
+        return this.insertBatch(sql, new LongArrayHandler(), params, config);
+    }
+
+    /**
+     * Executes the given batch of INSERT SQL statements and writes the numeric keys they generated
+     * into the key property of the beans the rows were made of, through a setter compiled once per
+     * bean class. The i-th bean receives the key of the i-th row.
+     *
+     * @param conn The connection to use to run the query.
+     * @param sql The SQL to execute.
+     * @param params The query replacement parameters, one row per bean
+     * @param config The batch configuration, <code>null</code> for a plain batch
+     * @param beans The beans to receive the keys, in the order of the rows
+     * @param keyProperty The name of the property to write the keys into, of a numeric,
+     *        <code>String</code> or <code>Object</code> type
+     * @return The generated keys
+     * @throws SQLException if a database access error occurs, the property can't be written, or
+     *         the driver didn't return one key per row
+     */
+    public long[] insertBatchForKeys(Connection conn, String sql, Object[][] params, BatchConfiguration config,
+            List<?> beans, String keyProperty) throws SQLException {
+        checkKeyBeans(params, beans, keyProperty);
+        long[] keys = this.insertBatchForKeys(conn, sql, params, config);
+        writeKeys(keys, beans, keyProperty, sql);
+        return keys;
+    }
+
+    /**
+     * Executes the given batch of INSERT SQL statements and writes the numeric keys they generated
+     * into the key property of the beans the rows were made of. The <code>Connection</code> is
+     * retrieved from the <code>DataSource</code> set in the constructor.
+     *
+     * @param sql The SQL statement to execute.
+     * @param params Initializes the PreparedStatement's IN (i.e. '?'), one row per bean
+     * @param config The batch configuration, <code>null</code> for a plain batch
+     * @param beans The beans to receive the keys, in the order of the rows
+     * @param keyProperty The name of the property to write the keys into
+     * @return The generated keys
+     * @throws SQLException if a database access error occurs, the property can't be written, or
+     *         the driver didn't return one key per row
+     */
+    public long[] insertBatchForKeys(String sql, Object[][] params, BatchConfiguration config, List<?> beans,
+            String keyProperty) throws SQLException {
+        checkKeyBeans(params, beans, keyProperty);
+        long[] keys = this.insertBatchForKeys(sql, params, config);
+        writeKeys(keys, beans, keyProperty, sql);
+        return keys;
+    }
+
+    private static long singleKey(long[] keys, String sql) throws SQLException {
+        if (keys == null || keys.length == 0) {
+            throw new SQLException("No generated key returned. Query: " + sql);
+        }
+        return keys[0];
+    }
+
+    private static void checkKeyBeans(Object[][] params, List<?> beans, String keyProperty) throws SQLException {
+        if (beans == null || keyProperty == null) {
+            throw new SQLException("Null beans or key property");
+        }
+        if (params != null && params.length != beans.size()) {
+            throw new SQLException("Wrong number of beans, given " + beans.size() + ", expected one per row "
+                    + params.length);
+        }
+        if (!beans.isEmpty()) {
+            // fail before inserting if the property can't take the keys
+            KeyWriter.of(beans.get(0).getClass(), keyProperty);
+        }
+    }
+
+    /**
+     * Write generated keys into the beans, resolving the setter once per bean class
+     */
+    private static void writeKeys(long[] keys, List<?> beans, String keyProperty, String sql)
+            throws SQLException {
+        if (keys.length != beans.size()) {
+            throw new SQLException("The driver returned " + keys.length + " generated keys for " + beans.size()
+                    + " rows, can't assign them. Query: " + sql);
+        }
+        Class<?> lastClass = null;
+        KeyWriter writer = null;
+        int i = 0;
+        for (Object bean : beans) {
+            if (bean.getClass() != lastClass) {
+                lastClass = bean.getClass();
+                writer = KeyWriter.of(lastClass, keyProperty);
+            }
+            writer.write(bean, keys[i++]);
+        }
+    }
+
     /**
      * Executes the given batch of INSERT SQL statements.
      * 
@@ -722,13 +1599,18 @@ public class QueryRunner extends AbstractQueryRunner {
         try {
             stmt = this.prepareStatement(conn, sql, Statement.RETURN_GENERATED_KEYS);
 
+            ParameterBinding binding = this.parameterBinding(stmt, sql);
             for (int i = 0; i < params.length; i++) {
-                this.fillStatement(stmt, params[i]);
+                this.bind(stmt, binding, params[i]);
                 stmt.addBatch();
             }
             stmt.executeBatch();
             ResultSet rs = stmt.getGeneratedKeys();
-            generatedKeys = rsh.handle(rs);
+            try {
+                generatedKeys = rsh.handle(rs);
+            } finally {
+                close(rs);
+            }
 
         } catch (SQLException e) {
             this.rethrow(e, sql, (Object[]) params);
@@ -742,6 +1624,219 @@ public class QueryRunner extends AbstractQueryRunner {
         return generatedKeys;
     }
 
+    /**
+     * Executes the given batch of INSERT SQL statements, rewritten into multi-row inserts if
+     * configured, supported by the database and the SQL is a simple single-row insert.
+     * 
+     * @param conn The connection to use for the query call.
+     * @param closeConn True if the connection should be closed, false otherwise.
+     * @param sql The SQL statement to execute.
+     * @param rsh The handler used to create the result object from the <code>ResultSet</code> of
+     *        auto-generated keys.
+     * @param params The query replacement parameters.
+     * @param config The batch configuration, <code>null</code> for the defaults
+     * @return The result generated by the handler.
+     * @throws SQLException If there are database or parameter errors.
+     */
+    private <T> T insertBatch(Connection conn, boolean closeConn, String sql, ResultSetHandler<T> rsh,
+            Object[][] params, BatchConfiguration config) throws SQLException {
+        MultiRowInsert insert = null;
+        if (conn != null && sql != null && params != null && params.length > 1 && config != null
+                && config.isRewriteInserts()) {
+            insert = MultiRowInsert.parse(sql);
+        }
+        if (insert != null) {
+            try {
+                // a rewrite must still return one key per row
+                if (!this.getCapabilities(conn).returnsMultiRowKeys()) {
+                    insert = null;
+                }
+            } catch (SQLException e) {
+                if (closeConn) {
+                    close(conn);
+                }
+                throw e;
+            }
+        }
+        if (insert == null) {
+            return this.insertBatch(conn, closeConn, sql, rsh, params);
+        }
+
+        int parameterCount = insert.getParameterCount();
+        int maxRows = Math.max(1, config.getMaxParametersPerStatement() / parameterCount);
+        BufferedResultSet keys = new BufferedResultSet();
+        PreparedStatement stmt = null;
+        String preparedSql = null;
+        ParameterBinding binding = null;
+        T generatedKeys = null;
+        try {
+            int start = 0;
+            while (start < params.length) {
+                // as many rows as the parameter and size limits allow, at least one
+                int end = start;
+                long bytes = 0;
+                while (end < params.length && end - start < maxRows) {
+                    long rowBytes = AdaptiveBatchSize.estimateBytes(params[end]);
+                    if (end > start && bytes + rowBytes > config.getMaxStatementBytes()) {
+                        break;
+                    }
+                    bytes += rowBytes;
+                    end++;
+                }
+                int rows = end - start;
+                String groupSql = insert.sql(rows);
+                if (!groupSql.equals(preparedSql)) {
+                    close(stmt);
+                    stmt = null;
+                    stmt = this.prepareStatement(conn, groupSql, Statement.RETURN_GENERATED_KEYS);
+                    binding = this.parameterBinding(stmt, groupSql);
+                    preparedSql = groupSql;
+                }
+                Object[] flat = new Object[rows * parameterCount];
+                for (int i = 0; i < rows; i++) {
+                    Object[] row = params[start + i];
+                    int given = row == null ? 0 : row.length;
+                    if (given != parameterCount) {
+                        throw new SQLException("Wrong number of parameters in row " + (start + i) + ": expected "
+                                + parameterCount + ", was given " + given);
+                    }
+                    System.arraycopy(row, 0, flat, i * parameterCount, parameterCount);
+                }
+                this.bind(stmt, binding, flat);
+                stmt.executeUpdate();
+                int before = keys.size();
+                ResultSet rs = stmt.getGeneratedKeys();
+                try {
+                    keys.append(rs);
+                } finally {
+                    close(rs);
+                }
+                if (keys.size() - before != rows) {
+                    throw new SQLException("The driver returned " + (keys.size() - before)
+                            + " generated keys for a multi-row insert of " + rows + " rows");
+                }
+                start = end;
+            }
+            generatedKeys = rsh.handle(keys.toResultSet());
+        } catch (SQLException e) {
+            this.rethrow(e, sql, (Object[]) params);
+        } finally {
+            close(stmt);
+            if (closeConn) {
+                close(conn);
+            }
+        }
+        return generatedKeys;
+    }
+
+    /**
+     * Execute parameter rows in batches after checking the parameters to ensure nothing is null.
+     * 
+     * @param conn The connection to use for the batch call
+     * @param closeConn True if the connection should be closed, false otherwise
+     * @param sql The SQL statement to execute
+     * @param params The query replacement parameters, one array per execution
+     * @param config The batch configuration, <code>null</code> for the defaults
+     * @param keys The callback that receives the auto-generated keys, <code>null</code> if keys
+     *        aren't returned
+     * @return The aggregated update counts
+     * @throws SQLException If there are database or parameter errors
+     */
+    private BatchResult batch(Connection conn, boolean closeConn, String sql, Iterator<Object[]> params,
+            BatchConfiguration config, RowCallback keys) throws SQLException {
+        if (conn == null) {
+            throw new SQLException("Null connection");
+        }
+        if (sql == null) {
+            if (closeConn) {
+                close(conn);
+            }
+            throw new SQLException("Null SQL statement");
+        }
+        if (params == null) {
+            if (closeConn) {
+                close(conn);
+            }
+            throw new SQLException("Null parameters. If parameters aren't need, pass an empty iterator.");
+        }
+        if (config == null) {
+            config = BatchConfiguration.DEFAULT;
+        }
+        AdaptiveBatchSize size = new AdaptiveBatchSize(config);
+        BatchResult result = new BatchResult(config.isKeepUpdateCounts());
+        PreparedStatement stmt = null;
+        Object[] row = null;
+        try {
+            if (keys == null) {
+                stmt = this.prepareStatement(conn, sql);
+            } else {
+                stmt = this.prepareStatement(conn, sql, Statement.RETURN_GENERATED_KEYS);
+            }
+            boolean commit = config.isCommitEachBatch() && !conn.getAutoCommit();
+            ParameterBinding binding = this.parameterBinding(stmt, sql);
+            int pending = 0;
+            long bytes = 0;
+            while (params.hasNext()) {
+                row = params.next();
+                this.bind(stmt, binding, row);
+                stmt.addBatch();
+                pending++;
+                bytes += size.estimate(row);
+                boolean byBytes = size.isFull(bytes);
+                if (byBytes || pending >= size.get()) {
+                    this.executeBatch(conn, stmt, pending, byBytes, commit, keys, size, result);
+                    pending = 0;
+                    bytes = 0;
+                }
+            }
+            if (pending > 0) {
+                this.executeBatch(conn, stmt, pending, false, commit, keys, size, result);
+            }
+        } catch (SQLException e) {
+            // the rows before the failing batch were executed, report where it stopped
+            this.rethrow(e, sql + " (after " + result.getRowCount() + " rows)", row);
+        } finally {
+            close(stmt);
+            if (closeConn) {
+                close(conn);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Execute one batch of a chunked batch call and adapt the batch size to it
+     * 
+     * @param conn The connection of the statement
+     * @param stmt The statement with the rows added
+     * @param rows The number of rows added
+     * @param byBytes Whether the batch was cut short by the payload limit
+     * @param commit Whether to commit the connection after the batch
+     * @param keys The callback that receives the auto-generated keys, or <code>null</code>
+     * @param size The batch size to adapt
+     * @param result The result to account the batch in
+     * @throws SQLException If a database access error occurs
+     */
+    private void executeBatch(Connection conn, PreparedStatement stmt, int rows, boolean byBytes,
+            boolean commit, RowCallback keys, AdaptiveBatchSize size, BatchResult result) throws SQLException {
+        long start = System.nanoTime();
+        int[] counts = stmt.executeBatch();
+        if (keys != null) {
+            ResultSet rs = stmt.getGeneratedKeys();
+            try {
+                new RowCallbackHandler(keys).handle(rs);
+            } finally {
+                close(rs);
+            }
+        }
+        if (commit) {
+            conn.commit();
+        }
+        long nanos = System.nanoTime() - start;
+        result.executed(counts, rows, nanos);
+        size.executed(rows, nanos, byBytes);
+    }
+
     /**
      * Execute an SQL statement, including a stored procedure call, which does not return any result
      * sets. Any parameters which are instances of {@link OutParameter} will be registered as OUT
@@ -868,7 +1963,7 @@ public class QueryRunner extends AbstractQueryRunner {
 
         try {
             stmt = this.prepareCall(conn, sql);
-            this.fillStatement(stmt, params);
+            this.bindParameters(stmt, sql, params);
             stmt.execute();
             rows = stmt.getUpdateCount();
             this.retrieveOutParameters(stmt, params);
@@ -924,7 +2019,7 @@ public class QueryRunner extends AbstractQueryRunner {
 
         try {
             stmt = this.prepareCall(conn, sql);
-            this.fillStatement(stmt, params);
+            this.bindParameters(stmt, sql, params);
             boolean moreResultSets = stmt.execute();
             // Handle multiple result sets by passing them through the handler
             // retaining the final result
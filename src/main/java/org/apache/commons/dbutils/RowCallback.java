@@ -0,0 +1,19 @@
+package org.apache.commons.dbutils;
+
+import java.sql.SQLException;
+
+/**
+ * Receive the rows of a <code>ResultSet</code> one at a time through a reused {@link RowView}. Use
+ * it for scans that fold values into counters or aggregates and don't need an object per row.
+ */
+public interface RowCallback {
+
+    /**
+     * Process the current row. The view is reused for the next row, so don't keep a reference to it
+     * beyond this call.
+     *
+     * @param row The view of the current row
+     * @throws SQLException If a database access error occurs.
+     */
+    public void handle(RowView row) throws SQLException;
+}
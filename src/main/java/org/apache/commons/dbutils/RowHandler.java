@@ -0,0 +1,24 @@
+package org.apache.commons.dbutils;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Convert the current row of a <code>ResultSet</code> into an object. Unlike
+ * {@link ResultSetHandler}, which consumes the whole <code>ResultSet</code>, a row handler is called
+ * once per row by a {@link RowIterator}, so rows can be mapped on demand.
+ * 
+ * @param <T> The type of object a row is converted into
+ */
+public interface RowHandler<T> {
+
+    /**
+     * Convert the current row. Implementations must not move the cursor of the
+     * <code>ResultSet</code>.
+     * 
+     * @param rs The <code>ResultSet</code>, positioned on a valid row
+     * @return The object created from the row
+     * @throws SQLException If a database access error occurs.
+     */
+    public T handle(ResultSet rs) throws SQLException;
+}
@@ -0,0 +1,195 @@
+package org.apache.commons.dbutils;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * An <code>Iterator</code> that maps the rows of an open <code>ResultSet</code> one at a time with a
+ * {@link RowHandler}, so memory use doesn't depend on the size of the result. The
+ * <code>ResultSet</code>, its <code>Statement</code> and, if the iterator owns it, the
+ * <code>Connection</code> are released through the runner that created the iterator once the last
+ * row has been read, when reading or mapping a row throws, or when {@link #close()} is called, whichever comes
+ * first.
+ * 
+ * <p>
+ * Iterators are created by <code>QueryRunner.iterate</code> and <code>QueryRunner.stream</code>.
+ * Always close an iterator that may not be read to the end, e.g. with try-with-resources.
+ * <code>SQLException</code>s thrown while iterating are wrapped in a
+ * <code>RuntimeException</code>.
+ * </p>
+ * 
+ * <p>
+ * The class is not thread safe.
+ * </p>
+ * 
+ * @param <T> The type of object each row is converted into
+ */
+public class RowIterator<T> implements Iterator<T>, AutoCloseable {
+
+    /**
+     * The runner that releases the resources
+     */
+    private final AbstractQueryRunner runner;
+
+    private final Connection conn;
+
+    private final boolean closeConn;
+
+    private final Statement stmt;
+
+    private final ResultSet rs;
+
+    private final RowHandler<T> rh;
+
+    /**
+     * The SQL executed, for error messages
+     */
+    private final String sql;
+
+    /**
+     * Whether <code>rs.next()</code> was called for the row {@link #next()} returns next
+     */
+    private boolean fetched;
+
+    /**
+     * Whether the <code>ResultSet</code> is positioned on a row not yet returned
+     */
+    private boolean hasRow;
+
+    private boolean closed;
+
+    /**
+     * Constructor for RowIterator
+     * 
+     * @param runner The runner that releases the resources
+     * @param conn The connection the statement was executed on
+     * @param closeConn True if the connection should be closed with the iterator
+     * @param stmt The statement that produced the <code>ResultSet</code>
+     * @param rs The <code>ResultSet</code> to iterate, not yet moved
+     * @param rh The handler that converts each row
+     * @param sql The SQL executed, for error messages
+     */
+    RowIterator(AbstractQueryRunner runner, Connection conn, boolean closeConn, Statement stmt,
+            ResultSet rs, RowHandler<T> rh, String sql) {
+        this.runner = runner;
+        this.conn = conn;
+        this.closeConn = closeConn;
+        this.stmt = stmt;
+        this.rs = rs;
+        this.rh = rh;
+        this.sql = sql;
+    }
+
+    public boolean hasNext() {
+        if (closed) {
+            return false;
+        }
+        if (!fetched) {
+            try {
+                hasRow = rs.next();
+            } catch (SQLException e) {
+                throw this.fail(e);
+            } catch (RuntimeException e) {
+                this.closeQuietly();
+                throw e;
+            }
+            fetched = true;
+            if (!hasRow) {
+                this.closeQuietly();
+            }
+        }
+        return hasRow;
+    }
+
+    public T next() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException();
+        }
+        fetched = false;
+        try {
+            return rh.handle(rs);
+        } catch (SQLException e) {
+            throw this.fail(e);
+        } catch (RuntimeException e) {
+            this.closeQuietly();
+            throw e;
+        }
+    }
+
+    public void remove() {
+        throw new UnsupportedOperationException("remove");
+    }
+
+    /**
+     * Release the <code>ResultSet</code>, the <code>Statement</code> and, if owned, the
+     * <code>Connection</code>. Calling it again has no effect.
+     * 
+     * @throws SQLException If a database access error occurs.
+     */
+    public void close() throws SQLException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        hasRow = false;
+        try {
+            runner.close(rs);
+        } finally {
+            try {
+                runner.close(stmt);
+            } finally {
+                if (closeConn) {
+                    runner.close(conn);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adapt this iterator to a sequential <code>Stream</code>; closing the stream closes the
+     * iterator.
+     * 
+     * @return The stream
+     */
+    public Stream<T> stream() {
+        Stream<T> stream = StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED), false);
+        return stream.onClose(new Runnable() {
+            public void run() {
+                try {
+                    close();
+                } catch (SQLException e) {
+                    throw new RuntimeException("Couldn't close ResultSet of query: " + sql, e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Release the resources after a failure and wrap the exception
+     * 
+     * @param cause The failure
+     * @return The exception to throw
+     */
+    private RuntimeException fail(SQLException cause) {
+        this.closeQuietly();
+        return new RuntimeException(cause.getMessage() + " Query: " + sql, cause);
+    }
+
+    private void closeQuietly() {
+        try {
+            this.close();
+        } catch (SQLException e) {
+            // quiet
+        }
+    }
+
+}
@@ -0,0 +1,322 @@
+package org.apache.commons.dbutils;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A reusable, index-addressed view of the current row of a <code>ResultSet</code>. One view is
+ * created per <code>ResultSet</code> and handed to a {@link RowCallback} for every row, so scanning
+ * allocates nothing per row beyond what the driver itself allocates: the primitive accessors return
+ * primitives, and column labels are resolved to indexes once, when the view is created.
+ *
+ * <p>
+ * Resolve the indexes of the columns you need with {@link #indexOf(String)} before the first row or
+ * on it, and read the columns by index afterwards:
+ * </p>
+ *
+ * <pre>
+ * final long[] total = new long[1];
+ * runner.scan(&quot;SELECT amount FROM orders&quot;, new RowCallback() {
+ *     private int amount = -1;
+ *
+ *     public void handle(RowView row) throws SQLException {
+ *         if (amount &lt; 0) {
+ *             amount = row.indexOf(&quot;amount&quot;);
+ *         }
+ *         total[0] += row.getLong(amount);
+ *     }
+ * });
+ * </pre>
+ *
+ * <p>
+ * A view is only valid inside the callback it was passed to. The class is not thread safe.
+ * </p>
+ */
+public final class RowView {
+
+    /**
+     * <code>isNull</code> reads the column with <code>getLong</code>
+     */
+    private static final byte NULL_CHECK_LONG = 1;
+
+    /**
+     * <code>isNull</code> reads the column with <code>getDouble</code>
+     */
+    private static final byte NULL_CHECK_DOUBLE = 2;
+
+    /**
+     * <code>isNull</code> reads the column with <code>getObject</code>
+     */
+    private static final byte NULL_CHECK_OBJECT = 0;
+
+    private final ResultSet rs;
+
+    /**
+     * The column labels, the 0th is meaningless because JDBC column index start at 1.
+     */
+    private final String[] labels;
+
+    /**
+     * The JDBC column index of each label, both as returned by the driver and lower cased
+     */
+    private final Map<String, Integer> indexes;
+
+    /**
+     * How {@link #isNull(int)} reads each column without boxing, indexed as <code>labels</code>
+     */
+    private final byte[] nullChecks;
+
+    /**
+     * The 1-based number of the current row within this scan
+     */
+    private long rowNumber;
+
+    /**
+     * Constructor for RowView
+     *
+     * @param rs The <code>ResultSet</code> to view, positioned before its first row
+     * @throws SQLException If the metadata can't be read
+     */
+    public RowView(ResultSet rs) throws SQLException {
+        this.rs = rs;
+        ResultSetMetaData rsmd = rs.getMetaData();
+        int cols = rsmd.getColumnCount();
+        this.labels = new String[cols + 1];
+        this.nullChecks = new byte[cols + 1];
+        this.indexes = new HashMap<String, Integer>(cols * 4);
+        for (int col = cols; col >= 1; col--) {
+            String label = rsmd.getColumnLabel(col);
+            if (label == null || label.length() == 0) {
+                label = rsmd.getColumnName(col);
+            }
+            labels[col] = label;
+            // iterate backwards so the first of duplicate labels wins, as with ResultSet.findColumn
+            indexes.put(label, Integer.valueOf(col));
+            nullChecks[col] = nullCheck(rsmd.getColumnType(col));
+        }
+        for (int col = cols; col >= 1; col--) {
+            String lower = labels[col].toLowerCase(Locale.ENGLISH);
+            Integer taken = indexes.get(lower);
+            // an exact label keeps its column, e.g. "id" next to "ID"
+            if (taken == null || !labels[taken.intValue()].equals(lower)) {
+                indexes.put(lower, Integer.valueOf(col));
+            }
+        }
+    }
+
+    private static byte nullCheck(int sqlType) {
+        switch (sqlType) {
+        case Types.BIGINT:
+        case Types.INTEGER:
+        case Types.SMALLINT:
+        case Types.TINYINT:
+        case Types.BIT:
+        case Types.BOOLEAN:
+            return NULL_CHECK_LONG;
+        case Types.DOUBLE:
+        case Types.FLOAT:
+        case Types.REAL:
+            return NULL_CHECK_DOUBLE;
+        default:
+            return NULL_CHECK_OBJECT;
+        }
+    }
+
+    /**
+     * Move the cursor of the <code>ResultSet</code> to the next row. Called by the code that drives
+     * the scan, never by a {@link RowCallback}.
+     *
+     * @return true if the new current row is valid, false if there are no more rows
+     * @throws SQLException If a database access error occurs.
+     */
+    public boolean next() throws SQLException {
+        if (rs.next()) {
+            rowNumber++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Get the <code>ResultSet</code> the view reads from, for accessors not offered by the view.
+     * Don't move its cursor.
+     *
+     * @return The <code>ResultSet</code>
+     */
+    public ResultSet getResultSet() {
+        return rs;
+    }
+
+    /**
+     * Get the number of the current row within this scan
+     *
+     * @return The 1-based row number
+     */
+    public long getRowNumber() {
+        return rowNumber;
+    }
+
+    /**
+     * Get the number of columns
+     *
+     * @return The column count
+     */
+    public int getColumnCount() {
+        return labels.length - 1;
+    }
+
+    /**
+     * Get the label of a column
+     *
+     * @param column The JDBC column index
+     * @return The column label, or the column name if the driver reports no label
+     */
+    public String getLabel(int column) {
+        return labels[column];
+    }
+
+    /**
+     * Find the index of a column. Labels are matched exactly first, then case insensitively.
+     *
+     * @param label The column label
+     * @return The JDBC column index
+     * @throws SQLException If there is no such column
+     */
+    public int indexOf(String label) throws SQLException {
+        Integer index = indexes.get(label);
+        if (index == null) {
+            index = indexes.get(label.toLowerCase(Locale.ENGLISH));
+        }
+        if (index == null) {
+            throw new SQLException("Column label not found: " + label);
+        }
+        return index.intValue();
+    }
+
+    /**
+     * Check whether a column of the current row is SQL NULL. Integral and floating point columns
+     * are checked without boxing the value.
+     *
+     * @param column The JDBC column index
+     * @return true if the value is SQL NULL
+     * @throws SQLException If a database access error occurs.
+     */
+    public boolean isNull(int column) throws SQLException {
+        switch (nullChecks[column]) {
+        case NULL_CHECK_LONG:
+            rs.getLong(column);
+            return rs.wasNull();
+        case NULL_CHECK_DOUBLE:
+            rs.getDouble(column);
+            return rs.wasNull();
+        default:
+            return rs.getObject(column) == null;
+        }
+    }
+
+    /**
+     * Check whether the column read last was SQL NULL, see <code>ResultSet.wasNull()</code>
+     *
+     * @return true if the last value read was SQL NULL
+     * @throws SQLException If a database access error occurs.
+     */
+    public boolean wasNull() throws SQLException {
+        return rs.wasNull();
+    }
+
+    /**
+     * Read a column as <code>int</code>
+     *
+     * @param column The JDBC column index
+     * @return The value, 0 for SQL NULL
+     * @throws SQLException If a database access error occurs.
+     */
+    public int getInt(int column) throws SQLException {
+        return rs.getInt(column);
+    }
+
+    /**
+     * Read a column as <code>long</code>
+     *
+     * @param column The JDBC column index
+     * @return The value, 0 for SQL NULL
+     * @throws SQLException If a database access error occurs.
+     */
+    public long getLong(int column) throws SQLException {
+        return rs.getLong(column);
+    }
+
+    /**
+     * Read a column as <code>double</code>
+     *
+     * @param column The JDBC column index
+     * @return The value, 0 for SQL NULL
+     * @throws SQLException If a database access error occurs.
+     */
+    public double getDouble(int column) throws SQLException {
+        return rs.getDouble(column);
+    }
+
+    /**
+     * Read a column as <code>boolean</code>
+     *
+     * @param column The JDBC column index
+     * @return The value, false for SQL NULL
+     * @throws SQLException If a database access error occurs.
+     */
+    public boolean getBoolean(int column) throws SQLException {
+        return rs.getBoolean(column);
+    }
+
+    /**
+     * Read a column as <code>String</code>
+     *
+     * @param column The JDBC column index
+     * @return The value or <code>null</code>
+     * @throws SQLException If a database access error occurs.
+     */
+    public String getString(int column) throws SQLException {
+        return rs.getString(column);
+    }
+
+    /**
+     * Read a column as <code>BigDecimal</code>
+     *
+     * @param column The JDBC column index
+     * @return The value or <code>null</code>
+     * @throws SQLException If a database access error occurs.
+     */
+    public BigDecimal getBigDecimal(int column) throws SQLException {
+        return rs.getBigDecimal(column);
+    }
+
+    /**
+     * Read a column as <code>Timestamp</code>
+     *
+     * @param column The JDBC column index
+     * @return The value or <code>null</code>
+     * @throws SQLException If a database access error occurs.
+     */
+    public Timestamp getTimestamp(int column) throws SQLException {
+        return rs.getTimestamp(column);
+    }
+
+    /**
+     * Read a column as the object the driver maps it to
+     *
+     * @param column The JDBC column index
+     * @return The value or <code>null</code>
+     * @throws SQLException If a database access error occurs.
+     */
+    public Object getObject(int column) throws SQLException {
+        return rs.getObject(column);
+    }
+
+}
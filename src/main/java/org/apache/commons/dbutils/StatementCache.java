@@ -0,0 +1,410 @@
+package org.apache.commons.dbutils;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A cache of prepared statements for <code>QueryRunner</code>, so a statement executed again on the
+ * same connection doesn't pay the driver's parse and server side prepare again. Statements are
+ * keyed by connection, SQL and generated keys mode, and each connection keeps at most
+ * {@link #getMaxStatementsPerConnection()} idle statements, evicting the least recently used one.
+ *
+ * <p>
+ * A statement is checked out of the cache while a runner uses it: <code>prepareStatement</code>
+ * takes it, <code>close(Statement)</code> clears its parameters and puts it back instead of closing
+ * it. So a statement is never handed out twice at the same time, e.g. to a query nested in the
+ * loop of a {@link RowIterator} on the same SQL. The statements of a connection are closed when the
+ * runner closes the connection, and dropped once the connection is found closed otherwise, e.g.
+ * after a <code>JdbcUtils</code> transaction ended.
+ * </p>
+ *
+ * <p>
+ * The cache pays off for connections that live across many statements: transaction connections of
+ * <code>TxQueryRunner</code> and connections passed to the runner methods. Connections taken from a
+ * pool for a single call are usually new handles each time; enable the pool's own statement cache
+ * (e.g. c3p0's <code>maxStatementsPerConnection</code>) for those. One cache can be shared by
+ * runners with the same <code>StatementConfiguration</code>, since statements are configured once,
+ * when they're prepared.
+ * </p>
+ *
+ * <pre>
+ * StatementCache cache = new StatementCache(64);
+ * QueryRunner runner = new QueryRunner(ds, false, null, cache);
+ * ...
+ * System.out.println(cache); // hit rate, evictions and prepare time
+ * </pre>
+ *
+ * <p>
+ * The class is thread safe. A connection must still be used by one thread at a time, as JDBC
+ * requires.
+ * </p>
+ */
+public class StatementCache {
+
+    /**
+     * The default maximum number of idle statements kept per connection.
+     */
+    public static final int DEFAULT_MAX_STATEMENTS_PER_CONNECTION = 64;
+
+    private final int maxStatementsPerConnection;
+
+    /**
+     * The idle statements of each connection in access order. Guarded by this.
+     */
+    private final Map<Connection, LinkedHashMap<Key, PreparedStatement>> idle = new IdentityHashMap<Connection, LinkedHashMap<Key, PreparedStatement>>();
+
+    /**
+     * The statements currently checked out, with where they go back to. Guarded by this.
+     */
+    private final Map<PreparedStatement, Owner> borrowed = new IdentityHashMap<PreparedStatement, Owner>();
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    private final AtomicLong prepareNanos = new AtomicLong();
+
+    /**
+     * Constructor for StatementCache keeping {@link #DEFAULT_MAX_STATEMENTS_PER_CONNECTION} idle
+     * statements per connection
+     */
+    public StatementCache() {
+        this(DEFAULT_MAX_STATEMENTS_PER_CONNECTION);
+    }
+
+    /**
+     * Constructor for StatementCache
+     *
+     * @param maxStatementsPerConnection The maximum number of idle statements kept per connection,
+     *        must be positive
+     */
+    public StatementCache(int maxStatementsPerConnection) {
+        if (maxStatementsPerConnection <= 0) {
+            throw new IllegalArgumentException("maxStatementsPerConnection must be positive: "
+                    + maxStatementsPerConnection);
+        }
+        this.maxStatementsPerConnection = maxStatementsPerConnection;
+    }
+
+    /**
+     * Check an idle statement out of the cache
+     *
+     * @param conn The connection the statement belongs to
+     * @param sql The SQL of the statement
+     * @param returnedKeys The generated keys mode, <code>Statement.RETURN_GENERATED_KEYS</code> or
+     *        <code>Statement.NO_GENERATED_KEYS</code>
+     * @return The statement or <code>null</code> if none is idle, then prepare one and pass it to
+     *         {@link #prepared(Connection, String, int, PreparedStatement, long)}
+     */
+    PreparedStatement take(Connection conn, String sql, int returnedKeys) {
+        Key key = new Key(sql, returnedKeys);
+        List<PreparedStatement> stale = null;
+        PreparedStatement stmt = null;
+        synchronized (this) {
+            LinkedHashMap<Key, PreparedStatement> statements = idle.get(conn);
+            if (statements == null) {
+                stale = this.removeClosedConnections();
+                idle.put(conn, new LinkedHashMap<Key, PreparedStatement>(16, 0.75f, true));
+            } else {
+                stmt = statements.remove(key);
+                if (stmt != null) {
+                    borrowed.put(stmt, new Owner(conn, key));
+                }
+            }
+        }
+        closeQuietly(stale);
+        if (stmt == null) {
+            misses.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return stmt;
+    }
+
+    /**
+     * Check a statement prepared after a miss out of the cache, so it's cached once it's returned
+     *
+     * @param conn The connection the statement belongs to
+     * @param sql The SQL of the statement
+     * @param returnedKeys The generated keys mode
+     * @param stmt The new statement
+     * @param nanos The time it took to prepare the statement
+     */
+    void prepared(Connection conn, String sql, int returnedKeys, PreparedStatement stmt, long nanos) {
+        prepareNanos.addAndGet(nanos);
+        synchronized (this) {
+            borrowed.put(stmt, new Owner(conn, new Key(sql, returnedKeys)));
+        }
+    }
+
+    /**
+     * Return a statement to the cache
+     *
+     * @param stmt The statement the runner is done with
+     * @return true if the statement belonged to the cache and is now cached or closed, false if the
+     *         caller must close it
+     */
+    boolean release(PreparedStatement stmt) {
+        return this.release(stmt, -1);
+    }
+
+    /**
+     * Return a statement to the cache, resetting its query timeout, e.g. after it was limited by a
+     * {@link Deadline}
+     *
+     * @param stmt The statement the runner is done with
+     * @param queryTimeout The query timeout to reset it to, -1 to leave it alone
+     * @return true if the statement belonged to the cache and is now cached or closed, false if the
+     *         caller must close it
+     */
+    boolean release(PreparedStatement stmt, int queryTimeout) {
+        Owner owner;
+        synchronized (this) {
+            owner = borrowed.remove(stmt);
+        }
+        if (owner == null) {
+            return false;
+        }
+        try {
+            if (stmt.isClosed()) {
+                return true;
+            }
+            stmt.clearParameters();
+            stmt.clearBatch();
+            stmt.clearWarnings();
+            if (queryTimeout >= 0) {
+                stmt.setQueryTimeout(queryTimeout);
+            }
+        } catch (SQLException e) {
+            // not reusable, e.g. the connection broke
+            closeQuietly(stmt);
+            return true;
+        }
+        PreparedStatement extra = null;
+        synchronized (this) {
+            LinkedHashMap<Key, PreparedStatement> statements = idle.get(owner.conn);
+            if (statements == null || statements.containsKey(owner.key)) {
+                // the connection was evicted, or an equal statement came back first
+                extra = stmt;
+            } else {
+                statements.put(owner.key, stmt);
+                if (statements.size() > maxStatementsPerConnection) {
+                    Iterator<PreparedStatement> eldest = statements.values().iterator();
+                    extra = eldest.next();
+                    eldest.remove();
+                    evictions.incrementAndGet();
+                }
+            }
+        }
+        closeQuietly(extra);
+        return true;
+    }
+
+    /**
+     * Close and forget the idle statements of a connection, e.g. before the connection is closed.
+     * Statements checked out at the time are closed when they're returned.
+     *
+     * @param conn The connection
+     */
+    public void evict(Connection conn) {
+        LinkedHashMap<Key, PreparedStatement> statements;
+        synchronized (this) {
+            statements = idle.remove(conn);
+        }
+        if (statements != null) {
+            closeQuietly(new ArrayList<PreparedStatement>(statements.values()));
+        }
+    }
+
+    /**
+     * Close and forget all idle statements. The counters are kept.
+     */
+    public void clear() {
+        List<PreparedStatement> statements = new ArrayList<PreparedStatement>();
+        synchronized (this) {
+            for (LinkedHashMap<Key, PreparedStatement> s : idle.values()) {
+                statements.addAll(s.values());
+            }
+            idle.clear();
+        }
+        closeQuietly(statements);
+    }
+
+    /**
+     * Forget the connections that were closed without the cache being told. Called with the lock
+     * held.
+     *
+     * @return The statements to close once the lock is released, or <code>null</code>
+     */
+    private List<PreparedStatement> removeClosedConnections() {
+        List<PreparedStatement> stale = null;
+        Iterator<Map.Entry<Connection, LinkedHashMap<Key, PreparedStatement>>> it = idle.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Connection, LinkedHashMap<Key, PreparedStatement>> entry = it.next();
+            boolean closed;
+            try {
+                closed = entry.getKey().isClosed();
+            } catch (SQLException e) {
+                closed = true;
+            }
+            if (closed) {
+                if (stale == null) {
+                    stale = new ArrayList<PreparedStatement>();
+                }
+                stale.addAll(entry.getValue().values());
+                it.remove();
+            }
+        }
+        return stale;
+    }
+
+    private static void closeQuietly(List<PreparedStatement> statements) {
+        if (statements != null) {
+            for (PreparedStatement stmt : statements) {
+                closeQuietly(stmt);
+            }
+        }
+    }
+
+    private static void closeQuietly(PreparedStatement stmt) {
+        if (stmt != null) {
+            try {
+                stmt.close();
+            } catch (SQLException e) {
+                // quiet
+            }
+        }
+    }
+
+    /**
+     * Get the number of idle statements, over all connections
+     *
+     * @return The number of idle statements
+     */
+    public synchronized int size() {
+        int size = 0;
+        for (LinkedHashMap<Key, PreparedStatement> statements : idle.values()) {
+            size += statements.size();
+        }
+        return size;
+    }
+
+    /**
+     * Get the maximum number of idle statements kept per connection
+     *
+     * @return The maximum number of idle statements per connection
+     */
+    public int getMaxStatementsPerConnection() {
+        return maxStatementsPerConnection;
+    }
+
+    /**
+     * Get the number of statements that were reused
+     *
+     * @return The hit count
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Get the number of statements that had to be prepared
+     *
+     * @return The miss count
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Get the share of statements that were reused
+     *
+     * @return The hit rate between 0 and 1, 0 if no statement was requested yet
+     */
+    public double getHitRate() {
+        long h = hits.get();
+        long total = h + misses.get();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    /**
+     * Get the number of idle statements closed because their connection had too many
+     *
+     * @return The eviction count
+     */
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    /**
+     * Get the total time spent preparing statements on misses
+     *
+     * @return The prepare time in nanoseconds
+     */
+    public long getPrepareTimeNanos() {
+        return prepareNanos.get();
+    }
+
+    @Override
+    public String toString() {
+        return "StatementCache[size=" + size() + ", maxStatementsPerConnection=" + maxStatementsPerConnection
+                + ", hits=" + hits.get() + ", misses=" + misses.get() + ", hitRate="
+                + String.format("%.3f", getHitRate()) + ", evictions=" + evictions.get() + ", prepareTimeMillis="
+                + prepareNanos.get() / 1000000 + "]";
+    }
+
+    /**
+     * The SQL and generated keys mode of a statement
+     */
+    private static final class Key {
+
+        private final String sql;
+
+        private final int returnedKeys;
+
+        Key(String sql, int returnedKeys) {
+            this.sql = sql;
+            this.returnedKeys = returnedKeys;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * sql.hashCode() + returnedKeys;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return returnedKeys == other.returnedKeys && sql.equals(other.sql);
+        }
+    }
+
+    /**
+     * Where a checked out statement goes back to
+     */
+    private static final class Owner {
+
+        final Connection conn;
+
+        final Key key;
+
+        Owner(Connection conn, Key key) {
+            this.conn = conn;
+            this.key = key;
+        }
+    }
+
+}
@@ -0,0 +1,142 @@
+package org.apache.commons.dbutils;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cancels statements still open when the {@link Deadline} they were prepared under passes. One
+ * daemon thread serves all runners; the cancellation of a statement closed in time is removed from
+ * its queue right away. Cancelling and releasing a statement exclude each other, so a statement
+ * released in time is never cancelled later, e.g. while the next caller reuses it from a
+ * <code>StatementCache</code>.
+ */
+final class StatementWatchdog {
+
+    private static final ScheduledThreadPoolExecutor TIMER = new ScheduledThreadPoolExecutor(1,
+            new ThreadFactory() {
+                public Thread newThread(Runnable r) {
+                    Thread t = new Thread(r, "StatementWatchdog");
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
+
+    static {
+        TIMER.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * The pending cancellations by statement
+     */
+    private static final ConcurrentMap<Statement, Cancel> WATCHED =
+            new ConcurrentHashMap<Statement, Cancel>();
+
+    /**
+     * {@link #release(Statement)}: the statement wasn't watched
+     */
+    static final int NOT_WATCHED = 0;
+
+    /**
+     * {@link #release(Statement)}: the statement was released before its cancellation started, it
+     * won't be cancelled
+     */
+    static final int RELEASED = 1;
+
+    /**
+     * {@link #release(Statement)}: the statement was cancelled, or its cancellation is in flight,
+     * it must be closed rather than reused
+     */
+    static final int CANCELLED = 2;
+
+    private StatementWatchdog() {
+    }
+
+    /**
+     * Cancel a statement when a deadline passes, unless it is released before
+     *
+     * @param stmt The statement
+     * @param deadline The deadline
+     */
+    static void watch(Statement stmt, Deadline deadline) {
+        Cancel cancel = new Cancel(stmt);
+        Cancel replaced = WATCHED.put(stmt, cancel);
+        if (replaced != null) {
+            replaced.release();
+        }
+        // registered first, so a release racing a cancellation due at once finds it
+        cancel.future = TIMER.schedule(cancel, Math.max(0, deadline.remainingNanos()),
+                TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Stop watching a statement, whether its cancellation is pending or done
+     *
+     * @param stmt The statement
+     * @return {@link #NOT_WATCHED}, {@link #RELEASED} or {@link #CANCELLED}
+     */
+    static int release(Statement stmt) {
+        if (WATCHED.isEmpty()) {
+            return NOT_WATCHED;
+        }
+        Cancel cancel = WATCHED.remove(stmt);
+        if (cancel == null) {
+            return NOT_WATCHED;
+        }
+        return cancel.release() ? RELEASED : CANCELLED;
+    }
+
+    /**
+     * The cancellation of one statement
+     */
+    private static final class Cancel implements Runnable {
+
+        private static final int PENDING = 0;
+
+        private static final int FIRED = 1;
+
+        private static final int DONE = 2;
+
+        private final Statement stmt;
+
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+
+        volatile ScheduledFuture<?> future;
+
+        Cancel(Statement stmt) {
+            this.stmt = stmt;
+        }
+
+        /**
+         * @return true if the cancellation hadn't started and now never will
+         */
+        boolean release() {
+            if (state.compareAndSet(PENDING, DONE)) {
+                ScheduledFuture<?> f = future;
+                if (f != null) {
+                    f.cancel(false);
+                }
+                return true;
+            }
+            return false;
+        }
+
+        public void run() {
+            // stays registered until released, so the runner knows the statement was cancelled
+            if (state.compareAndSet(PENDING, FIRED)) {
+                try {
+                    stmt.cancel();
+                } catch (SQLException e) {
+                    // closed meanwhile, or the driver can't cancel
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,84 @@
+package org.apache.commons.dbutils;
+
+import java.sql.Connection;
+
+/**
+ * The connection state of one unit of work: the connection of its transaction and its
+ * {@link JdbcSession}. <code>JdbcUtils</code> finds the context of the running code through its
+ * {@link TransactionContextHolder}, by default one per thread; code that hops threads can pass a
+ * context explicitly instead, e.g. to <code>new TxQueryRunner(context)</code> or
+ * <code>JdbcUtils.beginTransaction(context)</code>.
+ *
+ * <pre>
+ * TransactionContext context = new TransactionContext();
+ * TxQueryRunner runner = new TxQueryRunner(context);
+ * JdbcUtils.beginTransaction(context);
+ * CompletableFuture.runAsync(() -&gt; runner.update(...), executor).join();
+ * JdbcUtils.commitTransaction(context);
+ * </pre>
+ *
+ * <p>
+ * A context may move between threads but must be used by one at a time, as its connection.
+ * </p>
+ */
+public final class TransactionContext {
+
+    private volatile Connection connection;
+
+    private volatile JdbcSession session;
+
+    /**
+     * Constructor for an empty TransactionContext
+     */
+    public TransactionContext() {
+        super();
+    }
+
+    /**
+     * Get the connection of the running transaction
+     *
+     * @return The connection, <code>null</code> outside a transaction
+     */
+    public Connection getConnection() {
+        return connection;
+    }
+
+    void setConnection(Connection connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * Whether a transaction runs in this context
+     *
+     * @return true within a transaction
+     */
+    public boolean inTransaction() {
+        return connection != null;
+    }
+
+    /**
+     * Get the open session of this context
+     *
+     * @return The session, <code>null</code> if none is open
+     */
+    public JdbcSession getSession() {
+        return session;
+    }
+
+    void setSession(JdbcSession session) {
+        this.session = session;
+    }
+
+    /**
+     * Whether neither a transaction nor a session is open, so the context can be unbound
+     */
+    boolean isEmpty() {
+        return connection == null && session == null;
+    }
+
+    @Override
+    public String toString() {
+        return "TransactionContext[connection=" + connection + ", session=" + (session != null) + "]";
+    }
+
+}
@@ -0,0 +1,310 @@
+package org.apache.commons.dbutils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.Callable;
+
+/**
+ * Finds the {@link TransactionContext} of the running code for <code>JdbcUtils</code>,
+ * <code>TxQueryRunner</code> and <code>BaseDao</code>. Three strategies are provided:
+ * <ul>
+ * <li>{@link #threadLocal()}, the default: each thread gets a context when it begins a transaction
+ * or opens a session, and loses it when both have ended, so idle threads hold no slot.</li>
+ * <li>{@link #explicit()}: no context is found implicitly; contexts are passed to
+ * <code>new TxQueryRunner(context)</code>, <code>new BaseDao(context)</code> and the
+ * <code>JdbcUtils</code> methods taking one, so work can hop between threads and executors.</li>
+ * <li>{@link #scopedValues()}: the context is bound for the extent of {@link #call(Callable)} by a
+ * <code>java.lang.ScopedValue</code> where the runtime has one, which is cheap for large numbers of
+ * virtual threads and visible to the subtasks of a structured task scope.</li>
+ * </ul>
+ *
+ * <pre>
+ * JdbcUtils.setContextHolder(TransactionContextHolder.scopedValues());
+ * JdbcUtils.getContextHolder().call(new Callable&lt;Void&gt;() {
+ *     public Void call() throws Exception {
+ *         JdbcUtils.beginTransaction();
+ *         ...
+ *         JdbcUtils.commitTransaction();
+ *         return null;
+ *     }
+ * });
+ * </pre>
+ */
+public abstract class TransactionContextHolder {
+
+    /**
+     * Get the context of the running code
+     *
+     * @return The context, <code>null</code> if none is bound
+     */
+    public abstract TransactionContext get();
+
+    /**
+     * Bind a new context to the running code, when a transaction begins or a session opens
+     * without one
+     *
+     * @return The new context, <code>null</code> if this holder only binds through
+     *         {@link #call(TransactionContext, Callable)}
+     */
+    protected abstract TransactionContext bind();
+
+    /**
+     * Unbind a context bound by {@link #bind()} once its transaction and session have ended
+     *
+     * @param context The context
+     */
+    protected abstract void unbind(TransactionContext context);
+
+    /**
+     * Run work with a context bound. A holder that binds nothing, see {@link #explicit()}, just
+     * runs the work, which then passes the context itself.
+     *
+     * @param context The context
+     * @param work The work
+     * @param <T> The type of the result
+     * @return The result of the work
+     * @throws Exception The exception thrown by the work
+     */
+    public abstract <T> T call(TransactionContext context, Callable<T> work) throws Exception;
+
+    /**
+     * Run work with a new context bound
+     *
+     * @param work The work
+     * @param <T> The type of the result
+     * @return The result of the work
+     * @throws Exception The exception thrown by the work
+     */
+    public <T> T call(Callable<T> work) throws Exception {
+        return this.call(new TransactionContext(), work);
+    }
+
+    /**
+     * Get a holder with one context per thread, see the class description
+     *
+     * @return A new holder
+     */
+    public static TransactionContextHolder threadLocal() {
+        return new ThreadLocalHolder(true);
+    }
+
+    /**
+     * Get a holder that finds no context, for contexts passed explicitly. Its <code>call</code>
+     * runs the work without binding the context.
+     *
+     * @return The holder
+     */
+    public static TransactionContextHolder explicit() {
+        return ExplicitHolder.INSTANCE;
+    }
+
+    /**
+     * Get a holder binding contexts with <code>java.lang.ScopedValue</code>. On runtimes without
+     * scoped values, or with them in preview but not enabled, contexts are bound the same way,
+     * only for the extent of {@link #call(Callable)}, through a thread local.
+     *
+     * @return A new holder
+     */
+    public static TransactionContextHolder scopedValues() {
+        try {
+            return new ScopedValueHolder();
+        } catch (Throwable e) {
+            return new ThreadLocalHolder(false);
+        }
+    }
+
+    /**
+     * Contexts in a thread local
+     */
+    private static final class ThreadLocalHolder extends TransactionContextHolder {
+
+        private final ThreadLocal<TransactionContext> contexts = new ThreadLocal<TransactionContext>();
+
+        /**
+         * The context bound on demand, not by <code>call</code>; only this one is unbound when it
+         * becomes empty
+         */
+        private final ThreadLocal<TransactionContext> onDemand = new ThreadLocal<TransactionContext>();
+
+        /**
+         * Whether contexts are bound on demand, not only by <code>call</code>
+         */
+        private final boolean implicit;
+
+        ThreadLocalHolder(boolean implicit) {
+            this.implicit = implicit;
+        }
+
+        @Override
+        public TransactionContext get() {
+            return contexts.get();
+        }
+
+        @Override
+        protected TransactionContext bind() {
+            if (!implicit) {
+                return null;
+            }
+            TransactionContext context = new TransactionContext();
+            contexts.set(context);
+            onDemand.set(context);
+            return context;
+        }
+
+        @Override
+        protected void unbind(TransactionContext context) {
+            // one bound by call stays bound for its extent
+            if (onDemand.get() == context) {
+                onDemand.remove();
+                if (contexts.get() == context) {
+                    contexts.remove();
+                }
+            }
+        }
+
+        @Override
+        public <T> T call(TransactionContext context, Callable<T> work) throws Exception {
+            TransactionContext previous = contexts.get();
+            contexts.set(context);
+            try {
+                return work.call();
+            } finally {
+                if (previous == null) {
+                    contexts.remove();
+                } else {
+                    contexts.set(previous);
+                }
+            }
+        }
+
+        @Override
+        public String toString() {
+            return implicit ? "TransactionContextHolder[threadLocal]" : "TransactionContextHolder[scoped, thread local]";
+        }
+    }
+
+    /**
+     * No implicit context
+     */
+    private static final class ExplicitHolder extends TransactionContextHolder {
+
+        static final ExplicitHolder INSTANCE = new ExplicitHolder();
+
+        @Override
+        public TransactionContext get() {
+            return null;
+        }
+
+        @Override
+        protected TransactionContext bind() {
+            return null;
+        }
+
+        @Override
+        protected void unbind(TransactionContext context) {
+            // nothing bound
+        }
+
+        @Override
+        public <T> T call(TransactionContext context, Callable<T> work) throws Exception {
+            // contexts are passed explicitly, not bound
+            return work.call();
+        }
+
+        @Override
+        public String toString() {
+            return "TransactionContextHolder[explicit]";
+        }
+    }
+
+    /**
+     * Contexts in a <code>java.lang.ScopedValue</code>, linked reflectively so the library still
+     * runs on Java 8
+     */
+    private static final class ScopedValueHolder extends TransactionContextHolder {
+
+        private final Object scopedValue;
+
+        private final MethodHandle isBound;
+
+        private final MethodHandle get;
+
+        private final MethodHandle where;
+
+        private final MethodHandle run;
+
+        ScopedValueHolder() throws Throwable {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            Class<?> type = Class.forName("java.lang.ScopedValue");
+            Class<?> carrier = Class.forName("java.lang.ScopedValue$Carrier");
+            this.scopedValue = lookup.findStatic(type, "newInstance", MethodType.methodType(type)).invoke();
+            this.isBound = lookup.findVirtual(type, "isBound", MethodType.methodType(boolean.class));
+            this.get = lookup.findVirtual(type, "get", MethodType.methodType(Object.class));
+            this.where = lookup.findStatic(type, "where", MethodType.methodType(carrier, type, Object.class));
+            this.run = lookup.findVirtual(carrier, "run", MethodType.methodType(void.class, Runnable.class));
+            // fails where scoped values are a preview feature that isn't enabled
+            this.get();
+        }
+
+        @Override
+        public TransactionContext get() {
+            try {
+                if ((Boolean) isBound.invoke(scopedValue)) {
+                    return (TransactionContext) get.invoke(scopedValue);
+                }
+                return null;
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        protected TransactionContext bind() {
+            return null;
+        }
+
+        @Override
+        protected void unbind(TransactionContext context) {
+            // bound for the extent of call
+        }
+
+        @Override
+        public <T> T call(TransactionContext context, final Callable<T> work) throws Exception {
+            final Object[] result = new Object[1];
+            final Exception[] failure = new Exception[1];
+            Runnable runnable = new Runnable() {
+                public void run() {
+                    try {
+                        result[0] = work.call();
+                    } catch (Exception e) {
+                        failure[0] = e;
+                    }
+                }
+            };
+            try {
+                run.invoke(where.invoke(scopedValue, context), runnable);
+            } catch (Exception e) {
+                throw e;
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+            @SuppressWarnings("unchecked")
+            T value = (T) result[0];
+            return value;
+        }
+
+        @Override
+        public String toString() {
+            return "TransactionContextHolder[scoped]";
+        }
+    }
+
+}
@@ -2,101 +2,239 @@ package org.apache.commons.dbutils;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 /**
  * The class is to provide <code>Connection</code> and is responsible
- * for closing it.
+ * for closing it. Within a transaction or a {@link JdbcSession} every
+ * call uses the connection of the {@link TransactionContext}, found by
+ * <code>JdbcUtils.getContextHolder()</code> or passed to the constructor.
  * @author ygh
  * 2017年1月17日
  */
 public class TxQueryRunner extends QueryRunner {
 
+    /**
+     * The context passed explicitly, <code>null</code> to use the one of the running code
+     */
+    private final TransactionContext context;
+
+    /**
+     * Constructor for TxQueryRunner
+     */
+    public TxQueryRunner() {
+        super();
+        this.context = null;
+    }
+
+    /**
+     * Constructor for TxQueryRunner that always uses the transaction and session of a given
+     * context, e.g. for work that hops between threads.
+     * 
+     * @param context The context
+     */
+    public TxQueryRunner(TransactionContext context) {
+        this(context, null);
+    }
+
+    /**
+     * Constructor for TxQueryRunner that uses a given context and reuses prepared statements from
+     * a <code>StatementCache</code>.
+     * 
+     * @param context The context, <code>null</code> to use the one of the running code
+     * @param statementCache The cache to reuse prepared statements from, may be <code>null</code>
+     */
+    public TxQueryRunner(TransactionContext context, StatementCache statementCache) {
+        super(null, false, null, statementCache);
+        this.context = context;
+    }
+
+    /**
+     * Constructor for TxQueryRunner that reuses prepared statements from a
+     * <code>StatementCache</code>, most useful for statements executed repeatedly within one
+     * transaction.
+     * 
+     * @param statementCache The cache to reuse prepared statements from
+     */
+    public TxQueryRunner(StatementCache statementCache) {
+        this(null, statementCache);
+    }
+
+    /**
+     * Get the context of the connections
+     * 
+     * @return The context passed to the constructor, else the one of the running code
+     */
+    protected TransactionContext getTransactionContext() {
+        return context != null ? context : JdbcUtils.getContextHolder().get();
+    }
+
     @Override
     public int[] batch(String sql, Object[][] params) throws SQLException {
-        Connection conn = JdbcUtils.getConnection();
-        int[] result = super.batch(conn, sql, params);
-        JdbcUtils.realeaseConnection(conn);
-        return result;
+        Connection conn = JdbcUtils.getConnection(this.getTransactionContext());
+        try {
+            return super.batch(conn, sql, params);
+        } finally {
+            this.close(conn);
+        }
+    }
+
+    @Override
+    public BatchResult batch(String sql, Iterator<Object[]> params, BatchConfiguration config)
+            throws SQLException {
+        Connection conn = JdbcUtils.getConnection(this.getTransactionContext());
+        try {
+            return super.batch(conn, sql, params, config);
+        } finally {
+            this.close(conn);
+        }
     }
 
     @Override
     public <T> T query(String sql, ResultSetHandler<T> rsh, Object... params) throws SQLException {
-        Connection conn = JdbcUtils.getConnection();
-        T result = super.query(conn, sql, rsh, params);
-        JdbcUtils.realeaseConnection(conn);
-        return result;
+        Connection conn = JdbcUtils.getConnection(this.getTransactionContext());
+        try {
+            return super.query(conn, sql, rsh, params);
+        } finally {
+            this.close(conn);
+        }
     }
 
     @Override
     public <T> T query(String sql, ResultSetHandler<T> rsh) throws SQLException {
-        Connection conn = JdbcUtils.getConnection();
-        T result = super.query(conn,sql, rsh);
-        JdbcUtils.realeaseConnection(conn);
-        return result;
+        Connection conn = JdbcUtils.getConnection(this.getTransactionContext());
+        try {
+            return super.query(conn,sql, rsh);
+        } finally {
+            this.close(conn);
+        }
     }
 
     @Override
     public int update(String sql) throws SQLException {
-        Connection conn = JdbcUtils.getConnection();
-        int result = super.update(conn,sql);
-        JdbcUtils.realeaseConnection(conn);
-        return result;
+        Connection conn = JdbcUtils.getConnection(this.getTransactionContext());
+        try {
+            return super.update(conn,sql);
+        } finally {
+            this.close(conn);
+        }
     }
 
     @Override
     public int update(String sql, Object param) throws SQLException {
-        Connection conn = JdbcUtils.getConnection();
-        int result = super.update(conn,sql, param);
-        JdbcUtils.realeaseConnection(conn);
-        return result;
+        Connection conn = JdbcUtils.getConnection(this.getTransactionContext());
+        try {
+            return super.update(conn,sql, param);
+        } finally {
+            this.close(conn);
+        }
     }
 
     @Override
     public int update(String sql, Object... params) throws SQLException {
-        Connection conn = JdbcUtils.getConnection();
-        int result = super.update(conn,sql, params);
-        JdbcUtils.realeaseConnection(conn);
-        return result;
+        Connection conn = JdbcUtils.getConnection(this.getTransactionContext());
+        try {
+            return super.update(conn,sql, params);
+        } finally {
+            this.close(conn);
+        }
     }
 
     @Override
     public <T> T insert(String sql, ResultSetHandler<T> rsh) throws SQLException {
-        Connection conn = JdbcUtils.getConnection();
-        T result = super.insert(conn,sql, rsh);
-        JdbcUtils.realeaseConnection(conn);
-        return result;
+        Connection conn = JdbcUtils.getConnection(this.getTransactionContext());
+        try {
+            return super.insert(conn,sql, rsh);
+        } finally {
+            this.close(conn);
+        }
     }
 
     @Override
     public <T> T insert(String sql, ResultSetHandler<T> rsh, Object... params) throws SQLException {
-        Connection conn = JdbcUtils.getConnection();
-        T result = super.insert(conn,sql, rsh, params);
-        JdbcUtils.realeaseConnection(conn);
-        return result;
+        Connection conn = JdbcUtils.getConnection(this.getTransactionContext());
+        try {
+            return super.insert(conn,sql, rsh, params);
+        } finally {
+            this.close(conn);
+        }
     }
 
     @Override
     public <T> T insertBatch(String sql, ResultSetHandler<T> rsh, Object[][] params) throws SQLException {
-        Connection conn = JdbcUtils.getConnection();
-        T result = super.insertBatch(conn,sql, rsh, params);
-        JdbcUtils.realeaseConnection(conn);
-        return result;
+        Connection conn = JdbcUtils.getConnection(this.getTransactionContext());
+        try {
+            return super.insertBatch(conn,sql, rsh, params);
+        } finally {
+            this.close(conn);
+        }
+    }
+
+    @Override
+    public <T> T insertBatch(String sql, ResultSetHandler<T> rsh, Object[][] params, BatchConfiguration config)
+            throws SQLException {
+        Connection conn = JdbcUtils.getConnection(this.getTransactionContext());
+        try {
+            return super.insertBatch(conn, sql, rsh, params, config);
+        } finally {
+            this.close(conn);
+        }
+    }
+
+    @Override
+    public BatchResult insertBatch(String sql, Iterator<Object[]> params, BatchConfiguration config,
+            RowCallback keys) throws SQLException {
+        Connection conn = JdbcUtils.getConnection(this.getTransactionContext());
+        try {
+            return super.insertBatch(conn, sql, params, config, keys);
+        } finally {
+            this.close(conn);
+        }
     }
 
     @Override
     public int execute(String sql, Object... params) throws SQLException {
-        Connection conn = JdbcUtils.getConnection();
-        int result = super.execute(conn,sql, params);
-        JdbcUtils.realeaseConnection(conn);
-        return result;
+        Connection conn = JdbcUtils.getConnection(this.getTransactionContext());
+        try {
+            return super.execute(conn,sql, params);
+        } finally {
+            this.close(conn);
+        }
     }
 
     @Override
     public <T> List<T> execute(String sql, ResultSetHandler<T> rsh, Object... params) throws SQLException {
-        Connection conn = JdbcUtils.getConnection();
-        List<T> result = super.execute(conn,sql, rsh, params);
-        JdbcUtils.realeaseConnection(conn);
-        return result;
+        Connection conn = JdbcUtils.getConnection(this.getTransactionContext());
+        try {
+            return super.execute(conn,sql, rsh, params);
+        } finally {
+            this.close(conn);
+        }
+    }
+
+    @Override
+    public <T> RowIterator<T> iterate(String sql, RowHandler<T> rh, Object... params) throws SQLException {
+        Connection conn = JdbcUtils.getConnection(this.getTransactionContext());
+        return super.iterate(conn, true, sql, rh, params);
+    }
+
+    @Override
+    public <T> Stream<T> stream(String sql, RowHandler<T> rh, Object... params) throws SQLException {
+        return this.iterate(sql, rh, params).stream();
+    }
+
+    /**
+     * Release the connection through <code>JdbcUtils</code>, so a connection that takes part in the
+     * transaction or session of the context stays open, together with its cached statements.
+     */
+    @Override
+    protected void close(Connection conn) throws SQLException {
+        JdbcUtils.realeaseConnection(this.getTransactionContext(), conn);
+        StatementCache cache = this.getStatementCache();
+        if (cache != null && conn != null && conn.isClosed()) {
+            cache.evict(conn);
+        }
     }
 
 }
@@ -0,0 +1,83 @@
+package org.apache.commons.dbutils.handlers;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.apache.commons.dbutils.BeanMapping;
+import org.apache.commons.dbutils.BeanProcessor;
+import org.apache.commons.dbutils.RowHandler;
+
+/**
+ * The <code>RowHandler</code> implementation to convert each row into a JavaBean. The mapping plan
+ * is looked up on the first row of each <code>ResultSet</code> and reused for the following rows.
+ * The class is thread safe.
+ * 
+ * @param <T> The type of JavaBean
+ */
+public class BeanRowHandler<T> implements RowHandler<T> {
+
+    /**
+     * The default BeanProcessor to use if not supplied in constructor.
+     */
+    private static final BeanProcessor DEFAULT_CONVERT = new BeanProcessor();
+
+    /**
+     * The class of beans created by this handler
+     */
+    private final Class<? extends T> type;
+
+    /**
+     * The BeanProcessor to use when converting rows into beans
+     */
+    private final BeanProcessor convert;
+
+    /**
+     * The plan for the <code>ResultSet</code> seen last
+     */
+    private volatile Current current;
+
+    /**
+     * The constructor of BeanRowHandler
+     * 
+     * @param type The class of beans created by this handler
+     */
+    public BeanRowHandler(Class<? extends T> type) {
+        this(type, DEFAULT_CONVERT);
+    }
+
+    /**
+     * The constructor of BeanRowHandler
+     * 
+     * @param type The class of beans created by this handler
+     * @param convert The BeanProcessor to use when converting rows into beans
+     */
+    public BeanRowHandler(Class<? extends T> type, BeanProcessor convert) {
+        this.type = type;
+        this.convert = convert;
+    }
+
+    public T handle(ResultSet rs) throws SQLException {
+        Current current = this.current;
+        if (current == null || current.rs != rs) {
+            current = new Current(rs, convert.getMapping(rs, type));
+            this.current = current;
+        }
+        return convert.toBean(rs, type, current.mapping);
+    }
+
+    /**
+     * A <code>ResultSet</code> and its mapping plan
+     */
+    private static final class Current {
+
+        final ResultSet rs;
+
+        final BeanMapping mapping;
+
+        Current(ResultSet rs, BeanMapping mapping) {
+            this.rs = rs;
+            this.mapping = mapping;
+        }
+    }
+
+}
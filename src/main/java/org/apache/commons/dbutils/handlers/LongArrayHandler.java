@@ -0,0 +1,75 @@
+package org.apache.commons.dbutils.handlers;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+import org.apache.commons.dbutils.ResultSetHandler;
+
+/**
+ * <code>ResultSetHandler</code> implementation that reads one numeric <code>ResultSet</code>
+ * column of every row into a <code>long[]</code> through <code>getLong</code>, e.g. the
+ * auto-increment keys generated by an insert batch. No object is created per row; SQL
+ * <code>NULL</code> is read as 0. This class is thread safe.
+ */
+public class LongArrayHandler implements ResultSetHandler<long[]> {
+
+    private static final long[] EMPTY = new long[0];
+
+    /**
+     * The column index to retrieve
+     */
+    private final int columnIndex;
+
+    /**
+     * The column name to retrieve. Either columnName or columnIndex will be used, but never both.
+     */
+    private final String columnName;
+
+    /**
+     * Create a new instance of LongArrayHandler reading the first column
+     */
+    public LongArrayHandler() {
+        this(1, null);
+    }
+
+    /**
+     * Create a new instance of LongArrayHandler
+     *
+     * @param columnIndex The index of column to retrieve from the <code>ResultSet</code>
+     */
+    public LongArrayHandler(int columnIndex) {
+        this(columnIndex, null);
+    }
+
+    /**
+     * Create a new instance of LongArrayHandler
+     *
+     * @param columnName The name of column to retrieve from the <code>ResultSet</code>
+     */
+    public LongArrayHandler(String columnName) {
+        this(1, columnName);
+    }
+
+    private LongArrayHandler(int columnIndex, String columnName) {
+        this.columnIndex = columnIndex;
+        this.columnName = columnName;
+    }
+
+    public long[] handle(ResultSet rs) throws SQLException {
+        if (!rs.next()) {
+            return EMPTY;
+        }
+        int column = columnName == null ? columnIndex : rs.findColumn(columnName);
+        long[] values = new long[16];
+        int n = 0;
+        do {
+            if (n == values.length) {
+                values = Arrays.copyOf(values, n * 2);
+            }
+            values[n++] = rs.getLong(column);
+        } while (rs.next());
+        return n == values.length ? values : Arrays.copyOf(values, n);
+    }
+
+}
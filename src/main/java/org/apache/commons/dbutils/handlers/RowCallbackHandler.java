@@ -0,0 +1,42 @@
+package org.apache.commons.dbutils.handlers;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.apache.commons.dbutils.ResultSetHandler;
+import org.apache.commons.dbutils.RowCallback;
+import org.apache.commons.dbutils.RowView;
+
+/**
+ * <code>ResultSetHandler</code> implementation that passes every row of the <code>ResultSet</code>
+ * to a {@link RowCallback} through one reused {@link RowView}, and returns the number of rows seen.
+ * No object is created per row. This class is thread safe if the callback is.
+ */
+public class RowCallbackHandler implements ResultSetHandler<Long> {
+
+    /**
+     * The callback that receives the rows
+     */
+    private final RowCallback callback;
+
+    /**
+     * Create a new instance of RowCallbackHandler
+     *
+     * @param callback The callback that receives the rows
+     */
+    public RowCallbackHandler(RowCallback callback) {
+        if (callback == null) {
+            throw new IllegalArgumentException("callback can not be null");
+        }
+        this.callback = callback;
+    }
+
+    public Long handle(ResultSet rs) throws SQLException {
+        RowView row = new RowView(rs);
+        while (row.next()) {
+            callback.handle(row);
+        }
+        return Long.valueOf(row.getRowNumber());
+    }
+
+}
@@ -0,0 +1,22 @@
+package org.apache.commons.dbutils.handlers.binders;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import org.apache.commons.dbutils.ParameterBinder;
+
+/**
+ * Binds <code>BigDecimal</code> with <code>setBigDecimal</code>
+ */
+public class BigDecimalParameterBinder implements ParameterBinder {
+
+    public boolean match(Class<?> type) {
+        return type.equals(BigDecimal.class);
+    }
+
+    public void bind(PreparedStatement stmt, int index, Object value) throws SQLException {
+        stmt.setBigDecimal(index, (BigDecimal) value);
+    }
+
+}
@@ -0,0 +1,21 @@
+package org.apache.commons.dbutils.handlers.binders;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import org.apache.commons.dbutils.ParameterBinder;
+
+/**
+ * Binds <code>Boolean</code> with <code>setBoolean</code>
+ */
+public class BooleanParameterBinder implements ParameterBinder {
+
+    public boolean match(Class<?> type) {
+        return type.equals(Boolean.class);
+    }
+
+    public void bind(PreparedStatement stmt, int index, Object value) throws SQLException {
+        stmt.setBoolean(index, ((Boolean) value).booleanValue());
+    }
+
+}
@@ -0,0 +1,21 @@
+package org.apache.commons.dbutils.handlers.binders;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import org.apache.commons.dbutils.ParameterBinder;
+
+/**
+ * Binds <code>Byte</code> with <code>setByte</code>
+ */
+public class ByteParameterBinder implements ParameterBinder {
+
+    public boolean match(Class<?> type) {
+        return type.equals(Byte.class);
+    }
+
+    public void bind(PreparedStatement stmt, int index, Object value) throws SQLException {
+        stmt.setByte(index, ((Byte) value).byteValue());
+    }
+
+}
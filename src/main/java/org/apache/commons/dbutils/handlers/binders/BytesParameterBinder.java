@@ -0,0 +1,21 @@
+package org.apache.commons.dbutils.handlers.binders;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import org.apache.commons.dbutils.ParameterBinder;
+
+/**
+ * Binds <code>byte[]</code> with <code>setBytes</code>
+ */
+public class BytesParameterBinder implements ParameterBinder {
+
+    public boolean match(Class<?> type) {
+        return type.equals(byte[].class);
+    }
+
+    public void bind(PreparedStatement stmt, int index, Object value) throws SQLException {
+        stmt.setBytes(index, (byte[]) value);
+    }
+
+}
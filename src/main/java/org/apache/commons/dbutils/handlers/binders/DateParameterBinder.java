@@ -0,0 +1,24 @@
+package org.apache.commons.dbutils.handlers.binders;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Date;
+
+import org.apache.commons.dbutils.ParameterBinder;
+
+/**
+ * Binds <code>java.util.Date</code>, but none of its <code>java.sql</code> subclasses, as a
+ * <code>Timestamp</code>
+ */
+public class DateParameterBinder implements ParameterBinder {
+
+    public boolean match(Class<?> type) {
+        return type.equals(Date.class);
+    }
+
+    public void bind(PreparedStatement stmt, int index, Object value) throws SQLException {
+        stmt.setTimestamp(index, new Timestamp(((Date) value).getTime()));
+    }
+
+}
@@ -0,0 +1,21 @@
+package org.apache.commons.dbutils.handlers.binders;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import org.apache.commons.dbutils.ParameterBinder;
+
+/**
+ * Binds <code>Double</code> with <code>setDouble</code>
+ */
+public class DoubleParameterBinder implements ParameterBinder {
+
+    public boolean match(Class<?> type) {
+        return type.equals(Double.class);
+    }
+
+    public void bind(PreparedStatement stmt, int index, Object value) throws SQLException {
+        stmt.setDouble(index, ((Double) value).doubleValue());
+    }
+
+}
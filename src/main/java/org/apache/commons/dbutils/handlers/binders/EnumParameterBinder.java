@@ -0,0 +1,27 @@
+package org.apache.commons.dbutils.handlers.binders;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import org.apache.commons.dbutils.ParameterBinder;
+
+/**
+ * Binds enum constants by name, the counterpart of <code>StringEmumPropertyHandler</code>. It isn't
+ * registered by default, where enums are bound with <code>setObject</code> as before, since columns
+ * may hold ordinals or driver specific enum types; register it for columns holding the names:
+ * 
+ * <pre>
+ * HandlerRegistry.getDefault().toBuilder().parameterBinder(new EnumParameterBinder()).build()
+ * </pre>
+ */
+public class EnumParameterBinder implements ParameterBinder {
+
+    public boolean match(Class<?> type) {
+        return Enum.class.isAssignableFrom(type);
+    }
+
+    public void bind(PreparedStatement stmt, int index, Object value) throws SQLException {
+        stmt.setString(index, ((Enum<?>) value).name());
+    }
+
+}
@@ -0,0 +1,21 @@
+package org.apache.commons.dbutils.handlers.binders;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import org.apache.commons.dbutils.ParameterBinder;
+
+/**
+ * Binds <code>Float</code> with <code>setFloat</code>
+ */
+public class FloatParameterBinder implements ParameterBinder {
+
+    public boolean match(Class<?> type) {
+        return type.equals(Float.class);
+    }
+
+    public void bind(PreparedStatement stmt, int index, Object value) throws SQLException {
+        stmt.setFloat(index, ((Float) value).floatValue());
+    }
+
+}
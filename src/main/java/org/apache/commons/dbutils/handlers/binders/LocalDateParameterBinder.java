@@ -0,0 +1,23 @@
+package org.apache.commons.dbutils.handlers.binders;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Date;
+import java.time.LocalDate;
+
+import org.apache.commons.dbutils.ParameterBinder;
+
+/**
+ * Binds <code>LocalDate</code> as a <code>java.sql.Date</code>
+ */
+public class LocalDateParameterBinder implements ParameterBinder {
+
+    public boolean match(Class<?> type) {
+        return type.equals(LocalDate.class);
+    }
+
+    public void bind(PreparedStatement stmt, int index, Object value) throws SQLException {
+        stmt.setDate(index, Date.valueOf((LocalDate) value));
+    }
+
+}
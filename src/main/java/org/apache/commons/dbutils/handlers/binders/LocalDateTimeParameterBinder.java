@@ -0,0 +1,23 @@
+package org.apache.commons.dbutils.handlers.binders;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import org.apache.commons.dbutils.ParameterBinder;
+
+/**
+ * Binds <code>LocalDateTime</code> as a <code>Timestamp</code>
+ */
+public class LocalDateTimeParameterBinder implements ParameterBinder {
+
+    public boolean match(Class<?> type) {
+        return type.equals(LocalDateTime.class);
+    }
+
+    public void bind(PreparedStatement stmt, int index, Object value) throws SQLException {
+        stmt.setTimestamp(index, Timestamp.valueOf((LocalDateTime) value));
+    }
+
+}
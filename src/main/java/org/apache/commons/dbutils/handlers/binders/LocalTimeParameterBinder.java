@@ -0,0 +1,23 @@
+package org.apache.commons.dbutils.handlers.binders;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.time.LocalTime;
+
+import org.apache.commons.dbutils.ParameterBinder;
+
+/**
+ * Binds <code>LocalTime</code> as a <code>java.sql.Time</code>, without fraction of second
+ */
+public class LocalTimeParameterBinder implements ParameterBinder {
+
+    public boolean match(Class<?> type) {
+        return type.equals(LocalTime.class);
+    }
+
+    public void bind(PreparedStatement stmt, int index, Object value) throws SQLException {
+        stmt.setTime(index, Time.valueOf((LocalTime) value));
+    }
+
+}
@@ -0,0 +1,22 @@
+package org.apache.commons.dbutils.handlers.binders;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Date;
+
+import org.apache.commons.dbutils.ParameterBinder;
+
+/**
+ * Binds <code>java.sql.Date</code> with <code>setDate</code>
+ */
+public class SqlDateParameterBinder implements ParameterBinder {
+
+    public boolean match(Class<?> type) {
+        return type.equals(Date.class);
+    }
+
+    public void bind(PreparedStatement stmt, int index, Object value) throws SQLException {
+        stmt.setDate(index, (Date) value);
+    }
+
+}
@@ -0,0 +1,21 @@
+package org.apache.commons.dbutils.handlers.binders;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import org.apache.commons.dbutils.ParameterBinder;
+
+/**
+ * Binds <code>String</code> with <code>setString</code>
+ */
+public class StringParameterBinder implements ParameterBinder {
+
+    public boolean match(Class<?> type) {
+        return type.equals(String.class);
+    }
+
+    public void bind(PreparedStatement stmt, int index, Object value) throws SQLException {
+        stmt.setString(index, (String) value);
+    }
+
+}
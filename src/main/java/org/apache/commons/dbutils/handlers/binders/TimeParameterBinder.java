@@ -0,0 +1,22 @@
+package org.apache.commons.dbutils.handlers.binders;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Time;
+
+import org.apache.commons.dbutils.ParameterBinder;
+
+/**
+ * Binds <code>java.sql.Time</code> with <code>setTime</code>
+ */
+public class TimeParameterBinder implements ParameterBinder {
+
+    public boolean match(Class<?> type) {
+        return type.equals(Time.class);
+    }
+
+    public void bind(PreparedStatement stmt, int index, Object value) throws SQLException {
+        stmt.setTime(index, (Time) value);
+    }
+
+}
@@ -0,0 +1,22 @@
+package org.apache.commons.dbutils.handlers.binders;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+import org.apache.commons.dbutils.ParameterBinder;
+
+/**
+ * Binds <code>java.sql.Timestamp</code> with <code>setTimestamp</code>
+ */
+public class TimestampParameterBinder implements ParameterBinder {
+
+    public boolean match(Class<?> type) {
+        return type.equals(Timestamp.class);
+    }
+
+    public void bind(PreparedStatement stmt, int index, Object value) throws SQLException {
+        stmt.setTimestamp(index, (Timestamp) value);
+    }
+
+}
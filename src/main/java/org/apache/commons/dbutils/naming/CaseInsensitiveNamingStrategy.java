@@ -0,0 +1,20 @@
+package org.apache.commons.dbutils.naming;
+
+import java.util.Locale;
+
+import org.apache.commons.dbutils.NamingStrategy;
+
+/**
+ * Match a column to the property with the same name, ignoring case.
+ */
+public class CaseInsensitiveNamingStrategy implements NamingStrategy {
+
+    public String propertyKey(String propertyName) {
+        return propertyName.toLowerCase(Locale.ENGLISH);
+    }
+
+    public String columnKey(String columnName) {
+        return columnName.toLowerCase(Locale.ENGLISH);
+    }
+
+}
@@ -0,0 +1,18 @@
+package org.apache.commons.dbutils.naming;
+
+import org.apache.commons.dbutils.NamingStrategy;
+
+/**
+ * Match a column to the property with exactly the same name. This is the default strategy.
+ */
+public class ExactNamingStrategy implements NamingStrategy {
+
+    public String propertyKey(String propertyName) {
+        return propertyName;
+    }
+
+    public String columnKey(String columnName) {
+        return columnName;
+    }
+
+}
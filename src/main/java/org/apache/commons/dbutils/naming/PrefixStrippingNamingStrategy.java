@@ -0,0 +1,59 @@
+package org.apache.commons.dbutils.naming;
+
+import java.util.Locale;
+
+import org.apache.commons.dbutils.NamingStrategy;
+
+/**
+ * Strip a prefix such as <code>t_</code> or <code>usr_</code> from column labels before matching
+ * them with another strategy. Prefixes are compared ignoring case and only the first matching one
+ * is stripped.
+ * 
+ * <pre>
+ * NamingStrategy naming = new PrefixStrippingNamingStrategy(new SnakeCaseNamingStrategy(), "t_");
+ * </pre>
+ */
+public class PrefixStrippingNamingStrategy implements NamingStrategy {
+
+    /**
+     * The strategy to match the stripped names with
+     */
+    private final NamingStrategy delegate;
+
+    /**
+     * The prefixes to strip, in lower case
+     */
+    private final String[] prefixes;
+
+    /**
+     * Constructor for PrefixStrippingNamingStrategy
+     * 
+     * @param delegate The strategy to match the stripped names with
+     * @param prefixes The column prefixes to strip
+     */
+    public PrefixStrippingNamingStrategy(NamingStrategy delegate, String... prefixes) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("delegate can not be null");
+        }
+        this.delegate = delegate;
+        this.prefixes = new String[prefixes.length];
+        for (int i = 0; i < prefixes.length; i++) {
+            this.prefixes[i] = prefixes[i].toLowerCase(Locale.ENGLISH);
+        }
+    }
+
+    public String propertyKey(String propertyName) {
+        return delegate.propertyKey(propertyName);
+    }
+
+    public String columnKey(String columnName) {
+        for (String prefix : prefixes) {
+            if (columnName.length() > prefix.length()
+                    && columnName.regionMatches(true, 0, prefix, 0, prefix.length())) {
+                return delegate.columnKey(columnName.substring(prefix.length()));
+            }
+        }
+        return delegate.columnKey(columnName);
+    }
+
+}
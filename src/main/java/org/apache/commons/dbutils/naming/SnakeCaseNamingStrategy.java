@@ -0,0 +1,39 @@
+package org.apache.commons.dbutils.naming;
+
+import java.util.Locale;
+
+import org.apache.commons.dbutils.NamingStrategy;
+
+/**
+ * Match snake_case columns to camelCase properties, e.g. <code>USER_NAME</code> or
+ * <code>user_name</code> to <code>userName</code>. Both sides are compared without underscores and
+ * ignoring case, so plain case insensitive matches work too.
+ */
+public class SnakeCaseNamingStrategy implements NamingStrategy {
+
+    public String propertyKey(String propertyName) {
+        return normalize(propertyName);
+    }
+
+    public String columnKey(String columnName) {
+        return normalize(columnName);
+    }
+
+    /**
+     * Lower case a name and remove its underscores
+     * 
+     * @param name The name
+     * @return The normalized name
+     */
+    private static String normalize(String name) {
+        StringBuilder sb = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c != '_') {
+                sb.append(c);
+            }
+        }
+        return sb.toString().toLowerCase(Locale.ENGLISH);
+    }
+
+}
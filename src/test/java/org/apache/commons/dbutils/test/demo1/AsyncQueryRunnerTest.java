@@ -0,0 +1,79 @@
+package org.apache.commons.dbutils.test.demo1;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.dbutils.AsyncQueryRunner;
+import org.apache.commons.dbutils.DbUtils;
+import org.apache.commons.dbutils.QueryRunner;
+import org.apache.commons.dbutils.handlers.ScalarHandler;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * <code>AsyncQueryRunner</code> runs queries on its executor, at most its concurrency bound at a
+ * time, on an embedded H2 database
+ */
+public class AsyncQueryRunnerTest {
+
+    private Connection conn;
+
+    private ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @Before
+    public void setUp() throws SQLException {
+        conn = DriverManager.getConnection("jdbc:h2:mem:async");
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        executor.shutdownNow();
+        DbUtils.close(conn);
+    }
+
+    @Test
+    public void testQuery() throws Exception {
+        AsyncQueryRunner async = new AsyncQueryRunner(new QueryRunner(), executor, 1);
+        CompletableFuture<Integer> result = async.query(conn, "select 42", new ScalarHandler<Integer>());
+        assertEquals(Integer.valueOf(42), result.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testRejectedCallFails() throws Exception {
+        executor.shutdown();
+        final Thread caller = Thread.currentThread();
+        AsyncQueryRunner async = new AsyncQueryRunner(new QueryRunner(), executor, 1);
+        CompletableFuture<Integer> result = async.query(conn, "select 1", new ScalarHandler<Integer>() {
+            @Override
+            public Integer handle(ResultSet rs) throws SQLException {
+                if (Thread.currentThread() == caller) {
+                    throw new AssertionError("ran on the calling thread");
+                }
+                return super.handle(rs);
+            }
+        });
+        try {
+            result.get(1, TimeUnit.SECONDS);
+            fail("the executor is shut down");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof RejectedExecutionException);
+        }
+        // the slot is free again
+        assertEquals(0, async.getActiveCount());
+        assertEquals(0, async.getQueuedCount());
+    }
+
+}
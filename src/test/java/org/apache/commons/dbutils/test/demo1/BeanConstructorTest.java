@@ -0,0 +1,162 @@
+package org.apache.commons.dbutils.test.demo1;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.beans.ConstructorProperties;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.List;
+
+import org.apache.commons.dbutils.BasicRowProcessor;
+import org.apache.commons.dbutils.BeanConstructor;
+import org.apache.commons.dbutils.BeanProcessor;
+import org.apache.commons.dbutils.DbUtils;
+import org.apache.commons.dbutils.QueryRunner;
+import org.apache.commons.dbutils.handlers.BeanHandler;
+import org.apache.commons.dbutils.handlers.BeanListHandler;
+import org.apache.commons.dbutils.test.pojo.User;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Immutable result types are created through the constructor <code>BeanConstructor</code>
+ * selects, JavaBeans through their no-arg constructor and setters
+ */
+public class BeanConstructorTest {
+
+    private Connection conn;
+
+    private QueryRunner qr = new QueryRunner();
+
+    @Before
+    public void setUp() throws SQLException {
+        conn = DriverManager.getConnection("jdbc:h2:mem:beanConstructor;DATABASE_TO_LOWER=TRUE");
+        qr.update(conn, "create table s_user (u_id int primary key, uname varchar(20), sex varchar(2))");
+        qr.update(conn, "insert into s_user values (1, 'tom', 'm'), (2, 'ann', 'f')");
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        DbUtils.close(conn);
+    }
+
+    @Test
+    public void testFind() {
+        assertNotNull(BeanConstructor.find(ImmutableUser.class));
+        // a public no-arg constructor makes a JavaBean, even next to an annotated one
+        assertNull(BeanConstructor.find(AnnotatedBean.class));
+        assertNull(BeanConstructor.find(User.class));
+    }
+
+    @Test
+    public void testImmutableType() throws SQLException {
+        List<ImmutableUser> users = qr.query(conn, "select u_id, uname from s_user order by u_id",
+                new BeanListHandler<ImmutableUser>(ImmutableUser.class));
+        assertEquals(2, users.size());
+        assertEquals(1, users.get(0).getU_id());
+        assertEquals("tom", users.get(0).getUname());
+        // no column for the parameter, it gets the default
+        assertNull(users.get(1).getSex());
+        assertEquals("ann", users.get(1).getUname());
+    }
+
+    @Test
+    public void testBeanWithNoArgConstructorUsesSetters() throws SQLException {
+        AnnotatedBean bean = qr.query(conn, "select u_id, uname from s_user where u_id = 2",
+                new BeanHandler<AnnotatedBean>(AnnotatedBean.class));
+        assertEquals(2, bean.getU_id());
+        assertEquals("ann", bean.getUname());
+        assertTrue(bean.isBySetter());
+    }
+
+    @Test
+    public void testOverriddenNewInstance() throws SQLException {
+        final int[] created = new int[1];
+        BeanProcessor bp = new BeanProcessor() {
+            @Override
+            protected <T> T newInstance(Class<T> c) throws SQLException {
+                created[0]++;
+                return c.cast(new ImmutableUser(0, null, "x"));
+            }
+        };
+        ImmutableUser user = qr.query(conn, "select u_id, uname from s_user where u_id = 1",
+                new BeanHandler<ImmutableUser>(ImmutableUser.class, new BasicRowProcessor(bp)));
+        assertEquals(1, created[0]);
+        // created by the override, no setters to populate it
+        assertEquals(0, user.getU_id());
+        assertEquals("x", user.getSex());
+    }
+
+    public static class ImmutableUser {
+
+        private final int u_id;
+
+        private final String uname;
+
+        private final String sex;
+
+        @ConstructorProperties({ "u_id", "uname", "sex" })
+        public ImmutableUser(int u_id, String uname, String sex) {
+            this.u_id = u_id;
+            this.uname = uname;
+            this.sex = sex;
+        }
+
+        public int getU_id() {
+            return u_id;
+        }
+
+        public String getUname() {
+            return uname;
+        }
+
+        public String getSex() {
+            return sex;
+        }
+    }
+
+    public static class AnnotatedBean {
+
+        private int u_id;
+
+        private String uname;
+
+        private boolean bySetter;
+
+        public AnnotatedBean() {
+        }
+
+        @ConstructorProperties({ "u_id", "uname" })
+        public AnnotatedBean(int u_id, String uname) {
+            this.u_id = u_id;
+            this.uname = uname;
+        }
+
+        public int getU_id() {
+            return u_id;
+        }
+
+        public void setU_id(int u_id) {
+            this.u_id = u_id;
+            this.bySetter = true;
+        }
+
+        public String getUname() {
+            return uname;
+        }
+
+        public void setUname(String uname) {
+            this.uname = uname;
+        }
+
+        public boolean isBySetter() {
+            return bySetter;
+        }
+    }
+
+}
@@ -0,0 +1,115 @@
+package org.apache.commons.dbutils.test.demo1;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+
+import org.apache.commons.dbutils.BasicRowProcessor;
+import org.apache.commons.dbutils.BeanProcessor;
+import org.apache.commons.dbutils.DbUtils;
+import org.apache.commons.dbutils.HandlerRegistry;
+import org.apache.commons.dbutils.PropertyHandler;
+import org.apache.commons.dbutils.QueryRunner;
+import org.apache.commons.dbutils.handlers.BeanHandler;
+import org.apache.commons.dbutils.handlers.BeanListHandler;
+import org.apache.commons.dbutils.test.pojo.User;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The mapping plans of <code>BeanProcessor</code> are cached per bean class and column labels, on
+ * an embedded H2 database
+ */
+public class BeanProcessorCacheTest {
+
+    private Connection conn;
+
+    private QueryRunner qr = new QueryRunner();
+
+    @Before
+    public void setUp() throws SQLException {
+        conn = DriverManager.getConnection("jdbc:h2:mem:beanCache;DATABASE_TO_LOWER=TRUE");
+        qr.update(conn, "create table s_user (u_id int primary key, uname varchar(20), sex varchar(2))");
+        qr.update(conn, "insert into s_user values (1, 'tom', 'm'), (2, 'ann', 'f')");
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        DbUtils.close(conn);
+    }
+
+    @Test
+    public void testSameShapeHitsCache() throws SQLException {
+        BeanProcessor bp = new BeanProcessor();
+        BeanListHandler<User> handler = new BeanListHandler<User>(User.class, new BasicRowProcessor(bp));
+        List<User> first = qr.query(conn, "select u_id, uname, sex from s_user order by u_id", handler);
+        List<User> second = qr.query(conn, "select u_id, uname, sex from s_user order by u_id", handler);
+        assertEquals(2, second.size());
+        assertEquals("tom", first.get(0).getUname());
+        assertEquals("f", second.get(1).getSex());
+        assertEquals(1, bp.getMappingCache().size());
+        assertEquals(1, bp.getMappingCache().getHitCount());
+    }
+
+    @Test
+    public void testOtherColumnsGetOwnPlan() throws SQLException {
+        BeanProcessor bp = new BeanProcessor();
+        BasicRowProcessor rp = new BasicRowProcessor(bp);
+        qr.query(conn, "select u_id, uname, sex from s_user where u_id = 1", new BeanHandler<User>(User.class, rp));
+        User user = qr.query(conn, "select u_id, sex from s_user where u_id = 1",
+                new BeanHandler<User>(User.class, rp));
+        assertEquals(Integer.valueOf(1), user.getU_id());
+        assertEquals("m", user.getSex());
+        // a plan for other columns must not be reused
+        assertNull(user.getUname());
+        assertEquals(2, bp.getMappingCache().size());
+        assertEquals(0, bp.getMappingCache().getHitCount());
+    }
+
+    @Test
+    public void testBoundedCacheStaysCorrect() throws SQLException {
+        BeanProcessor bp = new BeanProcessor(new HashMap<String, String>(), 1);
+        BasicRowProcessor rp = new BasicRowProcessor(bp);
+        for (int i = 0; i < 3; i++) {
+            User full = qr.query(conn, "select u_id, uname, sex from s_user where u_id = 2",
+                    new BeanHandler<User>(User.class, rp));
+            User part = qr.query(conn, "select uname from s_user where u_id = 2",
+                    new BeanHandler<User>(User.class, rp));
+            assertEquals("ann", full.getUname());
+            assertEquals("f", full.getSex());
+            assertEquals("ann", part.getUname());
+            assertNull(part.getSex());
+        }
+        assertEquals(1, bp.getMappingCache().size());
+        assertTrue(bp.getMappingCache().getEvictionCount() > 0);
+    }
+
+    @Test
+    public void testHandlerAskedAgainForLaterValues() throws SQLException {
+        qr.update(conn, "update s_user set uname = 'x:tom' where u_id = 1");
+        // matches on the content, only prefixed names
+        PropertyHandler unprefix = new PropertyHandler() {
+            public boolean match(Class<?> parameter, Object value) {
+                return parameter == String.class && value instanceof String && ((String) value).startsWith("x:");
+            }
+
+            public Object apply(Class<?> parameter, Object value) {
+                return ((String) value).substring(2);
+            }
+        };
+        BeanProcessor bp = new BeanProcessor(HandlerRegistry.getDefault().toBuilder().propertyHandler(unprefix, 1)
+                .build());
+        List<User> users = qr.query(conn, "select u_id, uname, sex from s_user order by u_id",
+                new BeanListHandler<User>(User.class, new BasicRowProcessor(bp)));
+        assertEquals("tom", users.get(0).getUname());
+        assertEquals("ann", users.get(1).getUname());
+    }
+
+}
@@ -0,0 +1,317 @@
+package org.apache.commons.dbutils.test.demo1;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import org.apache.commons.dbutils.ConnectionPool;
+import org.apache.commons.dbutils.QueryRunner;
+import org.apache.commons.dbutils.RowHandler;
+import org.apache.commons.dbutils.handlers.ScalarHandler;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Borrowing, returning, handing off and dropping the connections of a <code>ConnectionPool</code>,
+ * on an embedded H2 database
+ */
+public class ConnectionPoolTest {
+
+    private ConnectionPool pool;
+
+    private ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    /**
+     * Opens H2 connections for <code>jdbc:flaky:</code> URLs that fail as the test says
+     */
+    public static class FlakyDriver implements Driver {
+
+        private static final String PREFIX = "jdbc:flaky:";
+
+        /**
+         * Whether connections fail with a communication error
+         */
+        static volatile boolean linkDown;
+
+        /**
+         * Whether new connections fail to report their isolation level
+         */
+        static volatile boolean isolationFails;
+
+        static final AtomicInteger closed = new AtomicInteger();
+
+        public Connection connect(String url, Properties info) throws SQLException {
+            if (!acceptsURL(url)) {
+                return null;
+            }
+            final Connection raw = DriverManager.getConnection("jdbc:h2:" + url.substring(PREFIX.length()), info);
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[] { Connection.class }, new InvocationHandler() {
+                        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                            String name = method.getName();
+                            if (name.equals("close")) {
+                                closed.incrementAndGet();
+                            } else if (linkDown && !name.equals("isClosed")) {
+                                throw new SQLException("Communication link failure", "08S01");
+                            } else if (isolationFails && name.equals("getTransactionIsolation")) {
+                                throw new SQLException("Can't read the isolation level");
+                            }
+                            try {
+                                return method.invoke(raw, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getCause();
+                            }
+                        }
+                    });
+        }
+
+        public boolean acceptsURL(String url) {
+            return url.startsWith(PREFIX);
+        }
+
+        public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+            return new DriverPropertyInfo[0];
+        }
+
+        public int getMajorVersion() {
+            return 1;
+        }
+
+        public int getMinorVersion() {
+            return 0;
+        }
+
+        public boolean jdbcCompliant() {
+            return false;
+        }
+
+        public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+            throw new SQLFeatureNotSupportedException();
+        }
+    }
+
+    @BeforeClass
+    public static void registerDriver() throws SQLException {
+        DriverManager.registerDriver(new FlakyDriver());
+    }
+
+    @Before
+    public void setUp() throws SQLException {
+        FlakyDriver.linkDown = false;
+        FlakyDriver.isolationFails = false;
+        pool = new ConnectionPool.Builder().name("test").jdbcUrl("jdbc:flaky:mem:pool;DB_CLOSE_DELAY=-1")
+                .minIdle(0).maxPoolSize(2).connectionTimeoutMillis(200).build();
+        new QueryRunner(pool).update("create table t (id int primary key)");
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        executor.shutdownNow();
+        FlakyDriver.linkDown = false;
+        FlakyDriver.isolationFails = false;
+        new QueryRunner(pool).update("drop table t");
+        pool.close();
+    }
+
+    @Test
+    public void testBorrowAndReturn() throws SQLException {
+        Connection conn = pool.getConnection();
+        assertEquals(1, pool.getActiveCount());
+        conn.setAutoCommit(false);
+        new QueryRunner().update(conn, "insert into t values (1)");
+        conn.close();
+        assertTrue(conn.isClosed());
+        assertEquals(0, pool.getActiveCount());
+        assertEquals(1, pool.getIdleCount());
+
+        // the same connection, rolled back and in auto-commit mode again
+        Connection again = pool.getConnection();
+        try {
+            assertEquals(1, pool.getTotalCount());
+            assertTrue(again.getAutoCommit());
+            assertEquals(Long.valueOf(0), new QueryRunner().query(again, "select count(*) from t",
+                    new ScalarHandler<Long>()));
+        } finally {
+            again.close();
+        }
+    }
+
+    @Test
+    public void testHandoff() throws Exception {
+        final Connection first = pool.getConnection();
+        Connection second = pool.getConnection();
+        try {
+            Future<Boolean> waiter = executor.submit(new Callable<Boolean>() {
+                public Boolean call() throws SQLException {
+                    Connection conn = pool.getConnection();
+                    try {
+                        return Boolean.valueOf(conn.isValid(1));
+                    } finally {
+                        conn.close();
+                    }
+                }
+            });
+            Thread.sleep(50);
+            assertEquals(1, pool.getWaitingCount());
+            first.close();
+            assertTrue(waiter.get(1, TimeUnit.SECONDS));
+            assertEquals(2, pool.getTotalCount());
+        } finally {
+            second.close();
+        }
+    }
+
+    @Test
+    public void testTimeout() throws SQLException {
+        Connection first = pool.getConnection();
+        Connection second = pool.getConnection();
+        long start = System.nanoTime();
+        try {
+            pool.getConnection();
+            fail("the pool is exhausted");
+        } catch (SQLTransientConnectionException e) {
+            assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(150));
+            assertEquals(1, pool.getTimeoutCount());
+        } finally {
+            first.close();
+            second.close();
+        }
+    }
+
+    @Test
+    public void testBrokenConnectionIsDropped() throws SQLException {
+        Connection conn = pool.getConnection();
+        FlakyDriver.linkDown = true;
+        try {
+            conn.createStatement();
+            fail("the link is down");
+        } catch (SQLException e) {
+            assertEquals("08S01", e.getSQLState());
+        }
+        FlakyDriver.linkDown = false;
+        conn.close();
+        assertEquals(0, pool.getTotalCount());
+
+        Connection fresh = pool.getConnection();
+        try {
+            assertTrue(fresh.isValid(1));
+        } finally {
+            fresh.close();
+        }
+    }
+
+    @Test
+    public void testAbortedConnectionIsDropped() throws SQLException {
+        Connection conn = pool.getConnection();
+        conn.abort(executor);
+        assertTrue(conn.isClosed());
+        assertEquals(0, pool.getTotalCount());
+    }
+
+    @Test
+    public void testFailedOpenClosesConnection() throws SQLException {
+        // take the idle connection, so the next borrower opens one
+        Connection held = pool.getConnection();
+        int closed = FlakyDriver.closed.get();
+        FlakyDriver.isolationFails = true;
+        try {
+            pool.getConnection();
+            fail("the isolation level can't be read");
+        } catch (SQLException e) {
+            assertEquals("Can't read the isolation level", e.getMessage());
+        } finally {
+            FlakyDriver.isolationFails = false;
+            held.close();
+        }
+        assertEquals(closed + 1, FlakyDriver.closed.get());
+        assertEquals(1, pool.getTotalCount());
+    }
+
+    @Test
+    public void testObjectsLeadBackToHandle() throws SQLException {
+        Connection conn = pool.getConnection();
+        try {
+            PreparedStatement stmt = conn.prepareStatement("select id from t");
+            assertSame(conn, stmt.getConnection());
+            ResultSet rs = stmt.executeQuery();
+            assertSame(stmt, rs.getStatement());
+            assertFalse(rs.next());
+            assertSame(conn, conn.getMetaData().getConnection());
+            assertSame(conn, conn.createStatement().getConnection());
+        } finally {
+            conn.close();
+        }
+        assertEquals(1, pool.getIdleCount());
+    }
+
+    @Test
+    public void testClosedStatementsAreForgotten() throws Exception {
+        Connection conn = pool.getConnection();
+        Statement open;
+        try {
+            for (int i = 0; i < 100; i++) {
+                conn.prepareStatement("select id from t").close();
+            }
+            open = conn.createStatement();
+            // only the statement left open is still tracked by the handle
+            InvocationHandler handle = Proxy.getInvocationHandler(conn);
+            Field statements = handle.getClass().getDeclaredField("statements");
+            statements.setAccessible(true);
+            assertEquals(1, ((Set<?>) statements.get(handle)).size());
+        } finally {
+            conn.close();
+        }
+        assertTrue(open.isClosed());
+    }
+
+    @Test
+    public void testFailedIterateReturnsConnection() throws SQLException {
+        QueryRunner qr = new QueryRunner(pool) {
+            @Override
+            protected ResultSet wrap(ResultSet rs) {
+                throw new IllegalStateException("can't wrap");
+            }
+        };
+        try {
+            qr.iterate("select id from t", new RowHandler<Integer>() {
+                public Integer handle(ResultSet rs) throws SQLException {
+                    return rs.getInt(1);
+                }
+            });
+            fail("the result set can't be wrapped");
+        } catch (IllegalStateException e) {
+            assertEquals("can't wrap", e.getMessage());
+        }
+        assertEquals(0, pool.getActiveCount());
+    }
+
+}
@@ -0,0 +1,200 @@
+package org.apache.commons.dbutils.test.demo1;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.dbutils.ConnectionPool;
+import org.apache.commons.dbutils.Deadline;
+import org.apache.commons.dbutils.GatedDataSource;
+import org.apache.commons.dbutils.JdbcUtils;
+import org.apache.commons.dbutils.QueryRunner;
+import org.apache.commons.dbutils.StatementCache;
+import org.apache.commons.dbutils.handlers.ScalarHandler;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * A {@link Deadline} bounds connection acquisition and cancels statements still running when it
+ * passes, on an embedded H2 database
+ */
+public class DeadlineTest {
+
+    /**
+     * Runs for minutes unless cancelled
+     */
+    private static final String SLOW_SQL = "select sum(x) from system_range(1, ?)";
+
+    private static final long SLOW = 3000000000L;
+
+    private ConnectionPool pool;
+
+    @Before
+    public void setUp() {
+        pool = new ConnectionPool.Builder().name("deadline").jdbcUrl("jdbc:h2:mem:deadline;DB_CLOSE_DELAY=-1")
+                .minIdle(0).maxPoolSize(1).connectionTimeoutMillis(5000).build();
+    }
+
+    @After
+    public void tearDown() {
+        JdbcUtils.setDataSource(null);
+        pool.close();
+    }
+
+    private static long millisSince(long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    @Test
+    public void testNesting() {
+        Deadline outer = Deadline.start(100);
+        try {
+            Deadline inner = Deadline.start(10000);
+            try {
+                assertSame(inner, Deadline.current());
+                // never later than the outer deadline
+                assertTrue(inner.remainingMillis() <= 100);
+            } finally {
+                inner.close();
+            }
+            assertSame(outer, Deadline.current());
+        } finally {
+            outer.close();
+        }
+        assertNull(Deadline.current());
+    }
+
+    @Test
+    public void testExpiryCancelsRunningStatement() throws SQLException {
+        QueryRunner qr = new QueryRunner(pool);
+        long start = System.nanoTime();
+        Deadline deadline = Deadline.start(200);
+        try {
+            qr.query(SLOW_SQL, new ScalarHandler<Number>(), SLOW);
+            fail("the statement is cancelled");
+        } catch (SQLException e) {
+            // before the query timeout of a whole second
+            assertTrue(millisSince(start) < 900);
+        } finally {
+            deadline.close();
+        }
+        // the connection went back to the pool and still works
+        assertEquals(0, pool.getActiveCount());
+        assertEquals(55, qr.query(SLOW_SQL, new ScalarHandler<Number>(), 10L).intValue());
+    }
+
+    @Test
+    public void testCancelledStatementIsNotReused() throws SQLException {
+        StatementCache cache = new StatementCache();
+        QueryRunner qr = new QueryRunner(null, false, null, cache);
+        Connection conn = pool.getConnection();
+        try {
+            qr.query(conn, SLOW_SQL, new ScalarHandler<Number>(), 10L);
+            assertEquals(1, cache.size());
+            Deadline deadline = Deadline.start(200);
+            try {
+                qr.query(conn, SLOW_SQL, new ScalarHandler<Number>(), SLOW);
+                fail("the statement is cancelled");
+            } catch (SQLException e) {
+                // expected
+            } finally {
+                deadline.close();
+            }
+            // closed rather than cached, so a late cancel can't hit the next query
+            assertEquals(0, cache.size());
+            long misses = cache.getMissCount();
+            assertEquals(55, qr.query(conn, SLOW_SQL, new ScalarHandler<Number>(), 10L).intValue());
+            assertEquals(misses + 1, cache.getMissCount());
+        } finally {
+            conn.close();
+        }
+    }
+
+    @Test
+    public void testReleasedStatementIsReused() throws SQLException {
+        StatementCache cache = new StatementCache();
+        QueryRunner qr = new QueryRunner(null, false, null, cache);
+        Connection conn = pool.getConnection();
+        try {
+            Deadline deadline = Deadline.start(10000);
+            try {
+                qr.query(conn, SLOW_SQL, new ScalarHandler<Number>(), 10L);
+            } finally {
+                deadline.close();
+            }
+            long hits = cache.getHitCount();
+            qr.query(conn, SLOW_SQL, new ScalarHandler<Number>(), 10L);
+            assertEquals(hits + 1, cache.getHitCount());
+        } finally {
+            conn.close();
+        }
+    }
+
+    @Test
+    public void testExpiredDeadlineFailsAcquisition() throws SQLException {
+        JdbcUtils.setDataSource(pool);
+        GatedDataSource gated = new GatedDataSource(pool, 1, 5000);
+        Deadline deadline = Deadline.start(0);
+        try {
+            try {
+                pool.getConnection();
+                fail("the deadline has passed");
+            } catch (SQLTimeoutException e) {
+                // expected
+            }
+            try {
+                gated.getConnection();
+                fail("the deadline has passed");
+            } catch (SQLTimeoutException e) {
+                // expected
+            }
+            try {
+                JdbcUtils.getConnection();
+                fail("the deadline has passed");
+            } catch (SQLTimeoutException e) {
+                // expected
+            }
+        } finally {
+            deadline.close();
+        }
+        assertEquals(0, pool.getActiveCount());
+        assertEquals(0, gated.getActiveCount());
+    }
+
+    @Test
+    public void testDeadlineShortensWait() throws SQLException {
+        // holds the only permit and the only pooled connection
+        GatedDataSource gated = new GatedDataSource(pool, 1, 5000);
+        Connection held = gated.getConnection();
+        try {
+            long start = System.nanoTime();
+            Deadline deadline = Deadline.start(150);
+            try {
+                pool.getConnection();
+                fail("the pool is exhausted");
+            } catch (SQLTimeoutException e) {
+                // the deadline, not the connection timeout of 5 seconds
+                assertTrue(millisSince(start) < 2000);
+            }
+            try {
+                gated.getConnection();
+                fail("no permit is free");
+            } catch (SQLTimeoutException e) {
+                assertTrue(millisSince(start) < 2000);
+            } finally {
+                deadline.close();
+            }
+        } finally {
+            held.close();
+        }
+    }
+
+}
@@ -0,0 +1,132 @@
+package org.apache.commons.dbutils.test.demo1;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.dbutils.GatedDataSource;
+import org.apache.commons.dbutils.JdbcUtils;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * A <code>GatedDataSource</code> lets a bounded number of connections be in use at a time, also
+ * when <code>JdbcUtils</code> puts one in front of its <code>DataSource</code>, on an embedded H2
+ * database
+ */
+public class GatedDataSourceTest {
+
+    private JdbcDataSource ds;
+
+    private ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @Before
+    public void setUp() {
+        ds = new JdbcDataSource();
+        ds.setURL("jdbc:h2:mem:gated;DB_CLOSE_DELAY=-1");
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+        JdbcUtils.setConnectionPermits(0, 0);
+        JdbcUtils.setDataSource(null);
+    }
+
+    private static void assertNoPermit(GatedDataSource gated) throws SQLException {
+        try {
+            gated.getConnection().close();
+            fail("no permit is free");
+        } catch (SQLTransientConnectionException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testPermitsBoundConnections() throws Exception {
+        final GatedDataSource gated = new GatedDataSource(ds, 2, 100);
+        Connection first = gated.getConnection();
+        Connection second = gated.getConnection();
+        assertEquals(2, gated.getActiveCount());
+        long start = System.nanoTime();
+        assertNoPermit(gated);
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(80));
+
+        // a waiter gets the permit given back
+        gated.setPermits(2, 1000);
+        Future<Boolean> waiter = executor.submit(new Callable<Boolean>() {
+            public Boolean call() throws SQLException {
+                Connection conn = gated.getConnection();
+                try {
+                    return Boolean.valueOf(conn.isValid(1));
+                } finally {
+                    conn.close();
+                }
+            }
+        });
+        Thread.sleep(50);
+        assertEquals(1, gated.getWaitingCount());
+        first.close();
+        // closing twice gives back one permit
+        first.close();
+        assertTrue(waiter.get(1, TimeUnit.SECONDS));
+        second.close();
+        assertEquals(0, gated.getActiveCount());
+    }
+
+    @Test
+    public void testSetPermits() throws SQLException {
+        GatedDataSource gated = new GatedDataSource(ds, 1, 50);
+        Connection first = gated.getConnection();
+        gated.setPermits(2, 50);
+        Connection second = gated.getConnection();
+        assertNoPermit(gated);
+
+        // connections in use keep their permits until closed
+        gated.setPermits(1, 50);
+        assertEquals(2, gated.getActiveCount());
+        first.close();
+        assertNoPermit(gated);
+        second.close();
+        gated.getConnection().close();
+        assertEquals(0, gated.getActiveCount());
+    }
+
+    @Test
+    public void testConnectionPermitsKeepGate() throws SQLException {
+        JdbcUtils.setDataSource(ds);
+        JdbcUtils.setConnectionPermits(1, 50);
+        Connection held = JdbcUtils.getConnection();
+        try {
+            // setting the bound again doesn't hand out a fresh gate
+            JdbcUtils.setConnectionPermits(1, 50);
+            try {
+                JdbcUtils.getConnection().close();
+                fail("the only permit is in use");
+            } catch (SQLTransientConnectionException e) {
+                // expected
+            }
+            JdbcUtils.setConnectionPermits(2, 50);
+            JdbcUtils.getConnection().close();
+        } finally {
+            held.close();
+        }
+        JdbcUtils.setConnectionPermits(0, 0);
+        Connection first = JdbcUtils.getConnection();
+        Connection second = JdbcUtils.getConnection();
+        first.close();
+        second.close();
+    }
+
+}
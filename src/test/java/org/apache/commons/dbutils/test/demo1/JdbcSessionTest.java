@@ -0,0 +1,139 @@
+package org.apache.commons.dbutils.test.demo1;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import org.apache.commons.dbutils.ConnectionPool;
+import org.apache.commons.dbutils.JdbcSession;
+import org.apache.commons.dbutils.JdbcUtils;
+import org.apache.commons.dbutils.QueryRunner;
+import org.apache.commons.dbutils.TxQueryRunner;
+import org.apache.commons.dbutils.handlers.ScalarHandler;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * A <code>JdbcSession</code> pins one connection to the running code, shared by nested sessions
+ * and by the transactions begun within it, on an embedded H2 database
+ */
+public class JdbcSessionTest {
+
+    private ConnectionPool pool;
+
+    private TxQueryRunner qr = new TxQueryRunner();
+
+    @Before
+    public void setUp() throws SQLException {
+        pool = new ConnectionPool.Builder().name("session").jdbcUrl("jdbc:h2:mem:session;DB_CLOSE_DELAY=-1")
+                .minIdle(0).maxPoolSize(2).connectionTimeoutMillis(200).build();
+        JdbcUtils.setDataSource(pool);
+        new QueryRunner(pool).update("create table t (id int primary key)");
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        JdbcUtils.setDataSource(null);
+        new QueryRunner(pool).update("drop table t");
+        pool.close();
+    }
+
+    private long count() throws SQLException {
+        return new QueryRunner(pool).query("select count(*) from t", new ScalarHandler<Long>());
+    }
+
+    @Test
+    public void testNestedSessionsShareConnection() throws SQLException {
+        JdbcSession outer = JdbcUtils.openSession();
+        Connection conn = outer.getConnection();
+        JdbcSession inner = JdbcUtils.openSession();
+        assertSame(outer, inner);
+        assertSame(conn, JdbcUtils.getConnection());
+        // not closed, it belongs to the session
+        JdbcUtils.realeaseConnection(conn);
+        assertFalse(conn.isClosed());
+        inner.close();
+        assertTrue(outer.isOpen());
+        assertEquals(1, pool.getActiveCount());
+        outer.close();
+        assertFalse(outer.isOpen());
+        assertEquals(0, pool.getActiveCount());
+        try {
+            outer.getConnection();
+            fail("the session is closed");
+        } catch (SQLException e) {
+            assertEquals("The session is closed", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testStatementsUseSessionConnection() throws SQLException {
+        JdbcSession session = JdbcUtils.openSession();
+        try {
+            qr.update("insert into t values (1)");
+            qr.update("insert into t values (2)");
+            assertEquals(Long.valueOf(2), qr.query("select count(*) from t", new ScalarHandler<Long>()));
+            // one connection borrowed for all of them
+            assertEquals(1, pool.getActiveCount());
+            assertEquals(1, pool.getTotalCount());
+        } finally {
+            session.close();
+        }
+        assertEquals(0, pool.getActiveCount());
+    }
+
+    @Test
+    public void testTransactionRunsOnSessionConnection() throws SQLException {
+        JdbcSession session = JdbcUtils.openSession();
+        try {
+            Connection conn = session.getConnection();
+            JdbcUtils.beginTransaction();
+            assertSame(conn, JdbcUtils.getConnection());
+            assertFalse(conn.getAutoCommit());
+            qr.update("insert into t values (1)");
+            JdbcUtils.rollback();
+            // handed back to the session in auto-commit mode
+            assertFalse(conn.isClosed());
+            assertTrue(conn.getAutoCommit());
+            assertSame(conn, JdbcUtils.getConnection());
+
+            JdbcUtils.beginTransaction();
+            qr.update("insert into t values (2)");
+            JdbcUtils.commitTransaction();
+            assertTrue(conn.getAutoCommit());
+            assertEquals(1, pool.getActiveCount());
+        } finally {
+            session.close();
+        }
+        assertEquals(0, pool.getActiveCount());
+        assertEquals(1, count());
+    }
+
+    @Test
+    public void testSessionClosedDuringTransaction() throws SQLException {
+        JdbcSession session = JdbcUtils.openSession();
+        JdbcUtils.beginTransaction();
+        Connection conn;
+        try {
+            conn = JdbcUtils.getConnection();
+            qr.update("insert into t values (1)");
+        } finally {
+            session.close();
+        }
+        // the transaction still runs on the connection
+        assertFalse(conn.isClosed());
+        assertEquals(1, pool.getActiveCount());
+        qr.update("insert into t values (2)");
+        JdbcUtils.commitTransaction();
+        assertTrue(conn.isClosed());
+        assertEquals(0, pool.getActiveCount());
+        assertEquals(2, count());
+    }
+
+}
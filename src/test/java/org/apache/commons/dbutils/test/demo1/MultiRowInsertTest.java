@@ -0,0 +1,119 @@
+package org.apache.commons.dbutils.test.demo1;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.dbutils.BatchConfiguration;
+import org.apache.commons.dbutils.DatabaseCapabilities;
+import org.apache.commons.dbutils.DbUtils;
+import org.apache.commons.dbutils.QueryRunner;
+import org.apache.commons.dbutils.handlers.ScalarHandler;
+import org.apache.commons.dbutils.test.pojo.User;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Inserts rewritten into multi-row inserts return the generated key of every row, in row order,
+ * on an embedded H2 database
+ */
+public class MultiRowInsertTest {
+
+    private static final String SQL = "insert into s_user (uname, sex) values (?, ?)";
+
+    private Connection conn;
+
+    /**
+     * The SQL of every statement prepared on the connection
+     */
+    private List<String> prepared = new ArrayList<String>();
+
+    private QueryRunner qr = new QueryRunner();
+
+    @Before
+    public void setUp() throws SQLException {
+        final Connection raw = DriverManager.getConnection("jdbc:h2:mem:multiRowInsert;DATABASE_TO_LOWER=TRUE");
+        conn = (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { Connection.class }, new InvocationHandler() {
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        if (method.getName().equals("prepareStatement")) {
+                            prepared.add((String) args[0]);
+                        }
+                        try {
+                            return method.invoke(raw, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    }
+                });
+        qr.update(conn, "create table s_user (u_id int auto_increment primary key, uname varchar(20),"
+                + " sex varchar(2))");
+        // keys don't start at 1, nor follow the row numbers
+        qr.update(conn, "alter table s_user alter column u_id restart with 100");
+        prepared.clear();
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        qr.update(conn, "drop table s_user");
+        DbUtils.close(conn);
+    }
+
+    @Test
+    public void testKeysInRowOrder() throws SQLException {
+        BatchConfiguration config = new BatchConfiguration.Builder().rewriteInserts(true)
+                .maxParametersPerStatement(4).build();
+        List<User> users = new ArrayList<User>();
+        Object[][] params = new Object[5][];
+        for (int i = 0; i < params.length; i++) {
+            User user = new User(null, "user" + i, i % 2 == 0 ? "m" : "f");
+            users.add(user);
+            params[i] = new Object[] { user.getUname(), user.getSex() };
+        }
+        long[] keys = qr.insertBatchForKeys(conn, SQL, params, config, users, "u_id");
+        assertEquals(5, keys.length);
+        // two rows of two parameters per statement, so the fifth row runs alone
+        assertEquals(2, prepared.size());
+        assertTrue(prepared.get(0).contains("), ("));
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i);
+            assertEquals(keys[i], user.getU_id().longValue());
+            Integer id = qr.query(conn, "select u_id from s_user where uname = ?", new ScalarHandler<Integer>(),
+                    user.getUname());
+            assertEquals(id, user.getU_id());
+        }
+    }
+
+    @Test
+    public void testNoRewriteWithoutConfiguration() throws SQLException {
+        long[] keys = qr.insertBatchForKeys(conn, SQL, new Object[][] { { "a", "m" }, { "b", "f" } }, null);
+        assertEquals(2, keys.length);
+        assertEquals(keys[0] + 1, keys[1]);
+        assertEquals(1, prepared.size());
+        assertEquals(SQL, prepared.get(0));
+    }
+
+    @Test
+    public void testMultiRowKeysOnlyWhereKnown() throws SQLException {
+        DatabaseCapabilities h2 = DatabaseCapabilities.of(conn);
+        assertTrue(h2.supportsMultiRowValues());
+        assertTrue(h2.returnsMultiRowKeys());
+        // accepts VALUES lists but isn't known to return every key
+        DatabaseCapabilities other = new DatabaseCapabilities("Microsoft SQL Server", "14", "jdbc", true, true,
+                true);
+        assertTrue(other.supportsMultiRowValues());
+        assertFalse(other.returnsMultiRowKeys());
+    }
+
+}
@@ -0,0 +1,152 @@
+package org.apache.commons.dbutils.test.demo1;
+
+import static org.junit.Assert.assertEquals;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.apache.commons.dbutils.DbUtils;
+import org.apache.commons.dbutils.HandlerRegistry;
+import org.apache.commons.dbutils.QueryRunner;
+import org.apache.commons.dbutils.handlers.ScalarHandler;
+import org.apache.commons.dbutils.handlers.binders.EnumParameterBinder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * <code>QueryRunner</code> binds parameters by the types its databases report, on embedded H2
+ * databases
+ */
+public class ParameterBindingTest {
+
+    private Connection ints;
+
+    private Connection strings;
+
+    /**
+     * The SQL types passed to <code>setNull</code>, in order
+     */
+    private List<Integer> nullTypes = new ArrayList<Integer>();
+
+    /**
+     * The setters called to bind parameters, in order
+     */
+    private List<String> setters = new ArrayList<String>();
+
+    private static final HandlerRegistry NAMES = HandlerRegistry.getDefault().toBuilder()
+            .parameterBinder(new EnumParameterBinder(), 1).build();
+
+    private QueryRunner qr = new QueryRunner();
+
+    private enum Level {
+        ONE, TWO
+    }
+
+    @Before
+    public void setUp() throws SQLException {
+        ints = this.recording(DriverManager.getConnection("jdbc:h2:mem:bindInts"));
+        strings = this.recording(DriverManager.getConnection("jdbc:h2:mem:bindStrings"));
+        qr.update(ints, "create table t (v int)");
+        qr.update(strings, "create table t (v varchar(10))");
+        setters.clear();
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        DbUtils.close(ints);
+        DbUtils.close(strings);
+    }
+
+    /**
+     * Record the types of the nulls bound to the statements of a connection
+     */
+    private Connection recording(final Connection raw) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Connection.class },
+                new InvocationHandler() {
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        final Object result = call(raw, method, args);
+                        if (!(result instanceof PreparedStatement)) {
+                            return result;
+                        }
+                        return Proxy.newProxyInstance(getClass().getClassLoader(),
+                                new Class<?>[] { PreparedStatement.class }, new InvocationHandler() {
+                                    public Object invoke(Object stmt, Method method, Object[] args) throws Throwable {
+                                        if (method.getName().equals("setNull")) {
+                                            nullTypes.add((Integer) args[1]);
+                                        }
+                                        if (method.getName().startsWith("set")) {
+                                            setters.add(method.getName());
+                                        } else if (method.getName().equals("getConnection")) {
+                                            return proxy;
+                                        }
+                                        return call(result, method, args);
+                                    }
+                                });
+                    }
+                });
+    }
+
+    private static Object call(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    @Test
+    public void testBindingPerDatabase() throws SQLException {
+        String sql = "insert into t values (?)";
+        qr.update(ints, sql, (Object) null);
+        qr.update(strings, sql, (Object) null);
+        qr.update(ints, sql, (Object) null);
+        assertEquals(Types.INTEGER, nullTypes.get(0).intValue());
+        // the same SQL on another database, with its own parameter types
+        assertEquals(Types.VARCHAR, nullTypes.get(1).intValue());
+        assertEquals(Types.INTEGER, nullTypes.get(2).intValue());
+    }
+
+    @Test
+    public void testEnumBoundWithSetObject() throws SQLException {
+        // left to the driver, which H2 stores serialized
+        qr.query(ints, "select ? is not null", new ScalarHandler<Boolean>(), Level.ONE);
+        assertEquals(Collections.singletonList("setObject"), setters);
+    }
+
+    @Test
+    public void testRegisteredEnumBinderBindsName() throws SQLException {
+        QueryRunner byName = new QueryRunner() {
+            @Override
+            protected HandlerRegistry getHandlerRegistry() {
+                return NAMES;
+            }
+        };
+        byName.update(strings, "insert into t values (?)", Level.TWO);
+        assertEquals(Collections.singletonList("setString"), setters);
+        assertEquals("TWO", qr.query(strings, "select v from t", new ScalarHandler<String>()));
+    }
+
+    @Test
+    public void testDateBoundAsTimestamp() throws SQLException {
+        qr.update(strings, "create table d (v timestamp)");
+        Date date = new Date(1488240000123L);
+        qr.update(strings, "insert into d values (?)", date);
+        assertEquals(Collections.singletonList("setTimestamp"), setters);
+        Timestamp stored = qr.query(strings, "select v from d", new ScalarHandler<Timestamp>());
+        assertEquals(date.getTime(), stored.getTime());
+    }
+
+}
@@ -0,0 +1,166 @@
+package org.apache.commons.dbutils.test.demo1;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.dbutils.Deadline;
+import org.apache.commons.dbutils.QueryRunner;
+import org.apache.commons.dbutils.handlers.ScalarHandler;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Parallel batches split the rows into partitions, each executed on its own connection, on an
+ * embedded H2 database
+ */
+public class PartitionedBatchTest {
+
+    private static final String SQL = "insert into t (id, v) values (?, ?)";
+
+    private Source ds;
+
+    private QueryRunner qr;
+
+    private ExecutorService executor;
+
+    /**
+     * Counts the connections handed out, the ones handed out under a deadline, and can fail one
+     */
+    private static class Source extends JdbcDataSource {
+
+        private static final long serialVersionUID = 1L;
+
+        final AtomicInteger connections = new AtomicInteger();
+
+        final AtomicInteger underDeadline = new AtomicInteger();
+
+        volatile int failAt = -1;
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            int n = connections.incrementAndGet();
+            if (Deadline.current() != null) {
+                underDeadline.incrementAndGet();
+            }
+            if (n == failAt) {
+                throw new IllegalStateException("no connection " + n);
+            }
+            return super.getConnection();
+        }
+    }
+
+    @Before
+    public void setUp() throws SQLException {
+        ds = new Source();
+        ds.setURL("jdbc:h2:mem:partitionedBatch;DB_CLOSE_DELAY=-1");
+        qr = new QueryRunner(ds);
+        qr.update("create table t (id int primary key, v varchar(10))");
+        ds.connections.set(0);
+        executor = Executors.newFixedThreadPool(3);
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        executor.shutdownNow();
+        qr.update("drop table t");
+    }
+
+    private static Object[][] rows(int from, int count) {
+        Object[][] rows = new Object[count][];
+        for (int i = 0; i < count; i++) {
+            rows[i] = new Object[] { from + i, "v" + (from + i) };
+        }
+        return rows;
+    }
+
+    private long count() throws SQLException {
+        return qr.query("select count(*) from t", new ScalarHandler<Long>());
+    }
+
+    @Test
+    public void testPartitions() throws SQLException {
+        int[] counts = qr.batch(SQL, rows(0, 10), 3, executor, true);
+        int[] expected = new int[10];
+        Arrays.fill(expected, 1);
+        assertArrayEquals(expected, counts);
+        assertEquals(3, ds.connections.get());
+        assertEquals(10, count());
+    }
+
+    @Test
+    public void testFailedPartitionIsRolledBack() throws SQLException {
+        qr.update(SQL, 7, "taken");
+        try {
+            // rows 6 to 8 make the last partition, row 7 is a duplicate
+            qr.batch(SQL, rows(0, 9), 3, executor, true);
+            fail("duplicate key");
+        } catch (BatchUpdateException e) {
+            int[] counts = e.getUpdateCounts();
+            for (int i = 0; i < 9; i++) {
+                assertEquals("row " + i, i < 6 ? 1 : Statement.EXECUTE_FAILED, counts[i]);
+            }
+        }
+        assertEquals(6 + 1, count());
+    }
+
+    @Test
+    public void testUncheckedFailureIsRecorded() throws SQLException {
+        ds.failAt = 2;
+        try {
+            qr.batch(SQL, rows(0, 6), 3, executor, true);
+            fail("no connection");
+        } catch (BatchUpdateException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("1 of 3 partitions"));
+            assertTrue(e.getNextException().getCause() instanceof IllegalStateException);
+        }
+        assertEquals(4, count());
+    }
+
+    @Test
+    public void testDeadlineReachesPartitions() throws SQLException {
+        Deadline deadline = Deadline.start(10000);
+        try {
+            qr.batch(SQL, rows(0, 6), 3, executor, false);
+        } finally {
+            deadline.close();
+        }
+        assertEquals(3, ds.underDeadline.get());
+    }
+
+    @Test
+    public void testDeadlineBoundsWait() throws SQLException {
+        Executor discarding = new Executor() {
+            public void execute(Runnable command) {
+                // dropped, as by a saturated executor with a discard policy
+            }
+        };
+        long start = System.nanoTime();
+        Deadline deadline = Deadline.start(200);
+        try {
+            qr.batch(SQL, rows(0, 6), 3, discarding, false);
+            fail("partitions never ran");
+        } catch (SQLTimeoutException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("3 not finished"));
+        } finally {
+            deadline.close();
+        }
+        assertTrue(System.nanoTime() - start < 5000000000L);
+        assertEquals(0, count());
+    }
+
+}
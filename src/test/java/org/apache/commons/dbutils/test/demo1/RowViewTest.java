@@ -0,0 +1,53 @@
+package org.apache.commons.dbutils.test.demo1;
+
+import static org.junit.Assert.assertEquals;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.apache.commons.dbutils.DbUtils;
+import org.apache.commons.dbutils.RowView;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * <code>RowView</code> finds columns by label like <code>ResultSet.findColumn</code>, on an
+ * embedded H2 database
+ */
+public class RowViewTest {
+
+    private Connection conn;
+
+    private Statement stmt;
+
+    @Before
+    public void setUp() throws SQLException {
+        conn = DriverManager.getConnection("jdbc:h2:mem:rowView");
+        stmt = conn.createStatement();
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        DbUtils.close(stmt);
+        DbUtils.close(conn);
+    }
+
+    @Test
+    public void testExactLabelWins() throws SQLException {
+        ResultSet rs = stmt.executeQuery("select 1 as \"ID\", 2 as \"id\", 3 as \"Name\", 4 as \"NAME\"");
+        RowView row = new RowView(rs);
+        assertEquals(1, row.indexOf("ID"));
+        assertEquals(2, row.indexOf("id"));
+        assertEquals(4, row.indexOf("NAME"));
+        assertEquals(3, row.indexOf("Name"));
+        // no exact label, the first column that matches ignoring case
+        assertEquals(3, row.indexOf("name"));
+        // lower-cased, it is the exact label of the second column
+        assertEquals(2, row.indexOf("Id"));
+    }
+
+}
@@ -0,0 +1,111 @@
+package org.apache.commons.dbutils.test.demo1;
+
+import static org.junit.Assert.assertEquals;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.apache.commons.dbutils.DbUtils;
+import org.apache.commons.dbutils.QueryRunner;
+import org.apache.commons.dbutils.RowHandler;
+import org.apache.commons.dbutils.RowIterator;
+import org.apache.commons.dbutils.StatementCache;
+import org.apache.commons.dbutils.handlers.ScalarHandler;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * <code>QueryRunner</code> reuses the prepared statements of a connection through a
+ * <code>StatementCache</code>, on an embedded H2 database
+ */
+public class StatementCacheTest {
+
+    private Connection conn;
+
+    private StatementCache cache;
+
+    private QueryRunner qr;
+
+    @Before
+    public void setUp() throws SQLException {
+        conn = DriverManager.getConnection("jdbc:h2:mem:statementCache");
+        cache = new StatementCache(2);
+        qr = new QueryRunner(null, false, null, cache);
+        qr.update(conn, "create table t (id int primary key, v varchar(10))");
+        qr.update(conn, "insert into t values (1, 'a'), (2, 'b'), (3, 'c')");
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        DbUtils.close(conn);
+    }
+
+    @Test
+    public void testSameSqlHitsCache() throws SQLException {
+        cache.clear();
+        long misses = cache.getMissCount();
+        long hits = cache.getHitCount();
+        for (int id = 1; id <= 3; id++) {
+            String v = qr.query(conn, "select v from t where id = ?", new ScalarHandler<String>(), id);
+            assertEquals(String.valueOf((char) ('a' + id - 1)), v);
+        }
+        assertEquals(1, cache.getMissCount() - misses);
+        assertEquals(2, cache.getHitCount() - hits);
+    }
+
+    @Test
+    public void testNestedUseGetsOwnStatement() throws SQLException {
+        final String sql = "select id from t where id >= ? order by id";
+        RowHandler<Integer> id = new RowHandler<Integer>() {
+            public Integer handle(ResultSet rs) throws SQLException {
+                return rs.getInt(1);
+            }
+        };
+        RowIterator<Integer> outer = qr.iterate(conn, sql, id, 1);
+        int pairs = 0;
+        try {
+            while (outer.hasNext()) {
+                int from = outer.next();
+                // the outer statement is checked out, so this must not reuse it
+                RowIterator<Integer> inner = qr.iterate(conn, sql, id, from);
+                try {
+                    while (inner.hasNext()) {
+                        inner.next();
+                        pairs++;
+                    }
+                } finally {
+                    inner.close();
+                }
+            }
+        } finally {
+            outer.close();
+        }
+        assertEquals(3 + 2 + 1, pairs);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() throws SQLException {
+        cache.clear();
+        long evictions = cache.getEvictionCount();
+        qr.query(conn, "select v from t where id = 1", new ScalarHandler<String>());
+        qr.query(conn, "select v from t where id = 2", new ScalarHandler<String>());
+        qr.query(conn, "select v from t where id = 3", new ScalarHandler<String>());
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount() - evictions);
+        long hits = cache.getHitCount();
+        qr.query(conn, "select v from t where id = 3", new ScalarHandler<String>());
+        assertEquals(1, cache.getHitCount() - hits);
+    }
+
+    @Test
+    public void testEvictClosesIdleStatements() throws SQLException {
+        qr.query(conn, "select v from t where id = 1", new ScalarHandler<String>());
+        cache.evict(conn);
+        assertEquals(0, cache.size());
+        assertEquals("a", qr.query(conn, "select v from t where id = 1", new ScalarHandler<String>()));
+    }
+
+}
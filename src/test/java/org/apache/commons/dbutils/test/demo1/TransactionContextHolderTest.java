@@ -0,0 +1,163 @@
+package org.apache.commons.dbutils.test.demo1;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.dbutils.ConnectionPool;
+import org.apache.commons.dbutils.JdbcUtils;
+import org.apache.commons.dbutils.QueryRunner;
+import org.apache.commons.dbutils.TransactionContext;
+import org.apache.commons.dbutils.TransactionContextHolder;
+import org.apache.commons.dbutils.TxQueryRunner;
+import org.apache.commons.dbutils.handlers.ScalarHandler;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Each <code>TransactionContextHolder</code> finds the transaction of the running code its own
+ * way: per thread, only within <code>call()</code>, or not at all, on an embedded H2 database
+ */
+public class TransactionContextHolderTest {
+
+    private ConnectionPool pool;
+
+    private ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    private TransactionContextHolder previous;
+
+    @Before
+    public void setUp() throws SQLException {
+        pool = new ConnectionPool.Builder().name("contexts").jdbcUrl("jdbc:h2:mem:contexts;DB_CLOSE_DELAY=-1")
+                .minIdle(0).maxPoolSize(2).connectionTimeoutMillis(200).build();
+        JdbcUtils.setDataSource(pool);
+        previous = JdbcUtils.getContextHolder();
+        new QueryRunner(pool).update("create table t (id int primary key)");
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        executor.shutdownNow();
+        JdbcUtils.setContextHolder(previous);
+        JdbcUtils.setDataSource(null);
+        new QueryRunner(pool).update("drop table t");
+        pool.close();
+    }
+
+    private long count() throws SQLException {
+        return new QueryRunner(pool).query("select count(*) from t", new ScalarHandler<Long>());
+    }
+
+    @Test
+    public void testThreadLocalIsolatesThreads() throws Exception {
+        JdbcUtils.setContextHolder(TransactionContextHolder.threadLocal());
+        JdbcUtils.beginTransaction();
+        try {
+            new TxQueryRunner().update("insert into t values (1)");
+            final TransactionContextHolder holder = JdbcUtils.getContextHolder();
+            assertNotNull(holder.get());
+            // another thread has no transaction, its statement commits on its own
+            Boolean inTransaction = executor.submit(new Callable<Boolean>() {
+                public Boolean call() throws SQLException {
+                    new TxQueryRunner().update("insert into t values (2)");
+                    return Boolean.valueOf(holder.get() != null);
+                }
+            }).get(1, TimeUnit.SECONDS);
+            assertEquals(Boolean.FALSE, inTransaction);
+        } finally {
+            JdbcUtils.rollback();
+        }
+        assertEquals(1, count());
+        // unbound once the transaction ended
+        assertNull(JdbcUtils.getContextHolder().get());
+    }
+
+    @Test
+    public void testExplicitContextAcrossThreads() throws Exception {
+        JdbcUtils.setContextHolder(TransactionContextHolder.explicit());
+        try {
+            JdbcUtils.beginTransaction();
+            fail("no context is bound");
+        } catch (SQLException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("pass a context"));
+        }
+        final TransactionContext context = new TransactionContext();
+        JdbcUtils.beginTransaction(context);
+        try {
+            final Connection conn = context.getConnection();
+            // the work hops to another thread with its context
+            Connection used = executor.submit(new Callable<Connection>() {
+                public Connection call() throws SQLException {
+                    new TxQueryRunner(context).update("insert into t values (1)");
+                    return JdbcUtils.getConnection(context);
+                }
+            }).get(1, TimeUnit.SECONDS);
+            assertSame(conn, used);
+            assertEquals(0, count());
+            JdbcUtils.commitTransaction(context);
+        } catch (Exception e) {
+            JdbcUtils.rollback(context);
+            throw e;
+        }
+        assertTrue(!context.inTransaction());
+        assertEquals(1, count());
+        assertEquals(0, pool.getActiveCount());
+    }
+
+    @Test
+    public void testScopedValuesBindOnlyWithinCall() throws Exception {
+        final TransactionContextHolder holder = TransactionContextHolder.scopedValues();
+        JdbcUtils.setContextHolder(holder);
+        assertNull(holder.get());
+        try {
+            JdbcUtils.beginTransaction();
+            fail("no context is bound outside call()");
+        } catch (SQLException e) {
+            // expected
+        }
+        final TransactionContext context = new TransactionContext();
+        TransactionContext seen = holder.call(context, new Callable<TransactionContext>() {
+            public TransactionContext call() throws SQLException {
+                JdbcUtils.beginTransaction();
+                try {
+                    new TxQueryRunner().update("insert into t values (1)");
+                    JdbcUtils.commitTransaction();
+                } catch (SQLException e) {
+                    JdbcUtils.rollback();
+                    throw e;
+                }
+                return holder.get();
+            }
+        });
+        assertSame(context, seen);
+        assertNull(holder.get());
+        assertEquals(1, count());
+
+        // a new context for every call
+        TransactionContext first = holder.call(new Callable<TransactionContext>() {
+            public TransactionContext call() {
+                return holder.get();
+            }
+        });
+        TransactionContext second = holder.call(new Callable<TransactionContext>() {
+            public TransactionContext call() {
+                return holder.get();
+            }
+        });
+        assertNotNull(first);
+        assertNotSame(first, second);
+    }
+
+}